@@ -0,0 +1,165 @@
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.StringMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A benchmark for matching type names by {@link StringMatcher}s as it is done by an agent that matches any loaded type. Each
+ * benchmark matches a type name that does not match the expected value such that the entire value needs to be compared.
+ * In order to compare the allocation rate of the string matchers to a matching by converting both strings to lower case,
+ * this benchmark should be run with JMH's {@code gc} profiler.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringMatcherBenchmark {
+
+    /**
+     * The name of the type that is matched in all benchmarks.
+     */
+    public static final String TYPE_NAME = "net.bytebuddy.benchmark.specimen.ExampleClass";
+
+    /**
+     * The value that is expected by the matchers of all benchmarks.
+     */
+    public static final String VALUE = "NET.BYTEBUDDY.AGENT";
+
+    /**
+     * A regular expression that is expected by the regular expression matchers of all benchmarks.
+     */
+    public static final String REGULAR_EXPRESSION = "net\\.bytebuddy\\.agent\\..*";
+
+    /**
+     * The name of the type that is matched in all benchmarks.
+     */
+    private String typeName = TYPE_NAME;
+
+    /**
+     * The value that is expected by the matchers of all benchmarks.
+     */
+    private String value = VALUE;
+
+    /**
+     * A regular expression that is expected by the regular expression matchers of all benchmarks.
+     */
+    private String regularExpression = REGULAR_EXPRESSION;
+
+    /**
+     * A matcher for a prefix without considering casing differences.
+     */
+    private ElementMatcher<String> startsWithIgnoreCase = new StringMatcher(VALUE, StringMatcher.Mode.STARTS_WITH_IGNORE_CASE);
+
+    /**
+     * A matcher for a suffix without considering casing differences.
+     */
+    private ElementMatcher<String> endsWithIgnoreCase = new StringMatcher(VALUE, StringMatcher.Mode.ENDS_WITH_IGNORE_CASE);
+
+    /**
+     * A matcher for a contained value without considering casing differences.
+     */
+    private ElementMatcher<String> containsIgnoreCase = new StringMatcher(VALUE, StringMatcher.Mode.CONTAINS_IGNORE_CASE);
+
+    /**
+     * A matcher for a regular expression.
+     */
+    private ElementMatcher<String> matches = new StringMatcher(REGULAR_EXPRESSION, StringMatcher.Mode.MATCHES);
+
+    /**
+     * Returns a non-matched value as a baseline.
+     *
+     * @return {@code false}.
+     */
+    @Benchmark
+    public boolean baseline() {
+        return false;
+    }
+
+    /**
+     * Performs a benchmark for a prefix match by converting both values to lower case.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkStartsWithIgnoreCaseByConversion() {
+        return typeName.toLowerCase().startsWith(value.toLowerCase());
+    }
+
+    /**
+     * Performs a benchmark for a prefix match by a string matcher.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkStartsWithIgnoreCase() {
+        return startsWithIgnoreCase.matches(typeName);
+    }
+
+    /**
+     * Performs a benchmark for a suffix match by converting both values to lower case.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkEndsWithIgnoreCaseByConversion() {
+        return typeName.toLowerCase().endsWith(value.toLowerCase());
+    }
+
+    /**
+     * Performs a benchmark for a suffix match by a string matcher.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkEndsWithIgnoreCase() {
+        return endsWithIgnoreCase.matches(typeName);
+    }
+
+    /**
+     * Performs a benchmark for a containment match by converting both values to lower case.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkContainsIgnoreCaseByConversion() {
+        return typeName.toLowerCase().contains(value.toLowerCase());
+    }
+
+    /**
+     * Performs a benchmark for a containment match by a string matcher.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkContainsIgnoreCase() {
+        return containsIgnoreCase.matches(typeName);
+    }
+
+    /**
+     * Performs a benchmark for a regular expression match by compiling the expression for each match.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkMatchesByCompilation() {
+        return typeName.matches(regularExpression);
+    }
+
+    /**
+     * Performs a benchmark for a regular expression match by a string matcher.
+     *
+     * @return The result of the match, in order to avoid JIT removal.
+     */
+    @Benchmark
+    public boolean benchmarkMatches() {
+        return matches.matches(typeName);
+    }
+}
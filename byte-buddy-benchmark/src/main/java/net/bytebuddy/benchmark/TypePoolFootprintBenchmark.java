@@ -0,0 +1,182 @@
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>
+ * A benchmark for the heap footprint of type descriptions that are cached by a {@link TypePool.Default}. Each benchmark
+ * invocation parses all types of Byte Buddy's code source into a new type pool such that all type descriptions are retained
+ * by the pool's cache and returns the number of bytes that are retained by the type pool per cached type. As a baseline,
+ * the footprint is also measured for a type pool that does not intern the names and descriptors of the parsed types. In
+ * order to compare the number of bytes that are allocated for parsing a type, this benchmark should be run with JMH's
+ * {@code gc} profiler.
+ * </p>
+ * <p>
+ * Note that the retained heap is measured by comparing the used heap before and after filling the type pool while
+ * requesting a garbage collection. The measured time is therefore dominated by the requested garbage collections and the
+ * returned values are only meaningful when this benchmark is not run concurrently to other benchmarks.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TypePoolFootprintBenchmark {
+
+    /**
+     * The number of garbage collections to request before measuring the used heap.
+     */
+    private static final int GARBAGE_COLLECTIONS = 5;
+
+    /**
+     * The file name extension of a Java class file.
+     */
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * The names of the types that are parsed into the type pool of each benchmark invocation.
+     */
+    private List<String> typeNames;
+
+    /**
+     * Collects the names of all types of Byte Buddy's own code source. Byte Buddy's types are used as they are available
+     * on any Java virtual machine and as they constitute a cohesive code base of a realistic size that repeatedly references
+     * the same types and members.
+     *
+     * @throws Exception If the types cannot be collected.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        typeNames = new ArrayList<String>();
+        File location = new File(TypePool.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (location.isDirectory()) {
+            collect(location, location.getAbsolutePath().length() + 1);
+        } else {
+            JarFile jarFile = new JarFile(location);
+            try {
+                Enumeration<JarEntry> enumeration = jarFile.entries();
+                while (enumeration.hasMoreElements()) {
+                    add(enumeration.nextElement().getName());
+                }
+            } finally {
+                jarFile.close();
+            }
+        }
+    }
+
+    /**
+     * Collects the names of all types within a folder of a code source.
+     *
+     * @param folder The folder to traverse.
+     * @param prefix The length of the code source's root path including the trailing separator.
+     */
+    private void collect(File folder, int prefix) {
+        File[] file = folder.listFiles();
+        if (file != null) {
+            for (File aFile : file) {
+                if (aFile.isDirectory()) {
+                    collect(aFile, prefix);
+                } else {
+                    add(aFile.getAbsolutePath().substring(prefix).replace(File.separatorChar, '/'));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the name of a type if the supplied path represents a class file.
+     *
+     * @param path The path of a code source's element with {@code /} as separator.
+     */
+    private void add(String path) {
+        if (path.endsWith(CLASS_FILE_EXTENSION)) {
+            typeNames.add(path.substring(0, path.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.'));
+        }
+    }
+
+    /**
+     * Parses all types into a new type pool and measures the heap that is retained by the type pool.
+     *
+     * @return The number of bytes that are retained by the type pool per cached type.
+     * @throws InterruptedException If the thread is interrupted while waiting for a garbage collection.
+     */
+    @Benchmark
+    public long benchmarkTypePoolFootprint() throws InterruptedException {
+        return measure(new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                ClassFileLocator.ForClassLoader.ofClassPath(),
+                TypePool.Default.ReaderMode.FAST));
+    }
+
+    /**
+     * Parses all types into a new type pool that does not intern names and descriptors and measures the heap that is
+     * retained by the type pool.
+     *
+     * @return The number of bytes that are retained by the type pool per cached type.
+     * @throws InterruptedException If the thread is interrupted while waiting for a garbage collection.
+     */
+    @Benchmark
+    public long benchmarkTypePoolFootprintWithoutInterning() throws InterruptedException {
+        return measure(new NonInterningTypePool());
+    }
+
+    /**
+     * Parses all types into the given type pool and measures the heap that is retained by the type pool.
+     *
+     * @param typePool The type pool to measure.
+     * @return The number of bytes that are retained by the type pool per cached type.
+     * @throws InterruptedException If the thread is interrupted while waiting for a garbage collection.
+     */
+    private long measure(TypePool typePool) throws InterruptedException {
+        long used = usedHeap();
+        for (String typeName : typeNames) {
+            typePool.describe(typeName).resolve().getModifiers();
+        }
+        long retained = usedHeap() - used;
+        typePool.clear();
+        return retained / typeNames.size();
+    }
+
+    /**
+     * Returns the used heap after requesting a garbage collection.
+     *
+     * @return The number of bytes of used heap.
+     * @throws InterruptedException If the thread is interrupted while waiting for a garbage collection.
+     */
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        for (int index = 0; index < GARBAGE_COLLECTIONS; index++) {
+            memoryMXBean.gc();
+            Thread.sleep(100L);
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * A type pool that does not intern the names and descriptors of the types it parses.
+     */
+    protected static class NonInterningTypePool extends TypePool.Default {
+
+        /**
+         * Creates a new type pool that does not intern names and descriptors.
+         */
+        protected NonInterningTypePool() {
+            super(new CacheProvider.Simple(), ClassFileLocator.ForClassLoader.ofClassPath(), ReaderMode.FAST);
+        }
+
+        @Override
+        protected String intern(String value) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.matcher.StringMatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StringMatcherBenchmarkTest {
+
+    private static final String PREFIX = "NET.BYTEBUDDY.BENCHMARK", SUFFIX = "SPECIMEN.EXAMPLECLASS", INFIX = "BENCHMARK.SPECIMEN";
+
+    private static final String MATCHED_REGULAR_EXPRESSION = "net\\.bytebuddy\\.benchmark\\..*";
+
+    private StringMatcherBenchmark stringMatcherBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        stringMatcherBenchmark = new StringMatcherBenchmark();
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        assertThat(stringMatcherBenchmark.baseline(), is(false));
+    }
+
+    @Test
+    public void testStartsWithIgnoreCase() throws Exception {
+        assertThat(stringMatcherBenchmark.benchmarkStartsWithIgnoreCase(), is(stringMatcherBenchmark.benchmarkStartsWithIgnoreCaseByConversion()));
+    }
+
+    @Test
+    public void testEndsWithIgnoreCase() throws Exception {
+        assertThat(stringMatcherBenchmark.benchmarkEndsWithIgnoreCase(), is(stringMatcherBenchmark.benchmarkEndsWithIgnoreCaseByConversion()));
+    }
+
+    @Test
+    public void testContainsIgnoreCase() throws Exception {
+        assertThat(stringMatcherBenchmark.benchmarkContainsIgnoreCase(), is(stringMatcherBenchmark.benchmarkContainsIgnoreCaseByConversion()));
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        assertThat(stringMatcherBenchmark.benchmarkMatches(), is(stringMatcherBenchmark.benchmarkMatchesByCompilation()));
+    }
+
+    @Test
+    public void testEqualIgnoringCase() throws Exception {
+        assertIgnoringCase(StringMatcherBenchmark.TYPE_NAME.toUpperCase(), true, true, true);
+    }
+
+    @Test
+    public void testPrefixIgnoringCase() throws Exception {
+        assertIgnoringCase(PREFIX, true, false, true);
+    }
+
+    @Test
+    public void testSuffixIgnoringCase() throws Exception {
+        assertIgnoringCase(SUFFIX, false, true, true);
+    }
+
+    @Test
+    public void testInfixIgnoringCase() throws Exception {
+        assertIgnoringCase(INFIX, false, false, true);
+    }
+
+    @Test
+    public void testMismatchIgnoringCase() throws Exception {
+        assertIgnoringCase(StringMatcherBenchmark.VALUE, false, false, false);
+    }
+
+    @Test
+    public void testValueLongerThanTypeNameIgnoringCase() throws Exception {
+        assertIgnoringCase(StringMatcherBenchmark.TYPE_NAME.toUpperCase() + SUFFIX, false, false, false);
+    }
+
+    @Test
+    public void testRegularExpressionMatch() throws Exception {
+        assertThat(new StringMatcher(MATCHED_REGULAR_EXPRESSION, StringMatcher.Mode.MATCHES).matches(StringMatcherBenchmark.TYPE_NAME), is(true));
+        assertThat(StringMatcherBenchmark.TYPE_NAME.matches(MATCHED_REGULAR_EXPRESSION), is(true));
+    }
+
+    @Test
+    public void testRegularExpressionMismatch() throws Exception {
+        assertThat(new StringMatcher(StringMatcherBenchmark.REGULAR_EXPRESSION, StringMatcher.Mode.MATCHES).matches(StringMatcherBenchmark.TYPE_NAME), is(false));
+        assertThat(StringMatcherBenchmark.TYPE_NAME.matches(StringMatcherBenchmark.REGULAR_EXPRESSION), is(false));
+    }
+
+    private static void assertIgnoringCase(String value, boolean startsWith, boolean endsWith, boolean contains) {
+        String typeName = StringMatcherBenchmark.TYPE_NAME;
+        assertThat(new StringMatcher(value, StringMatcher.Mode.STARTS_WITH_IGNORE_CASE).matches(typeName), is(startsWith));
+        assertThat(typeName.toLowerCase().startsWith(value.toLowerCase()), is(startsWith));
+        assertThat(new StringMatcher(value, StringMatcher.Mode.ENDS_WITH_IGNORE_CASE).matches(typeName), is(endsWith));
+        assertThat(typeName.toLowerCase().endsWith(value.toLowerCase()), is(endsWith));
+        assertThat(new StringMatcher(value, StringMatcher.Mode.CONTAINS_IGNORE_CASE).matches(typeName), is(contains));
+        assertThat(typeName.toLowerCase().contains(value.toLowerCase()), is(contains));
+    }
+}
@@ -0,0 +1,26 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolFootprintBenchmarkTest {
+
+    private TypePoolFootprintBenchmark typePoolFootprintBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        typePoolFootprintBenchmark = new TypePoolFootprintBenchmark();
+        typePoolFootprintBenchmark.setUp();
+    }
+
+    @Test
+    public void testTypePoolFootprint() throws Exception {
+        long baseline = typePoolFootprintBenchmark.benchmarkTypePoolFootprintWithoutInterning();
+        long footprint = typePoolFootprintBenchmark.benchmarkTypePoolFootprint();
+        assertThat(footprint > 0L, is(true));
+        assertThat(footprint < baseline, is(true));
+    }
+}
@@ -3,6 +3,10 @@ package net.bytebuddy;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.utility.RandomString;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * <p>
  * A naming strategy for determining a fully qualified name for a dynamically created Java type.
@@ -316,6 +320,164 @@ public interface NamingStrategy {
         }
     }
 
+    /**
+     * <p>
+     * A naming strategy that creates a name by concatenating:
+     * <ol>
+     * <li>The super classes package and name</li>
+     * <li>A given suffix string</li>
+     * <li>A hexadecimal hash value of the base name, the suffix and the generic super type, including its type arguments</li>
+     * </ol>
+     * Other than {@link net.bytebuddy.NamingStrategy.SuffixingRandom}, this naming strategy creates reproducible names that
+     * do not depend on the order in which types are created. Types that subclass classes from the {@code java.**} packages
+     * are moved into a given package as described for the random naming strategy.
+     * </p>
+     * <p>
+     * If a name was already issued to another type by the same naming strategy instance, a counter is appended to the name.
+     * Only the names of types that subclass the same generic super type therefore depend on the order of their creation. A
+     * name is considered issued once it is returned, even if the named type is never created. Separate instances of this
+     * naming strategy issue identical names for identical super types. Types that are loaded by the same class loader should
+     * therefore be named by a single instance.
+     * </p>
+     */
+    class SuffixingHash extends AbstractBase {
+
+        /**
+         * The package prefix of the {@code java.*} packages for which the definition of
+         * non-bootstrap types is illegal.
+         */
+        private static final String JAVA_PACKAGE = "java.";
+
+        /**
+         * The suffix to attach to a super type name.
+         */
+        private final String suffix;
+
+        /**
+         * The renaming location for types of the {@link net.bytebuddy.NamingStrategy.SuffixingHash#JAVA_PACKAGE}.
+         */
+        private final String javaLangPackagePrefix;
+
+        /**
+         * A resolver for the base name for naming the unnamed type.
+         */
+        private final SuffixingRandom.BaseNameResolver baseNameResolver;
+
+        /**
+         * The registry of names issued by this instance.
+         */
+        private final Registry registry;
+
+        /**
+         * Creates an immutable naming strategy with a given suffix but moves types that subclass types within
+         * the {@code java.lang} package into Byte Buddy's package namespace. All names are derived from the
+         * unnamed type's super type.
+         *
+         * @param suffix The suffix for the generated class.
+         */
+        public SuffixingHash(String suffix) {
+            this(suffix, SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE, SuffixingRandom.BYTE_BUDDY_RENAME_PACKAGE);
+        }
+
+        /**
+         * Creates an immutable naming strategy with a given suffix but moves types that subclass types within
+         * the {@code java.lang} package into a given namespace.
+         *
+         * @param suffix                The suffix for the generated class.
+         * @param baseNameResolver      The base name resolver that is queried for locating the base name.
+         * @param javaLangPackagePrefix The fallback namespace for type's that subclass types within the
+         *                              {@code java.*} namespace. If The prefix is set to the empty string,
+         *                              no prefix is added.
+         */
+        public SuffixingHash(String suffix, SuffixingRandom.BaseNameResolver baseNameResolver, String javaLangPackagePrefix) {
+            this.suffix = suffix;
+            this.baseNameResolver = baseNameResolver;
+            this.javaLangPackagePrefix = javaLangPackagePrefix;
+            registry = new Registry();
+        }
+
+        @Override
+        public String subclass(TypeDescription.Generic superClass) {
+            String baseName = baseNameResolver.resolve(superClass.asErasure());
+            if (baseName.startsWith(JAVA_PACKAGE) && !javaLangPackagePrefix.equals("")) {
+                baseName = javaLangPackagePrefix + "." + baseName;
+            }
+            return registry.register(String.format("%s$%s$%08x", baseName, suffix, (baseName + "$" + suffix + "$" + superClass.getTypeName()).hashCode()));
+        }
+
+        @Override
+        protected String name(TypeDescription superClass) {
+            return subclass(superClass.asGenericType());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            SuffixingHash that = (SuffixingHash) other;
+            return javaLangPackagePrefix.equals(that.javaLangPackagePrefix)
+                    && suffix.equals(that.suffix)
+                    && baseNameResolver.equals(that.baseNameResolver);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = suffix.hashCode();
+            result = 31 * result + javaLangPackagePrefix.hashCode();
+            result = 31 * result + baseNameResolver.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "NamingStrategy.SuffixingHash{" +
+                    "suffix='" + suffix + '\'' +
+                    ", javaLangPackagePrefix='" + javaLangPackagePrefix + '\'' +
+                    ", baseNameResolver=" + baseNameResolver +
+                    ", registry=" + registry +
+                    '}';
+        }
+
+        /**
+         * A registry of names that were issued by a hash-based naming strategy. A name that was already issued is made unique
+         * by appending a counter.
+         */
+        public static class Registry {
+
+            /**
+             * A mapping of issued names to the number of times they were requested beyond their first issue.
+             */
+            private final ConcurrentMap<String, AtomicInteger> names;
+
+            /**
+             * Creates a new, empty registry.
+             */
+            public Registry() {
+                names = new ConcurrentHashMap<String, AtomicInteger>();
+            }
+
+            /**
+             * Registers a name and returns it if it was not issued before. Otherwise, a counter is appended to the name.
+             *
+             * @param name The name to register.
+             * @return A name that was not issued by this registry before.
+             */
+            public String register(String name) {
+                AtomicInteger counter = names.putIfAbsent(name, new AtomicInteger());
+                return counter == null
+                        ? name
+                        : name + "$" + counter.incrementAndGet();
+            }
+
+            @Override
+            public String toString() {
+                return "NamingStrategy.SuffixingHash.Registry{" +
+                        "names=" + names.size() +
+                        '}';
+            }
+        }
+    }
+
     /**
      * A naming strategy that creates a name by prefixing a given class and its package with another package and
      * by appending a random number to the class's simple name.
@@ -0,0 +1,443 @@
+package net.bytebuddy;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * A cache for storing types without strongly referencing any class loader or type. Types are stored per class loader
+ * and are looked up by a key that identifies the type's structural configuration, for example by a {@link SimpleKey}
+ * that represents the super type and interfaces of a generated type.
+ * </p>
+ * <p>
+ * <b>Note</b>: The cache only references class loaders weakly. Entries of class loaders that are garbage collected are
+ * removed when calling {@link TypeCache#expungeStaleEntries()} which is done implicitly by
+ * {@link TypeCache.WithInlineExpunction} on any lookup. Types are referenced weakly or softly depending on the cache's
+ * {@link Sort} such that a type can be garbage collected if it is no longer used. If an instance of this cache references
+ * a class loader that loads a type with a strong reference to the cache, class loaders can however never be collected.
+ * </p>
+ * <p>
+ * <b>Important</b>: Finding and inserting types are lock-free operations. When a type is created by
+ * {@link TypeCache#findOrInsert(ClassLoader, Object, Callable)}, a lock on the cache instance is acquired only if the
+ * type is not found such that a type is created only once even if several threads request it concurrently. A more
+ * fine-grained monitor can be supplied by {@link TypeCache#findOrInsert(ClassLoader, Object, Callable, Object)}.
+ * </p>
+ *
+ * @param <T> The type of the key that is used for identifying stored classes per class loader.
+ */
+public class TypeCache<T> extends ReferenceQueue<ClassLoader> {
+
+    /**
+     * Indicates that a type was not found.
+     */
+    private static final Class<?> NOT_FOUND = null;
+
+    /**
+     * The reference type to use for stored types.
+     */
+    protected final Sort sort;
+
+    /**
+     * The underlying map containing cached objects.
+     */
+    protected final ConcurrentMap<StorageKey, ConcurrentMap<T, Reference<Class<?>>>> cache;
+
+    /**
+     * Creates a new type cache.
+     *
+     * @param sort The reference type to use for stored types.
+     */
+    public TypeCache(Sort sort) {
+        this.sort = sort;
+        cache = new ConcurrentHashMap<StorageKey, ConcurrentMap<T, Reference<Class<?>>>>();
+    }
+
+    /**
+     * Finds a stored type or returns {@code null} if no type was stored.
+     *
+     * @param classLoader The class loader for which this type is stored or {@code null} for the bootstrap class loader.
+     * @param key         The key for the type in question.
+     * @return The stored type or {@code null} if no type was stored.
+     */
+    public Class<?> find(ClassLoader classLoader, T key) {
+        ConcurrentMap<T, Reference<Class<?>>> storage = cache.get(new LookupKey(classLoader));
+        if (storage == null) {
+            return NOT_FOUND;
+        } else {
+            Reference<Class<?>> reference = storage.get(key);
+            return reference == null
+                    ? NOT_FOUND
+                    : reference.get();
+        }
+    }
+
+    /**
+     * Inserts a new type into the cache. If a type with the same class loader and key was inserted previously, the cache
+     * is not updated.
+     *
+     * @param classLoader The class loader for which this type is stored or {@code null} for the bootstrap class loader.
+     * @param key         The key for the type in question.
+     * @param type        The type to insert if no previous type was stored in the cache.
+     * @return The supplied type or a previously submitted type for the same class loader and key combination.
+     */
+    public Class<?> insert(ClassLoader classLoader, T key, Class<?> type) {
+        ConcurrentMap<T, Reference<Class<?>>> storage = cache.get(new LookupKey(classLoader));
+        if (storage == null) {
+            storage = new ConcurrentHashMap<T, Reference<Class<?>>>();
+            ConcurrentMap<T, Reference<Class<?>>> previous = cache.putIfAbsent(new StorageKey(classLoader, this), storage);
+            if (previous != null) {
+                storage = previous;
+            }
+        }
+        Reference<Class<?>> reference = sort.wrap(type), previous = storage.putIfAbsent(key, reference);
+        while (previous != null) {
+            Class<?> previousType = previous.get();
+            if (previousType != null) {
+                return previousType;
+            }
+            storage.remove(key, previous);
+            previous = storage.putIfAbsent(key, reference);
+        }
+        return type;
+    }
+
+    /**
+     * Finds an existing type or inserts a new one if the previous type was not found. The lookup is synchronized on
+     * this cache such that the supplied callable is invoked at most once for any class loader and key combination
+     * as long as the created type is not collected.
+     *
+     * @param classLoader The class loader for which this type is stored or {@code null} for the bootstrap class loader.
+     * @param key         The key for the type in question.
+     * @param lazy        A lazy creator for the type to insert if no previous type was stored in the cache.
+     * @return The lazily created type or a previously submitted type for the same class loader and key combination.
+     */
+    public Class<?> findOrInsert(ClassLoader classLoader, T key, Callable<Class<?>> lazy) {
+        return findOrInsert(classLoader, key, lazy, this);
+    }
+
+    /**
+     * Finds an existing type or inserts a new one if the previous type was not found. If no type is found, the
+     * supplied monitor is locked before the cache is queried again such that the supplied callable is invoked
+     * at most once for any class loader and key combination that share the same monitor.
+     *
+     * @param classLoader The class loader for which this type is stored or {@code null} for the bootstrap class loader.
+     * @param key         The key for the type in question.
+     * @param lazy        A lazy creator for the type to insert if no previous type was stored in the cache.
+     * @param monitor     A monitor to lock before creating the lazy type.
+     * @return The lazily created type or a previously submitted type for the same class loader and key combination.
+     */
+    public Class<?> findOrInsert(ClassLoader classLoader, T key, Callable<Class<?>> lazy, Object monitor) {
+        Class<?> type = find(classLoader, key);
+        if (type != null) {
+            return type;
+        }
+        synchronized (monitor) {
+            type = find(classLoader, key);
+            if (type != null) {
+                return type;
+            }
+            try {
+                return insert(classLoader, key, lazy.call());
+            } catch (RuntimeException exception) {
+                throw exception;
+            } catch (Error error) {
+                throw error;
+            } catch (Exception exception) {
+                throw new IllegalArgumentException("Could not create type", exception);
+            }
+        }
+    }
+
+    /**
+     * Removes any stale class loader entries from the cache.
+     */
+    public void expungeStaleEntries() {
+        Reference<?> reference;
+        while ((reference = poll()) != null) {
+            cache.remove(reference);
+        }
+    }
+
+    /**
+     * Clears the entire cache.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "TypeCache{" +
+                "sort=" + sort +
+                ", cache=" + cache +
+                '}';
+    }
+
+    /**
+     * Determines the storage format for a cached type.
+     */
+    public enum Sort {
+
+        /**
+         * Creates a cache where cached types are wrapped by {@link WeakReference}s.
+         */
+        WEAK {
+            @Override
+            protected Reference<Class<?>> wrap(Class<?> type) {
+                return new WeakReference<Class<?>>(type);
+            }
+        },
+
+        /**
+         * Creates a cache where cached types are wrapped by {@link SoftReference}s.
+         */
+        SOFT {
+            @Override
+            protected Reference<Class<?>> wrap(Class<?> type) {
+                return new SoftReference<Class<?>>(type);
+            }
+        };
+
+        /**
+         * Wraps a type as a {@link Reference}.
+         *
+         * @param type The type to wrap.
+         * @return The reference that represents the type.
+         */
+        protected abstract Reference<Class<?>> wrap(Class<?> type);
+
+        @Override
+        public String toString() {
+            return "TypeCache.Sort." + name();
+        }
+    }
+
+    /**
+     * A key used for looking up a previously inserted class loader cache.
+     */
+    protected static class LookupKey {
+
+        /**
+         * The referenced class loader or {@code null} for the bootstrap class loader.
+         */
+        private final ClassLoader classLoader;
+
+        /**
+         * The class loader's identity hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Creates a new lookup key.
+         *
+         * @param classLoader The represented class loader or {@code null} for the bootstrap class loader.
+         */
+        protected LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other instanceof LookupKey) {
+                return classLoader == ((LookupKey) other).classLoader;
+            } else if (other instanceof StorageKey) {
+                StorageKey storageKey = (StorageKey) other;
+                return hashCode == storageKey.hashCode && classLoader == storageKey.get();
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "TypeCache.LookupKey{" +
+                    "classLoader=" + classLoader +
+                    ", hashCode=" + hashCode +
+                    '}';
+        }
+    }
+
+    /**
+     * A key used for storing a class loader cache reference. The class loader is only referenced weakly such that
+     * the key is enqueued in the type cache once the class loader is collected.
+     */
+    protected static class StorageKey extends WeakReference<ClassLoader> {
+
+        /**
+         * The class loader's identity hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Creates a new storage key.
+         *
+         * @param classLoader    The represented class loader or {@code null} for the bootstrap class loader.
+         * @param referenceQueue The reference queue to notify upon a garbage collection.
+         */
+        protected StorageKey(ClassLoader classLoader, ReferenceQueue<? super ClassLoader> referenceQueue) {
+            super(classLoader, referenceQueue);
+            hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other instanceof LookupKey) {
+                LookupKey lookupKey = (LookupKey) other;
+                return hashCode == lookupKey.hashCode && get() == lookupKey.classLoader;
+            } else if (other instanceof StorageKey) {
+                StorageKey storageKey = (StorageKey) other;
+                return hashCode == storageKey.hashCode && get() == storageKey.get();
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "TypeCache.StorageKey{" +
+                    "classLoader=" + get() +
+                    ", hashCode=" + hashCode +
+                    '}';
+        }
+    }
+
+    /**
+     * An implementation of a {@link TypeCache} where obsolete references are cleared upon any call.
+     *
+     * @param <S> The type of the key that is used for identifying stored classes per class loader.
+     */
+    public static class WithInlineExpunction<S> extends TypeCache<S> {
+
+        /**
+         * Creates a new type cache with inline expunction.
+         *
+         * @param sort The reference type to use for stored types.
+         */
+        public WithInlineExpunction(Sort sort) {
+            super(sort);
+        }
+
+        @Override
+        public Class<?> find(ClassLoader classLoader, S key) {
+            try {
+                return super.find(classLoader, key);
+            } finally {
+                expungeStaleEntries();
+            }
+        }
+
+        @Override
+        public Class<?> insert(ClassLoader classLoader, S key, Class<?> type) {
+            try {
+                return super.insert(classLoader, key, type);
+            } finally {
+                expungeStaleEntries();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TypeCache.WithInlineExpunction{" +
+                    "sort=" + sort +
+                    ", cache=" + cache +
+                    '}';
+        }
+    }
+
+    /**
+     * A simple key based on a collection of types where no type is strongly referenced. The key represents a generated
+     * type's super type and its implemented interfaces where the order of interfaces is irrelevant. Two keys are only
+     * equal if they represent the same types. If a generated type also depends on an implementation, the implementation's
+     * identity should be represented by using a key type that additionally includes it or by using different caches.
+     */
+    public static class SimpleKey {
+
+        /**
+         * The referenced types.
+         */
+        private final Set<String> types;
+
+        /**
+         * Creates a simple cache key.
+         *
+         * @param type           The first type to be represented by this key.
+         * @param additionalType Any additional types to be represented by this key.
+         */
+        public SimpleKey(Class<?> type, Class<?>... additionalType) {
+            this(type, Arrays.asList(additionalType));
+        }
+
+        /**
+         * Creates a simple cache key.
+         *
+         * @param type            The first type to be represented by this key.
+         * @param additionalTypes Any additional types to be represented by this key.
+         */
+        public SimpleKey(Class<?> type, Collection<? extends Class<?>> additionalTypes) {
+            this(join(type, additionalTypes));
+        }
+
+        /**
+         * Creates a simple cache key.
+         *
+         * @param types Any types to be represented by this key.
+         */
+        public SimpleKey(Collection<? extends Class<?>> types) {
+            this.types = new HashSet<String>();
+            for (Class<?> type : types) {
+                this.types.add(type.getName());
+            }
+        }
+
+        /**
+         * Joins a type with a collection of additional types.
+         *
+         * @param type            The first type.
+         * @param additionalTypes The additional types.
+         * @return A list of all types.
+         */
+        private static List<Class<?>> join(Class<?> type, Collection<? extends Class<?>> additionalTypes) {
+            List<Class<?>> types = new ArrayList<Class<?>>(additionalTypes.size() + 1);
+            types.add(type);
+            types.addAll(additionalTypes);
+            return types;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || !(other == null || getClass() != other.getClass())
+                    && types.equals(((SimpleKey) other).types);
+        }
+
+        @Override
+        public int hashCode() {
+            return types.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "TypeCache.SimpleKey{" +
+                    "types=" + types +
+                    '}';
+        }
+    }
+}
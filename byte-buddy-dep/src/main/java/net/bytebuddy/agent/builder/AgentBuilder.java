@@ -32,6 +32,7 @@ import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
 import net.bytebuddy.implementation.bytecode.member.MethodReturn;
 import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
 import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.NameIndex;
 import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.utility.JavaInstance;
 import org.objectweb.asm.Label;
@@ -45,12 +46,21 @@ import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.ProtectionDomain;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static net.bytebuddy.matcher.ElementMatchers.*;
@@ -200,6 +210,24 @@ public interface AgentBuilder {
      */
     AgentBuilder with(RedefinitionStrategy redefinitionStrategy);
 
+    /**
+     * Specifies a strategy for matching already loaded types against this agent's transformations when a
+     * {@link RedefinitionStrategy} is applied upon installing the agent.
+     *
+     * @param matchingStrategy The matching strategy to apply.
+     * @return A new instance of this agent builder that applies the given matching strategy.
+     */
+    AgentBuilder with(RedefinitionStrategy.MatchingStrategy matchingStrategy);
+
+    /**
+     * Specifies a strategy for batching the retransformation of already loaded types when
+     * {@link RedefinitionStrategy#RETRANSFORMATION} is applied upon installing the agent.
+     *
+     * @param batchStrategy The batch strategy to apply.
+     * @return A new instance of this agent builder that applies the given batch strategy.
+     */
+    AgentBuilder with(RedefinitionStrategy.BatchStrategy batchStrategy);
+
     /**
      * <p>
      * Enables or disables management of the JVM's {@code LambdaMetafactory} which is responsible for creating classes that
@@ -502,7 +530,7 @@ public interface AgentBuilder {
         /**
          * A conjunction of two raw matchers.
          */
-        class Conjunction implements RawMatcher {
+        class Conjunction implements RawMatcher, NameIndex.Indexable {
 
             /**
              * The left matcher which is applied first.
@@ -530,6 +558,11 @@ public interface AgentBuilder {
                 return left.matches(typeDescription, classLoader, classBeingRedefined, protectionDomain) && right.matches(typeDescription, classLoader, classBeingRedefined, protectionDomain);
             }
 
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.ofConjunction(left, right);
+            }
+
             @Override
             public boolean equals(Object object) {
                 if (this == object) return true;
@@ -557,7 +590,7 @@ public interface AgentBuilder {
         /**
          * A disjunction of two raw matchers.
          */
-        class Disjunction implements RawMatcher {
+        class Disjunction implements RawMatcher, NameIndex.Indexable {
 
             /**
              * The left matcher which is applied first.
@@ -585,6 +618,11 @@ public interface AgentBuilder {
                 return left.matches(typeDescription, classLoader, classBeingRedefined, protectionDomain) || right.matches(typeDescription, classLoader, classBeingRedefined, protectionDomain);
             }
 
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.ofDisjunction(left, right);
+            }
+
             @Override
             public boolean equals(Object object) {
                 if (this == object) return true;
@@ -614,7 +652,7 @@ public interface AgentBuilder {
          * and its {@link java.lang.ClassLoader} against two suitable matchers in order to determine if the matched
          * type should be instrumented.
          */
-        class ForElementMatcherPair implements RawMatcher {
+        class ForElementMatcherPair implements RawMatcher, NameIndex.Indexable {
 
             /**
              * The type matcher to apply to a {@link TypeDescription}.
@@ -649,6 +687,11 @@ public interface AgentBuilder {
                 return classLoaderMatcher.matches(classLoader) && typeMatcher.matches(typeDescription);
             }
 
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.of(typeMatcher);
+            }
+
             @Override
             public boolean equals(Object other) {
                 return this == other || !(other == null || getClass() != other.getClass())
@@ -671,6 +714,238 @@ public interface AgentBuilder {
                         '}';
             }
         }
+
+        /**
+         * <p>
+         * A raw matcher that memoizes the results of another raw matcher per class loader and type name. The class loaders are
+         * referenced weakly such that the results of a class loader's types are discarded once the class loader is collected.
+         * This way, a type that is retransformed repeatedly is only matched once, what avoids the repeated traversal of its
+         * type hierarchy by matchers such as {@link net.bytebuddy.matcher.ElementMatchers#isSubTypeOf(Class)}. The results
+         * are held in concurrent maps such that concurrent lookups do not contend on a shared lock. If a type is matched
+         * concurrently, the wrapped matcher might be applied more than once but only the first result is retained.
+         * </p>
+         * <p>
+         * <b>Important</b>: A memoizing raw matcher must only wrap raw matchers of which the result does not depend on anything
+         * but the matched type and its class loader. In particular, the matched type's protection domain and the fact of the
+         * type being redefined are not considered by the memoized results. If the result of a matcher changes, for example
+         * because its configuration is reloaded, the memoized results need to be discarded by any of the {@code clear} methods.
+         * </p>
+         */
+        class Memoizing extends ReferenceQueue<ClassLoader> implements RawMatcher, NameIndex.Indexable {
+
+            /**
+             * The raw matcher of which the results are memoized.
+             */
+            private final RawMatcher matcher;
+
+            /**
+             * A map of the memoized results by type name by their class loader where the class loaders are referenced weakly.
+             */
+            private final ConcurrentMap<StorageKey, ConcurrentMap<String, Boolean>> results;
+
+            /**
+             * Creates a new memoizing raw matcher.
+             *
+             * @param matcher The raw matcher of which the results are memoized.
+             */
+            public Memoizing(RawMatcher matcher) {
+                this.matcher = matcher;
+                results = new ConcurrentHashMap<StorageKey, ConcurrentMap<String, Boolean>>();
+            }
+
+            @Override
+            public boolean matches(TypeDescription typeDescription,
+                                   ClassLoader classLoader,
+                                   Class<?> classBeingRedefined,
+                                   ProtectionDomain protectionDomain) {
+                expungeStaleEntries();
+                String name = typeDescription.getName();
+                ConcurrentMap<String, Boolean> typeResults = results.get(new LookupKey(classLoader));
+                if (typeResults == null) {
+                    typeResults = new ConcurrentHashMap<String, Boolean>();
+                    ConcurrentMap<String, Boolean> previous = results.putIfAbsent(new StorageKey(classLoader, this), typeResults);
+                    if (previous != null) {
+                        typeResults = previous;
+                    }
+                } else {
+                    Boolean result = typeResults.get(name);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                boolean result = matcher.matches(typeDescription, classLoader, classBeingRedefined, protectionDomain);
+                Boolean previous = typeResults.putIfAbsent(name, result);
+                return previous == null
+                        ? result
+                        : previous;
+            }
+
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.of(matcher);
+            }
+
+            /**
+             * Discards the memoized result of the given type.
+             *
+             * @param classLoader The class loader of the type or {@code null} for the bootstrap class loader.
+             * @param name        The binary name of the type.
+             */
+            public void clear(ClassLoader classLoader, String name) {
+                ConcurrentMap<String, Boolean> typeResults = results.get(new LookupKey(classLoader));
+                if (typeResults != null) {
+                    typeResults.remove(name);
+                }
+            }
+
+            /**
+             * Discards the memoized results of all types of the given class loader.
+             *
+             * @param classLoader The class loader for which to discard the results or {@code null} for the bootstrap class loader.
+             */
+            public void clear(ClassLoader classLoader) {
+                results.remove(new LookupKey(classLoader));
+            }
+
+            /**
+             * Discards the memoized results of all class loaders.
+             */
+            public void clear() {
+                results.clear();
+            }
+
+            /**
+             * Removes the memoized results of any class loader that was garbage collected.
+             */
+            public void expungeStaleEntries() {
+                Reference<?> reference;
+                while ((reference = poll()) != null) {
+                    results.remove(reference);
+                }
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && matcher.equals(((Memoizing) other).matcher)
+                        && results == ((Memoizing) other).results;
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * matcher.hashCode() + System.identityHashCode(results);
+            }
+
+            @Override
+            public String toString() {
+                return "AgentBuilder.RawMatcher.Memoizing{" +
+                        "matcher=" + matcher +
+                        ", results=" + results +
+                        '}';
+            }
+
+            /**
+             * A key used for looking up the memoized results of a class loader.
+             */
+            protected static class LookupKey {
+
+                /**
+                 * The referenced class loader or {@code null} for the bootstrap class loader.
+                 */
+                private final ClassLoader classLoader;
+
+                /**
+                 * The class loader's identity hash code.
+                 */
+                private final int hashCode;
+
+                /**
+                 * Creates a new lookup key.
+                 *
+                 * @param classLoader The represented class loader or {@code null} for the bootstrap class loader.
+                 */
+                protected LookupKey(ClassLoader classLoader) {
+                    this.classLoader = classLoader;
+                    hashCode = System.identityHashCode(classLoader);
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other instanceof LookupKey) {
+                        return classLoader == ((LookupKey) other).classLoader;
+                    } else if (other instanceof StorageKey) {
+                        StorageKey storageKey = (StorageKey) other;
+                        return hashCode == storageKey.hashCode && classLoader == storageKey.get();
+                    } else {
+                        return false;
+                    }
+                }
+
+                @Override
+                public int hashCode() {
+                    return hashCode;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RawMatcher.Memoizing.LookupKey{" +
+                            "classLoader=" + classLoader +
+                            ", hashCode=" + hashCode +
+                            '}';
+                }
+            }
+
+            /**
+             * A key used for storing the memoized results of a class loader. The class loader is only referenced weakly such
+             * that the key is enqueued in the memoizing matcher once the class loader is collected.
+             */
+            protected static class StorageKey extends WeakReference<ClassLoader> {
+
+                /**
+                 * The class loader's identity hash code.
+                 */
+                private final int hashCode;
+
+                /**
+                 * Creates a new storage key.
+                 *
+                 * @param classLoader    The represented class loader or {@code null} for the bootstrap class loader.
+                 * @param referenceQueue The reference queue to notify upon a garbage collection.
+                 */
+                protected StorageKey(ClassLoader classLoader, ReferenceQueue<? super ClassLoader> referenceQueue) {
+                    super(classLoader, referenceQueue);
+                    hashCode = System.identityHashCode(classLoader);
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other instanceof LookupKey) {
+                        LookupKey lookupKey = (LookupKey) other;
+                        return hashCode == lookupKey.hashCode && get() == lookupKey.classLoader;
+                    } else if (other instanceof StorageKey) {
+                        StorageKey storageKey = (StorageKey) other;
+                        return hashCode == storageKey.hashCode && get() == storageKey.get();
+                    } else {
+                        return false;
+                    }
+                }
+
+                @Override
+                public int hashCode() {
+                    return hashCode;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RawMatcher.Memoizing.StorageKey{" +
+                            "classLoader=" + get() +
+                            ", hashCode=" + hashCode +
+                            '}';
+                }
+            }
+        }
     }
 
     /**
@@ -848,6 +1123,16 @@ public interface AgentBuilder {
          */
         TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader);
 
+        /**
+         * Creates a type pool for a given class file locator that is used for describing the instrumented type of the given name.
+         *
+         * @param classFileLocator The class file locator to use which is able to locate the binary representation of the instrumented type.
+         * @param classLoader      The class loader for which the class file locator was created.
+         * @param name             The binary name of the instrumented type.
+         * @return A type pool for the supplied class file locator.
+         */
+        TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader, String name);
+
         /**
          * A default implementation of a {@link net.bytebuddy.agent.builder.AgentBuilder.BinaryLocator} that
          * is using a {@link net.bytebuddy.pool.TypePool.Default} with a
@@ -896,6 +1181,11 @@ public interface AgentBuilder {
                 return new TypePool.LazyFacade(TypePool.Default.Precomputed.withObjectType(new TypePool.CacheProvider.Simple(), classFileLocator, readerMode));
             }
 
+            @Override
+            public TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader, String name) {
+                return typePool(classFileLocator, classLoader);
+            }
+
             @Override
             public String toString() {
                 return "AgentBuilder.BinaryLocator.Default." + name();
@@ -903,112 +1193,358 @@ public interface AgentBuilder {
         }
 
         /**
-         * <p>
-         * A binary locator that loads referenced classes instead of describing unloaded versions.
-         * </p>
-         * <p>
-         * <b>Important</b>: It is important to never query this binary locator for the currently instrumented type as this will yield a class
-         * loading circularity which aborts any instrumentation with an error.
-         * </p>
-         * <p>
-         * <b>Warning</b>: Warning, this binary locator <i>cannot be used for applying a redefinition</i> as it works on loaded classes only and
-         * is agnostic of any way to locate a class file.
-         * </p>
+         * A binary locator that shares a type pool cache among all transformations of a class loader such that common types
+         * are only parsed once. Other than for {@link Default}, a type description that is cached by this binary locator is
+         * reused for any subsequent transformation. The instrumented type is however always described from the binary
+         * representation that is supplied to a transformation and is never registered in the shared cache as this binary
+         * representation might differ from the class file that the class loader provides, for example if the type is
+         * retransformed or if it was altered by another agent. Also, types that cannot be resolved are not retained in the
+         * shared cache as they might become available later.
          */
-        enum ClassLoading implements BinaryLocator {
+        abstract class WithTypePoolCache implements BinaryLocator {
 
             /**
-             * The singleton instance.
+             * The reader mode to apply by this binary locator.
              */
-            INSTANCE;
+            protected final TypePool.Default.ReaderMode readerMode;
+
+            /**
+             * Creates a new binary locator that shares a type pool cache.
+             *
+             * @param readerMode The reader mode to apply by this binary locator.
+             */
+            protected WithTypePoolCache(TypePool.Default.ReaderMode readerMode) {
+                this.readerMode = readerMode;
+            }
 
             @Override
             public ClassFileLocator classFileLocator(ClassLoader classLoader) {
-                return ClassFileLocator.NoOp.INSTANCE;
+                return ClassFileLocator.ForClassLoader.of(classLoader);
             }
 
             @Override
             public TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader) {
-                return new TypePool.LazyFacade(TypePool.Default.ClassLoading.of(classFileLocator, classLoader));
+                return new TypePool.LazyFacade(new Shared(locate(classLoader), classFileLocator, readerMode));
             }
 
             @Override
-            public String toString() {
-                return "AgentBuilder.BinaryLocator.ClassLoading." + name();
+            public TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader, String name) {
+                return new TypePool.LazyFacade(new Instrumented(classFileLocator,
+                        readerMode,
+                        name,
+                        new Shared(locate(classLoader), classFileLocator(classLoader), readerMode)));
             }
-        }
-    }
-
-    /**
-     * A listener that is informed about events that occur during an instrumentation process.
-     */
-    interface Listener {
-
-        /**
-         * Invoked right before a successful transformation is applied.
-         *
-         * @param typeDescription The type that is being transformed.
-         * @param dynamicType     The dynamic type that was created.
-         */
-        void onTransformation(TypeDescription typeDescription, DynamicType dynamicType);
-
-        /**
-         * Invoked when a type is not transformed but ignored.
-         *
-         * @param typeDescription The type being ignored.
-         */
-        void onIgnored(TypeDescription typeDescription);
-
-        /**
-         * Invoked when an error has occurred.
-         *
-         * @param typeName  The binary name of the instrumented type.
-         * @param throwable The occurred error.
-         */
-        void onError(String typeName, Throwable throwable);
-
-        /**
-         * Invoked after a class was attempted to be loaded, independently of its treatment.
-         *
-         * @param typeName The binary name of the instrumented type.
-         */
-        void onComplete(String typeName);
-
-        /**
-         * A no-op implementation of a {@link net.bytebuddy.agent.builder.AgentBuilder.Listener}.
-         */
-        enum NoOp implements Listener {
 
             /**
-             * The singleton instance.
+             * Locates the cache provider that is shared by all transformations of the given class loader.
+             *
+             * @param classLoader The class loader for which a cache provider is to be located or {@code null} for the bootstrap class loader.
+             * @return The cache provider to use for the given class loader.
              */
-            INSTANCE;
+            protected abstract TypePool.CacheProvider locate(ClassLoader classLoader);
 
             @Override
-            public void onTransformation(TypeDescription typeDescription, DynamicType dynamicType) {
-                /* do nothing */
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && readerMode == ((WithTypePoolCache) other).readerMode;
             }
 
             @Override
-            public void onIgnored(TypeDescription typeDescription) {
-                /* do nothing */
+            public int hashCode() {
+                return readerMode.hashCode();
             }
 
-            @Override
-            public void onError(String typeName, Throwable throwable) {
-                /* do nothing */
-            }
+            /**
+             * A type pool that describes types for a cache that is shared among all transformations of a class loader. Types
+             * that cannot be resolved are not registered with the shared cache.
+             */
+            protected static class Shared extends TypePool.Default.Precomputed {
 
-            @Override
-            public void onComplete(String typeName) {
-                /* do nothing */
-            }
+                /**
+                 * Creates a new type pool for a shared cache.
+                 *
+                 * @param cacheProvider    The shared cache provider.
+                 * @param classFileLocator The class file locator to use.
+                 * @param readerMode       The reader mode to apply.
+                 */
+                protected Shared(TypePool.CacheProvider cacheProvider, ClassFileLocator classFileLocator, TypePool.Default.ReaderMode readerMode) {
+                    super(cacheProvider, classFileLocator, readerMode, Collections.singletonMap(Object.class.getName(), TypeDescription.OBJECT));
+                }
 
-            @Override
-            public String toString() {
-                return "AgentBuilder.Listener.NoOp." + name();
+                @Override
+                protected Resolution register(String name, Resolution resolution) {
+                    return resolution.isResolved()
+                            ? super.register(name, resolution)
+                            : resolution;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.BinaryLocator.WithTypePoolCache.Shared{" +
+                            "classFileLocator=" + classFileLocator +
+                            ", cacheProvider=" + cacheProvider +
+                            ", readerMode=" + readerMode +
+                            '}';
+                }
             }
-        }
+
+            /**
+             * A type pool that describes the instrumented type from the class file locator of a transformation while delegating the
+             * description of any other type to a type pool of the shared cache. The description of the instrumented type is only
+             * cached by this type pool which is discarded after the transformation.
+             */
+            protected static class Instrumented extends TypePool.Default {
+
+                /**
+                 * The binary name of the instrumented type.
+                 */
+                private final String name;
+
+                /**
+                 * The type pool of the shared cache.
+                 */
+                private final TypePool sharedPool;
+
+                /**
+                 * Creates a new type pool for an instrumented type.
+                 *
+                 * @param classFileLocator The class file locator of the transformation.
+                 * @param readerMode       The reader mode to apply.
+                 * @param name             The binary name of the instrumented type.
+                 * @param sharedPool       The type pool of the shared cache.
+                 */
+                protected Instrumented(ClassFileLocator classFileLocator, TypePool.Default.ReaderMode readerMode, String name, TypePool sharedPool) {
+                    super(new TypePool.CacheProvider.Simple(), classFileLocator, readerMode);
+                    this.name = name;
+                    this.sharedPool = sharedPool;
+                }
+
+                @Override
+                protected Resolution doDescribe(String name) {
+                    return this.name.equals(name)
+                            ? super.doDescribe(name)
+                            : sharedPool.describe(name);
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && super.equals(other)
+                            && name.equals(((Instrumented) other).name)
+                            && sharedPool.equals(((Instrumented) other).sharedPool);
+                }
+
+                @Override
+                public int hashCode() {
+                    int result = super.hashCode();
+                    result = 31 * result + name.hashCode();
+                    result = 31 * result + sharedPool.hashCode();
+                    return result;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.BinaryLocator.WithTypePoolCache.Instrumented{" +
+                            "classFileLocator=" + classFileLocator +
+                            ", cacheProvider=" + cacheProvider +
+                            ", readerMode=" + readerMode +
+                            ", name='" + name + '\'' +
+                            ", sharedPool=" + sharedPool +
+                            '}';
+                }
+            }
+
+            /**
+             * A binary locator that keeps one type pool cache per class loader. The class loaders are referenced weakly such that a
+             * class loader's cache is discarded once the class loader is collected. As any cached type description references the
+             * class loader it was located from, the cached resolutions are only referenced softly. This way, a class loader becomes
+             * eligible for garbage collection once the garbage collector clears the soft references of the class loader's cache.
+             */
+            public static class Simple extends WithTypePoolCache {
+
+                /**
+                 * A map of cache providers by their class loader where the class loaders are referenced weakly.
+                 */
+                private final Map<ClassLoader, TypePool.CacheProvider> cacheProviders;
+
+                /**
+                 * Creates a new binary locator that keeps one type pool cache per class loader.
+                 *
+                 * @param readerMode The reader mode to apply by this binary locator.
+                 */
+                public Simple(TypePool.Default.ReaderMode readerMode) {
+                    super(readerMode);
+                    cacheProviders = new WeakHashMap<ClassLoader, TypePool.CacheProvider>();
+                }
+
+                @Override
+                protected TypePool.CacheProvider locate(ClassLoader classLoader) {
+                    synchronized (cacheProviders) {
+                        TypePool.CacheProvider cacheProvider = cacheProviders.get(classLoader);
+                        if (cacheProvider == null) {
+                            cacheProvider = TypePool.CacheProvider.Referencing.soft();
+                            cacheProviders.put(classLoader, cacheProvider);
+                        }
+                        return cacheProvider;
+                    }
+                }
+
+                /**
+                 * Discards the cache of the given class loader.
+                 *
+                 * @param classLoader The class loader for which to discard the cache or {@code null} for the bootstrap class loader.
+                 */
+                public void clear(ClassLoader classLoader) {
+                    synchronized (cacheProviders) {
+                        cacheProviders.remove(classLoader);
+                    }
+                }
+
+                /**
+                 * Discards the caches of all class loaders.
+                 */
+                public void clear() {
+                    synchronized (cacheProviders) {
+                        cacheProviders.clear();
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && super.equals(other)
+                            && cacheProviders == ((Simple) other).cacheProviders;
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * super.hashCode() + System.identityHashCode(cacheProviders);
+                }
+
+                @Override
+                public String toString() {
+                    synchronized (cacheProviders) {
+                        return "AgentBuilder.BinaryLocator.WithTypePoolCache.Simple{" +
+                                "readerMode=" + readerMode +
+                                ", cacheProviders=" + cacheProviders +
+                                '}';
+                    }
+                }
+            }
+        }
+
+        /**
+         * <p>
+         * A binary locator that loads referenced classes instead of describing unloaded versions.
+         * </p>
+         * <p>
+         * <b>Important</b>: It is important to never query this binary locator for the currently instrumented type as this will yield a class
+         * loading circularity which aborts any instrumentation with an error.
+         * </p>
+         * <p>
+         * <b>Warning</b>: Warning, this binary locator <i>cannot be used for applying a redefinition</i> as it works on loaded classes only and
+         * is agnostic of any way to locate a class file.
+         * </p>
+         */
+        enum ClassLoading implements BinaryLocator {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            @Override
+            public ClassFileLocator classFileLocator(ClassLoader classLoader) {
+                return ClassFileLocator.NoOp.INSTANCE;
+            }
+
+            @Override
+            public TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader) {
+                return new TypePool.LazyFacade(TypePool.Default.ClassLoading.of(classFileLocator, classLoader));
+            }
+
+            @Override
+            public TypePool typePool(ClassFileLocator classFileLocator, ClassLoader classLoader, String name) {
+                return typePool(classFileLocator, classLoader);
+            }
+
+            @Override
+            public String toString() {
+                return "AgentBuilder.BinaryLocator.ClassLoading." + name();
+            }
+        }
+    }
+
+    /**
+     * A listener that is informed about events that occur during an instrumentation process.
+     */
+    interface Listener {
+
+        /**
+         * Invoked right before a successful transformation is applied.
+         *
+         * @param typeDescription The type that is being transformed.
+         * @param dynamicType     The dynamic type that was created.
+         */
+        void onTransformation(TypeDescription typeDescription, DynamicType dynamicType);
+
+        /**
+         * Invoked when a type is not transformed but ignored.
+         *
+         * @param typeDescription The type being ignored.
+         */
+        void onIgnored(TypeDescription typeDescription);
+
+        /**
+         * Invoked when an error has occurred.
+         *
+         * @param typeName  The binary name of the instrumented type.
+         * @param throwable The occurred error.
+         */
+        void onError(String typeName, Throwable throwable);
+
+        /**
+         * Invoked after a class was attempted to be loaded, independently of its treatment.
+         *
+         * @param typeName The binary name of the instrumented type.
+         */
+        void onComplete(String typeName);
+
+        /**
+         * A no-op implementation of a {@link net.bytebuddy.agent.builder.AgentBuilder.Listener}.
+         */
+        enum NoOp implements Listener {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            @Override
+            public void onTransformation(TypeDescription typeDescription, DynamicType dynamicType) {
+                /* do nothing */
+            }
+
+            @Override
+            public void onIgnored(TypeDescription typeDescription) {
+                /* do nothing */
+            }
+
+            @Override
+            public void onError(String typeName, Throwable throwable) {
+                /* do nothing */
+            }
+
+            @Override
+            public void onComplete(String typeName) {
+                /* do nothing */
+            }
+
+            @Override
+            public String toString() {
+                return "AgentBuilder.Listener.NoOp." + name();
+            }
+        }
 
         /**
          * A listener that writes events to a {@link PrintStream}. This listener prints a line per event, including the event type and
@@ -1880,7 +2416,7 @@ public interface AgentBuilder {
             }
 
             @Override
-            protected Collector makeCollector(Default.Transformation transformation) {
+            protected Collector makeCollector(Default.Transformation transformation, BatchStrategy batchStrategy) {
                 throw new IllegalStateException("A disabled redefinition strategy cannot create a collector");
             }
         },
@@ -1907,7 +2443,7 @@ public interface AgentBuilder {
             }
 
             @Override
-            protected Collector makeCollector(Default.Transformation transformation) {
+            protected Collector makeCollector(Default.Transformation transformation, BatchStrategy batchStrategy) {
                 return new Collector.ForRedefinition(transformation);
             }
         },
@@ -1934,44 +2470,524 @@ public interface AgentBuilder {
             }
 
             @Override
-            protected Collector makeCollector(Default.Transformation transformation) {
-                return new Collector.ForRetransformation(transformation);
+            protected Collector makeCollector(Default.Transformation transformation, BatchStrategy batchStrategy) {
+                return new Collector.ForRetransformation(transformation, batchStrategy);
             }
         };
 
-        /**
-         * Indicates if this strategy requires a class file transformer to be registered with a hint to apply the
-         * transformer for retransformation.
-         *
-         * @param instrumentation The instrumentation instance used.
-         * @return {@code true} if a class file transformer must be registered with a hint for retransformation.
-         */
-        protected abstract boolean isRetransforming(Instrumentation instrumentation);
+        /**
+         * Indicates if this strategy requires a class file transformer to be registered with a hint to apply the
+         * transformer for retransformation.
+         *
+         * @param instrumentation The instrumentation instance used.
+         * @return {@code true} if a class file transformer must be registered with a hint for retransformation.
+         */
+        protected abstract boolean isRetransforming(Instrumentation instrumentation);
+
+        /**
+         * Indicates that this redefinition strategy applies a modification of already loaded classes.
+         *
+         * @return {@code true} if this redefinition strategy applies a modification of already loaded classes.
+         */
+        protected boolean isEnabled() {
+            return this != DISABLED;
+        }
+
+        /**
+         * Creates a collector instance that is responsible for collecting loaded classes for potential retransformation.
+         *
+         * @param transformation The transformation that is registered for the agent.
+         * @param batchStrategy  The batch strategy to apply when retransforming the collected classes.
+         * @return A new collector for collecting already loaded classes for transformation.
+         */
+        protected abstract Collector makeCollector(Default.Transformation transformation, BatchStrategy batchStrategy);
+
+        @Override
+        public String toString() {
+            return "AgentBuilder.RedefinitionStrategy." + name();
+        }
+
+        /**
+         * A matching strategy determines how the types that are already loaded when an agent is installed are matched against the
+         * agent's transformations. The handler that is provided to a matching strategy is thread-safe.
+         */
+        public interface MatchingStrategy {
+
+            /**
+             * Applies the given handler to all supplied types.
+             *
+             * @param types   The types that are loaded when installing an agent.
+             * @param handler The handler to apply to each type.
+             */
+            void apply(Class<?>[] types, Handler handler);
+
+            /**
+             * A handler for loaded types that considers a type for redefinition.
+             */
+            interface Handler {
+
+                /**
+                 * Handles a loaded type.
+                 *
+                 * @param type The loaded type to handle.
+                 */
+                void handle(Class<?> type);
+            }
+
+            /**
+             * A matching strategy that handles all types sequentially on the thread that installs the agent.
+             */
+            enum Sequential implements MatchingStrategy {
+
+                /**
+                 * The singleton instance.
+                 */
+                INSTANCE;
+
+                @Override
+                public void apply(Class<?>[] types, Handler handler) {
+                    for (Class<?> type : types) {
+                        handler.handle(type);
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RedefinitionStrategy.MatchingStrategy.Sequential." + name();
+                }
+            }
+
+            /**
+             * A matching strategy that splits the loaded types into chunks which are handled concurrently by an executor service.
+             * The installing thread blocks until all chunks are handled. The executor service is not shut down by this strategy.
+             */
+            class Parallel implements MatchingStrategy {
+
+                /**
+                 * The default number of types that are handled by a single task.
+                 */
+                public static final int DEFAULT_CHUNK_SIZE = 256;
+
+                /**
+                 * The executor service to handle the chunks of loaded types with.
+                 */
+                private final ExecutorService executorService;
+
+                /**
+                 * The maximum number of types that are handled by a single task.
+                 */
+                private final int chunkSize;
+
+                /**
+                 * Creates a new parallel matching strategy that uses the default chunk size.
+                 *
+                 * @param executorService The executor service to handle the chunks of loaded types with.
+                 */
+                public Parallel(ExecutorService executorService) {
+                    this(executorService, DEFAULT_CHUNK_SIZE);
+                }
+
+                /**
+                 * Creates a new parallel matching strategy.
+                 *
+                 * @param executorService The executor service to handle the chunks of loaded types with.
+                 * @param chunkSize       The maximum number of types that are handled by a single task.
+                 */
+                public Parallel(ExecutorService executorService, int chunkSize) {
+                    if (chunkSize < 1) {
+                        throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+                    }
+                    this.executorService = executorService;
+                    this.chunkSize = chunkSize;
+                }
+
+                @Override
+                public void apply(Class<?>[] types, Handler handler) {
+                    List<Future<?>> futures = new ArrayList<Future<?>>(types.length / chunkSize + 1);
+                    try {
+                        for (int index = 0; index < types.length; index += chunkSize) {
+                            futures.add(executorService.submit(new Chunk(types, index, Math.min(index + chunkSize, types.length), handler)));
+                        }
+                        for (Future<?> future : futures) {
+                            future.get();
+                        }
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while matching loaded types", exception);
+                    } catch (ExecutionException exception) {
+                        throw new IllegalStateException("Could not match loaded types", exception.getCause());
+                    } finally {
+                        for (Future<?> future : futures) {
+                            future.cancel(true);
+                        }
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other == null || getClass() != other.getClass()) return false;
+                    Parallel parallel = (Parallel) other;
+                    return chunkSize == parallel.chunkSize && executorService.equals(parallel.executorService);
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * executorService.hashCode() + chunkSize;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel{" +
+                            "executorService=" + executorService +
+                            ", chunkSize=" + chunkSize +
+                            '}';
+                }
+
+                /**
+                 * A task that handles a range of loaded types.
+                 */
+                protected static class Chunk implements Runnable {
+
+                    /**
+                     * All loaded types.
+                     */
+                    private final Class<?>[] types;
+
+                    /**
+                     * The index of the first type to handle.
+                     */
+                    private final int from;
+
+                    /**
+                     * The index after the last type to handle.
+                     */
+                    private final int to;
+
+                    /**
+                     * The handler to apply.
+                     */
+                    private final Handler handler;
+
+                    /**
+                     * Creates a new chunk.
+                     *
+                     * @param types   All loaded types.
+                     * @param from    The index of the first type to handle.
+                     * @param to      The index after the last type to handle.
+                     * @param handler The handler to apply.
+                     */
+                    protected Chunk(Class<?>[] types, int from, int to, Handler handler) {
+                        this.types = types;
+                        this.from = from;
+                        this.to = to;
+                        this.handler = handler;
+                    }
+
+                    @Override
+                    public void run() {
+                        for (int index = from; index < to; index++) {
+                            handler.handle(types[index]);
+                        }
+                    }
+
+                    @Override
+                    public boolean equals(Object other) {
+                        if (this == other) return true;
+                        if (other == null || getClass() != other.getClass()) return false;
+                        Chunk chunk = (Chunk) other;
+                        return from == chunk.from
+                                && to == chunk.to
+                                && Arrays.equals(types, chunk.types)
+                                && handler.equals(chunk.handler);
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        int result = Arrays.hashCode(types);
+                        result = 31 * result + from;
+                        result = 31 * result + to;
+                        result = 31 * result + handler.hashCode();
+                        return result;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel.Chunk{" +
+                                "types=" + Arrays.toString(types) +
+                                ", from=" + from +
+                                ", to=" + to +
+                                ", handler=" + handler +
+                                '}';
+                    }
+                }
+            }
+        }
+
+        /**
+         * A batch strategy determines how the types that were collected for a <b>retransformation</b> are handed to the
+         * {@link Instrumentation} instance. A batch strategy is not applied when a <b>redefinition</b> is used.
+         */
+        public interface BatchStrategy {
+
+            /**
+             * Retransforms the supplied types.
+             *
+             * @param instrumentation The instrumentation instance to use for the retransformation.
+             * @param types           The types to retransform.
+             * @param listener        The agent's listener to notify of types that could not be retransformed.
+             * @throws UnmodifiableClassException If a class is not modifiable and this strategy does not recover from it.
+             */
+            void apply(Instrumentation instrumentation, List<Class<?>> types, AgentBuilder.Listener listener) throws UnmodifiableClassException;
+
+            /**
+             * A batch strategy that retransforms all types with a single invocation of the instrumentation instance. If the
+             * retransformation of any type fails, no type is retransformed and the error is propagated.
+             */
+            enum Unbatched implements BatchStrategy {
+
+                /**
+                 * The singleton instance.
+                 */
+                INSTANCE;
+
+                @Override
+                public void apply(Instrumentation instrumentation, List<Class<?>> types, AgentBuilder.Listener listener) throws UnmodifiableClassException {
+                    if (!types.isEmpty()) {
+                        instrumentation.retransformClasses(types.toArray(new Class<?>[types.size()]));
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RedefinitionStrategy.BatchStrategy.Unbatched." + name();
+                }
+            }
+
+            /**
+             * <p>
+             * A batch strategy that retransforms types in batches of a fixed size where the strategy optionally pauses between
+             * two batches. Doing so, the duration of a single safe point that is required for a retransformation is bounded.
+             * </p>
+             * <p>
+             * As a retransformation is applied atomically, a failed batch does not retransform any of its types. A failed
+             * batch is therefore split into two halves which are retransformed independently until the types that cannot be
+             * retransformed are isolated. Any such type is reported to the agent's listener as an error while all other types
+             * are retransformed. Errors that are not caused by the retransformed types, such as an {@link OutOfMemoryError},
+             * are propagated and exceptions that are thrown by a listener are ignored.
+             * </p>
+             */
+            class Batched implements BatchStrategy {
+
+                /**
+                 * Indicates that no pause should be applied between two batches.
+                 */
+                private static final long NO_PAUSE = 0L;
+
+                /**
+                 * The maximum number of types that are retransformed by a single batch.
+                 */
+                private final int batchSize;
+
+                /**
+                 * The pause between two batches in nanoseconds.
+                 */
+                private final long pause;
+
+                /**
+                 * The listener to notify of the progress of the retransformation.
+                 */
+                private final Listener listener;
+
+                /**
+                 * Creates a new batched strategy without pausing between batches.
+                 *
+                 * @param batchSize The maximum number of types that are retransformed by a single batch.
+                 */
+                public Batched(int batchSize) {
+                    this(batchSize, NO_PAUSE, TimeUnit.NANOSECONDS, Listener.NoOp.INSTANCE);
+                }
+
+                /**
+                 * Creates a new batched strategy.
+                 *
+                 * @param batchSize The maximum number of types that are retransformed by a single batch.
+                 * @param pause     The pause between two batches.
+                 * @param timeUnit  The time unit of the pause between two batches.
+                 * @param listener  The listener to notify of the progress of the retransformation.
+                 */
+                public Batched(int batchSize, long pause, TimeUnit timeUnit, Listener listener) {
+                    if (batchSize < 1) {
+                        throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+                    } else if (pause < 0L) {
+                        throw new IllegalArgumentException("Pause must not be negative: " + pause);
+                    }
+                    this.batchSize = batchSize;
+                    this.pause = timeUnit.toNanos(pause);
+                    this.listener = listener;
+                }
+
+                @Override
+                public void apply(Instrumentation instrumentation, List<Class<?>> types, AgentBuilder.Listener agentListener) {
+                    int index = 0;
+                    for (int from = 0; from < types.size(); from += batchSize) {
+                        if (index > 0 && pause > NO_PAUSE) {
+                            try {
+                                TimeUnit.NANOSECONDS.sleep(pause);
+                            } catch (InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException("Interrupted while pausing between batches", exception);
+                            }
+                        }
+                        List<Class<?>> batch = types.subList(from, Math.min(from + batchSize, types.size()));
+                        try {
+                            listener.onBatch(index, batch, types);
+                        } catch (Throwable ignored) {
+                            // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
+                        }
+                        retransform(instrumentation, index++, batch, agentListener);
+                    }
+                }
+
+                /**
+                 * Retransforms a batch of types and bisects the batch if its retransformation fails.
+                 *
+                 * @param instrumentation The instrumentation instance to use for the retransformation.
+                 * @param index           The index of the batch that is retransformed.
+                 * @param batch           The types to retransform.
+                 * @param agentListener   The agent's listener to notify of types that could not be retransformed.
+                 */
+                private void retransform(Instrumentation instrumentation, int index, List<Class<?>> batch, AgentBuilder.Listener agentListener) {
+                    try {
+                        instrumentation.retransformClasses(batch.toArray(new Class<?>[batch.size()]));
+                    } catch (UnmodifiableClassException exception) {
+                        onFailure(instrumentation, index, batch, agentListener, exception);
+                    } catch (UnsupportedOperationException exception) {
+                        onFailure(instrumentation, index, batch, agentListener, exception);
+                    } catch (LinkageError error) {
+                        onFailure(instrumentation, index, batch, agentListener, error);
+                    }
+                }
+
+                /**
+                 * Handles a failed retransformation of a batch by bisecting the batch or, if the batch only contains a
+                 * single type, by reporting the type to the agent's listener. Only the exceptions that are documented
+                 * by {@link Instrumentation#retransformClasses(Class[])} are handled such that any other error, for
+                 * example an {@link OutOfMemoryError}, is propagated rather than being bisected.
+                 *
+                 * @param instrumentation The instrumentation instance to use for the retransformation.
+                 * @param index           The index of the batch that is retransformed.
+                 * @param batch           The types that could not be retransformed.
+                 * @param agentListener   The agent's listener to notify of types that could not be retransformed.
+                 * @param throwable       The exception or error that was thrown by the retransformation.
+                 */
+                private void onFailure(Instrumentation instrumentation, int index, List<Class<?>> batch, AgentBuilder.Listener agentListener, Throwable throwable) {
+                    try {
+                        listener.onError(index, batch, throwable);
+                    } catch (Throwable ignored) {
+                        // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
+                    }
+                    if (batch.size() > 1) {
+                        int middle = batch.size() / 2;
+                        retransform(instrumentation, index, batch.subList(0, middle), agentListener);
+                        retransform(instrumentation, index, batch.subList(middle, batch.size()), agentListener);
+                    } else {
+                        String typeName = batch.get(0).getName();
+                        try {
+                            try {
+                                agentListener.onError(typeName, throwable);
+                            } finally {
+                                agentListener.onComplete(typeName);
+                            }
+                        } catch (Throwable ignored) {
+                            // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
+                        }
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other == null || getClass() != other.getClass()) return false;
+                    Batched batched = (Batched) other;
+                    return batchSize == batched.batchSize
+                            && pause == batched.pause
+                            && listener.equals(batched.listener);
+                }
+
+                @Override
+                public int hashCode() {
+                    int result = batchSize;
+                    result = 31 * result + (int) (pause ^ (pause >>> 32));
+                    result = 31 * result + listener.hashCode();
+                    return result;
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched{" +
+                            "batchSize=" + batchSize +
+                            ", pause=" + pause +
+                            ", listener=" + listener +
+                            '}';
+                }
+            }
+
+            /**
+             * A listener that is notified of the progress of a batched retransformation.
+             */
+            interface Listener {
+
+                /**
+                 * Invoked before a batch of types is retransformed.
+                 *
+                 * @param index The index of the batch.
+                 * @param batch The types of the batch.
+                 * @param types All types that are retransformed.
+                 */
+                void onBatch(int index, List<Class<?>> batch, List<Class<?>> types);
+
+                /**
+                 * Invoked if a batch or a part of a bisected batch could not be retransformed. None of the types of
+                 * the failed batch are retransformed.
+                 *
+                 * @param index     The index of the batch.
+                 * @param batch     The types of the failed batch.
+                 * @param throwable The error that caused the failure.
+                 */
+                void onError(int index, List<Class<?>> batch, Throwable throwable);
+
+                /**
+                 * A non-operational listener.
+                 */
+                enum NoOp implements Listener {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
 
-        /**
-         * Indicates that this redefinition strategy applies a modification of already loaded classes.
-         *
-         * @return {@code true} if this redefinition strategy applies a modification of already loaded classes.
-         */
-        protected boolean isEnabled() {
-            return this != DISABLED;
-        }
+                    @Override
+                    public void onBatch(int index, List<Class<?>> batch, List<Class<?>> types) {
+                        /* do nothing */
+                    }
 
-        /**
-         * Creates a collector instance that is responsible for collecting loaded classes for potential retransformation.
-         *
-         * @param transformation The transformation that is registered for the agent.
-         * @return A new collector for collecting already loaded classes for transformation.
-         */
-        protected abstract Collector makeCollector(Default.Transformation transformation);
+                    @Override
+                    public void onError(int index, List<Class<?>> batch, Throwable throwable) {
+                        /* do nothing */
+                    }
 
-        @Override
-        public String toString() {
-            return "AgentBuilder.RedefinitionStrategy." + name();
+                    @Override
+                    public String toString() {
+                        return "AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.NoOp." + name();
+                    }
+                }
+            }
         }
 
         /**
-         * A collector is responsible for collecting classes that are to be considered for modification.
+         * A collector is responsible for collecting classes that are to be considered for modification. A collector must be
+         * thread-safe for considering types as a {@link MatchingStrategy} might consider types concurrently.
          */
         protected interface Collector {
 
@@ -1998,7 +3014,9 @@ public interface AgentBuilder {
                        Listener listener) throws UnmodifiableClassException, ClassNotFoundException;
 
             /**
-             * A collector that applies a <b>redefinition</b> of already loaded classes.
+             * A collector that applies a <b>redefinition</b> of already loaded classes. If the class file of a type cannot be
+             * located by the agent's {@link BinaryLocator}, the class files of all such types are extracted by a single
+             * retransformation if the current virtual machine supports retransformation.
              */
             class ForRedefinition implements Collector {
 
@@ -2019,7 +3037,7 @@ public interface AgentBuilder {
                  */
                 protected ForRedefinition(Default.Transformation transformation) {
                     this.transformation = transformation;
-                    entries = new ArrayList<Entry>();
+                    entries = Collections.synchronizedList(new ArrayList<Entry>());
                 }
 
                 @Override
@@ -2034,16 +3052,33 @@ public interface AgentBuilder {
                 @Override
                 public void apply(Instrumentation instrumentation, BinaryLocator binaryLocator, Listener listener) throws UnmodifiableClassException, ClassNotFoundException {
                     List<ClassDefinition> classDefinitions = new ArrayList<ClassDefinition>(entries.size());
+                    Map<Class<?>, Throwable> unresolved = new LinkedHashMap<Class<?>, Throwable>();
                     for (Entry entry : entries) {
-                        TypeDescription typeDescription = new TypeDescription.ForLoadedType(entry.getType());
                         try {
                             classDefinitions.add(entry.resolve(binaryLocator.classFileLocator(entry.getType().getClassLoader())));
                         } catch (Throwable throwable) {
-                            try {
-                                listener.onError(typeDescription.getName(), throwable);
-                            } finally {
-                                listener.onComplete(typeDescription.getName());
+                            unresolved.put(entry.getType(), throwable);
+                        }
+                    }
+                    if (!unresolved.isEmpty() && instrumentation.isRetransformClassesSupported()) {
+                        try {
+                            for (Map.Entry<Class<?>, ClassFileLocator.Resolution> entry : ClassFileLocator.AgentBased.extract(instrumentation,
+                                    new ArrayList<Class<?>>(unresolved.keySet())).entrySet()) {
+                                if (entry.getValue().isResolved()) {
+                                    classDefinitions.add(new ClassDefinition(entry.getKey(), entry.getValue().resolve()));
+                                    unresolved.remove(entry.getKey());
+                                }
                             }
+                        } catch (Throwable ignored) {
+                            /* do nothing, report the original errors */
+                        }
+                    }
+                    for (Map.Entry<Class<?>, Throwable> entry : unresolved.entrySet()) {
+                        String typeName = entry.getKey().getName();
+                        try {
+                            listener.onError(typeName, entry.getValue());
+                        } finally {
+                            listener.onComplete(typeName);
                         }
                     }
                     if (!classDefinitions.isEmpty()) {
@@ -2130,6 +3165,11 @@ public interface AgentBuilder {
                  */
                 private final Default.Transformation transformation;
 
+                /**
+                 * The batch strategy to apply when retransforming the collected types.
+                 */
+                private final BatchStrategy batchStrategy;
+
                 /**
                  * The types that were collected for retransformation.
                  */
@@ -2139,10 +3179,12 @@ public interface AgentBuilder {
                  * Creates a new collector for a retransformation.
                  *
                  * @param transformation The transformation defined by the built agent.
+                 * @param batchStrategy  The batch strategy to apply when retransforming the collected types.
                  */
-                protected ForRetransformation(Default.Transformation transformation) {
+                protected ForRetransformation(Default.Transformation transformation, BatchStrategy batchStrategy) {
                     this.transformation = transformation;
-                    types = new ArrayList<Class<?>>();
+                    this.batchStrategy = batchStrategy;
+                    types = Collections.synchronizedList(new ArrayList<Class<?>>());
                 }
 
                 @Override
@@ -2156,15 +3198,14 @@ public interface AgentBuilder {
 
                 @Override
                 public void apply(Instrumentation instrumentation, BinaryLocator binaryLocator, Listener listener) throws UnmodifiableClassException {
-                    if (!types.isEmpty()) {
-                        instrumentation.retransformClasses(types.toArray(new Class<?>[types.size()]));
-                    }
+                    batchStrategy.apply(instrumentation, new ArrayList<Class<?>>(types), listener);
                 }
 
                 @Override
                 public String toString() {
                     return "AgentBuilder.RedefinitionStrategy.Collector.ForRetransformation{" +
                             "transformation=" + transformation +
+                            ", batchStrategy=" + batchStrategy +
                             ", types=" + types +
                             '}';
                 }
@@ -3570,6 +4611,16 @@ public interface AgentBuilder {
          */
         private final RedefinitionStrategy redefinitionStrategy;
 
+        /**
+         * The matching strategy to apply for already loaded types.
+         */
+        private final RedefinitionStrategy.MatchingStrategy matchingStrategy;
+
+        /**
+         * The batch strategy to apply when retransforming already loaded types.
+         */
+        private final RedefinitionStrategy.BatchStrategy batchStrategy;
+
         /**
          * The injection strategy for injecting classes into the bootstrap class loader.
          */
@@ -3613,6 +4664,8 @@ public interface AgentBuilder {
                     AccessController.getContext(),
                     InitializationStrategy.SelfInjection.SPLIT,
                     RedefinitionStrategy.DISABLED,
+                    RedefinitionStrategy.MatchingStrategy.Sequential.INSTANCE,
+                    RedefinitionStrategy.BatchStrategy.Unbatched.INSTANCE,
                     BootstrapInjectionStrategy.Disabled.INSTANCE,
                     LambdaInstrumentationStrategy.DISABLED,
                     new RawMatcher.ForElementMatcherPair(isSynthetic(), none()),
@@ -3630,6 +4683,8 @@ public interface AgentBuilder {
          * @param accessControlContext          The access control context to use for loading classes.
          * @param initializationStrategy        The initialization strategy to use for transformed types.
          * @param redefinitionStrategy          The redefinition strategy to apply.
+         * @param matchingStrategy              The matching strategy to apply for already loaded types.
+         * @param batchStrategy                 The batch strategy to apply when retransforming already loaded types.
          * @param bootstrapInjectionStrategy    The injection strategy for injecting classes into the bootstrap class loader.
          * @param lambdaInstrumentationStrategy A strategy to determine of the {@code LambdaMetfactory} should be instrumented to allow for the
          *                                      instrumentation of classes that represent lambda expressions.
@@ -3644,6 +4699,8 @@ public interface AgentBuilder {
                           AccessControlContext accessControlContext,
                           InitializationStrategy initializationStrategy,
                           RedefinitionStrategy redefinitionStrategy,
+                          RedefinitionStrategy.MatchingStrategy matchingStrategy,
+                          RedefinitionStrategy.BatchStrategy batchStrategy,
                           BootstrapInjectionStrategy bootstrapInjectionStrategy,
                           LambdaInstrumentationStrategy lambdaInstrumentationStrategy,
                           RawMatcher ignoredTypeMatcher,
@@ -3656,6 +4713,8 @@ public interface AgentBuilder {
             this.accessControlContext = accessControlContext;
             this.initializationStrategy = initializationStrategy;
             this.redefinitionStrategy = redefinitionStrategy;
+            this.matchingStrategy = matchingStrategy;
+            this.batchStrategy = batchStrategy;
             this.bootstrapInjectionStrategy = bootstrapInjectionStrategy;
             this.lambdaInstrumentationStrategy = lambdaInstrumentationStrategy;
             this.ignoredTypeMatcher = ignoredTypeMatcher;
@@ -3687,6 +4746,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3703,6 +4764,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3719,6 +4782,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3735,6 +4800,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3751,6 +4818,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3767,6 +4836,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3783,6 +4854,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3799,6 +4872,44 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
+                    bootstrapInjectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    ignoredTypeMatcher,
+                    transformation);
+        }
+
+        @Override
+        public AgentBuilder with(RedefinitionStrategy.MatchingStrategy matchingStrategy) {
+            return new Default(byteBuddy,
+                    binaryLocator,
+                    typeStrategy,
+                    listener,
+                    nativeMethodStrategy,
+                    accessControlContext,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
+                    bootstrapInjectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    ignoredTypeMatcher,
+                    transformation);
+        }
+
+        @Override
+        public AgentBuilder with(RedefinitionStrategy.BatchStrategy batchStrategy) {
+            return new Default(byteBuddy,
+                    binaryLocator,
+                    typeStrategy,
+                    listener,
+                    nativeMethodStrategy,
+                    accessControlContext,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3815,6 +4926,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3831,6 +4944,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     new BootstrapInjectionStrategy.Enabled(folder, instrumentation),
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3847,6 +4962,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     BootstrapInjectionStrategy.Disabled.INSTANCE,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3878,6 +4995,8 @@ public interface AgentBuilder {
                     accessControlContext,
                     initializationStrategy,
                     redefinitionStrategy,
+                    matchingStrategy,
+                    batchStrategy,
                     bootstrapInjectionStrategy,
                     lambdaInstrumentationStrategy,
                     ignoredTypeMatcher,
@@ -3886,6 +5005,16 @@ public interface AgentBuilder {
 
         @Override
         public ClassFileTransformer makeRaw() {
+            return makeRaw(Transformation.Indexed.of(transformation));
+        }
+
+        /**
+         * Creates a class file transformer that applies the given transformation.
+         *
+         * @param transformation The transformation to apply.
+         * @return A class file transformer that applies the given transformation.
+         */
+        protected ClassFileTransformer makeRaw(Transformation transformation) {
             return new ExecutingTransformer(byteBuddy,
                     binaryLocator,
                     typeStrategy,
@@ -3900,40 +5029,19 @@ public interface AgentBuilder {
 
         @Override
         public ClassFileTransformer installOn(Instrumentation instrumentation) {
-            ClassFileTransformer classFileTransformer = makeRaw();
+            Transformation transformation = Transformation.Indexed.of(this.transformation);
+            ClassFileTransformer classFileTransformer = makeRaw(transformation);
             instrumentation.addTransformer(classFileTransformer, redefinitionStrategy.isRetransforming(instrumentation));
             if (nativeMethodStrategy.isEnabled(instrumentation)) {
                 instrumentation.setNativeMethodPrefix(classFileTransformer, nativeMethodStrategy.getPrefix());
             }
             lambdaInstrumentationStrategy.apply(byteBuddy, instrumentation, classFileTransformer);
             if (redefinitionStrategy.isEnabled()) {
-                RedefinitionStrategy.Collector collector = redefinitionStrategy.makeCollector(transformation);
-                for (Class<?> type : instrumentation.getAllLoadedClasses()) {
-                    TypeDescription typeDescription = new TypeDescription.ForLoadedType(type);
-                    try {
-                        if (!instrumentation.isModifiableClass(type) || !collector.consider(type, ignoredTypeMatcher)) {
-                            try {
-                                try {
-                                    listener.onIgnored(typeDescription);
-                                } finally {
-                                    listener.onComplete(typeDescription.getName());
-                                }
-                            } catch (Throwable ignored) {
-                                // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
-                            }
-                        }
-                    } catch (Throwable throwable) {
-                        try {
-                            try {
-                                listener.onError(typeDescription.getName(), throwable);
-                            } finally {
-                                listener.onComplete(typeDescription.getName());
-                            }
-                        } catch (Throwable ignored) {
-                            // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
-                        }
-                    }
-                }
+                RedefinitionStrategy.Collector collector = redefinitionStrategy.makeCollector(transformation, batchStrategy);
+                matchingStrategy.apply(instrumentation.getAllLoadedClasses(), new LoadedTypeHandler(instrumentation,
+                        collector,
+                        ignoredTypeMatcher,
+                        listener));
                 try {
                     collector.apply(instrumentation, binaryLocator, listener);
                 } catch (UnmodifiableClassException exception) {
@@ -3976,6 +5084,8 @@ public interface AgentBuilder {
                     && accessControlContext.equals(aDefault.accessControlContext)
                     && initializationStrategy == aDefault.initializationStrategy
                     && redefinitionStrategy == aDefault.redefinitionStrategy
+                    && matchingStrategy.equals(aDefault.matchingStrategy)
+                    && batchStrategy.equals(aDefault.batchStrategy)
                     && bootstrapInjectionStrategy.equals(aDefault.bootstrapInjectionStrategy)
                     && lambdaInstrumentationStrategy.equals(aDefault.lambdaInstrumentationStrategy)
                     && ignoredTypeMatcher.equals(aDefault.ignoredTypeMatcher)
@@ -3992,6 +5102,8 @@ public interface AgentBuilder {
             result = 31 * result + accessControlContext.hashCode();
             result = 31 * result + initializationStrategy.hashCode();
             result = 31 * result + redefinitionStrategy.hashCode();
+            result = 31 * result + matchingStrategy.hashCode();
+            result = 31 * result + batchStrategy.hashCode();
             result = 31 * result + bootstrapInjectionStrategy.hashCode();
             result = 31 * result + lambdaInstrumentationStrategy.hashCode();
             result = 31 * result + ignoredTypeMatcher.hashCode();
@@ -4010,6 +5122,8 @@ public interface AgentBuilder {
                     ", accessControlContext=" + accessControlContext +
                     ", initializationStrategy=" + initializationStrategy +
                     ", redefinitionStrategy=" + redefinitionStrategy +
+                    ", matchingStrategy=" + matchingStrategy +
+                    ", batchStrategy=" + batchStrategy +
                     ", bootstrapInjectionStrategy=" + bootstrapInjectionStrategy +
                     ", lambdaInstrumentationStrategy=" + lambdaInstrumentationStrategy +
                     ", ignoredTypeMatcher=" + ignoredTypeMatcher +
@@ -4017,6 +5131,110 @@ public interface AgentBuilder {
                     '}';
         }
 
+        /**
+         * A handler for an already loaded type that considers the type for redefinition and that notifies the listener
+         * if the type is ignored or if an error occurs. This handler is thread-safe if the handled collector and listener
+         * are thread-safe.
+         */
+        protected static class LoadedTypeHandler implements RedefinitionStrategy.MatchingStrategy.Handler {
+
+            /**
+             * The instrumentation instance to use.
+             */
+            private final Instrumentation instrumentation;
+
+            /**
+             * The collector to consider loaded types with.
+             */
+            private final RedefinitionStrategy.Collector collector;
+
+            /**
+             * Identifies types that should not be instrumented.
+             */
+            private final RawMatcher ignoredTypeMatcher;
+
+            /**
+             * The listener to notify.
+             */
+            private final Listener listener;
+
+            /**
+             * Creates a new handler for loaded types.
+             *
+             * @param instrumentation    The instrumentation instance to use.
+             * @param collector          The collector to consider loaded types with.
+             * @param ignoredTypeMatcher Identifies types that should not be instrumented.
+             * @param listener           The listener to notify.
+             */
+            protected LoadedTypeHandler(Instrumentation instrumentation,
+                                        RedefinitionStrategy.Collector collector,
+                                        RawMatcher ignoredTypeMatcher,
+                                        Listener listener) {
+                this.instrumentation = instrumentation;
+                this.collector = collector;
+                this.ignoredTypeMatcher = ignoredTypeMatcher;
+                this.listener = listener;
+            }
+
+            @Override
+            public void handle(Class<?> type) {
+                TypeDescription typeDescription = new TypeDescription.ForLoadedType(type);
+                try {
+                    if (!instrumentation.isModifiableClass(type) || !collector.consider(type, ignoredTypeMatcher)) {
+                        try {
+                            try {
+                                listener.onIgnored(typeDescription);
+                            } finally {
+                                listener.onComplete(typeDescription.getName());
+                            }
+                        } catch (Throwable ignored) {
+                            // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
+                        }
+                    }
+                } catch (Throwable throwable) {
+                    try {
+                        try {
+                            listener.onError(typeDescription.getName(), throwable);
+                        } finally {
+                            listener.onComplete(typeDescription.getName());
+                        }
+                    } catch (Throwable ignored) {
+                        // Ignore exceptions that are thrown by listeners to mimic the behavior of a transformation.
+                    }
+                }
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                if (this == other) return true;
+                if (other == null || getClass() != other.getClass()) return false;
+                LoadedTypeHandler that = (LoadedTypeHandler) other;
+                return instrumentation.equals(that.instrumentation)
+                        && collector.equals(that.collector)
+                        && ignoredTypeMatcher.equals(that.ignoredTypeMatcher)
+                        && listener.equals(that.listener);
+            }
+
+            @Override
+            public int hashCode() {
+                int result = instrumentation.hashCode();
+                result = 31 * result + collector.hashCode();
+                result = 31 * result + ignoredTypeMatcher.hashCode();
+                result = 31 * result + listener.hashCode();
+                return result;
+            }
+
+            @Override
+            public String toString() {
+                return "AgentBuilder.Default.LoadedTypeHandler{" +
+                        "instrumentation=" + instrumentation +
+                        ", collector=" + collector +
+                        ", ignoredTypeMatcher=" + ignoredTypeMatcher +
+                        ", listener=" + listener +
+                        '}';
+            }
+        }
+
         /**
          * An injection strategy for injecting classes into the bootstrap class loader.
          */
@@ -4273,6 +5491,7 @@ public interface AgentBuilder {
                  *
                  * @param initializationStrategy     The initialization strategy to use.
                  * @param classFileLocator           The class file locator to use.
+                 * @param typePool                   The type pool to use for describing types when computing stack map frames.
                  * @param typeStrategy               The definition handler to use.
                  * @param byteBuddy                  The Byte Buddy instance to use.
                  * @param methodNameTransformer      The method name transformer to be used.
@@ -4283,6 +5502,7 @@ public interface AgentBuilder {
                  */
                 byte[] apply(InitializationStrategy initializationStrategy,
                              ClassFileLocator classFileLocator,
+                             TypePool typePool,
                              TypeStrategy typeStrategy,
                              ByteBuddy byteBuddy,
                              NativeMethodStrategy methodNameTransformer,
@@ -4317,6 +5537,7 @@ public interface AgentBuilder {
                     @Override
                     public byte[] apply(InitializationStrategy initializationStrategy,
                                         ClassFileLocator classFileLocator,
+                                        TypePool typePool,
                                         TypeStrategy typeStrategy,
                                         ByteBuddy byteBuddy,
                                         NativeMethodStrategy methodNameTransformer,
@@ -4375,7 +5596,7 @@ public interface AgentBuilder {
             /**
              * A simple, active transformation.
              */
-            class Simple implements Transformation {
+            class Simple implements Transformation, NameIndex.Indexable {
 
                 /**
                  * The raw matcher that is represented by this transformation.
@@ -4410,6 +5631,11 @@ public interface AgentBuilder {
                             : new Transformation.Resolution.Unresolved(typeDescription);
                 }
 
+                @Override
+                public NameIndex.Condition getNameCondition() {
+                    return NameIndex.Condition.of(rawMatcher);
+                }
+
                 @Override
                 public boolean equals(Object other) {
                     return this == other || !(other == null || getClass() != other.getClass())
@@ -4483,6 +5709,7 @@ public interface AgentBuilder {
                     @Override
                     public byte[] apply(InitializationStrategy initializationStrategy,
                                         ClassFileLocator classFileLocator,
+                                        TypePool typePool,
                                         TypeStrategy typeStrategy,
                                         ByteBuddy byteBuddy,
                                         NativeMethodStrategy methodNameTransformer,
@@ -4493,7 +5720,7 @@ public interface AgentBuilder {
                         DynamicType.Unloaded<?> dynamicType = dispatcher.apply(transformer.transform(typeStrategy.builder(typeDescription,
                                 byteBuddy,
                                 classFileLocator,
-                                methodNameTransformer.resolve()), typeDescription, classLoader)).make();
+                                methodNameTransformer.resolve()), typeDescription, classLoader)).make(typePool);
                         dispatcher.register(dynamicType, classLoader, new BootstrapClassLoaderCapableInjectorFactory(bootstrapInjectionStrategy,
                                 classLoader,
                                 protectionDomain,
@@ -4680,6 +5907,101 @@ public interface AgentBuilder {
                             '}';
                 }
             }
+
+            /**
+             * A transformation that applies the first active transformation of several transformations in their given order
+             * where only those transformations are consulted of which the name condition is satisfied by a type's name.
+             */
+            class Indexed implements Transformation {
+
+                /**
+                 * The list of transformations to apply in their application order.
+                 */
+                private final List<? extends Transformation> transformations;
+
+                /**
+                 * An index of the transformations by the names of the types they might transform.
+                 */
+                private final NameIndex<Transformation> nameIndex;
+
+                /**
+                 * Creates a new indexed transformation.
+                 *
+                 * @param transformations A list of transformations to apply in their application order.
+                 */
+                protected Indexed(List<? extends Transformation> transformations) {
+                    this.transformations = transformations;
+                    nameIndex = new NameIndex<Transformation>(transformations);
+                }
+
+                /**
+                 * Creates an indexed transformation of the given transformation where any compound transformation is flattened.
+                 *
+                 * @param transformation The transformation to index.
+                 * @return An indexed transformation that is equivalent to the given transformation.
+                 */
+                protected static Transformation of(Transformation transformation) {
+                    List<Transformation> transformations = new ArrayList<Transformation>();
+                    flatten(transformation, transformations);
+                    return new Indexed(transformations);
+                }
+
+                /**
+                 * Adds the given transformation or any transformation it is compounded of to the given list.
+                 *
+                 * @param transformation  The transformation to flatten.
+                 * @param transformations The list to which any flattened transformation is added.
+                 */
+                private static void flatten(Transformation transformation, List<Transformation> transformations) {
+                    if (transformation instanceof Compound) {
+                        for (Transformation compounded : ((Compound) transformation).transformations) {
+                            flatten(compounded, transformations);
+                        }
+                    } else if (transformation instanceof Indexed) {
+                        transformations.addAll(((Indexed) transformation).transformations);
+                    } else if (transformation != Ignored.INSTANCE) {
+                        transformations.add(transformation);
+                    }
+                }
+
+                @Override
+                public Resolution resolve(TypeDescription typeDescription,
+                                          ClassLoader classLoader,
+                                          Class<?> classBeingRedefined,
+                                          ProtectionDomain protectionDomain,
+                                          RawMatcher ignoredTypeMatcher) {
+                    for (Transformation transformation : nameIndex.lookup(typeDescription.getSourceCodeName())) {
+                        Resolution resolution = transformation.resolve(typeDescription,
+                                classLoader,
+                                classBeingRedefined,
+                                protectionDomain,
+                                ignoredTypeMatcher);
+                        if (resolution.isResolved()) {
+                            return resolution;
+                        }
+                    }
+                    return new Resolution.Unresolved(typeDescription);
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && transformations.equals(((Indexed) other).transformations);
+                }
+
+                @Override
+                public int hashCode() {
+                    return transformations.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "AgentBuilder.Default.Transformation.Indexed{" +
+                            "transformations=" + transformations +
+                            ", nameIndex=" + nameIndex +
+                            '}';
+                }
+            }
         }
 
         /**
@@ -4788,14 +6110,16 @@ public interface AgentBuilder {
                     ClassFileLocator classFileLocator = ClassFileLocator.Simple.of(binaryTypeName,
                             binaryRepresentation,
                             binaryLocator.classFileLocator(classLoader));
+                    TypePool typePool = binaryLocator.typePool(classFileLocator, classLoader, binaryTypeName);
                     return transformation.resolve(classBeingRedefined == null
-                                    ? binaryLocator.typePool(classFileLocator, classLoader).describe(binaryTypeName).resolve()
+                                    ? typePool.describe(binaryTypeName).resolve()
                                     : new TypeDescription.ForLoadedType(classBeingRedefined),
                             classLoader,
                             classBeingRedefined,
                             protectionDomain,
                             ignoredTypeMatcher).apply(initializationStrategy,
                             classFileLocator,
+                            typePool,
                             typeStrategy,
                             byteBuddy,
                             nativeMethodStrategy,
@@ -4923,6 +6247,16 @@ public interface AgentBuilder {
                 return materialize().with(redefinitionStrategy);
             }
 
+            @Override
+            public AgentBuilder with(RedefinitionStrategy.MatchingStrategy matchingStrategy) {
+                return materialize().with(matchingStrategy);
+            }
+
+            @Override
+            public AgentBuilder with(RedefinitionStrategy.BatchStrategy batchStrategy) {
+                return materialize().with(batchStrategy);
+            }
+
             @Override
             public AgentBuilder with(LambdaInstrumentationStrategy lambdaInstrumentationStrategy) {
                 return materialize().with(lambdaInstrumentationStrategy);
@@ -5008,6 +6342,8 @@ public interface AgentBuilder {
                         accessControlContext,
                         initializationStrategy,
                         redefinitionStrategy,
+                        matchingStrategy,
+                        batchStrategy,
                         bootstrapInjectionStrategy,
                         lambdaInstrumentationStrategy,
                         rawMatcher,
@@ -5094,6 +6430,8 @@ public interface AgentBuilder {
                         accessControlContext,
                         initializationStrategy,
                         redefinitionStrategy,
+                        matchingStrategy,
+                        batchStrategy,
                         bootstrapInjectionStrategy,
                         lambdaInstrumentationStrategy,
                         ignoredTypeMatcher,
@@ -1,6 +1,7 @@
 package net.bytebuddy.asm;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import net.bytebuddy.ClassFileVersion;
 import net.bytebuddy.description.annotation.AnnotationDescription;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
@@ -56,7 +57,9 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
  * If any advice method throws an exception, the method is terminated prematurely. If the method annotated by {@link OnMethodEnter} throws an exception,
  * the method annotated by {@link OnMethodExit} method is not invoked. If the instrumented method throws an exception, the method that is annotated by
  * {@link OnMethodExit} is only invoked if the {@link OnMethodExit#onThrowable()} property is set to {@code true} what is the default. If this property
- * is set to {@code false}, the {@link Thrown} annotation must not be used on any parameter.
+ * is set to {@code false}, the {@link Thrown} annotation must not be used on any parameter. For a constructor, an exception is only handled
+ * by the exit advice if it is thrown after the constructor has invoked another constructor of its own or of its super class as the instance
+ * is not initialized before this invocation.
  * </p>
  * <p>
  * Byte Buddy does not assert the visibility of any types that are referenced within the advice methods. It is the responsibility of the user of this
@@ -64,12 +67,19 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
  * {@link IllegalAccessError} at the instrumented class's runtime.
  * </p>
  * <p>
- * <b>Important</b>: Currently, it is required to make ASM recompute stack sizes and stack map frames by setting the {@link ClassWriter#COMPUTE_FRAMES}
- * flag. This constraint will be relaxed in a future version.
+ * <b>Important</b>: Advice translates the stack map frames of the instrumented method and of the advice methods and writes additional frames
+ * for the inlined code such that only stack sizes need to be recomputed by setting the {@link ClassWriter#COMPUTE_MAXS} flag. This requires
+ * the class declaring the advice methods to be compiled for Java 6 or later as older class files do not contain any stack map frames. For
+ * such advice, stack map frames are recomputed by setting the {@link ClassWriter#COMPUTE_FRAMES} flag.
  * </p>
  */
 public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper {
 
+    /**
+     * The offset of the minor and major version within a class file.
+     */
+    private static final int CLASS_FILE_VERSION_OFFSET = 4;
+
     /**
      * The dispatcher for instrumenting the instrumented method upon entering.
      */
@@ -169,10 +179,14 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
      * Returns an ASM visitor wrapper that matches the given matcher and applies this advice to the matched methods.
      *
      * @param matcher The matcher identifying methods to apply the advice to.
-     * @return A suitable ASM visitor wrapper with the <i>compute frames</i> option enabled.
+     * @return A suitable ASM visitor wrapper with the <i>compute maximums</i> option enabled or the <i>compute frames</i> option enabled if
+     * the advice methods do not supply stack map frames.
      */
     public AsmVisitorWrapper.ForDeclaredMethods on(ElementMatcher<? super MethodDescription.InDefinedShape> matcher) {
-        return new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES).method(matcher, this);
+        ClassFileVersion classFileVersion = ClassFileVersion.ofMinorMajor(new ClassReader(binaryRepresentation).readInt(CLASS_FILE_VERSION_OFFSET));
+        return new AsmVisitorWrapper.ForDeclaredMethods()
+                .writerFlags(classFileVersion.isAtLeast(ClassFileVersion.JAVA_V6) ? ClassWriter.COMPUTE_MAXS : ClassWriter.COMPUTE_FRAMES)
+                .method(matcher, this);
     }
 
     @Override
@@ -242,6 +256,22 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
          */
         private final ClassReader classReader;
 
+        /**
+         * A translator for the stack map frames of the instrumented method.
+         */
+        protected final FrameTranslator frameTranslator;
+
+        /**
+         * {@code true} if the instrumented method's {@code this} reference is initialized what is only {@code false} for a constructor
+         * before it invokes another constructor of its own or of its super class.
+         */
+        private boolean initialized;
+
+        /**
+         * The number of instances that were created by the instrumented constructor but that are not yet initialized.
+         */
+        private int uninitializedInstances;
+
         /**
          * Creates an advise visitor.
          *
@@ -256,17 +286,22 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                                 Dispatcher.Resolved.ForMethodEnter methodEnter,
                                 Dispatcher.Resolved.ForMethodExit methodExit,
                                 byte[] binaryRepresentation) {
-            super(Opcodes.ASM5, methodVisitor);
+            super(Opcodes.ASM5, new FrameDeferringVisitor(methodVisitor));
             this.instrumentedMethod = instrumentedMethod;
             this.methodEnter = methodEnter;
             this.methodExit = methodExit;
             this.classReader = new ClassReader(binaryRepresentation);
+            frameTranslator = new FrameTranslator(instrumentedMethod, methodEnter.getEnterType());
+            initialized = !instrumentedMethod.isConstructor();
         }
 
         @Override
         public void visitCode() {
             super.visitCode();
             onMethodStart();
+            if (initialized) {
+                onUserCodeStart();
+            }
         }
 
         /**
@@ -274,18 +309,58 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
          */
         protected abstract void onMethodStart();
 
+        /**
+         * Invoked when the instrumented method's {@code this} reference is initialized. For any method but a constructor, this is
+         * the case directly after the enter advise was applied.
+         */
+        protected abstract void onUserCodeStart();
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            if (!initialized && opcode == Opcodes.NEW) {
+                uninitializedInstances++;
+            }
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            if (!initialized && opcode == Opcodes.INVOKESPECIAL && name.equals(MethodDescription.CONSTRUCTOR_INTERNAL_NAME)) {
+                if (uninitializedInstances == 0) {
+                    initialized = true;
+                    frameTranslator.onInitialization();
+                    onUserCodeStart();
+                } else {
+                    uninitializedInstances--;
+                }
+            }
+        }
+
         @Override
         public void visitVarInsn(int opcode, int offset) {
+            if (offset < instrumentedMethod.getStackSize()) {
+                frameTranslator.onStore(opcode, offset);
+            }
             super.visitVarInsn(opcode, offset < instrumentedMethod.getStackSize()
                     ? offset
                     : offset + methodEnter.getEnterType().getStackSize().getSize());
         }
 
+        @Override
+        public void visitIincInsn(int offset, int increment) {
+            super.visitIincInsn(offset < instrumentedMethod.getStackSize()
+                    ? offset
+                    : offset + methodEnter.getEnterType().getStackSize().getSize(), increment);
+        }
+
         @Override
         @SuppressFBWarnings(value = "SF_SWITCH_NO_DEFAULT", justification = "Switch is supposed to fall through")
         public void visitInsn(int opcode) {
             switch (opcode) {
                 case Opcodes.RETURN:
+                    mv.visitInsn(Opcodes.ACONST_NULL);
+                    variable(Opcodes.ASTORE);
                     onMethodExit();
                     break;
                 case Opcodes.IRETURN:
@@ -347,7 +422,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
 
         @Override
         public void visitFrame(int type, int nLocal, Object[] local, int nStack, Object[] stack) {
-            /* do nothing */
+            frameTranslator.translateFrame(mv, type, nLocal, local, nStack, stack);
         }
 
         @Override
@@ -381,7 +456,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
          * @param dispatcher The dispatcher for which the byte code should be appended.
          */
         private void append(Dispatcher.Resolved dispatcher) {
-            classReader.accept(new CodeCopier(dispatcher), ClassReader.SKIP_DEBUG);
+            classReader.accept(new CodeCopier(dispatcher), ClassReader.SKIP_DEBUG | ClassReader.EXPAND_FRAMES);
         }
 
         /**
@@ -406,7 +481,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
 
             @Override
             public MethodVisitor visitMethod(int modifiers, String internalName, String descriptor, String signature, String[] exception) {
-                return dispatcher.apply(internalName, descriptor, mv, instrumentedMethod);
+                return dispatcher.apply(internalName, descriptor, mv, instrumentedMethod, frameTranslator);
             }
 
             @Override
@@ -459,9 +534,13 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
             @Override
             protected void onMethodStart() {
                 appendEnter();
+            }
+
+            @Override
+            protected void onUserCodeStart() {
                 Label userStart = new Label();
                 userEnd = new Label();
-                mv.visitTryCatchBlock(userStart, userEnd, handler, null);
+                mv.visitTryCatchBlock(userStart, userEnd, handler, ANY_THROWABLE);
                 mv.visitLabel(userStart);
             }
 
@@ -477,8 +556,13 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
 
             @Override
             protected void onMethodEnd() {
+                if (userEnd == null) {
+                    return; // The instrumented constructor never initializes its instance such that no user code is covered.
+                }
                 mv.visitLabel(userEnd);
                 mv.visitLabel(handler);
+                FrameTranslator.injectFrame(mv, frameTranslator.ofExceptionHandler(), Type.getInternalName(Throwable.class));
+                frameTranslator.onExceptionHandler();
                 variable(Opcodes.ASTORE, instrumentedMethod.getReturnType().getStackSize().getSize());
                 storeDefaultReturn();
                 appendExit();
@@ -547,6 +631,11 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                 appendEnter();
             }
 
+            @Override
+            protected void onUserCodeStart() {
+                /* do nothing */
+            }
+
             @Override
             protected void onMethodExit() {
                 appendExit();
@@ -564,6 +653,566 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                         '}';
             }
         }
+
+        /**
+         * A method visitor that defers writing a stack map frame until the next instruction is written. If several frames are visited
+         * for the same offset, only the last frame is written. This is required when the frame that terminates an advise method's code
+         * directly precedes a frame of the instrumented method where the latter frame describes all code paths that reach this offset.
+         */
+        protected static class FrameDeferringVisitor extends MethodVisitor {
+
+            /**
+             * The type of the deferred frame.
+             */
+            private int type;
+
+            /**
+             * The number of local variables of the deferred frame.
+             */
+            private int localLength;
+
+            /**
+             * The local variables of the deferred frame or {@code null} if no frame is deferred.
+             */
+            private Object[] local;
+
+            /**
+             * The number of values on the operand stack of the deferred frame.
+             */
+            private int stackLength;
+
+            /**
+             * The values on the operand stack of the deferred frame.
+             */
+            private Object[] stack;
+
+            /**
+             * Creates a new frame deferring visitor.
+             *
+             * @param methodVisitor The method visitor to which all events are forwarded.
+             */
+            protected FrameDeferringVisitor(MethodVisitor methodVisitor) {
+                super(Opcodes.ASM5, methodVisitor);
+            }
+
+            @Override
+            public void visitFrame(int type, int localLength, Object[] local, int stackLength, Object[] stack) {
+                this.type = type;
+                this.localLength = localLength;
+                this.local = new Object[localLength];
+                this.stackLength = stackLength;
+                this.stack = new Object[stackLength];
+                if (localLength > 0) {
+                    System.arraycopy(local, 0, this.local, 0, localLength); // The class reader reuses its arrays for the next frame.
+                }
+                if (stackLength > 0) {
+                    System.arraycopy(stack, 0, this.stack, 0, stackLength);
+                }
+            }
+
+            /**
+             * Writes the deferred frame if such a frame exists.
+             */
+            private void flush() {
+                if (local != null) {
+                    super.visitFrame(type, localLength, local, stackLength, stack);
+                    local = null;
+                    stack = null;
+                }
+            }
+
+            @Override
+            public void visitInsn(int opcode) {
+                flush();
+                super.visitInsn(opcode);
+            }
+
+            @Override
+            public void visitIntInsn(int opcode, int operand) {
+                flush();
+                super.visitIntInsn(opcode, operand);
+            }
+
+            @Override
+            public void visitVarInsn(int opcode, int offset) {
+                flush();
+                super.visitVarInsn(opcode, offset);
+            }
+
+            @Override
+            public void visitTypeInsn(int opcode, String type) {
+                flush();
+                super.visitTypeInsn(opcode, type);
+            }
+
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                flush();
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                flush();
+                super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            }
+
+            @Override
+            public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrap, Object... argument) {
+                flush();
+                super.visitInvokeDynamicInsn(name, descriptor, bootstrap, argument);
+            }
+
+            @Override
+            public void visitJumpInsn(int opcode, Label label) {
+                flush();
+                super.visitJumpInsn(opcode, label);
+            }
+
+            @Override
+            public void visitLdcInsn(Object constant) {
+                flush();
+                super.visitLdcInsn(constant);
+            }
+
+            @Override
+            public void visitIincInsn(int offset, int increment) {
+                flush();
+                super.visitIincInsn(offset, increment);
+            }
+
+            @Override
+            public void visitTableSwitchInsn(int minimum, int maximum, Label defaultTarget, Label... label) {
+                flush();
+                super.visitTableSwitchInsn(minimum, maximum, defaultTarget, label);
+            }
+
+            @Override
+            public void visitLookupSwitchInsn(Label defaultTarget, int[] key, Label[] label) {
+                flush();
+                super.visitLookupSwitchInsn(defaultTarget, key, label);
+            }
+
+            @Override
+            public void visitMultiANewArrayInsn(String descriptor, int dimension) {
+                flush();
+                super.visitMultiANewArrayInsn(descriptor, dimension);
+            }
+
+            @Override
+            public void visitMaxs(int maxStack, int maxLocals) {
+                flush();
+                super.visitMaxs(maxStack, maxLocals);
+            }
+
+            @Override
+            public void visitEnd() {
+                flush();
+                super.visitEnd();
+            }
+
+            @Override
+            public String toString() {
+                return "Advice.AdviceVisitor.FrameDeferringVisitor{" +
+                        "type=" + type +
+                        ", localLength=" + localLength +
+                        ", local=" + Arrays.toString(local) +
+                        ", stackLength=" + stackLength +
+                        ", stack=" + Arrays.toString(stack) +
+                        '}';
+            }
+        }
+    }
+
+    /**
+     * A translator for stack map frames of an instrumented method. As the enter advise's return value is stored in a slot of the local
+     * variable array that directly follows the instrumented method's parameters, any frame of the instrumented method is translated to
+     * include this value. Also, the frames of the inlined advise methods are translated to reflect the local variables that precede the
+     * advise methods' own local variables within the instrumented method. Finally, the translator supplies the local variables for frames
+     * that are injected when inlining an advise method. All frames are written in their expanded form. As the instrumented method might
+     * assign values of another type to the slots of its parameters and as a constructor's {@code this} reference is only initialized after
+     * invoking another constructor, the translator tracks the types of these slots by the visited frames and store instructions. The frame
+     * of the exception handler that invokes the exit advise declares any slot as {@code TOP} that is not of the same type for any
+     * instruction of the user code.
+     */
+    protected static class FrameTranslator {
+
+        /**
+         * An empty array indicating an empty frame.
+         */
+        private static final Object[] EMPTY = new Object[0];
+
+        /**
+         * A description of the instrumented method.
+         */
+        private final MethodDescription.InDefinedShape instrumentedMethod;
+
+        /**
+         * The frame representation of the enter advise's return value or an empty array if no such value is supplied.
+         */
+        private final Object[] enterValue;
+
+        /**
+         * The local variables of the last frame that was visited for the instrumented method, in their original layout.
+         */
+        private Object[] currentLocals;
+
+        /**
+         * The current types of the instrumented method's parameter slots where the second slot of a {@code long} or {@code double}
+         * value is represented by {@code TOP}.
+         */
+        private Object[] currentSlots;
+
+        /**
+         * The types of the instrumented method's parameter slots that are compatible to any instruction of the user code or
+         * {@code null} if the user code did not yet start.
+         */
+        private Object[] handlerSlots;
+
+        /**
+         * Creates a new frame translator.
+         *
+         * @param instrumentedMethod A description of the instrumented method.
+         * @param enterType          The type of the value supplied by the enter advise or a description of {@code void} if no such value exists.
+         */
+        protected FrameTranslator(MethodDescription.InDefinedShape instrumentedMethod, TypeDescription enterType) {
+            this.instrumentedMethod = instrumentedMethod;
+            enterValue = enterType.represents(void.class)
+                    ? EMPTY
+                    : new Object[]{toFrame(enterType)};
+            currentLocals = ofMethodEnter();
+            currentSlots = toSlots(currentLocals);
+            handlerSlots = instrumentedMethod.isConstructor()
+                    ? null
+                    : currentSlots.clone();
+        }
+
+        /**
+         * Translates a type into its representation within a stack map frame.
+         *
+         * @param typeDescription The type to translate.
+         * @return The type's representation within a stack map frame.
+         */
+        protected static Object toFrame(TypeDescription typeDescription) {
+            if (typeDescription.represents(boolean.class)
+                    || typeDescription.represents(byte.class)
+                    || typeDescription.represents(short.class)
+                    || typeDescription.represents(char.class)
+                    || typeDescription.represents(int.class)) {
+                return Opcodes.INTEGER;
+            } else if (typeDescription.represents(long.class)) {
+                return Opcodes.LONG;
+            } else if (typeDescription.represents(float.class)) {
+                return Opcodes.FLOAT;
+            } else if (typeDescription.represents(double.class)) {
+                return Opcodes.DOUBLE;
+            } else {
+                return typeDescription.getInternalName();
+            }
+        }
+
+        /**
+         * Translates a frame of an inlined advise method and writes it to the instrumented method.
+         *
+         * @param methodVisitor  The method visitor of the instrumented method.
+         * @param localVariables The local variables of the instrumented method that precede the advise method's local variables.
+         * @param parameterSize  The size of the advise method's parameters.
+         * @param localLength    The number of local variables of the advise method's frame.
+         * @param local          The local variables of the advise method's frame.
+         * @param stackLength    The number of values on the operand stack of the advise method's frame.
+         * @param stack          The values on the operand stack of the advise method's frame.
+         */
+        protected static void translateFrame(MethodVisitor methodVisitor,
+                                             Object[] localVariables,
+                                             int parameterSize,
+                                             int localLength,
+                                             Object[] local,
+                                             int stackLength,
+                                             Object[] stack) {
+            int index = indexOf(local, localLength, parameterSize);
+            Object[] translated = new Object[localVariables.length + localLength - index];
+            System.arraycopy(localVariables, 0, translated, 0, localVariables.length);
+            System.arraycopy(local, index, translated, localVariables.length, localLength - index);
+            methodVisitor.visitFrame(Opcodes.F_NEW, translated.length, translated, stackLength, stack);
+        }
+
+        /**
+         * Writes a frame with the given local variables and values on the operand stack.
+         *
+         * @param methodVisitor  The method visitor of the instrumented method.
+         * @param localVariables The local variables of the frame.
+         * @param stack          The values on the operand stack of the frame.
+         */
+        protected static void injectFrame(MethodVisitor methodVisitor, Object[] localVariables, Object... stack) {
+            methodVisitor.visitFrame(Opcodes.F_NEW, localVariables.length, localVariables, stack.length, stack);
+        }
+
+        /**
+         * Returns the number of local variables of a frame that are required for representing a given number of slots.
+         *
+         * @param local       The local variables of a frame.
+         * @param localLength The number of local variables of the frame.
+         * @param size        The number of slots to represent.
+         * @return The number of local variables that represent the given number of slots or the number of local variables
+         * of the frame if the frame does not cover the given number of slots.
+         */
+        private static int indexOf(Object[] local, int localLength, int size) {
+            int index = 0;
+            for (int offset = 0; offset < size && index < localLength; index++) {
+                offset += sizeOf(local[index]);
+            }
+            return index;
+        }
+
+        /**
+         * Returns the number of slots that a value of a frame occupies in the local variable array.
+         *
+         * @param value The value of a frame.
+         * @return The number of slots that the value occupies.
+         */
+        private static int sizeOf(Object value) {
+            return value == Opcodes.LONG || value == Opcodes.DOUBLE
+                    ? StackSize.DOUBLE.getSize()
+                    : StackSize.SINGLE.getSize();
+        }
+
+        /**
+         * Translates a frame that is visited for the instrumented method and writes it in its expanded form.
+         *
+         * @param methodVisitor The method visitor of the instrumented method.
+         * @param type          The type of the visited frame.
+         * @param localLength   The number of local variables of the visited frame.
+         * @param local         The local variables of the visited frame.
+         * @param stackLength   The number of values on the operand stack of the visited frame.
+         * @param stack         The values on the operand stack of the visited frame.
+         */
+        protected void translateFrame(MethodVisitor methodVisitor, int type, int localLength, Object[] local, int stackLength, Object[] stack) {
+            switch (type) {
+                case Opcodes.F_SAME:
+                case Opcodes.F_SAME1:
+                    break;
+                case Opcodes.F_APPEND:
+                    Object[] appended = new Object[currentLocals.length + localLength];
+                    System.arraycopy(currentLocals, 0, appended, 0, currentLocals.length);
+                    System.arraycopy(local, 0, appended, currentLocals.length, localLength);
+                    currentLocals = appended;
+                    break;
+                case Opcodes.F_CHOP:
+                    Object[] chopped = new Object[currentLocals.length - localLength];
+                    System.arraycopy(currentLocals, 0, chopped, 0, chopped.length);
+                    currentLocals = chopped;
+                    break;
+                case Opcodes.F_FULL:
+                case Opcodes.F_NEW:
+                    currentLocals = new Object[localLength];
+                    System.arraycopy(local, 0, currentLocals, 0, localLength);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected frame type: " + type);
+            }
+            int index = 0, padding = instrumentedMethod.getStackSize();
+            while (padding > 0 && index < currentLocals.length) {
+                padding -= sizeOf(currentLocals[index++]);
+            }
+            padding = Math.max(0, padding);
+            Object[] translated = new Object[currentLocals.length + padding + enterValue.length];
+            System.arraycopy(currentLocals, 0, translated, 0, index);
+            for (int offset = 0; offset < padding; offset++) {
+                translated[index + offset] = Opcodes.TOP;
+            }
+            System.arraycopy(enterValue, 0, translated, index + padding, enterValue.length);
+            System.arraycopy(currentLocals, index, translated, index + padding + enterValue.length, currentLocals.length - index);
+            methodVisitor.visitFrame(Opcodes.F_NEW, translated.length, translated, stackLength, stack);
+            currentSlots = toSlots(currentLocals);
+            mergeSlots();
+        }
+
+        /**
+         * Registers a store instruction of the instrumented method that accesses a slot of the instrumented method's parameters.
+         *
+         * @param opcode The opcode of the instruction that accesses the slot. Any instruction other than a store is ignored.
+         * @param offset The offset of the accessed slot.
+         */
+        protected void onStore(int opcode, int offset) {
+            Object type;
+            switch (opcode) {
+                case Opcodes.ISTORE:
+                    type = Opcodes.INTEGER;
+                    break;
+                case Opcodes.LSTORE:
+                    type = Opcodes.LONG;
+                    break;
+                case Opcodes.FSTORE:
+                    type = Opcodes.FLOAT;
+                    break;
+                case Opcodes.DSTORE:
+                    type = Opcodes.DOUBLE;
+                    break;
+                case Opcodes.ASTORE:
+                    type = currentSlots[offset] instanceof String
+                            ? currentSlots[offset]
+                            : Type.getInternalName(Object.class);
+                    break;
+                default:
+                    return;
+            }
+            if (offset > 0 && sizeOf(currentSlots[offset - 1]) == StackSize.DOUBLE.getSize()) {
+                currentSlots[offset - 1] = Opcodes.TOP;
+            }
+            if (sizeOf(type) == StackSize.DOUBLE.getSize() && offset + 1 == currentSlots.length) {
+                type = Opcodes.TOP; // A value that exceeds the parameter slots cannot be represented.
+            }
+            currentSlots[offset] = type;
+            if (sizeOf(type) == StackSize.DOUBLE.getSize()) {
+                currentSlots[offset + 1] = Opcodes.TOP;
+            }
+            mergeSlots();
+        }
+
+        /**
+         * Registers that the instrumented constructor invoked another constructor such that its {@code this} reference is initialized.
+         */
+        protected void onInitialization() {
+            currentSlots[0] = instrumentedMethod.getDeclaringType().asErasure().getInternalName();
+            handlerSlots = currentSlots.clone();
+        }
+
+        /**
+         * Registers that the exception handler of the instrumented method is entered such that the slots of the instrumented method's
+         * parameters are of the types that are compatible to any instruction of the user code.
+         */
+        protected void onExceptionHandler() {
+            currentSlots = handlerSlots.clone();
+        }
+
+        /**
+         * Merges the current types of the instrumented method's parameter slots into the types that are declared by the exception handler.
+         */
+        private void mergeSlots() {
+            if (handlerSlots != null) {
+                for (int index = 0; index < handlerSlots.length; index++) {
+                    if (!handlerSlots[index].equals(currentSlots[index])) {
+                        handlerSlots[index] = Opcodes.TOP;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Translates local variables of a frame into the types of the instrumented method's parameter slots.
+         *
+         * @param localVariables The local variables of a frame.
+         * @return The types of the instrumented method's parameter slots.
+         */
+        private Object[] toSlots(Object[] localVariables) {
+            Object[] slots = new Object[instrumentedMethod.getStackSize()];
+            Arrays.fill(slots, Opcodes.TOP);
+            for (int index = 0, offset = 0; index < localVariables.length && offset < slots.length; index++) {
+                if (sizeOf(localVariables[index]) == StackSize.SINGLE.getSize() || offset + 1 < slots.length) {
+                    slots[offset] = localVariables[index];
+                }
+                offset += sizeOf(localVariables[index]);
+            }
+            return slots;
+        }
+
+        /**
+         * Translates the types of the instrumented method's parameter slots into the local variables of a frame.
+         *
+         * @param slots      The types of the instrumented method's parameter slots.
+         * @param additional Additional local variables that follow the instrumented method's parameters.
+         * @return The local variables of the frame.
+         */
+        private static Object[] toLocals(Object[] slots, Object... additional) {
+            Object[] localVariables = new Object[slots.length + additional.length];
+            int index = 0;
+            for (int offset = 0; offset < slots.length; offset += sizeOf(slots[offset])) {
+                localVariables[index++] = slots[offset];
+            }
+            System.arraycopy(additional, 0, localVariables, index, additional.length);
+            Object[] trimmed = new Object[index + additional.length];
+            System.arraycopy(localVariables, 0, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+
+        /**
+         * Returns the local variables of the instrumented method with the supplied representation of the {@code this} reference.
+         *
+         * @param thisReference The representation of the {@code this} reference which is ignored for a static method.
+         * @param additional    Additional local variables that follow the instrumented method's parameters.
+         * @return The local variables of the instrumented method followed by the additional variables.
+         */
+        private Object[] ofParameters(Object thisReference, Object... additional) {
+            int thisSize = instrumentedMethod.isStatic() ? 0 : 1;
+            Object[] localVariables = new Object[thisSize + instrumentedMethod.getParameters().size() + additional.length];
+            if (!instrumentedMethod.isStatic()) {
+                localVariables[0] = thisReference;
+            }
+            int index = thisSize;
+            for (TypeDescription typeDescription : instrumentedMethod.getParameters().asTypeList().asErasures()) {
+                localVariables[index++] = toFrame(typeDescription);
+            }
+            System.arraycopy(additional, 0, localVariables, index, additional.length);
+            return localVariables;
+        }
+
+        /**
+         * Returns the local variables that are defined when the instrumented method is entered.
+         *
+         * @return The local variables that are defined when the instrumented method is entered.
+         */
+        protected Object[] ofMethodEnter() {
+            return ofParameters(instrumentedMethod.isConstructor()
+                    ? Opcodes.UNINITIALIZED_THIS
+                    : instrumentedMethod.getDeclaringType().asErasure().getInternalName());
+        }
+
+        /**
+         * Returns the local variables that are defined after the enter advise is applied.
+         *
+         * @return The local variables that are defined after the enter advise is applied.
+         */
+        protected Object[] ofCompletedMethodEnter() {
+            return ofParameters(instrumentedMethod.isConstructor()
+                    ? Opcodes.UNINITIALIZED_THIS
+                    : instrumentedMethod.getDeclaringType().asErasure().getInternalName(), enterValue);
+        }
+
+        /**
+         * Returns the local variables that are defined when the instrumented method's code terminates exceptionally.
+         *
+         * @return The local variables that are defined when the instrumented method's code terminates exceptionally.
+         */
+        protected Object[] ofExceptionHandler() {
+            return toLocals(handlerSlots, enterValue);
+        }
+
+        /**
+         * Returns the local variables that are defined when the exit advise is applied.
+         *
+         * @return The local variables that are defined when the exit advise is applied.
+         */
+        protected Object[] ofMethodExit() {
+            Object[] localVariables = toLocals(currentSlots, enterValue);
+            Object[] exitVariables = new Object[localVariables.length + (instrumentedMethod.getReturnType().represents(void.class) ? 1 : 2)];
+            System.arraycopy(localVariables, 0, exitVariables, 0, localVariables.length);
+            if (!instrumentedMethod.getReturnType().represents(void.class)) {
+                exitVariables[localVariables.length] = toFrame(instrumentedMethod.getReturnType().asErasure());
+            }
+            exitVariables[exitVariables.length - 1] = Type.getInternalName(Throwable.class);
+            return exitVariables;
+        }
+
+        @Override
+        public String toString() {
+            return "Advice.FrameTranslator{" +
+                    "instrumentedMethod=" + instrumentedMethod +
+                    ", enterValue=" + Arrays.toString(enterValue) +
+                    ", currentLocals=" + Arrays.toString(currentLocals) +
+                    ", currentSlots=" + Arrays.toString(currentSlots) +
+                    ", handlerSlots=" + Arrays.toString(handlerSlots) +
+                    '}';
+        }
     }
 
     /**
@@ -610,9 +1259,14 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
              * @param descriptor         The discovered method's descriptor.
              * @param methodVisitor      The method visitor for writing the instrumented method.
              * @param instrumentedMethod A description of the instrumented method.
+             * @param frameTranslator    A translator for the stack map frames of the instrumented method.
              * @return A method visitor for reading the discovered method or {@code null} if the discovered method is of no interest.
              */
-            MethodVisitor apply(String internalName, String descriptor, MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod);
+            MethodVisitor apply(String internalName,
+                                String descriptor,
+                                MethodVisitor methodVisitor,
+                                MethodDescription.InDefinedShape instrumentedMethod,
+                                FrameTranslator frameTranslator);
 
             /**
              * Represents a resolved dispatcher for entering a method.
@@ -678,7 +1332,11 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
             }
 
             @Override
-            public MethodVisitor apply(String internalName, String descriptor, MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod) {
+            public MethodVisitor apply(String internalName,
+                                       String descriptor,
+                                       MethodVisitor methodVisitor,
+                                       MethodDescription.InDefinedShape instrumentedMethod,
+                                       FrameTranslator frameTranslator) {
                 return IGNORE_METHOD;
             }
 
@@ -787,9 +1445,13 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                 }
 
                 @Override
-                public MethodVisitor apply(String internalName, String descriptor, MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod) {
+                public MethodVisitor apply(String internalName,
+                                           String descriptor,
+                                           MethodVisitor methodVisitor,
+                                           MethodDescription.InDefinedShape instrumentedMethod,
+                                           FrameTranslator frameTranslator) {
                     return adviseMethod.getInternalName().equals(internalName) && adviseMethod.getDescriptor().equals(descriptor)
-                            ? apply(methodVisitor, instrumentedMethod)
+                            ? apply(methodVisitor, instrumentedMethod, frameTranslator)
                             : IGNORE_METHOD;
                 }
 
@@ -798,9 +1460,12 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                  *
                  * @param methodVisitor      A method visitor for writing byte code to the instrumented method.
                  * @param instrumentedMethod A description of the instrumented method.
+                 * @param frameTranslator    A translator for the stack map frames of the instrumented method.
                  * @return A method visitor for visiting the advise method's byte code.
                  */
-                protected abstract MethodVisitor apply(MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod);
+                protected abstract MethodVisitor apply(MethodVisitor methodVisitor,
+                                                       MethodDescription.InDefinedShape instrumentedMethod,
+                                                       FrameTranslator frameTranslator);
 
                 @Override
                 public boolean equals(Object other) {
@@ -1766,7 +2431,9 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                     }
 
                     @Override
-                    protected MethodVisitor apply(MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod) {
+                    protected MethodVisitor apply(MethodVisitor methodVisitor,
+                                                  MethodDescription.InDefinedShape instrumentedMethod,
+                                                  FrameTranslator frameTranslator) {
                         Map<Integer, OffsetMapping.Target> offsetMappings = new HashMap<Integer, OffsetMapping.Target>();
                         for (Map.Entry<Integer, OffsetMapping> entry : this.offsetMappings.entrySet()) {
                             offsetMappings.put(entry.getKey(), entry.getValue().resolve(instrumentedMethod, StackSize.ZERO));
@@ -1775,7 +2442,9 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                                 instrumentedMethod,
                                 adviseMethod,
                                 offsetMappings,
-                                adviseMethod.getDeclaredAnnotations().ofType(OnMethodEnter.class).getValue(SUPPRESS, TypeDescription.class));
+                                adviseMethod.getDeclaredAnnotations().ofType(OnMethodEnter.class).getValue(SUPPRESS, TypeDescription.class),
+                                frameTranslator.ofMethodEnter(),
+                                frameTranslator.ofCompletedMethodEnter());
                     }
 
                     @Override
@@ -1836,7 +2505,9 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                     }
 
                     @Override
-                    protected MethodVisitor apply(MethodVisitor methodVisitor, MethodDescription.InDefinedShape instrumentedMethod) {
+                    protected MethodVisitor apply(MethodVisitor methodVisitor,
+                                                  MethodDescription.InDefinedShape instrumentedMethod,
+                                                  FrameTranslator frameTranslator) {
                         Map<Integer, OffsetMapping.Target> offsetMappings = new HashMap<Integer, OffsetMapping.Target>();
                         for (Map.Entry<Integer, OffsetMapping> entry : this.offsetMappings.entrySet()) {
                             offsetMappings.put(entry.getKey(), entry.getValue().resolve(instrumentedMethod, additionalSize));
@@ -1846,6 +2517,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                                 adviseMethod,
                                 offsetMappings,
                                 adviseMethod.getDeclaredAnnotations().ofType(OnMethodExit.class).getValue(SUPPRESS, TypeDescription.class),
+                                frameTranslator.ofMethodExit(),
                                 additionalSize);
                     }
 
@@ -1922,24 +2594,42 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                  */
                 protected final Label endOfMethod;
 
+                /**
+                 * The local variables of the instrumented method that are defined when the advise method's byte code is entered.
+                 */
+                private final Object[] localVariables;
+
+                /**
+                 * The local variables of the instrumented method that are defined when the advise method's byte code is completed.
+                 */
+                private final Object[] completedLocalVariables;
+
                 /**
                  * Creates a new code translation visitor.
                  *
-                 * @param methodVisitor      A method visitor for writing the instrumented method's byte code.
-                 * @param instrumentedMethod The instrumented method.
-                 * @param adviseMethod       The advise method.
-                 * @param offsetMappings     A mapping of offsets to resolved target offsets in the instrumented method.
-                 * @param throwableType      A throwable type to be suppressed or {@link NoSuppression} if no suppression should be applied.
+                 * @param methodVisitor           A method visitor for writing the instrumented method's byte code.
+                 * @param instrumentedMethod      The instrumented method.
+                 * @param adviseMethod            The advise method.
+                 * @param offsetMappings          A mapping of offsets to resolved target offsets in the instrumented method.
+                 * @param throwableType           A throwable type to be suppressed or {@link NoSuppression} if no suppression should be applied.
+                 * @param localVariables          The local variables of the instrumented method that are defined when the advise method's
+                 *                                byte code is entered.
+                 * @param completedLocalVariables The local variables of the instrumented method that are defined when the advise method's
+                 *                                byte code is completed.
                  */
                 protected CodeTranslationVisitor(MethodVisitor methodVisitor,
                                                  MethodDescription.InDefinedShape instrumentedMethod,
                                                  MethodDescription.InDefinedShape adviseMethod,
                                                  Map<Integer, Resolved.OffsetMapping.Target> offsetMappings,
-                                                 TypeDescription throwableType) {
+                                                 TypeDescription throwableType,
+                                                 Object[] localVariables,
+                                                 Object[] completedLocalVariables) {
                     super(Opcodes.ASM5, methodVisitor);
                     this.instrumentedMethod = instrumentedMethod;
                     this.adviseMethod = adviseMethod;
                     this.offsetMappings = offsetMappings;
+                    this.localVariables = localVariables;
+                    this.completedLocalVariables = completedLocalVariables;
                     suppressionHandler = throwableType.represents(NoSuppression.class)
                             ? SuppressionHandler.NoOp.INSTANCE
                             : new SuppressionHandler.Suppressing(throwableType);
@@ -1983,7 +2673,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
 
                 @Override
                 public void visitFrame(int type, int nLocal, Object[] local, int nStack, Object[] stack) {
-                    /* do nothing */
+                    FrameTranslator.translateFrame(mv, localVariables, adviseMethod.getStackSize(), nLocal, local, nStack, stack);
                 }
 
                 @Override
@@ -1994,7 +2684,8 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                 @Override
                 public void visitEnd() {
                     mv.visitLabel(endOfMethod);
-                    suppressionHandler.onEnd(mv, this);
+                    FrameTranslator.injectFrame(mv, completedLocalVariables);
+                    suppressionHandler.onEnd(mv, this, localVariables, completedLocalVariables);
                 }
 
                 @Override
@@ -2012,6 +2703,19 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                     }
                 }
 
+                @Override
+                public void visitIincInsn(int offset, int increment) {
+                    Resolved.OffsetMapping.Target target = offsetMappings.get(offset);
+                    if (target != null) {
+                        target.apply(mv, Opcodes.ILOAD);
+                        mv.visitIntInsn(Opcodes.SIPUSH, increment);
+                        mv.visitInsn(Opcodes.IADD);
+                        target.apply(mv, Opcodes.ISTORE);
+                    } else {
+                        mv.visitIincInsn(adjust(offset + instrumentedMethod.getStackSize() - adviseMethod.getStackSize()), increment);
+                    }
+                }
+
                 /**
                  * Adjusts the offset of a variable instruction within the advise method such that no arguments to
                  * the instrumented method are overridden.
@@ -2040,10 +2744,17 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                     /**
                      * Invoked at the end of a method.
                      *
-                     * @param methodVisitor       The method visitor of the instrumented method.
-                     * @param returnValueProducer A producer for defining a default return value of the advised method.
+                     * @param methodVisitor           The method visitor of the instrumented method.
+                     * @param returnValueProducer     A producer for defining a default return value of the advised method.
+                     * @param localVariables          The local variables of the instrumented method that are defined when the advise
+                     *                                method's byte code is entered.
+                     * @param completedLocalVariables The local variables of the instrumented method that are defined when the advise
+                     *                                method's byte code is completed.
                      */
-                    void onEnd(MethodVisitor methodVisitor, ReturnValueProducer returnValueProducer);
+                    void onEnd(MethodVisitor methodVisitor,
+                               ReturnValueProducer returnValueProducer,
+                               Object[] localVariables,
+                               Object[] completedLocalVariables);
 
                     /**
                      * A non-operational suppression handler that does not suppress any method.
@@ -2061,7 +2772,10 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                         }
 
                         @Override
-                        public void onEnd(MethodVisitor methodVisitor, ReturnValueProducer returnValueProducer) {
+                        public void onEnd(MethodVisitor methodVisitor,
+                                          ReturnValueProducer returnValueProducer,
+                                          Object[] localVariables,
+                                          Object[] completedLocalVariables) {
                             /* do nothing */
                         }
 
@@ -2109,13 +2823,18 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                         }
 
                         @Override
-                        public void onEnd(MethodVisitor methodVisitor, ReturnValueProducer returnValueProducer) {
+                        public void onEnd(MethodVisitor methodVisitor,
+                                          ReturnValueProducer returnValueProducer,
+                                          Object[] localVariables,
+                                          Object[] completedLocalVariables) {
                             Label endOfHandler = new Label();
                             methodVisitor.visitJumpInsn(Opcodes.GOTO, endOfHandler);
                             methodVisitor.visitLabel(handler);
+                            FrameTranslator.injectFrame(methodVisitor, localVariables, throwableType.getInternalName());
                             methodVisitor.visitInsn(Opcodes.POP);
                             returnValueProducer.makeDefault(methodVisitor);
                             methodVisitor.visitLabel(endOfHandler);
+                            FrameTranslator.injectFrame(methodVisitor, completedLocalVariables);
                         }
 
                         @Override
@@ -2153,15 +2872,19 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                      * @param methodVisitor      A method visitor for writing the instrumented method's byte code.
                      * @param instrumentedMethod The instrumented method.
                      * @param adviseMethod       The advise method.
-                     * @param offsetMappings     A mapping of offsets of the advise methods to their corresponding offsets in the instrumented method.
-                     * @param throwableType      A throwable type to be suppressed or {@link NoSuppression} if no suppression should be applied.
+                     * @param offsetMappings          A mapping of offsets of the advise methods to their corresponding offsets in the instrumented method.
+                     * @param throwableType           A throwable type to be suppressed or {@link NoSuppression} if no suppression should be applied.
+                     * @param localVariables          The local variables of the instrumented method that are defined before the enter advise is applied.
+                     * @param completedLocalVariables The local variables of the instrumented method that are defined after the enter advise is applied.
                      */
                     protected ReturnValueRetaining(MethodVisitor methodVisitor,
                                                    MethodDescription.InDefinedShape instrumentedMethod,
                                                    MethodDescription.InDefinedShape adviseMethod,
                                                    Map<Integer, Resolved.OffsetMapping.Target> offsetMappings,
-                                                   TypeDescription throwableType) {
-                        super(methodVisitor, instrumentedMethod, adviseMethod, offsetMappings, throwableType);
+                                                   TypeDescription throwableType,
+                                                   Object[] localVariables,
+                                                   Object[] completedLocalVariables) {
+                        super(methodVisitor, instrumentedMethod, adviseMethod, offsetMappings, throwableType, localVariables, completedLocalVariables);
                     }
 
                     @Override
@@ -2252,6 +2975,7 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                      * @param adviseMethod           The advise method.
                      * @param offsetMappings         A mapping of offsets of the advise methods to their corresponding offsets in the instrumented method.
                      * @param throwableType          A throwable type to be suppressed or {@link NoSuppression} if no suppression should be applied.
+                     * @param localVariables         The local variables of the instrumented method that are defined when the exit advise is applied.
                      * @param additionalVariableSize An additional size of the local variable array to consider when writing or reading values.
                      */
                     protected ReturnValueDiscarding(MethodVisitor methodVisitor,
@@ -2259,8 +2983,9 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
                                                     MethodDescription.InDefinedShape adviseMethod,
                                                     Map<Integer, Resolved.OffsetMapping.Target> offsetMappings,
                                                     TypeDescription throwableType,
+                                                    Object[] localVariables,
                                                     StackSize additionalVariableSize) {
-                        super(methodVisitor, instrumentedMethod, adviseMethod, offsetMappings, throwableType);
+                        super(methodVisitor, instrumentedMethod, adviseMethod, offsetMappings, throwableType, localVariables, localVariables);
                         this.additionalVariableSize = additionalVariableSize;
                     }
 
@@ -2358,7 +3083,8 @@ public class Advice implements AsmVisitorWrapper.ForDeclaredMethods.MethodVisito
     public @interface OnMethodExit {
 
         /**
-         * Indicates that the advise method should also be called when a method terminates exceptionally.
+         * Indicates that the advise method should also be called when a method terminates exceptionally. For a constructor, this only
+         * applies to exceptions that are thrown after the instance was initialized by invoking another constructor.
          *
          * @return {@code true} if the advise method should be invoked when a method terminates exceptionally.
          */
@@ -0,0 +1,1973 @@
+package net.bytebuddy.build;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeList;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.JarRewriter;
+import net.bytebuddy.dynamic.scaffold.inline.MethodNameTransformer;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.StreamDrainer;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.jar.*;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+
+/**
+ * A plugin transforms types at build time. A plugin matches any type it intends to transform and is then applied
+ * to a builder for any matched type. Plugins are applied to an entire class path by an {@link Engine}.
+ */
+public interface Plugin extends ElementMatcher<TypeDescription> {
+
+    /**
+     * Applies this plugin to a type that was matched by this plugin.
+     *
+     * @param builder         The builder for the transformed type.
+     * @param typeDescription The description of the transformed type.
+     * @return The builder to use for creating the transformed type.
+     */
+    DynamicType.Builder<?> apply(DynamicType.Builder<?> builder, TypeDescription typeDescription);
+
+    /**
+     * <p>
+     * An engine applies plugins to all class files of a folder or a jar file and writes the result to another folder
+     * or jar file. All types are described by a single {@link TypePool} that is shared by all transformations and that
+     * resolves types from the transformed source before querying the engine's class file locator. Any resource that is
+     * not a class file is copied without modification.
+     * </p>
+     * <p>
+     * Any class file is transformed by a {@link JarRewriter.Dispatcher} such that types can be transformed concurrently.
+     * Independently of the dispatcher, class files are written in the order in which they are read while any resource
+     * is written as soon as it is read. If a type cannot be transformed, the error is reported to the engine's listener
+     * and the original class file is retained. The result of an application is described by a {@link Summary}.
+     * </p>
+     * <p>
+     * An engine can apply plugins incrementally by recording an {@link Index} of the hashes of all class files it reads and
+     * writes together with a fingerprint of its configuration. A class file that is unchanged since a previous application
+     * is copied from the target of the previous application without being parsed, unless one of its super types that is
+     * contained in the source was changed.
+     * </p>
+     */
+    class Engine {
+
+        /**
+         * The file name extension for Java class files.
+         */
+        private static final String CLASS_FILE_EXTENSION = ".class";
+
+        /**
+         * The maximum number of class files that are read ahead of the class file that is currently written.
+         */
+        private static final int READ_AHEAD = 256;
+
+        /**
+         * The algorithm that is used for hashing class files.
+         */
+        private static final String HASH_ALGORITHM = "SHA-1";
+
+        /**
+         * A marker for a type that is not contained in the transformed source.
+         */
+        private static final String ABSENT = "";
+
+        /**
+         * The Byte Buddy configuration to use.
+         */
+        private final ByteBuddy byteBuddy;
+
+        /**
+         * The type strategy to use for creating a builder for a transformed type.
+         */
+        private final AgentBuilder.TypeStrategy typeStrategy;
+
+        /**
+         * The method name transformer to use for rebasing types.
+         */
+        private final MethodNameTransformer methodNameTransformer;
+
+        /**
+         * The class file locator to use for types that are not contained in the transformed source.
+         */
+        private final ClassFileLocator classFileLocator;
+
+        /**
+         * The plugins to apply.
+         */
+        private final List<? extends Plugin> plugins;
+
+        /**
+         * The listener to notify of any transformation.
+         */
+        private final AgentBuilder.Listener listener;
+
+        /**
+         * The dispatcher to use for transforming class files.
+         */
+        private final JarRewriter.Dispatcher dispatcher;
+
+        /**
+         * The index to use for applying plugins incrementally.
+         */
+        private final Index index;
+
+        /**
+         * Creates a new engine with a default Byte Buddy configuration.
+         */
+        public Engine() {
+            this(new ByteBuddy());
+        }
+
+        /**
+         * Creates a new engine that rebases any matched type while resolving types that are not contained in the transformed
+         * source from the system class loader. Methods of rebased types are renamed using a fixed prefix such that an engine's
+         * output is reproducible.
+         *
+         * @param byteBuddy The Byte Buddy configuration to use.
+         */
+        public Engine(ByteBuddy byteBuddy) {
+            this(byteBuddy,
+                    AgentBuilder.TypeStrategy.Default.REBASE,
+                    new MethodNameTransformer.Prefixing(),
+                    ClassFileLocator.ForClassLoader.ofClassPath(),
+                    Collections.<Plugin>emptyList(),
+                    AgentBuilder.Listener.NoOp.INSTANCE,
+                    JarRewriter.Dispatcher.Synchronous.INSTANCE,
+                    Index.Disabled.INSTANCE);
+        }
+
+        /**
+         * Creates a new engine.
+         *
+         * @param byteBuddy             The Byte Buddy configuration to use.
+         * @param typeStrategy          The type strategy to use for creating a builder for a transformed type.
+         * @param methodNameTransformer The method name transformer to use for rebasing types.
+         * @param classFileLocator      The class file locator to use for types that are not contained in the transformed source.
+         * @param plugins               The plugins to apply.
+         * @param listener              The listener to notify of any transformation.
+         * @param dispatcher            The dispatcher to use for transforming class files.
+         * @param index                 The index to use for applying plugins incrementally.
+         */
+        protected Engine(ByteBuddy byteBuddy,
+                         AgentBuilder.TypeStrategy typeStrategy,
+                         MethodNameTransformer methodNameTransformer,
+                         ClassFileLocator classFileLocator,
+                         List<? extends Plugin> plugins,
+                         AgentBuilder.Listener listener,
+                         JarRewriter.Dispatcher dispatcher,
+                         Index index) {
+            this.byteBuddy = byteBuddy;
+            this.typeStrategy = typeStrategy;
+            this.methodNameTransformer = methodNameTransformer;
+            this.classFileLocator = classFileLocator;
+            this.plugins = plugins;
+            this.listener = listener;
+            this.dispatcher = dispatcher;
+            this.index = index;
+        }
+
+        /**
+         * Returns an engine that additionally applies the given plugins.
+         *
+         * @param plugin The plugins to apply.
+         * @return An engine that additionally applies the given plugins.
+         */
+        public Engine with(Plugin... plugin) {
+            return with(Arrays.asList(plugin));
+        }
+
+        /**
+         * Returns an engine that additionally applies the given plugins. If several plugins match a type, they are
+         * applied in the order of their registration.
+         *
+         * @param plugins The plugins to apply.
+         * @return An engine that additionally applies the given plugins.
+         */
+        public Engine with(List<? extends Plugin> plugins) {
+            List<Plugin> registered = new ArrayList<Plugin>(this.plugins.size() + plugins.size());
+            registered.addAll(this.plugins);
+            registered.addAll(plugins);
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, registered, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that uses the given type strategy for creating a builder for a transformed type.
+         *
+         * @param typeStrategy The type strategy to use.
+         * @return An engine that uses the given type strategy.
+         */
+        public Engine with(AgentBuilder.TypeStrategy typeStrategy) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that uses the given method name transformer for rebasing types.
+         *
+         * @param methodNameTransformer The method name transformer to use.
+         * @return An engine that uses the given method name transformer.
+         */
+        public Engine with(MethodNameTransformer methodNameTransformer) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that uses the given class file locator for types that are not contained in the transformed source,
+         * for example for the dependencies of the transformed class path.
+         *
+         * @param classFileLocator The class file locator to use.
+         * @return An engine that uses the given class file locator.
+         */
+        public Engine with(ClassFileLocator classFileLocator) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that notifies the given listener of any transformation. A listener is notified on the
+         * thread that transforms a type and must therefore be thread-safe if class files are transformed concurrently.
+         *
+         * @param listener The listener to notify.
+         * @return An engine that notifies the given listener.
+         */
+        public Engine with(AgentBuilder.Listener listener) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that transforms class files using the given dispatcher.
+         *
+         * @param dispatcher The dispatcher to use.
+         * @return An engine that transforms class files using the given dispatcher.
+         */
+        public Engine with(JarRewriter.Dispatcher dispatcher) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Returns an engine that transforms class files concurrently using the given executor service. The executor
+         * service is not shut down by the engine.
+         *
+         * @param executorService The executor service to use.
+         * @return An engine that transforms class files using the given executor service.
+         */
+        public Engine with(ExecutorService executorService) {
+            return with(new JarRewriter.Dispatcher.ForExecutorService(executorService));
+        }
+
+        /**
+         * Returns an engine that applies its plugins incrementally by using the given index.
+         *
+         * @param index The index to use.
+         * @return An engine that applies its plugins incrementally by using the given index.
+         */
+        public Engine with(Index index) {
+            return new Engine(byteBuddy, typeStrategy, methodNameTransformer, classFileLocator, plugins, listener, dispatcher, index);
+        }
+
+        /**
+         * Applies this engine to a folder or a jar file. If the source is a folder, the result is written to the target folder.
+         * Otherwise, the source is read as a jar file and the result is written to the target jar file.
+         *
+         * @param source The folder or jar file to transform.
+         * @param target The folder or jar file to write the result to. This file can be equal to the source.
+         * @return A summary of the application.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public Summary apply(File source, File target) throws IOException {
+            return source.isDirectory()
+                    ? apply(new Source.ForFolder(source), new Target.ForFolder(target))
+                    : apply(new Source.ForJarFile(source), new Target.ForJarFile(target));
+        }
+
+        /**
+         * Applies this engine to the given source and writes the result to the given target.
+         *
+         * @param source The source to transform.
+         * @param target The target to write the result to.
+         * @return A summary of the application.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public Summary apply(Source source, Target target) throws IOException {
+            long start = System.nanoTime();
+            String fingerprint = fingerprint();
+            Map<String, Index.Entry> entries = index.read(fingerprint);
+            Application application;
+            Source.Origin origin = source.read();
+            try {
+                Target.Sink sink = target.write(origin.getManifest());
+                try {
+                    application = new Application(origin.getClassFileLocator(), sink, entries);
+                    Queue<Future<Map<String, byte[]>>> pendingTypes = new LinkedList<Future<Map<String, byte[]>>>();
+                    try {
+                        Source.Element element;
+                        while ((element = origin.next()) != null) {
+                            if (!element.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                                sink.store(element.getName(), element.getBinaryRepresentation());
+                            } else if (!application.isGenerated(element)) {
+                                pendingTypes.add(dispatcher.dispatch(new TransformationTask(application, element)));
+                                while (pendingTypes.size() > READ_AHEAD) {
+                                    store(pendingTypes.remove(), sink);
+                                }
+                            }
+                        }
+                        while (!pendingTypes.isEmpty()) {
+                            store(pendingTypes.remove(), sink);
+                        }
+                    } finally {
+                        for (Future<?> pendingType : pendingTypes) {
+                            pendingType.cancel(true);
+                        }
+                    }
+                    sink.commit();
+                } finally {
+                    sink.close();
+                }
+            } finally {
+                origin.close();
+            }
+            index.write(fingerprint, application.getEntries());
+            return application.summarize(System.nanoTime() - start);
+        }
+
+        /**
+         * Returns a fingerprint of this engine's configuration that is stable between different runs of a Java virtual machine.
+         * The fingerprint only considers the types of the Byte Buddy configuration, the type strategy, the method name transformer,
+         * the class file locator for types that are not contained in the transformed source and all registered plugins, as well as
+         * the names of any of these components that are enumerations. Any other configuration, such as the settings of the Byte Buddy
+         * configuration or of a plugin, must be reflected by the version of the engine's index.
+         *
+         * @return A fingerprint of this engine's configuration.
+         */
+        protected String fingerprint() {
+            StringBuilder stringBuilder = new StringBuilder()
+                    .append(describe(byteBuddy))
+                    .append(';')
+                    .append(describe(typeStrategy))
+                    .append(';')
+                    .append(describe(methodNameTransformer))
+                    .append(';')
+                    .append(describe(classFileLocator));
+            for (Plugin plugin : plugins) {
+                stringBuilder.append(';').append(describe(plugin));
+            }
+            return hash(stringBuilder.toString().getBytes(Charset.forName("UTF-8")));
+        }
+
+        /**
+         * Describes a component of an engine's configuration by values that are stable between different runs of a Java virtual machine.
+         *
+         * @param component The component to describe.
+         * @return The name of the component's type and the component's name if it is an enumeration.
+         */
+        private static String describe(Object component) {
+            return component instanceof Enum<?>
+                    ? ((Enum<?>) component).getDeclaringClass().getName() + "." + ((Enum<?>) component).name()
+                    : component.getClass().getName();
+        }
+
+        /**
+         * Computes a hash of a binary representation.
+         *
+         * @param binaryRepresentation The binary representation to hash.
+         * @return A hexadecimal representation of the hash.
+         */
+        private static String hash(byte[] binaryRepresentation) {
+            MessageDigest messageDigest;
+            try {
+                messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
+            } catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("Cannot hash class files using " + HASH_ALGORITHM, exception);
+            }
+            StringBuilder stringBuilder = new StringBuilder();
+            for (byte value : messageDigest.digest(binaryRepresentation)) {
+                stringBuilder.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+            }
+            return stringBuilder.toString();
+        }
+
+        /**
+         * Stores the class files that result from a transformation.
+         *
+         * @param pendingType A future representing the class files that result from a transformation.
+         * @param sink        The sink to write the class files to.
+         * @throws IOException If an I/O exception occurs.
+         */
+        private static void store(Future<Map<String, byte[]>> pendingType, Target.Sink sink) throws IOException {
+            Map<String, byte[]> classFiles;
+            try {
+                classFiles = pendingType.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while transforming class files");
+            } catch (ExecutionException exception) {
+                throw new IllegalStateException("Cannot transform class file", exception.getCause());
+            }
+            for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                sink.store(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            Engine engine = (Engine) other;
+            return byteBuddy.equals(engine.byteBuddy)
+                    && typeStrategy.equals(engine.typeStrategy)
+                    && methodNameTransformer.equals(engine.methodNameTransformer)
+                    && classFileLocator.equals(engine.classFileLocator)
+                    && plugins.equals(engine.plugins)
+                    && listener.equals(engine.listener)
+                    && dispatcher.equals(engine.dispatcher)
+                    && index.equals(engine.index);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = byteBuddy.hashCode();
+            result = 31 * result + typeStrategy.hashCode();
+            result = 31 * result + methodNameTransformer.hashCode();
+            result = 31 * result + classFileLocator.hashCode();
+            result = 31 * result + plugins.hashCode();
+            result = 31 * result + listener.hashCode();
+            result = 31 * result + dispatcher.hashCode();
+            result = 31 * result + index.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Plugin.Engine{" +
+                    "byteBuddy=" + byteBuddy +
+                    ", typeStrategy=" + typeStrategy +
+                    ", methodNameTransformer=" + methodNameTransformer +
+                    ", classFileLocator=" + classFileLocator +
+                    ", plugins=" + plugins +
+                    ", listener=" + listener +
+                    ", dispatcher=" + dispatcher +
+                    ", index=" + index +
+                    '}';
+        }
+
+        /**
+         * A source of class files and resources that are transformed by an engine.
+         */
+        public interface Source {
+
+            /**
+             * Opens this source for reading.
+             *
+             * @return An origin representing the opened source.
+             * @throws IOException If an I/O exception occurs.
+             */
+            Origin read() throws IOException;
+
+            /**
+             * An opened source that must be closed after it was read.
+             */
+            interface Origin extends Closeable {
+
+                /**
+                 * Returns the manifest of this origin.
+                 *
+                 * @return The manifest of this origin or {@code null} if this origin does not define a manifest.
+                 * @throws IOException If an I/O exception occurs.
+                 */
+                Manifest getManifest() throws IOException;
+
+                /**
+                 * Returns a class file locator for the class files of this origin.
+                 *
+                 * @return A class file locator for the class files of this origin.
+                 */
+                ClassFileLocator getClassFileLocator();
+
+                /**
+                 * Reads the next element of this origin. A manifest is never represented as an element.
+                 *
+                 * @return The next element of this origin or {@code null} if all elements were read.
+                 * @throws IOException If an I/O exception occurs.
+                 */
+                Element next() throws IOException;
+            }
+
+            /**
+             * An element of a source, i.e. a class file or a resource.
+             */
+            class Element {
+
+                /**
+                 * The name of the element, relative to the source's root and using {@code /} as a separator.
+                 */
+                private final String name;
+
+                /**
+                 * The binary representation of the element.
+                 */
+                private final byte[] binaryRepresentation;
+
+                /**
+                 * Creates a new element.
+                 *
+                 * @param name                 The name of the element, relative to the source's root and using {@code /} as a separator.
+                 * @param binaryRepresentation The binary representation of the element.
+                 */
+                public Element(String name, byte[] binaryRepresentation) {
+                    this.name = name;
+                    this.binaryRepresentation = binaryRepresentation;
+                }
+
+                /**
+                 * Returns the name of the element, relative to the source's root and using {@code /} as a separator.
+                 *
+                 * @return The name of the element.
+                 */
+                public String getName() {
+                    return name;
+                }
+
+                /**
+                 * Returns the binary representation of the element.
+                 *
+                 * @return The binary representation of the element.
+                 */
+                public byte[] getBinaryRepresentation() {
+                    return binaryRepresentation;
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other == null || getClass() != other.getClass()) return false;
+                    Element element = (Element) other;
+                    return name.equals(element.name) && Arrays.equals(binaryRepresentation, element.binaryRepresentation);
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * name.hashCode() + Arrays.hashCode(binaryRepresentation);
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Source.Element{" +
+                            "name='" + name + '\'' +
+                            ", binaryRepresentation=<" + binaryRepresentation.length + " bytes>" +
+                            '}';
+                }
+            }
+
+            /**
+             * A source that reads all files of a folder. Files are read in the lexical order of their names.
+             */
+            class ForFolder implements Source {
+
+                /**
+                 * The folder to read.
+                 */
+                private final File folder;
+
+                /**
+                 * Creates a new source for a folder.
+                 *
+                 * @param folder The folder to read.
+                 */
+                public ForFolder(File folder) {
+                    this.folder = folder;
+                }
+
+                @Override
+                public Source.Origin read() {
+                    return new Traversal(folder);
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && folder.equals(((ForFolder) other).folder);
+                }
+
+                @Override
+                public int hashCode() {
+                    return folder.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Source.ForFolder{" +
+                            "folder=" + folder +
+                            '}';
+                }
+
+                /**
+                 * A traversal of a folder's files.
+                 */
+                protected static class Traversal implements Source.Origin {
+
+                    /**
+                     * The folder that is traversed.
+                     */
+                    private final File folder;
+
+                    /**
+                     * The files and folders that are not yet traversed.
+                     */
+                    private final LinkedList<File> files;
+
+                    /**
+                     * Creates a new traversal.
+                     *
+                     * @param folder The folder that is traversed.
+                     */
+                    protected Traversal(File folder) {
+                        this.folder = folder;
+                        files = new LinkedList<File>();
+                        enqueue(folder);
+                    }
+
+                    /**
+                     * Enqueues the files and folders of a folder in the lexical order of their names.
+                     *
+                     * @param folder The folder of which to enqueue the files and folders.
+                     */
+                    private void enqueue(File folder) {
+                        File[] file = folder.listFiles();
+                        if (file != null) {
+                            Arrays.sort(file);
+                            files.addAll(0, Arrays.asList(file));
+                        }
+                    }
+
+                    @Override
+                    public Manifest getManifest() throws IOException {
+                        File file = new File(folder, JarFile.MANIFEST_NAME);
+                        if (!file.exists()) {
+                            return null;
+                        }
+                        InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+                        try {
+                            return new Manifest(inputStream);
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+
+                    @Override
+                    public ClassFileLocator getClassFileLocator() {
+                        return new ClassFileLocator.ForFolder(folder);
+                    }
+
+                    @Override
+                    public Source.Element next() throws IOException {
+                        while (!files.isEmpty()) {
+                            File file = files.removeFirst();
+                            if (file.isDirectory()) {
+                                enqueue(file);
+                                continue;
+                            }
+                            String name = file.getAbsolutePath()
+                                    .substring(folder.getAbsolutePath().length() + 1)
+                                    .replace(File.separatorChar, '/');
+                            if (name.equals(JarFile.MANIFEST_NAME)) {
+                                continue;
+                            }
+                            InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+                            try {
+                                return new Source.Element(name, StreamDrainer.DEFAULT.drain(inputStream));
+                            } finally {
+                                inputStream.close();
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public void close() {
+                        /* do nothing */
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "Plugin.Engine.Source.ForFolder.Traversal{" +
+                                "folder=" + folder +
+                                ", files=" + files +
+                                '}';
+                    }
+                }
+            }
+
+            /**
+             * A source that reads all entries of a jar file in their original order.
+             */
+            class ForJarFile implements Source {
+
+                /**
+                 * The jar file to read.
+                 */
+                private final File file;
+
+                /**
+                 * Creates a new source for a jar file.
+                 *
+                 * @param file The jar file to read.
+                 */
+                public ForJarFile(File file) {
+                    this.file = file;
+                }
+
+                @Override
+                public Source.Origin read() throws IOException {
+                    ClassFileLocator.ForJarFile classFileLocator = new ClassFileLocator.ForJarFile(new JarFile(file));
+                    try {
+                        return new Traversal(new JarInputStream(new BufferedInputStream(new FileInputStream(file))), classFileLocator);
+                    } catch (IOException exception) {
+                        classFileLocator.close();
+                        throw exception;
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && file.equals(((ForJarFile) other).file);
+                }
+
+                @Override
+                public int hashCode() {
+                    return file.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Source.ForJarFile{" +
+                            "file=" + file +
+                            '}';
+                }
+
+                /**
+                 * A traversal of a jar file's entries.
+                 */
+                protected static class Traversal implements Source.Origin {
+
+                    /**
+                     * The jar input stream to read entries from.
+                     */
+                    private final JarInputStream jarInputStream;
+
+                    /**
+                     * A class file locator for the jar file's class files.
+                     */
+                    private final ClassFileLocator.ForJarFile classFileLocator;
+
+                    /**
+                     * Creates a new traversal.
+                     *
+                     * @param jarInputStream   The jar input stream to read entries from.
+                     * @param classFileLocator A class file locator for the jar file's class files.
+                     */
+                    protected Traversal(JarInputStream jarInputStream, ClassFileLocator.ForJarFile classFileLocator) {
+                        this.jarInputStream = jarInputStream;
+                        this.classFileLocator = classFileLocator;
+                    }
+
+                    @Override
+                    public Manifest getManifest() {
+                        return jarInputStream.getManifest();
+                    }
+
+                    @Override
+                    public ClassFileLocator getClassFileLocator() {
+                        return classFileLocator;
+                    }
+
+                    @Override
+                    public Source.Element next() throws IOException {
+                        JarEntry jarEntry;
+                        while ((jarEntry = jarInputStream.getNextJarEntry()) != null) {
+                            if (!jarEntry.isDirectory()) {
+                                return new Source.Element(jarEntry.getName(), StreamDrainer.DEFAULT.drain(jarInputStream));
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            jarInputStream.close();
+                        } finally {
+                            classFileLocator.close();
+                        }
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "Plugin.Engine.Source.ForJarFile.Traversal{" +
+                                "jarInputStream=" + jarInputStream +
+                                ", classFileLocator=" + classFileLocator +
+                                '}';
+                    }
+                }
+            }
+        }
+
+        /**
+         * A target to which an engine writes transformed class files and copied resources.
+         */
+        public interface Target {
+
+            /**
+             * Opens this target for writing.
+             *
+             * @param manifest The manifest to write or {@code null} if no manifest should be written.
+             * @return A sink for writing to this target.
+             * @throws IOException If an I/O exception occurs.
+             */
+            Sink write(Manifest manifest) throws IOException;
+
+            /**
+             * A sink for writing elements to a target. Closing a sink that was not committed discards any written element
+             * where this is possible.
+             */
+            interface Sink extends Closeable {
+
+                /**
+                 * Stores an element.
+                 *
+                 * @param name                 The name of the element, relative to the target's root and using {@code /} as a separator.
+                 * @param binaryRepresentation The binary representation of the element.
+                 * @throws IOException If an I/O exception occurs.
+                 */
+                void store(String name, byte[] binaryRepresentation) throws IOException;
+
+                /**
+                 * Retrieves an element that was stored in this sink's target by a previous application. This method must be
+                 * thread-safe.
+                 *
+                 * @param name The name of the element, relative to the target's root and using {@code /} as a separator.
+                 * @return The binary representation of the element or {@code null} if no such element exists.
+                 * @throws IOException If an I/O exception occurs.
+                 */
+                byte[] retrieve(String name) throws IOException;
+
+                /**
+                 * Commits all stored elements.
+                 *
+                 * @throws IOException If an I/O exception occurs.
+                 */
+                void commit() throws IOException;
+            }
+
+            /**
+             * A target that writes any element as a file into a folder.
+             */
+            class ForFolder implements Target {
+
+                /**
+                 * The folder to write to.
+                 */
+                private final File folder;
+
+                /**
+                 * Creates a new target for a folder.
+                 *
+                 * @param folder The folder to write to.
+                 */
+                public ForFolder(File folder) {
+                    this.folder = folder;
+                }
+
+                @Override
+                public Sink write(Manifest manifest) throws IOException {
+                    Sink sink = new Storage(folder);
+                    if (manifest != null) {
+                        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                        manifest.write(outputStream);
+                        sink.store(JarFile.MANIFEST_NAME, outputStream.toByteArray());
+                    }
+                    return sink;
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && folder.equals(((ForFolder) other).folder);
+                }
+
+                @Override
+                public int hashCode() {
+                    return folder.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Target.ForFolder{" +
+                            "folder=" + folder +
+                            '}';
+                }
+
+                /**
+                 * A sink that writes any element directly into a folder.
+                 */
+                protected static class Storage implements Sink {
+
+                    /**
+                     * The folder to write to.
+                     */
+                    private final File folder;
+
+                    /**
+                     * Creates a new storage.
+                     *
+                     * @param folder The folder to write to.
+                     */
+                    protected Storage(File folder) {
+                        this.folder = folder;
+                    }
+
+                    @Override
+                    public void store(String name, byte[] binaryRepresentation) throws IOException {
+                        File file = new File(folder, name.replace('/', File.separatorChar));
+                        File parent = file.getParentFile();
+                        if (!parent.isDirectory() && !parent.mkdirs()) {
+                            throw new IOException("Could not create folder: " + parent);
+                        }
+                        OutputStream outputStream = new FileOutputStream(file);
+                        try {
+                            outputStream.write(binaryRepresentation);
+                        } finally {
+                            outputStream.close();
+                        }
+                    }
+
+                    @Override
+                    public byte[] retrieve(String name) throws IOException {
+                        File file = new File(folder, name.replace('/', File.separatorChar));
+                        if (!file.isFile()) {
+                            return null;
+                        }
+                        InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+                        try {
+                            return StreamDrainer.DEFAULT.drain(inputStream);
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+
+                    @Override
+                    public void commit() {
+                        /* do nothing */
+                    }
+
+                    @Override
+                    public void close() {
+                        /* do nothing */
+                    }
+
+                    @Override
+                    public boolean equals(Object other) {
+                        return this == other || !(other == null || getClass() != other.getClass())
+                                && folder.equals(((Storage) other).folder);
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        return folder.hashCode();
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "Plugin.Engine.Target.ForFolder.Storage{" +
+                                "folder=" + folder +
+                                '}';
+                    }
+                }
+            }
+
+            /**
+             * A target that writes any element as an entry of a jar file. The jar file is first written to a temporary
+             * file within the target's folder which replaces the target once it is committed.
+             */
+            class ForJarFile implements Target {
+
+                /**
+                 * A suffix for temporary files.
+                 */
+                private static final String TEMP_SUFFIX = "tmp";
+
+                /**
+                 * The jar file to write.
+                 */
+                private final File file;
+
+                /**
+                 * Creates a new target for a jar file.
+                 *
+                 * @param file The jar file to write.
+                 */
+                public ForJarFile(File file) {
+                    this.file = file;
+                }
+
+                @Override
+                public Sink write(Manifest manifest) throws IOException {
+                    File temporary = File.createTempFile(file.getName(), TEMP_SUFFIX, file.getAbsoluteFile().getParentFile());
+                    try {
+                        return new Storage(file, temporary, manifest == null
+                                ? new JarOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))
+                                : new JarOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)), manifest));
+                    } catch (IOException exception) {
+                        if (!temporary.delete()) {
+                            Logger.getAnonymousLogger().warning("Cannot delete " + temporary);
+                        }
+                        throw exception;
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && file.equals(((ForJarFile) other).file);
+                }
+
+                @Override
+                public int hashCode() {
+                    return file.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Target.ForJarFile{" +
+                            "file=" + file +
+                            '}';
+                }
+
+                /**
+                 * A sink that writes any element to a temporary jar file. Elements of a previous application are retrieved
+                 * from the jar file that is replaced once this sink is committed.
+                 */
+                protected static class Storage implements Sink {
+
+                    /**
+                     * The jar file to replace once this sink is committed.
+                     */
+                    private final File file;
+
+                    /**
+                     * The temporary file that is written to.
+                     */
+                    private final File temporary;
+
+                    /**
+                     * The jar output stream that writes to the temporary file.
+                     */
+                    private final JarOutputStream jarOutputStream;
+
+                    /**
+                     * {@code true} if this sink was committed.
+                     */
+                    private boolean committed;
+
+                    /**
+                     * The jar file of a previous application or {@code null} if it was not yet opened.
+                     */
+                    private JarFile previous;
+
+                    /**
+                     * Creates a new storage.
+                     *
+                     * @param file            The jar file to replace once this sink is committed.
+                     * @param temporary       The temporary file that is written to.
+                     * @param jarOutputStream The jar output stream that writes to the temporary file.
+                     */
+                    protected Storage(File file, File temporary, JarOutputStream jarOutputStream) {
+                        this.file = file;
+                        this.temporary = temporary;
+                        this.jarOutputStream = jarOutputStream;
+                    }
+
+                    @Override
+                    public void store(String name, byte[] binaryRepresentation) throws IOException {
+                        jarOutputStream.putNextEntry(new JarEntry(name));
+                        jarOutputStream.write(binaryRepresentation);
+                        jarOutputStream.closeEntry();
+                    }
+
+                    @Override
+                    public synchronized byte[] retrieve(String name) throws IOException {
+                        if (previous == null) {
+                            if (!file.isFile() || file.length() == 0L) {
+                                return null;
+                            }
+                            previous = new JarFile(file);
+                        }
+                        ZipEntry zipEntry = previous.getEntry(name);
+                        if (zipEntry == null) {
+                            return null;
+                        }
+                        InputStream inputStream = previous.getInputStream(zipEntry);
+                        try {
+                            return StreamDrainer.DEFAULT.drain(inputStream);
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+
+                    @Override
+                    public void commit() throws IOException {
+                        jarOutputStream.close();
+                        release();
+                        if (!temporary.renameTo(file)) {
+                            if (!file.delete() || !temporary.renameTo(file)) {
+                                throw new IOException("Cannot replace " + file + " by " + temporary);
+                            }
+                        }
+                        committed = true;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        if (!committed) {
+                            try {
+                                jarOutputStream.close();
+                                release();
+                            } finally {
+                                if (!temporary.delete()) {
+                                    Logger.getAnonymousLogger().warning("Cannot delete " + temporary);
+                                }
+                            }
+                        }
+                    }
+
+                    /**
+                     * Closes the jar file of a previous application if it was opened.
+                     *
+                     * @throws IOException If an I/O exception occurs.
+                     */
+                    private synchronized void release() throws IOException {
+                        if (previous != null) {
+                            previous.close();
+                            previous = null;
+                        }
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "Plugin.Engine.Target.ForJarFile.Storage{" +
+                                "file=" + file +
+                                ", temporary=" + temporary +
+                                ", jarOutputStream=" + jarOutputStream +
+                                ", committed=" + committed +
+                                ", previous=" + previous +
+                                '}';
+                    }
+                }
+            }
+        }
+
+        /**
+         * A summary of an engine's application.
+         */
+        public static class Summary {
+
+            /**
+             * The number of nanoseconds per second.
+             */
+            private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+            /**
+             * The types that were transformed.
+             */
+            private final List<TypeDescription> transformed;
+
+            /**
+             * The types that were not matched by any plugin.
+             */
+            private final List<TypeDescription> ignored;
+
+            /**
+             * The names of the types that were unchanged since a previous application and that were retained without being parsed.
+             */
+            private final List<String> retained;
+
+            /**
+             * The names of the types that could not be transformed mapped to the error that was raised.
+             */
+            private final Map<String, Throwable> failed;
+
+            /**
+             * The duration of the application in nanoseconds.
+             */
+            private final long duration;
+
+            /**
+             * Creates a new summary.
+             *
+             * @param transformed The types that were transformed.
+             * @param ignored     The types that were not matched by any plugin.
+             * @param retained    The names of the types that were unchanged since a previous application and that were retained.
+             * @param failed      The names of the types that could not be transformed mapped to the error that was raised.
+             * @param duration    The duration of the application in nanoseconds.
+             */
+            public Summary(List<TypeDescription> transformed,
+                           List<TypeDescription> ignored,
+                           List<String> retained,
+                           Map<String, Throwable> failed,
+                           long duration) {
+                this.transformed = transformed;
+                this.ignored = ignored;
+                this.retained = retained;
+                this.failed = failed;
+                this.duration = duration;
+            }
+
+            /**
+             * Returns the types that were transformed.
+             *
+             * @return The types that were transformed.
+             */
+            public List<TypeDescription> getTransformed() {
+                return transformed;
+            }
+
+            /**
+             * Returns the types that were not matched by any plugin.
+             *
+             * @return The types that were not matched by any plugin.
+             */
+            public List<TypeDescription> getIgnored() {
+                return ignored;
+            }
+
+            /**
+             * Returns the names of the types that were unchanged since a previous application and that were retained without
+             * being parsed.
+             *
+             * @return The names of the types that were retained.
+             */
+            public List<String> getRetained() {
+                return retained;
+            }
+
+            /**
+             * Returns the names of the types that could not be transformed mapped to the error that was raised.
+             *
+             * @return The names of the types that could not be transformed mapped to the error that was raised.
+             */
+            public Map<String, Throwable> getFailed() {
+                return failed;
+            }
+
+            /**
+             * Returns the duration of the application.
+             *
+             * @param timeUnit The time unit of the returned value.
+             * @return The duration of the application.
+             */
+            public long getDuration(TimeUnit timeUnit) {
+                return timeUnit.convert(duration, TimeUnit.NANOSECONDS);
+            }
+
+            /**
+             * Returns the throughput of the application as the number of processed types per second, including types that
+             * were ignored, retained or that could not be transformed.
+             *
+             * @return The number of processed types per second.
+             */
+            public double getThroughput() {
+                return (transformed.size() + ignored.size() + retained.size() + failed.size()) * NANOS_PER_SECOND / Math.max(duration, 1L);
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                if (this == other) return true;
+                if (other == null || getClass() != other.getClass()) return false;
+                Summary summary = (Summary) other;
+                return duration == summary.duration
+                        && transformed.equals(summary.transformed)
+                        && ignored.equals(summary.ignored)
+                        && retained.equals(summary.retained)
+                        && failed.equals(summary.failed);
+            }
+
+            @Override
+            public int hashCode() {
+                int result = transformed.hashCode();
+                result = 31 * result + ignored.hashCode();
+                result = 31 * result + retained.hashCode();
+                result = 31 * result + failed.hashCode();
+                result = 31 * result + (int) (duration ^ (duration >>> 32));
+                return result;
+            }
+
+            @Override
+            public String toString() {
+                return "Plugin.Engine.Summary{" +
+                        "transformed=" + transformed +
+                        ", ignored=" + ignored +
+                        ", retained=" + retained +
+                        ", failed=" + failed +
+                        ", duration=" + duration +
+                        '}';
+            }
+        }
+
+        /**
+         * An index records the class files that were read and written by an engine's previous application such that
+         * unchanged class files do not need to be transformed again.
+         */
+        public interface Index {
+
+            /**
+             * Reads the entries of a previous application.
+             *
+             * @param fingerprint The fingerprint of the engine's configuration.
+             * @return The entries of a previous application by the names of the class files that were read or an empty map
+             * if no previous application with an equal fingerprint is known.
+             * @throws IOException If an I/O exception occurs.
+             */
+            Map<String, Entry> read(String fingerprint) throws IOException;
+
+            /**
+             * Writes the entries of an application.
+             *
+             * @param fingerprint The fingerprint of the engine's configuration.
+             * @param entries     The entries of the application by the names of the class files that were read.
+             * @throws IOException If an I/O exception occurs.
+             */
+            void write(String fingerprint, Map<String, Entry> entries) throws IOException;
+
+            /**
+             * Checks if this index retains the entries that are written to it. If an index is not enabled, an engine does
+             * not compute any entries.
+             *
+             * @return {@code true} if this index retains the entries that are written to it.
+             */
+            boolean isEnabled();
+
+            /**
+             * A disabled index that does not retain any class file.
+             */
+            enum Disabled implements Index {
+
+                /**
+                 * The singleton instance.
+                 */
+                INSTANCE;
+
+                @Override
+                public Map<String, Entry> read(String fingerprint) {
+                    return Collections.emptyMap();
+                }
+
+                @Override
+                public void write(String fingerprint, Map<String, Entry> entries) {
+                    /* do nothing */
+                }
+
+                @Override
+                public boolean isEnabled() {
+                    return false;
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Index.Disabled." + name();
+                }
+            }
+
+            /**
+             * An index that is persisted in a file. An index file that cannot be read completely is discarded.
+             */
+            class ForFile implements Index {
+
+                /**
+                 * The version of the index file's format.
+                 */
+                private static final int FORMAT = 1;
+
+                /**
+                 * The file to persist the index in.
+                 */
+                private final File file;
+
+                /**
+                 * A version of the plugins' configuration that is not reflected by an engine's fingerprint.
+                 */
+                private final String version;
+
+                /**
+                 * Creates a new index that is persisted in the given file.
+                 *
+                 * @param file The file to persist the index in.
+                 */
+                public ForFile(File file) {
+                    this(file, "");
+                }
+
+                /**
+                 * Creates a new index that is persisted in the given file. The version must be changed whenever the plugins
+                 * are configured differently such that class files that are unchanged are nevertheless transformed again.
+                 *
+                 * @param file    The file to persist the index in.
+                 * @param version A version of the plugins' configuration that is not reflected by an engine's fingerprint.
+                 */
+                public ForFile(File file, String version) {
+                    this.file = file;
+                    this.version = version;
+                }
+
+                @Override
+                public Map<String, Entry> read(String fingerprint) throws IOException {
+                    if (!file.isFile()) {
+                        return Collections.emptyMap();
+                    }
+                    DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                    try {
+                        if (inputStream.readInt() != FORMAT
+                                || !inputStream.readUTF().equals(version)
+                                || !inputStream.readUTF().equals(fingerprint)) {
+                            return Collections.emptyMap();
+                        }
+                        Map<String, Entry> entries = new HashMap<String, Entry>();
+                        for (int index = inputStream.readInt(); index > 0; index--) {
+                            String name = inputStream.readUTF(), hash = inputStream.readUTF();
+                            Map<String, String> outputs = new LinkedHashMap<String, String>();
+                            for (int output = inputStream.readInt(); output > 0; output--) {
+                                outputs.put(inputStream.readUTF(), inputStream.readUTF());
+                            }
+                            Set<String> dependencies = new LinkedHashSet<String>();
+                            for (int dependency = inputStream.readInt(); dependency > 0; dependency--) {
+                                dependencies.add(inputStream.readUTF());
+                            }
+                            entries.put(name, new Entry(hash, outputs, dependencies));
+                        }
+                        return entries;
+                    } catch (EOFException ignored) {
+                        return Collections.emptyMap();
+                    } finally {
+                        inputStream.close();
+                    }
+                }
+
+                @Override
+                public void write(String fingerprint, Map<String, Entry> entries) throws IOException {
+                    DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+                    try {
+                        outputStream.writeInt(FORMAT);
+                        outputStream.writeUTF(version);
+                        outputStream.writeUTF(fingerprint);
+                        outputStream.writeInt(entries.size());
+                        for (Map.Entry<String, Entry> entry : new TreeMap<String, Entry>(entries).entrySet()) {
+                            outputStream.writeUTF(entry.getKey());
+                            outputStream.writeUTF(entry.getValue().getHash());
+                            outputStream.writeInt(entry.getValue().getOutputs().size());
+                            for (Map.Entry<String, String> output : entry.getValue().getOutputs().entrySet()) {
+                                outputStream.writeUTF(output.getKey());
+                                outputStream.writeUTF(output.getValue());
+                            }
+                            outputStream.writeInt(entry.getValue().getDependencies().size());
+                            for (String dependency : entry.getValue().getDependencies()) {
+                                outputStream.writeUTF(dependency);
+                            }
+                        }
+                    } finally {
+                        outputStream.close();
+                    }
+                }
+
+                @Override
+                public boolean isEnabled() {
+                    return true;
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other == null || getClass() != other.getClass()) return false;
+                    ForFile forFile = (ForFile) other;
+                    return file.equals(forFile.file) && version.equals(forFile.version);
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * file.hashCode() + version.hashCode();
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Index.ForFile{" +
+                            "file=" + file +
+                            ", version='" + version + '\'' +
+                            '}';
+                }
+            }
+
+            /**
+             * An entry of an index that describes a single class file that was read by an engine.
+             */
+            class Entry {
+
+                /**
+                 * The hash of the class file that was read.
+                 */
+                private final String hash;
+
+                /**
+                 * The hashes of all class files that were written for the class file that was read by their names.
+                 */
+                private final Map<String, String> outputs;
+
+                /**
+                 * The names of all super types of the class file's type that are contained in the transformed source.
+                 */
+                private final Set<String> dependencies;
+
+                /**
+                 * Creates a new entry.
+                 *
+                 * @param hash         The hash of the class file that was read.
+                 * @param outputs      The hashes of all class files that were written for the class file that was read by their names.
+                 * @param dependencies The names of all super types of the class file's type that are contained in the transformed source.
+                 */
+                public Entry(String hash, Map<String, String> outputs, Set<String> dependencies) {
+                    this.hash = hash;
+                    this.outputs = outputs;
+                    this.dependencies = dependencies;
+                }
+
+                /**
+                 * Returns the hash of the class file that was read.
+                 *
+                 * @return The hash of the class file that was read.
+                 */
+                public String getHash() {
+                    return hash;
+                }
+
+                /**
+                 * Returns the hashes of all class files that were written for the class file that was read by their names.
+                 *
+                 * @return The hashes of all class files that were written by their names.
+                 */
+                public Map<String, String> getOutputs() {
+                    return outputs;
+                }
+
+                /**
+                 * Returns the names of all super types of the class file's type that are contained in the transformed source.
+                 *
+                 * @return The names of all super types that are contained in the transformed source.
+                 */
+                public Set<String> getDependencies() {
+                    return dependencies;
+                }
+
+                /**
+                 * Checks if a class file is unchanged. A class file is unchanged if it is equal to the class file that was read
+                 * or to the class file that was written by a previous application, as it is the case when a source is
+                 * transformed in place.
+                 *
+                 * @param name The name of the class file.
+                 * @param hash The hash of the class file.
+                 * @return {@code true} if the class file is unchanged.
+                 */
+                public boolean isUnchanged(String name, String hash) {
+                    return hash.equals(this.hash) || hash.equals(outputs.get(name));
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    if (this == other) return true;
+                    if (other == null || getClass() != other.getClass()) return false;
+                    Entry entry = (Entry) other;
+                    return hash.equals(entry.hash)
+                            && outputs.equals(entry.outputs)
+                            && dependencies.equals(entry.dependencies);
+                }
+
+                @Override
+                public int hashCode() {
+                    int result = hash.hashCode();
+                    result = 31 * result + outputs.hashCode();
+                    result = 31 * result + dependencies.hashCode();
+                    return result;
+                }
+
+                @Override
+                public String toString() {
+                    return "Plugin.Engine.Index.Entry{" +
+                            "hash='" + hash + '\'' +
+                            ", outputs=" + outputs +
+                            ", dependencies=" + dependencies +
+                            '}';
+                }
+            }
+        }
+
+        /**
+         * A single application of an engine which holds the state that is shared by all transformations.
+         */
+        protected class Application {
+
+            /**
+             * A class file locator for the class files of the transformed source.
+             */
+            private final ClassFileLocator sourceLocator;
+
+            /**
+             * A class file locator for the transformed source and the engine's class file locator.
+             */
+            private final ClassFileLocator classFileLocator;
+
+            /**
+             * The type pool that is shared by all transformations.
+             */
+            private final TypePool typePool;
+
+            /**
+             * The sink to which the transformed class files are written.
+             */
+            private final Target.Sink sink;
+
+            /**
+             * The index entries of a previous application by the names of the class files that were read.
+             */
+            private final Map<String, Index.Entry> previousEntries;
+
+            /**
+             * The hashes of class files that were generated by a previous application for another class file by their names.
+             */
+            private final Map<String, String> generated;
+
+            /**
+             * The hashes of the class files of the transformed source by their type names or {@link Engine#ABSENT}
+             * if a type is not contained in the source.
+             */
+            private final ConcurrentMap<String, String> hashes;
+
+            /**
+             * The index entries of this application by the names of the class files that were read.
+             */
+            private final ConcurrentMap<String, Index.Entry> entries;
+
+            /**
+             * The types that were transformed.
+             */
+            private final List<TypeDescription> transformed;
+
+            /**
+             * The types that were not matched by any plugin.
+             */
+            private final List<TypeDescription> ignored;
+
+            /**
+             * The names of the types that were retained from a previous application.
+             */
+            private final List<String> retained;
+
+            /**
+             * The names of the types that could not be transformed mapped to the error that was raised.
+             */
+            private final Map<String, Throwable> failed;
+
+            /**
+             * Creates a new application.
+             *
+             * @param sourceLocator   A class file locator for the class files of the transformed source.
+             * @param sink            The sink to which the transformed class files are written.
+             * @param previousEntries The index entries of a previous application by the names of the class files that were read.
+             */
+            protected Application(ClassFileLocator sourceLocator, Target.Sink sink, Map<String, Index.Entry> previousEntries) {
+                this.sourceLocator = sourceLocator;
+                this.sink = sink;
+                this.previousEntries = previousEntries;
+                classFileLocator = new ClassFileLocator.Compound(sourceLocator, Engine.this.classFileLocator);
+                typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(), classFileLocator, TypePool.Default.ReaderMode.FAST);
+                generated = new HashMap<String, String>();
+                for (Map.Entry<String, Index.Entry> entry : previousEntries.entrySet()) {
+                    for (Map.Entry<String, String> output : entry.getValue().getOutputs().entrySet()) {
+                        if (!output.getKey().equals(entry.getKey())) {
+                            generated.put(output.getKey(), output.getValue());
+                        }
+                    }
+                }
+                hashes = new ConcurrentHashMap<String, String>();
+                entries = new ConcurrentHashMap<String, Index.Entry>();
+                transformed = Collections.synchronizedList(new ArrayList<TypeDescription>());
+                ignored = Collections.synchronizedList(new ArrayList<TypeDescription>());
+                retained = Collections.synchronizedList(new ArrayList<String>());
+                failed = Collections.synchronizedMap(new LinkedHashMap<String, Throwable>());
+            }
+
+            /**
+             * Checks if a class file of the source was generated by a previous application for another class file, as it is the
+             * case for an auxiliary type when a source is transformed in place. Such class files are written by the transformation
+             * of the class file they were generated for.
+             *
+             * @param element The class file to check.
+             * @return {@code true} if the class file was generated by a previous application.
+             */
+            protected boolean isGenerated(Source.Element element) {
+                String hash = generated.get(element.getName());
+                return hash != null && hash.equals(hash(element.getBinaryRepresentation()));
+            }
+
+            /**
+             * Transforms a class file. A class file that is unchanged since a previous application is retained.
+             *
+             * @param element The class file to transform.
+             * @return The class files to write for the transformed class file by their names.
+             */
+            protected Map<String, byte[]> transform(Source.Element element) {
+                String typeName = element.getName()
+                        .substring(0, element.getName().length() - CLASS_FILE_EXTENSION.length())
+                        .replace('/', '.');
+                String hash = index.isEnabled()
+                        ? hash(element.getBinaryRepresentation())
+                        : null;
+                Index.Entry entry = previousEntries.get(element.getName());
+                if (hash != null && entry != null && entry.isUnchanged(element.getName(), hash)) {
+                    try {
+                        Map<String, byte[]> classFiles = retain(element, hash, entry);
+                        if (classFiles != null) {
+                            entries.put(element.getName(), entry);
+                            retained.add(typeName);
+                            return classFiles;
+                        }
+                    } catch (IOException ignored) {
+                        /* transform the class file again */
+                    }
+                }
+                try {
+                    TypeDescription typeDescription = typePool.describe(typeName).resolve();
+                    DynamicType.Builder<?> builder = null;
+                    for (Plugin plugin : plugins) {
+                        if (plugin.matches(typeDescription)) {
+                            builder = plugin.apply(builder == null
+                                    ? typeStrategy.builder(typeDescription, byteBuddy, classFileLocator, methodNameTransformer)
+                                    : builder, typeDescription);
+                        }
+                    }
+                    if (builder == null) {
+                        if (hash != null) {
+                            entries.put(element.getName(), new Index.Entry(hash,
+                                    Collections.singletonMap(element.getName(), hash),
+                                    dependencies(typeDescription)));
+                        }
+                        ignored.add(typeDescription);
+                        listener.onIgnored(typeDescription);
+                        return Collections.singletonMap(element.getName(), element.getBinaryRepresentation());
+                    }
+                    DynamicType dynamicType = builder.make(typePool);
+                    Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+                    classFiles.put(dynamicType.getTypeDescription().getInternalName() + CLASS_FILE_EXTENSION, dynamicType.getBytes());
+                    for (Map.Entry<TypeDescription, byte[]> auxiliaryType : dynamicType.getAuxiliaryTypes().entrySet()) {
+                        classFiles.put(auxiliaryType.getKey().getInternalName() + CLASS_FILE_EXTENSION, auxiliaryType.getValue());
+                    }
+                    if (hash != null) {
+                        Map<String, String> outputs = new LinkedHashMap<String, String>();
+                        for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+                            outputs.put(classFile.getKey(), hash(classFile.getValue()));
+                        }
+                        entries.put(element.getName(), new Index.Entry(hash, outputs, dependencies(typeDescription)));
+                    }
+                    transformed.add(typeDescription);
+                    listener.onTransformation(typeDescription, dynamicType);
+                    return classFiles;
+                } catch (Throwable throwable) {
+                    failed.put(typeName, throwable);
+                    listener.onError(typeName, throwable);
+                    return Collections.singletonMap(element.getName(), element.getBinaryRepresentation());
+                } finally {
+                    listener.onComplete(typeName);
+                }
+            }
+
+            /**
+             * Resolves the class files that were written by a previous application for an unchanged class file.
+             *
+             * @param element The unchanged class file.
+             * @param hash    The hash of the unchanged class file.
+             * @param entry   The index entry of the previous application.
+             * @return The class files to write or {@code null} if the class file cannot be retained.
+             * @throws IOException If an I/O exception occurs.
+             */
+            private Map<String, byte[]> retain(Source.Element element, String hash, Index.Entry entry) throws IOException {
+                for (String dependency : entry.getDependencies()) {
+                    String dependencyName = dependency.replace('.', '/') + CLASS_FILE_EXTENSION, dependencyHash = locateHash(dependency);
+                    Index.Entry dependencyEntry = previousEntries.get(dependencyName);
+                    if (dependencyHash == null || dependencyEntry == null || !dependencyEntry.isUnchanged(dependencyName, dependencyHash)) {
+                        return null;
+                    }
+                }
+                Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+                for (Map.Entry<String, String> output : entry.getOutputs().entrySet()) {
+                    byte[] binaryRepresentation = output.getKey().equals(element.getName()) && output.getValue().equals(hash)
+                            ? element.getBinaryRepresentation()
+                            : sink.retrieve(output.getKey());
+                    if (binaryRepresentation == null || !output.getValue().equals(hash(binaryRepresentation))) {
+                        return null;
+                    }
+                    classFiles.put(output.getKey(), binaryRepresentation);
+                }
+                return classFiles;
+            }
+
+            /**
+             * Resolves the names of all super types of a type that are contained in the transformed source.
+             *
+             * @param typeDescription The type for which to resolve the super types.
+             * @return The names of all super types of the type that are contained in the transformed source.
+             * @throws IOException If an I/O exception occurs.
+             */
+            private Set<String> dependencies(TypeDescription typeDescription) throws IOException {
+                Set<String> dependencies = new LinkedHashSet<String>();
+                LinkedList<TypeDescription> pendingTypes = new LinkedList<TypeDescription>();
+                enqueueSuperTypes(typeDescription, pendingTypes);
+                while (!pendingTypes.isEmpty()) {
+                    TypeDescription pendingType = pendingTypes.removeFirst();
+                    if (locateHash(pendingType.getName()) != null && dependencies.add(pendingType.getName())) {
+                        enqueueSuperTypes(pendingType, pendingTypes);
+                    }
+                }
+                return dependencies;
+            }
+
+            /**
+             * Enqueues the direct super types of a type. A super type that cannot be resolved is not contained in the
+             * transformed source and is therefore not enqueued.
+             *
+             * @param typeDescription The type of which to enqueue the super types.
+             * @param pendingTypes    The list of types to which the super types are added.
+             */
+            private void enqueueSuperTypes(TypeDescription typeDescription, List<TypeDescription> pendingTypes) {
+                try {
+                    TypeDescription.Generic superClass = typeDescription.getSuperClass();
+                    if (superClass != null) {
+                        pendingTypes.add(superClass.asErasure());
+                    }
+                } catch (IllegalStateException ignored) {
+                    /* do nothing */
+                }
+                TypeList.Generic interfaceTypes;
+                try {
+                    interfaceTypes = typeDescription.getInterfaces();
+                } catch (IllegalStateException ignored) {
+                    return;
+                }
+                for (int index = 0; index < interfaceTypes.size(); index++) {
+                    try {
+                        pendingTypes.add(interfaceTypes.get(index).asErasure());
+                    } catch (IllegalStateException ignored) {
+                        /* do nothing */
+                    }
+                }
+            }
+
+            /**
+             * Resolves the hash of a class file of the transformed source.
+             *
+             * @param typeName The name of the type that is represented by the class file.
+             * @return The hash of the class file or {@code null} if the type is not contained in the transformed source.
+             * @throws IOException If an I/O exception occurs.
+             */
+            private String locateHash(String typeName) throws IOException {
+                String hash = hashes.get(typeName);
+                if (hash == null) {
+                    ClassFileLocator.Resolution resolution = sourceLocator.locate(typeName);
+                    hash = resolution.isResolved()
+                            ? hash(resolution.resolve())
+                            : ABSENT;
+                    hashes.putIfAbsent(typeName, hash);
+                }
+                return hash.equals(ABSENT)
+                        ? null
+                        : hash;
+            }
+
+            /**
+             * Returns the index entries of this application.
+             *
+             * @return The index entries of this application by the names of the class files that were read.
+             */
+            protected Map<String, Index.Entry> getEntries() {
+                return new HashMap<String, Index.Entry>(entries);
+            }
+
+            /**
+             * Summarizes this application.
+             *
+             * @param duration The duration of the application in nanoseconds.
+             * @return A summary of this application.
+             */
+            protected Summary summarize(long duration) {
+                return new Summary(new ArrayList<TypeDescription>(transformed),
+                        new ArrayList<TypeDescription>(ignored),
+                        new ArrayList<String>(retained),
+                        new LinkedHashMap<String, Throwable>(failed),
+                        duration);
+            }
+
+            @Override
+            public String toString() {
+                return "Plugin.Engine.Application{" +
+                        "engine=" + Engine.this +
+                        ", sourceLocator=" + sourceLocator +
+                        ", classFileLocator=" + classFileLocator +
+                        ", typePool=" + typePool +
+                        ", sink=" + sink +
+                        ", previousEntries=" + previousEntries +
+                        '}';
+            }
+        }
+
+        /**
+         * A task that transforms a single class file. The task never fails but reports any error to the engine's listener
+         * and retains the original class file.
+         */
+        protected static class TransformationTask implements Callable<Map<String, byte[]>> {
+
+            /**
+             * The application this task belongs to.
+             */
+            private final Application application;
+
+            /**
+             * The element representing the class file to transform.
+             */
+            private final Source.Element element;
+
+            /**
+             * Creates a new transformation task.
+             *
+             * @param application The application this task belongs to.
+             * @param element     The element representing the class file to transform.
+             */
+            protected TransformationTask(Application application, Source.Element element) {
+                this.application = application;
+                this.element = element;
+            }
+
+            @Override
+            public Map<String, byte[]> call() {
+                return application.transform(element);
+            }
+
+            @Override
+            public String toString() {
+                return "Plugin.Engine.TransformationTask{" +
+                        "application=" + application +
+                        ", element=" + element +
+                        '}';
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Classes of this package allow for the transformation of types at build time, i.e. for instrumenting a class path
+ * before it is loaded by a Java virtual machine.
+ */
+package net.bytebuddy.build;
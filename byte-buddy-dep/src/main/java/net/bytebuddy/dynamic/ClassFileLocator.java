@@ -6,13 +6,23 @@ import net.bytebuddy.utility.StreamDrainer;
 import java.io.*;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.jar.JarFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 
 /**
@@ -369,6 +379,325 @@ public interface ClassFileLocator {
         }
     }
 
+    /**
+     * <p>
+     * A class file locator that locates classes within a memory-mapped Java <i>jar</i> file. The jar file's central directory is
+     * parsed once when the locator is created and any class file entry is indexed by its type name. Stored class files are copied
+     * directly from the mapped file while deflated class files are inflated by reusing a bounded pool of {@link Inflater}s. This
+     * locator does not require any synchronization such that it can be queried by several threads concurrently. Closing this locator
+     * releases the native resources of any pooled inflater.
+     * </p>
+     * <p>
+     * <b>Note</b>: This locator only supports jar files that are smaller than 2 GB and that do not use the ZIP64 format.
+     * </p>
+     */
+    class ForMappedJarFile implements ClassFileLocator, Closeable {
+
+        /**
+         * The signature of the end of central directory record.
+         */
+        private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+        /**
+         * The signature of a central directory file header.
+         */
+        private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+
+        /**
+         * The signature of a local file header.
+         */
+        private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+        /**
+         * The minimal size of the end of central directory record.
+         */
+        private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+        /**
+         * The maximum length of a jar file's comment.
+         */
+        private static final int MAXIMUM_COMMENT_LENGTH = 0xFFFF;
+
+        /**
+         * The size of a central directory file header without its variable length fields.
+         */
+        private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+
+        /**
+         * The size of a local file header without its variable length fields.
+         */
+        private static final int LOCAL_HEADER_SIZE = 30;
+
+        /**
+         * The compression method of a stored entry.
+         */
+        private static final int STORED = 0;
+
+        /**
+         * The compression method of a deflated entry.
+         */
+        private static final int DEFLATED = 8;
+
+        /**
+         * A mask for reading an unsigned short value.
+         */
+        private static final int UNSIGNED_SHORT = 0xFFFF;
+
+        /**
+         * The charset of the names of jar file entries.
+         */
+        private static final String CHARSET = "UTF-8";
+
+        /**
+         * Indicates that an inflater should not expect a ZLIB header as it is the case for jar file entries.
+         */
+        private static final boolean NO_WRAP = true;
+
+        /**
+         * The default maximum number of pooled inflaters which is the number of available processors.
+         */
+        private static final int DEFAULT_MAXIMUM_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * The jar file that is mapped.
+         */
+        private final File file;
+
+        /**
+         * The mapped content of the jar file.
+         */
+        private final ByteBuffer byteBuffer;
+
+        /**
+         * The offsets of the central directory file headers of all class files by their type name.
+         */
+        private final Map<String, Integer> index;
+
+        /**
+         * A bounded pool of inflaters that are currently unused.
+         */
+        private final BlockingQueue<Inflater> inflaters;
+
+        /**
+         * {@code true} if this locator was closed such that inflaters are no longer pooled.
+         */
+        private volatile boolean closed;
+
+        /**
+         * Creates a new class file locator for a memory-mapped jar file.
+         *
+         * @param file            The jar file that is mapped.
+         * @param byteBuffer      The mapped content of the jar file.
+         * @param index           The offsets of the central directory file headers of all class files by their type name.
+         * @param maximumPoolSize The maximum number of unused inflaters that are pooled.
+         */
+        protected ForMappedJarFile(File file, ByteBuffer byteBuffer, Map<String, Integer> index, int maximumPoolSize) {
+            this.file = file;
+            this.byteBuffer = byteBuffer;
+            this.index = index;
+            inflaters = new ArrayBlockingQueue<Inflater>(maximumPoolSize);
+        }
+
+        /**
+         * Maps the given jar file into memory and indexes its class files. At most as many inflaters are pooled as there
+         * are available processors.
+         *
+         * @param file The jar file to map.
+         * @return A class file locator for the given jar file.
+         * @throws IOException If the jar file cannot be read or is not of a supported format.
+         */
+        public static ForMappedJarFile of(File file) throws IOException {
+            return of(file, DEFAULT_MAXIMUM_POOL_SIZE);
+        }
+
+        /**
+         * Maps the given jar file into memory and indexes its class files.
+         *
+         * @param file            The jar file to map.
+         * @param maximumPoolSize The maximum number of unused inflaters that are pooled.
+         * @return A class file locator for the given jar file.
+         * @throws IOException If the jar file cannot be read or is not of a supported format.
+         */
+        public static ForMappedJarFile of(File file, int maximumPoolSize) throws IOException {
+            if (maximumPoolSize < 1) {
+                throw new IllegalArgumentException("Maximum pool size must be positive: " + maximumPoolSize);
+            }
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            ByteBuffer byteBuffer;
+            try {
+                FileChannel fileChannel = randomAccessFile.getChannel();
+                if (fileChannel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Jar file exceeds maximum size for memory mapping: " + file);
+                }
+                byteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            } finally {
+                randomAccessFile.close();
+            }
+            return new ForMappedJarFile(file, byteBuffer, index(byteBuffer), maximumPoolSize);
+        }
+
+        /**
+         * Parses the central directory of a jar file and indexes all class file entries by their type name.
+         *
+         * @param byteBuffer The content of the jar file.
+         * @return The offsets of the central directory file headers of all class files by their type name.
+         * @throws IOException If the jar file is not of a supported format.
+         */
+        private static Map<String, Integer> index(ByteBuffer byteBuffer) throws IOException {
+            int endOfCentralDirectory = byteBuffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+            int minimum = Math.max(0, endOfCentralDirectory - MAXIMUM_COMMENT_LENGTH);
+            while (endOfCentralDirectory >= minimum && byteBuffer.getInt(endOfCentralDirectory) != END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                endOfCentralDirectory--;
+            }
+            if (endOfCentralDirectory < minimum) {
+                throw new IOException("Cannot locate end of central directory record");
+            }
+            int entries = byteBuffer.getShort(endOfCentralDirectory + 10) & UNSIGNED_SHORT;
+            long offset = byteBuffer.getInt(endOfCentralDirectory + 16) & 0xFFFFFFFFL;
+            if (entries == UNSIGNED_SHORT || offset >= byteBuffer.limit()) {
+                throw new IOException("ZIP64 jar files are not supported");
+            }
+            Map<String, Integer> index = new HashMap<String, Integer>(Math.max(16, entries * 4 / 3 + 1));
+            ByteBuffer names = byteBuffer.duplicate();
+            int position = (int) offset;
+            for (int entry = 0; entry < entries; entry++) {
+                if (byteBuffer.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+                    throw new IOException("Illegal central directory file header at " + position);
+                }
+                int nameLength = byteBuffer.getShort(position + 28) & UNSIGNED_SHORT;
+                int extraLength = byteBuffer.getShort(position + 30) & UNSIGNED_SHORT;
+                int commentLength = byteBuffer.getShort(position + 32) & UNSIGNED_SHORT;
+                if (nameLength > CLASS_FILE_EXTENSION.length()) {
+                    byte[] name = new byte[nameLength];
+                    names.position(position + CENTRAL_DIRECTORY_HEADER_SIZE);
+                    names.get(name);
+                    String entryName = new String(name, CHARSET);
+                    if (entryName.endsWith(CLASS_FILE_EXTENSION)) {
+                        index.put(entryName.substring(0, entryName.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.'), position);
+                    }
+                }
+                position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+            return index;
+        }
+
+        @Override
+        public Resolution locate(String typeName) throws IOException {
+            Integer position = index.get(typeName);
+            if (position == null) {
+                return Resolution.Illegal.INSTANCE;
+            }
+            int method = byteBuffer.getShort(position + 10) & UNSIGNED_SHORT;
+            int compressedSize = byteBuffer.getInt(position + 20);
+            int uncompressedSize = byteBuffer.getInt(position + 24);
+            int localHeader = byteBuffer.getInt(position + 42);
+            if (byteBuffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE) {
+                throw new IOException("Illegal local file header for " + typeName);
+            }
+            ByteBuffer data = byteBuffer.duplicate();
+            data.position(localHeader
+                    + LOCAL_HEADER_SIZE
+                    + (byteBuffer.getShort(localHeader + 26) & UNSIGNED_SHORT)
+                    + (byteBuffer.getShort(localHeader + 28) & UNSIGNED_SHORT));
+            byte[] binaryRepresentation = new byte[uncompressedSize];
+            switch (method) {
+                case STORED:
+                    data.get(binaryRepresentation);
+                    break;
+                case DEFLATED:
+                    byte[] compressed = new byte[compressedSize];
+                    data.get(compressed);
+                    inflate(typeName, compressed, binaryRepresentation);
+                    break;
+                default:
+                    throw new IOException("Unsupported compression method " + method + " for " + typeName);
+            }
+            return new Resolution.Explicit(binaryRepresentation);
+        }
+
+        /**
+         * Inflates a deflated class file.
+         *
+         * @param typeName             The name of the type that is inflated.
+         * @param compressed           The deflated class file.
+         * @param binaryRepresentation The array to inflate the class file into.
+         * @throws IOException If the class file cannot be inflated.
+         */
+        private void inflate(String typeName, byte[] compressed, byte[] binaryRepresentation) throws IOException {
+            Inflater inflater = inflaters.poll();
+            if (inflater == null) {
+                inflater = new Inflater(NO_WRAP);
+            }
+            try {
+                inflater.setInput(compressed);
+                int length = 0;
+                while (length < binaryRepresentation.length) {
+                    int inflated = inflater.inflate(binaryRepresentation, length, binaryRepresentation.length - length);
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Unexpected end of deflated data for " + typeName);
+                    }
+                    length += inflated;
+                }
+            } catch (DataFormatException exception) {
+                throw new IOException("Cannot inflate class file of " + typeName, exception);
+            } finally {
+                release(inflater);
+            }
+        }
+
+        /**
+         * Returns an inflater to the pool or releases its native resources if the pool is exhausted or if this locator is closed.
+         *
+         * @param inflater The inflater to release.
+         */
+        private void release(Inflater inflater) {
+            inflater.reset();
+            if (closed || !inflaters.offer(inflater)) {
+                inflater.end();
+            } else if (closed) {
+                drain();
+            }
+        }
+
+        /**
+         * Releases the native resources of all pooled inflaters.
+         */
+        private void drain() {
+            Inflater inflater;
+            while ((inflater = inflaters.poll()) != null) {
+                inflater.end();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            drain();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || !(other == null || getClass() != other.getClass())
+                    && file.equals(((ForMappedJarFile) other).file);
+        }
+
+        @Override
+        public int hashCode() {
+            return file.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "ClassFileLocator.ForMappedJarFile{" +
+                    "file=" + file +
+                    ", byteBuffer=<" + byteBuffer.limit() + " bytes>" +
+                    ", index=<" + index.size() + " entries>" +
+                    ", inflaters=<" + inflaters.size() + " pooled>" +
+                    ", closed=" + closed +
+                    '}';
+        }
+    }
+
     /**
      * A class file locator that finds files from a standardized Java folder structure with
      * folders donating packages and class files being saved as {@code <classname>.class} files
@@ -515,6 +844,38 @@ public interface ClassFileLocator {
             return new AgentBased(instrumentation, ClassLoadingDelegate.Explicit.of(type));
         }
 
+        /**
+         * Extracts the class files of all supplied types by a single retransformation. This is significantly cheaper
+         * than locating the class file of each type individually as the retransformation of all types only requires
+         * a single round trip to the virtual machine.
+         *
+         * @param instrumentation The instrumentation instance to use for the retransformation.
+         * @param types           The loaded types for which to extract the class files.
+         * @return A map of all supplied types to a resolution of their class files.
+         * @throws UnmodifiableClassException If any of the supplied types cannot be retransformed.
+         */
+        public static Map<Class<?>, Resolution> extract(Instrumentation instrumentation,
+                                                        Collection<? extends Class<?>> types) throws UnmodifiableClassException {
+            if (types.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            BulkExtractionClassFileTransformer classFileTransformer = new BulkExtractionClassFileTransformer(types);
+            instrumentation.addTransformer(classFileTransformer, true);
+            try {
+                instrumentation.retransformClasses(types.toArray(new Class<?>[types.size()]));
+            } finally {
+                instrumentation.removeTransformer(classFileTransformer);
+            }
+            Map<Class<?>, Resolution> resolutions = new HashMap<Class<?>, Resolution>();
+            for (Class<?> type : types) {
+                byte[] binaryRepresentation = classFileTransformer.getBinaryRepresentation(type);
+                resolutions.put(type, binaryRepresentation == null
+                        ? Resolution.Illegal.INSTANCE
+                        : new Resolution.Explicit(binaryRepresentation));
+            }
+            return resolutions;
+        }
+
         @Override
         public Resolution locate(String typeName) {
             try {
@@ -1082,6 +1443,68 @@ public interface ClassFileLocator {
                         '}';
             }
         }
+
+        /**
+         * A non-operational class file transformer that remembers the binary format of several classes.
+         */
+        protected static class BulkExtractionClassFileTransformer implements ClassFileTransformer {
+
+            /**
+             * An indicator that an attempted class file transformation did not alter the handed class file.
+             */
+            private static final byte[] DO_NOT_TRANSFORM = null;
+
+            /**
+             * The types for which the binary representation is extracted.
+             */
+            private final Set<Class<?>> types;
+
+            /**
+             * The binary representations of the extracted types.
+             */
+            private final ConcurrentMap<Class<?>, byte[]> binaryRepresentations;
+
+            /**
+             * Creates a class file transformer for the purpose of extracting several class files.
+             *
+             * @param types The types for which the binary representation is extracted.
+             */
+            protected BulkExtractionClassFileTransformer(Collection<? extends Class<?>> types) {
+                this.types = new HashSet<Class<?>>(types);
+                binaryRepresentations = new ConcurrentHashMap<Class<?>, byte[]>();
+            }
+
+            @Override
+            @SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Return value is always null; received value is never modified")
+            public byte[] transform(ClassLoader classLoader,
+                                    String internalName,
+                                    Class<?> redefinedType,
+                                    ProtectionDomain protectionDomain,
+                                    byte[] binaryRepresentation) {
+                if (redefinedType != null && types.contains(redefinedType)) {
+                    binaryRepresentations.put(redefinedType, binaryRepresentation);
+                }
+                return DO_NOT_TRANSFORM;
+            }
+
+            /**
+             * Returns the binary representation of the class file of the given type. The returned array must never be modified.
+             *
+             * @param type The type for which to return the binary representation.
+             * @return The binary representation of the class file or {@code null} if no such class file was extracted.
+             */
+            protected byte[] getBinaryRepresentation(Class<?> type) {
+                return binaryRepresentations.get(type);
+            }
+
+            @Override
+            public String toString() {
+                return "ClassFileLocator.AgentBased.BulkExtractionClassFileTransformer{" +
+                        "types=" + types +
+                        ", binaryRepresentations=<" + binaryRepresentations.size() + " class files>" +
+                        '}';
+            }
+        }
     }
 
     /**
@@ -1134,4 +1557,373 @@ public interface ClassFileLocator {
             return "ClassFileLocator.Compound{classFileLocator=" + Arrays.toString(classFileLocator) + '}';
         }
     }
+
+    /**
+     * A class file locator that caches the resolutions of another class file locator. The cache is bounded by a total number of
+     * bytes where the least recently used resolutions are discarded once this budget is exceeded. Illegal resolutions can optionally
+     * be cached as well such that repeated lookups of types that cannot be located are not delegated. The binary representations
+     * of cached class files are held by a {@link Storage} which can also keep class files outside of the Java heap.
+     */
+    class Caching implements ClassFileLocator {
+
+        /**
+         * The estimated number of bytes that is occupied by a cache entry in addition to its class file.
+         */
+        protected static final int ENTRY_OVERHEAD = 64;
+
+        /**
+         * The default size of the byte budget of a cache which is 16 MB.
+         */
+        public static final long DEFAULT_BUDGET = 16L * 1024 * 1024;
+
+        /**
+         * Indicates that a {@link LinkedHashMap} should order its entries by their access.
+         */
+        private static final boolean ACCESS_ORDER = true;
+
+        /**
+         * The default load factor of a {@link LinkedHashMap}.
+         */
+        private static final float LOAD_FACTOR = 0.75f;
+
+        /**
+         * The initial capacity of the cache.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The class file locator to delegate to.
+         */
+        private final ClassFileLocator classFileLocator;
+
+        /**
+         * The maximum number of bytes to cache.
+         */
+        private final long budget;
+
+        /**
+         * The storage for cached class files.
+         */
+        private final Storage storage;
+
+        /**
+         * {@code true} if illegal resolutions should be cached.
+         */
+        private final boolean cacheIllegal;
+
+        /**
+         * The cached class files by their type names in the order of their last access.
+         */
+        private final LinkedHashMap<String, Storage.Entry> cache;
+
+        /**
+         * The number of bytes that are currently cached.
+         */
+        private long size;
+
+        /**
+         * Creates a new caching class file locator with a default budget that stores class files on the heap and that caches
+         * illegal resolutions.
+         *
+         * @param classFileLocator The class file locator to delegate to.
+         */
+        public Caching(ClassFileLocator classFileLocator) {
+            this(classFileLocator, DEFAULT_BUDGET, Storage.ON_HEAP, true);
+        }
+
+        /**
+         * Creates a new caching class file locator.
+         *
+         * @param classFileLocator The class file locator to delegate to.
+         * @param budget           The maximum number of bytes to cache.
+         * @param storage          The storage for cached class files.
+         * @param cacheIllegal     {@code true} if illegal resolutions should be cached.
+         */
+        public Caching(ClassFileLocator classFileLocator, long budget, Storage storage, boolean cacheIllegal) {
+            if (budget < 1) {
+                throw new IllegalArgumentException("Budget must be positive: " + budget);
+            }
+            this.classFileLocator = classFileLocator;
+            this.budget = budget;
+            this.storage = storage;
+            this.cacheIllegal = cacheIllegal;
+            cache = new LinkedHashMap<String, Storage.Entry>(INITIAL_CAPACITY, LOAD_FACTOR, ACCESS_ORDER);
+        }
+
+        @Override
+        public Resolution locate(String typeName) throws IOException {
+            Storage.Entry entry;
+            synchronized (this) {
+                entry = cache.get(typeName);
+            }
+            if (entry != null) {
+                return entry.toResolution();
+            }
+            Resolution resolution = classFileLocator.locate(typeName);
+            if (resolution.isResolved()) {
+                register(typeName, storage.store(resolution.resolve()));
+            } else if (cacheIllegal) {
+                register(typeName, Storage.Entry.Illegal.INSTANCE);
+            }
+            return resolution;
+        }
+
+        /**
+         * Registers a cache entry and evicts the least recently used entries if the cache exceeds its budget.
+         *
+         * @param typeName The name of the type that is represented by the entry.
+         * @param entry    The entry to register.
+         */
+        private synchronized void register(String typeName, Storage.Entry entry) {
+            long size = entry.getSize() + ENTRY_OVERHEAD;
+            if (size > budget || cache.containsKey(typeName)) {
+                return;
+            }
+            cache.put(typeName, entry);
+            this.size += size;
+            Iterator<Storage.Entry> iterator = cache.values().iterator();
+            while (this.size > budget) {
+                this.size -= iterator.next().getSize() + ENTRY_OVERHEAD;
+                iterator.remove();
+            }
+        }
+
+        /**
+         * Returns the estimated number of bytes that are currently cached.
+         *
+         * @return The estimated number of bytes that are currently cached.
+         */
+        public synchronized long getSize() {
+            return size;
+        }
+
+        /**
+         * Discards all cached class files.
+         */
+        public synchronized void clear() {
+            cache.clear();
+            size = 0L;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            Caching caching = (Caching) other;
+            return budget == caching.budget
+                    && cacheIllegal == caching.cacheIllegal
+                    && classFileLocator.equals(caching.classFileLocator)
+                    && storage == caching.storage;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = classFileLocator.hashCode();
+            result = 31 * result + (int) (budget ^ (budget >>> 32));
+            result = 31 * result + storage.hashCode();
+            result = 31 * result + (cacheIllegal ? 1 : 0);
+            return result;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "ClassFileLocator.Caching{" +
+                    "classFileLocator=" + classFileLocator +
+                    ", budget=" + budget +
+                    ", storage=" + storage +
+                    ", cacheIllegal=" + cacheIllegal +
+                    ", cache=" + cache.keySet() +
+                    ", size=" + size +
+                    '}';
+        }
+
+        /**
+         * A storage for class files that are cached by a {@link Caching} class file locator.
+         */
+        public enum Storage {
+
+            /**
+             * A storage that keeps class files as byte arrays on the Java heap.
+             */
+            ON_HEAP {
+                @Override
+                protected Entry store(byte[] binaryRepresentation) {
+                    return new Entry.OnHeap(binaryRepresentation);
+                }
+            },
+
+            /**
+             * A storage that copies class files into direct byte buffers outside of the Java heap. Any lookup of a cached class file
+             * copies the class file back onto the heap.
+             */
+            OFF_HEAP {
+                @Override
+                protected Entry store(byte[] binaryRepresentation) {
+                    ByteBuffer byteBuffer = ByteBuffer.allocateDirect(binaryRepresentation.length);
+                    byteBuffer.put(binaryRepresentation).flip();
+                    return new Entry.OffHeap(byteBuffer);
+                }
+            };
+
+            /**
+             * Stores a class file.
+             *
+             * @param binaryRepresentation The class file to store which must not be altered.
+             * @return An entry that represents the stored class file.
+             */
+            protected abstract Entry store(byte[] binaryRepresentation);
+
+            @Override
+            public String toString() {
+                return "ClassFileLocator.Caching.Storage." + name();
+            }
+
+            /**
+             * A stored entry of a caching class file locator.
+             */
+            protected interface Entry {
+
+                /**
+                 * Returns the number of bytes that are stored by this entry.
+                 *
+                 * @return The number of bytes that are stored by this entry.
+                 */
+                int getSize();
+
+                /**
+                 * Returns a resolution that represents this entry.
+                 *
+                 * @return A resolution that represents this entry.
+                 */
+                Resolution toResolution();
+
+                /**
+                 * An entry that represents an illegal resolution.
+                 */
+                enum Illegal implements Entry {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    @Override
+                    public int getSize() {
+                        return 0;
+                    }
+
+                    @Override
+                    public Resolution toResolution() {
+                        return Resolution.Illegal.INSTANCE;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "ClassFileLocator.Caching.Storage.Entry.Illegal." + name();
+                    }
+                }
+
+                /**
+                 * An entry that keeps a class file on the heap.
+                 */
+                class OnHeap implements Entry {
+
+                    /**
+                     * The stored class file.
+                     */
+                    private final byte[] binaryRepresentation;
+
+                    /**
+                     * Creates a new on-heap entry.
+                     *
+                     * @param binaryRepresentation The stored class file which must not be altered.
+                     */
+                    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The received value is never modified by contract")
+                    protected OnHeap(byte[] binaryRepresentation) {
+                        this.binaryRepresentation = binaryRepresentation;
+                    }
+
+                    @Override
+                    public int getSize() {
+                        return binaryRepresentation.length;
+                    }
+
+                    @Override
+                    public Resolution toResolution() {
+                        return new Resolution.Explicit(binaryRepresentation);
+                    }
+
+                    @Override
+                    public boolean equals(Object other) {
+                        return this == other || !(other == null || getClass() != other.getClass())
+                                && Arrays.equals(binaryRepresentation, ((OnHeap) other).binaryRepresentation);
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        return Arrays.hashCode(binaryRepresentation);
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "ClassFileLocator.Caching.Storage.Entry.OnHeap{" +
+                                "binaryRepresentation=<" + binaryRepresentation.length + " bytes>" +
+                                '}';
+                    }
+                }
+
+                /**
+                 * An entry that keeps a class file in a direct byte buffer.
+                 */
+                class OffHeap implements Entry {
+
+                    /**
+                     * The byte buffer containing the stored class file.
+                     */
+                    private final ByteBuffer byteBuffer;
+
+                    /**
+                     * Creates a new off-heap entry.
+                     *
+                     * @param byteBuffer The byte buffer containing the stored class file which must not be altered.
+                     */
+                    protected OffHeap(ByteBuffer byteBuffer) {
+                        this.byteBuffer = byteBuffer;
+                    }
+
+                    @Override
+                    public int getSize() {
+                        return byteBuffer.capacity();
+                    }
+
+                    @Override
+                    public Resolution toResolution() {
+                        byte[] binaryRepresentation = new byte[byteBuffer.capacity()];
+                        ByteBuffer byteBuffer = this.byteBuffer.duplicate();
+                        byteBuffer.clear();
+                        byteBuffer.get(binaryRepresentation);
+                        return new Resolution.Explicit(binaryRepresentation);
+                    }
+
+                    @Override
+                    public boolean equals(Object other) {
+                        return this == other || !(other == null || getClass() != other.getClass())
+                                && byteBuffer.equals(((OffHeap) other).byteBuffer);
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        return byteBuffer.hashCode();
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "ClassFileLocator.Caching.Storage.Entry.OffHeap{" +
+                                "byteBuffer=<" + byteBuffer.capacity() + " bytes>" +
+                                '}';
+                    }
+                }
+            }
+        }
+    }
 }
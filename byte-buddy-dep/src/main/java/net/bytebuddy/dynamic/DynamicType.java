@@ -23,6 +23,7 @@ import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.LatentMatcher;
+import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.utility.CompoundList;
 
 import java.io.*;
@@ -121,6 +122,9 @@ public interface DynamicType {
      * <b>Note</b>: The type descriptions will most likely differ from the binary representation of this type.
      * Normally, annotations and intercepted methods are not added to the type descriptions of auxiliary types.
      * </p>
+     * <p>
+     * For saving a large number of dynamic types, consider using a {@link FolderWriter}.
+     * </p>
      *
      * @param folder The base target folder for storing this dynamic type and its auxiliary types, if any.
      * @return A map of type descriptions pointing to files with their stored binary representations within {@code folder}.
@@ -795,6 +799,17 @@ public interface DynamicType {
          */
         DynamicType.Unloaded<T> make();
 
+        /**
+         * Creates the specificied dynamic type. If the specified dynamic type is not legal, an {@link IllegalStateException} is thrown.
+         * The supplied type pool is used for describing types when stack map frames are computed for a redefined or rebased
+         * type, for example when such a frame computation is requested by an {@link AsmVisitorWrapper}. Doing so, a type pool
+         * that already describes the instrumented type's hierarchy can be reused for several types.
+         *
+         * @param typePool The type pool to use for describing types when computing stack map frames.
+         * @return An unloaded dynamic type represesenting the type specified by this builder.
+         */
+        DynamicType.Unloaded<T> make(TypePool typePool);
+
         /**
          * A builder for a type variable definition.
          *
@@ -2552,6 +2567,11 @@ public interface DynamicType {
                     return materialize().make();
                 }
 
+                @Override
+                public DynamicType.Unloaded<U> make(TypePool typePool) {
+                    return materialize().make(typePool);
+                }
+
                 /**
                  * Creates a new builder that realizes the current state of the builder.
                  *
@@ -4035,26 +4055,6 @@ public interface DynamicType {
          */
         private static final String MANIFEST_VERSION = "1.0";
 
-        /**
-         * The size of a writing buffer.
-         */
-        private static final int BUFFER_SIZE = 1024;
-
-        /**
-         * A convenience index for the beginning of an array to improve the readability of the code.
-         */
-        private static final int FROM_BEGINNING = 0;
-
-        /**
-         * A convenience representative of an {@link java.io.InputStream}'s end to improve the readability of the code.
-         */
-        private static final int END_OF_FILE = -1;
-
-        /**
-         * A suffix for temporary files.
-         */
-        private static final String TEMP_SUFFIX = "tmp";
-
         /**
          * A type description of this dynamic type.
          */
@@ -4149,9 +4149,9 @@ public interface DynamicType {
         public Map<TypeDescription, File> saveIn(File folder) throws IOException {
             Map<TypeDescription, File> savedFiles = new HashMap<TypeDescription, File>();
             File target = new File(folder, typeDescription.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION);
-            if (target.getParentFile() != null) {
+            if (target.getParentFile() != null && !target.getParentFile().isDirectory()) {
                 if (!target.getParentFile().mkdirs()) {
-                    Logger.getAnonymousLogger().info("Writing file to existing folder structure: " + target.getParent());
+                    Logger.getAnonymousLogger().info("Could not create folder structure: " + target.getParent());
                 }
             }
             OutputStream outputStream = new FileOutputStream(target);
@@ -4169,74 +4169,12 @@ public interface DynamicType {
 
         @Override
         public File inject(File sourceJar, File targetJar) throws IOException {
-            JarInputStream jarInputStream = new JarInputStream(new BufferedInputStream(new FileInputStream(sourceJar)));
-            try {
-                if (!targetJar.createNewFile()) {
-                    Logger.getAnonymousLogger().info("Overwriting file " + targetJar);
-                }
-                JarOutputStream jarOutputStream = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(targetJar)), jarInputStream.getManifest());
-                try {
-                    Map<TypeDescription, byte[]> rawAuxiliaryTypes = getAuxiliaryTypes();
-                    Map<String, byte[]> files = new HashMap<String, byte[]>();
-                    for (Map.Entry<TypeDescription, byte[]> entry : rawAuxiliaryTypes.entrySet()) {
-                        files.put(entry.getKey().getInternalName() + CLASS_FILE_EXTENSION, entry.getValue());
-                    }
-                    files.put(typeDescription.getInternalName() + CLASS_FILE_EXTENSION, binaryRepresentation);
-                    JarEntry jarEntry;
-                    while ((jarEntry = jarInputStream.getNextJarEntry()) != null) {
-                        jarOutputStream.putNextEntry(jarEntry);
-                        byte[] replacement = files.remove(jarEntry.getName());
-                        if (replacement == null) {
-                            byte[] buffer = new byte[BUFFER_SIZE];
-                            int index;
-                            while ((index = jarInputStream.read(buffer)) != END_OF_FILE) {
-                                jarOutputStream.write(buffer, FROM_BEGINNING, index);
-                            }
-                        } else {
-                            jarOutputStream.write(replacement);
-                        }
-                        jarInputStream.closeEntry();
-                        jarOutputStream.closeEntry();
-                    }
-                    for (Map.Entry<String, byte[]> entry : files.entrySet()) {
-                        jarOutputStream.putNextEntry(new JarEntry(entry.getKey()));
-                        jarOutputStream.write(entry.getValue());
-                        jarOutputStream.closeEntry();
-                    }
-                } finally {
-                    jarOutputStream.close();
-                }
-            } finally {
-                jarInputStream.close();
-            }
-            return targetJar;
+            return JarRewriter.of(this).rewrite(sourceJar, targetJar);
         }
 
         @Override
         public File inject(File jar) throws IOException {
-            File temporary = inject(jar, File.createTempFile(jar.getName(), TEMP_SUFFIX));
-            try {
-                InputStream jarInputStream = new BufferedInputStream(new FileInputStream(temporary));
-                try {
-                    OutputStream jarOutputStream = new BufferedOutputStream(new FileOutputStream(jar));
-                    try {
-                        byte[] buffer = new byte[BUFFER_SIZE];
-                        int index;
-                        while ((index = jarInputStream.read(buffer)) != END_OF_FILE) {
-                            jarOutputStream.write(buffer, FROM_BEGINNING, index);
-                        }
-                    } finally {
-                        jarOutputStream.close();
-                    }
-                } finally {
-                    jarInputStream.close();
-                }
-            } finally {
-                if (!temporary.delete()) {
-                    Logger.getAnonymousLogger().warning("Cannot delete " + temporary);
-                }
-            }
-            return jar;
+            return JarRewriter.of(this).rewrite(jar);
         }
 
         @Override
@@ -0,0 +1,265 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * A folder writer saves a batch of dynamic types and their auxiliary types in a folder using the Java class file format
+ * while respecting the naming conventions for saving compiled Java classes. Other than {@link DynamicType#saveIn(File)},
+ * a folder writer creates any package folder at most once per batch and writes class files through a
+ * {@link FileChannel}. Writing class files is dispatched by a {@link JarRewriter.Dispatcher} which allows to write
+ * class files concurrently.
+ * </p>
+ * <p>
+ * Any class file is first written to a temporary file within its package folder which is then renamed such that an
+ * incomplete class file is never observed.
+ * </p>
+ */
+public class FolderWriter {
+
+    /**
+     * The file name extension for Java class files.
+     */
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * A suffix for temporary files.
+     */
+    private static final String TEMP_SUFFIX = "tmp";
+
+    /**
+     * The base folder for storing class files.
+     */
+    private final File folder;
+
+    /**
+     * The dispatcher to use for writing class files.
+     */
+    private final JarRewriter.Dispatcher dispatcher;
+
+    /**
+     * Creates a new folder writer that writes class files synchronously.
+     *
+     * @param folder The base folder for storing class files.
+     */
+    public FolderWriter(File folder) {
+        this(folder, JarRewriter.Dispatcher.Synchronous.INSTANCE);
+    }
+
+    /**
+     * Creates a new folder writer.
+     *
+     * @param folder     The base folder for storing class files.
+     * @param dispatcher The dispatcher to use for writing class files.
+     */
+    protected FolderWriter(File folder, JarRewriter.Dispatcher dispatcher) {
+        this.folder = folder;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Returns a folder writer that writes class files using the given dispatcher.
+     *
+     * @param dispatcher The dispatcher to use.
+     * @return A folder writer that writes class files using the given dispatcher.
+     */
+    public FolderWriter with(JarRewriter.Dispatcher dispatcher) {
+        return new FolderWriter(folder, dispatcher);
+    }
+
+    /**
+     * Returns a folder writer that writes class files concurrently using the given executor service. The executor
+     * service is not shut down by the folder writer.
+     *
+     * @param executorService The executor service to use.
+     * @return A folder writer that writes class files using the given executor service.
+     */
+    public FolderWriter with(ExecutorService executorService) {
+        return with(new JarRewriter.Dispatcher.ForExecutorService(executorService));
+    }
+
+    /**
+     * Saves the given dynamic types and their auxiliary types.
+     *
+     * @param dynamicType The dynamic types to save.
+     * @return A map of type descriptions pointing to files with their stored binary representations.
+     * @throws IOException If an I/O exception occurs.
+     */
+    public Map<TypeDescription, File> save(DynamicType... dynamicType) throws IOException {
+        return save(Arrays.asList(dynamicType));
+    }
+
+    /**
+     * Saves the given dynamic types and their auxiliary types. If the base folder does not yet exist, it is created.
+     *
+     * @param dynamicTypes The dynamic types to save.
+     * @return A map of type descriptions pointing to files with their stored binary representations.
+     * @throws IOException If an I/O exception occurs.
+     */
+    public Map<TypeDescription, File> save(List<? extends DynamicType> dynamicTypes) throws IOException {
+        Set<File> folders = new HashSet<File>();
+        Map<TypeDescription, Future<File>> pendingFiles = new LinkedHashMap<TypeDescription, Future<File>>();
+        try {
+            for (DynamicType dynamicType : dynamicTypes) {
+                for (Map.Entry<TypeDescription, byte[]> entry : dynamicType.getAllTypes().entrySet()) {
+                    File target = new File(folder, entry.getKey().getInternalName().replace('/', File.separatorChar) + CLASS_FILE_EXTENSION);
+                    File parent = target.getParentFile();
+                    if (folders.add(parent) && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                        throw new IOException("Could not create folder: " + parent);
+                    }
+                    pendingFiles.put(entry.getKey(), dispatcher.dispatch(new WritingTask(target, entry.getValue())));
+                }
+            }
+            Map<TypeDescription, File> savedFiles = new HashMap<TypeDescription, File>();
+            Iterator<Map.Entry<TypeDescription, Future<File>>> iterator = pendingFiles.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<TypeDescription, Future<File>> entry = iterator.next();
+                savedFiles.put(entry.getKey(), resolve(entry.getKey(), entry.getValue()));
+                iterator.remove();
+            }
+            return savedFiles;
+        } finally {
+            for (Future<File> pendingFile : pendingFiles.values()) {
+                pendingFile.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Resolves a file that is written.
+     *
+     * @param typeDescription The type that is written.
+     * @param pendingFile     A future representing the written file.
+     * @return The written file.
+     * @throws IOException If an I/O exception occurs.
+     */
+    private static File resolve(TypeDescription typeDescription, Future<File> pendingFile) throws IOException {
+        try {
+            return pendingFile.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing " + typeDescription);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException("Cannot write " + typeDescription, cause);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        FolderWriter that = (FolderWriter) other;
+        return folder.equals(that.folder) && dispatcher.equals(that.dispatcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * folder.hashCode() + dispatcher.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FolderWriter{" +
+                "folder=" + folder +
+                ", dispatcher=" + dispatcher +
+                '}';
+    }
+
+    /**
+     * A task that writes a single class file by renaming a temporary file.
+     */
+    protected static class WritingTask implements Callable<File> {
+
+        /**
+         * The file to write.
+         */
+        private final File target;
+
+        /**
+         * The binary representation to write.
+         */
+        private final byte[] binaryRepresentation;
+
+        /**
+         * Creates a new writing task.
+         *
+         * @param target               The file to write.
+         * @param binaryRepresentation The binary representation to write.
+         */
+        protected WritingTask(File target, byte[] binaryRepresentation) {
+            this.target = target;
+            this.binaryRepresentation = binaryRepresentation;
+        }
+
+        @Override
+        public File call() throws IOException {
+            File temporary = File.createTempFile(target.getName(), TEMP_SUFFIX, target.getParentFile());
+            boolean written = false;
+            try {
+                FileChannel fileChannel = new FileOutputStream(temporary).getChannel();
+                try {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(binaryRepresentation);
+                    while (byteBuffer.hasRemaining()) {
+                        fileChannel.write(byteBuffer);
+                    }
+                } finally {
+                    fileChannel.close();
+                }
+                if (!temporary.renameTo(target)) {
+                    if (!target.delete() || !temporary.renameTo(target)) {
+                        throw new IOException("Cannot replace " + target + " by " + temporary);
+                    }
+                }
+                written = true;
+            } finally {
+                if (!written && !temporary.delete()) {
+                    Logger.getAnonymousLogger().warning("Cannot delete " + temporary);
+                }
+            }
+            return target;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            WritingTask that = (WritingTask) other;
+            return target.equals(that.target) && Arrays.equals(binaryRepresentation, that.binaryRepresentation);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * target.hashCode() + Arrays.hashCode(binaryRepresentation);
+        }
+
+        @Override
+        public String toString() {
+            return "FolderWriter.WritingTask{" +
+                    "target=" + target +
+                    ", binaryRepresentation=<" + binaryRepresentation.length + " bytes>" +
+                    '}';
+        }
+    }
+}
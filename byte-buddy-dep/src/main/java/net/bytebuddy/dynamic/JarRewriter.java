@@ -0,0 +1,724 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.description.type.TypeDescription;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * <p>
+ * A jar rewriter reads a jar file exactly once and writes a copy of it where class files can be replaced by explicitly
+ * given types or transformed by a {@link Transformation}. Class files that are not contained in the source jar are
+ * appended to the target jar. Transformations are dispatched by a {@link Dispatcher} which allows to transform class files
+ * concurrently while the jar file's entries are written in their original order.
+ * </p>
+ * <p>
+ * Any entry of the source jar retains its compression method, time stamp, extra data and comment. A stored entry is
+ * therefore never compressed. Entries that are neither replaced nor transformed are streamed to the target jar without
+ * being buffered. Only class files that are handed to the dispatcher are held in memory until they are written.
+ * </p>
+ * <p>
+ * The target jar is first written to a temporary file within the target's folder such that a failed rewrite never alters
+ * the target jar. If the target jar already exists, the temporary file's content is then copied into it such that the target
+ * file retains its identity, permissions and ownership. Otherwise, the temporary file is renamed to the target jar.
+ * </p>
+ */
+public class JarRewriter {
+
+    /**
+     * The file name extension for Java class files.
+     */
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * A suffix for temporary files.
+     */
+    private static final String TEMP_SUFFIX = "tmp";
+
+    /**
+     * The size of a reading buffer.
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * A convenience index for the beginning of an array to improve the readability of the code.
+     */
+    private static final int FROM_BEGINNING = 0;
+
+    /**
+     * A convenience representative of an {@link java.io.InputStream}'s end to improve the readability of the code.
+     */
+    private static final int END_OF_FILE = -1;
+
+    /**
+     * The maximum number of dispatched class files that are held in memory before the first of them is written.
+     */
+    private static final int READ_AHEAD = 256;
+
+    /**
+     * The dynamic types that replace or are added to the rewritten jar.
+     */
+    private final List<? extends DynamicType> dynamicTypes;
+
+    /**
+     * The transformation to apply to any class file that is not replaced by a dynamic type.
+     */
+    private final Transformation transformation;
+
+    /**
+     * The dispatcher to use for applying the transformation.
+     */
+    private final Dispatcher dispatcher;
+
+    /**
+     * Creates a new jar rewriter that applies the given transformation synchronously.
+     *
+     * @param transformation The transformation to apply to any class file.
+     */
+    public JarRewriter(Transformation transformation) {
+        this(Collections.<DynamicType>emptyList(), transformation, Dispatcher.Synchronous.INSTANCE);
+    }
+
+    /**
+     * Creates a new jar rewriter.
+     *
+     * @param dynamicTypes   The dynamic types that replace or are added to the rewritten jar.
+     * @param transformation The transformation to apply to any class file that is not replaced by a dynamic type.
+     * @param dispatcher     The dispatcher to use for applying the transformation.
+     */
+    protected JarRewriter(List<? extends DynamicType> dynamicTypes, Transformation transformation, Dispatcher dispatcher) {
+        this.dynamicTypes = dynamicTypes;
+        this.transformation = transformation;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Creates a jar rewriter that replaces or adds the given dynamic types and their auxiliary types.
+     *
+     * @param dynamicType The dynamic types to replace or add.
+     * @return A jar rewriter that replaces or adds the given dynamic types.
+     */
+    public static JarRewriter of(DynamicType... dynamicType) {
+        return of(Arrays.asList(dynamicType));
+    }
+
+    /**
+     * Creates a jar rewriter that replaces or adds the given dynamic types and their auxiliary types.
+     *
+     * @param dynamicTypes The dynamic types to replace or add.
+     * @return A jar rewriter that replaces or adds the given dynamic types.
+     */
+    public static JarRewriter of(List<? extends DynamicType> dynamicTypes) {
+        return new JarRewriter(dynamicTypes, Transformation.NoOp.INSTANCE, Dispatcher.Synchronous.INSTANCE);
+    }
+
+    /**
+     * Returns a jar rewriter that additionally replaces or adds the given dynamic types and their auxiliary types.
+     *
+     * @param dynamicType The dynamic types to replace or add.
+     * @return A jar rewriter that additionally replaces or adds the given dynamic types.
+     */
+    public JarRewriter replace(DynamicType... dynamicType) {
+        return replace(Arrays.asList(dynamicType));
+    }
+
+    /**
+     * Returns a jar rewriter that additionally replaces or adds the given dynamic types and their auxiliary types.
+     *
+     * @param dynamicTypes The dynamic types to replace or add.
+     * @return A jar rewriter that additionally replaces or adds the given dynamic types.
+     */
+    public JarRewriter replace(List<? extends DynamicType> dynamicTypes) {
+        List<DynamicType> replacements = new ArrayList<DynamicType>(this.dynamicTypes.size() + dynamicTypes.size());
+        replacements.addAll(this.dynamicTypes);
+        replacements.addAll(dynamicTypes);
+        return new JarRewriter(replacements, transformation, dispatcher);
+    }
+
+    /**
+     * Returns a jar rewriter that applies the given transformation to any class file that is not replaced by a dynamic type.
+     *
+     * @param transformation The transformation to apply.
+     * @return A jar rewriter that applies the given transformation.
+     */
+    public JarRewriter with(Transformation transformation) {
+        return new JarRewriter(dynamicTypes, transformation, dispatcher);
+    }
+
+    /**
+     * Returns a jar rewriter that applies its transformation using the given dispatcher.
+     *
+     * @param dispatcher The dispatcher to use.
+     * @return A jar rewriter that applies its transformation using the given dispatcher.
+     */
+    public JarRewriter with(Dispatcher dispatcher) {
+        return new JarRewriter(dynamicTypes, transformation, dispatcher);
+    }
+
+    /**
+     * Returns a jar rewriter that applies its transformation concurrently using the given executor service. The executor
+     * service is not shut down by the jar rewriter.
+     *
+     * @param executorService The executor service to use.
+     * @return A jar rewriter that applies its transformation using the given executor service.
+     */
+    public JarRewriter with(ExecutorService executorService) {
+        return with(new Dispatcher.ForExecutorService(executorService));
+    }
+
+    /**
+     * Rewrites the given jar file in place.
+     *
+     * @param jar The jar file to rewrite.
+     * @return The rewritten jar file.
+     * @throws IOException If an I/O exception occurs.
+     */
+    public File rewrite(File jar) throws IOException {
+        return rewrite(jar, jar);
+    }
+
+    /**
+     * Rewrites the given source jar into the given target jar.
+     *
+     * @param sourceJar The jar file to read.
+     * @param targetJar The jar file to write. If this file exists, it is replaced.
+     * @return The target jar file.
+     * @throws IOException If an I/O exception occurs.
+     */
+    public File rewrite(File sourceJar, File targetJar) throws IOException {
+        File temporary = File.createTempFile(targetJar.getName(), TEMP_SUFFIX, targetJar.getAbsoluteFile().getParentFile());
+        try {
+            JarInputStream jarInputStream = new JarInputStream(new BufferedInputStream(new FileInputStream(sourceJar)));
+            try {
+                Manifest manifest = jarInputStream.getManifest();
+                JarOutputStream jarOutputStream = manifest == null
+                        ? new JarOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))
+                        : new JarOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)), manifest);
+                try {
+                    apply(jarInputStream, jarOutputStream);
+                } finally {
+                    jarOutputStream.close();
+                }
+            } finally {
+                jarInputStream.close();
+            }
+            if (targetJar.exists()) {
+                copy(temporary, targetJar);
+            } else if (!temporary.renameTo(targetJar)) {
+                throw new IOException("Cannot rename " + temporary + " to " + targetJar);
+            }
+        } finally {
+            if (temporary.exists() && !temporary.delete()) {
+                Logger.getAnonymousLogger().warning("Cannot delete " + temporary);
+            }
+        }
+        return targetJar;
+    }
+
+    /**
+     * Copies the content of a file into another file which is overwritten in place.
+     *
+     * @param source The file to read.
+     * @param target The file to overwrite.
+     * @throws IOException If an I/O exception occurs.
+     */
+    private static void copy(File source, File target) throws IOException {
+        InputStream inputStream = new FileInputStream(source);
+        try {
+            OutputStream outputStream = new FileOutputStream(target);
+            try {
+                transfer(inputStream, outputStream);
+            } finally {
+                outputStream.close();
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Copies all entries of a jar input stream to a jar output stream while replacing or transforming class files.
+     *
+     * @param jarInputStream  The jar input stream to read from.
+     * @param jarOutputStream The jar output stream to write to.
+     * @throws IOException If an I/O exception occurs.
+     */
+    private void apply(JarInputStream jarInputStream, JarOutputStream jarOutputStream) throws IOException {
+        Map<String, byte[]> replacements = new LinkedHashMap<String, byte[]>();
+        for (DynamicType dynamicType : dynamicTypes) {
+            replacements.put(dynamicType.getTypeDescription().getInternalName() + CLASS_FILE_EXTENSION, dynamicType.getBytes());
+            for (Map.Entry<TypeDescription, byte[]> entry : dynamicType.getAuxiliaryTypes().entrySet()) {
+                replacements.put(entry.getKey().getInternalName() + CLASS_FILE_EXTENSION, entry.getValue());
+            }
+        }
+        Queue<PendingEntry> pendingEntries = new LinkedList<PendingEntry>();
+        try {
+            JarEntry jarEntry;
+            while ((jarEntry = jarInputStream.getNextJarEntry()) != null) {
+                byte[] replacement = replacements.remove(jarEntry.getName());
+                if (replacement != null) {
+                    pendingEntries.add(new PendingEntry(jarEntry, new Resolved(replacement)));
+                } else if (!jarEntry.isDirectory() && jarEntry.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                    pendingEntries.add(new PendingEntry(jarEntry, dispatcher.dispatch(new TransformationTask(transformation,
+                            jarEntry.getName().substring(0, jarEntry.getName().length() - CLASS_FILE_EXTENSION.length()).replace('/', '.'),
+                            read(jarInputStream)))));
+                } else {
+                    while (!pendingEntries.isEmpty()) {
+                        pendingEntries.remove().writeTo(jarOutputStream);
+                    }
+                    JarEntry targetEntry = copyOf(jarEntry);
+                    if (targetEntry.getMethod() == ZipEntry.STORED) {
+                        targetEntry.setSize(jarEntry.getSize());
+                        targetEntry.setCompressedSize(jarEntry.getSize());
+                        targetEntry.setCrc(jarEntry.getCrc());
+                    }
+                    jarOutputStream.putNextEntry(targetEntry);
+                    transfer(jarInputStream, jarOutputStream);
+                    jarOutputStream.closeEntry();
+                }
+                jarInputStream.closeEntry();
+                while (!pendingEntries.isEmpty() && (pendingEntries.size() > READ_AHEAD || pendingEntries.peek().isDone())) {
+                    pendingEntries.remove().writeTo(jarOutputStream);
+                }
+            }
+            while (!pendingEntries.isEmpty()) {
+                pendingEntries.remove().writeTo(jarOutputStream);
+            }
+        } finally {
+            for (PendingEntry pendingEntry : pendingEntries) {
+                pendingEntry.cancel();
+            }
+        }
+        for (Map.Entry<String, byte[]> entry : replacements.entrySet()) {
+            jarOutputStream.putNextEntry(new JarEntry(entry.getKey()));
+            jarOutputStream.write(entry.getValue());
+            jarOutputStream.closeEntry();
+        }
+    }
+
+    /**
+     * Reads the current entry of an input stream.
+     *
+     * @param inputStream The input stream to read from.
+     * @return The bytes of the current entry.
+     * @throws IOException If an I/O exception occurs.
+     */
+    private static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transfer(inputStream, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Transfers the remaining bytes of an input stream to an output stream.
+     *
+     * @param inputStream  The input stream to read from.
+     * @param outputStream The output stream to write to.
+     * @throws IOException If an I/O exception occurs.
+     */
+    private static void transfer(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int index;
+        while ((index = inputStream.read(buffer)) != END_OF_FILE) {
+            outputStream.write(buffer, FROM_BEGINNING, index);
+        }
+    }
+
+    /**
+     * Creates an entry for the target jar that retains the name, compression method, time stamp, extra data and comment of
+     * an entry of the source jar.
+     *
+     * @param jarEntry The entry of the source jar.
+     * @return An entry for the target jar.
+     */
+    private static JarEntry copyOf(JarEntry jarEntry) {
+        JarEntry targetEntry = new JarEntry(jarEntry.getName());
+        targetEntry.setMethod(jarEntry.getMethod());
+        if (jarEntry.getTime() != -1) {
+            targetEntry.setTime(jarEntry.getTime());
+        }
+        targetEntry.setExtra(jarEntry.getExtra());
+        targetEntry.setComment(jarEntry.getComment());
+        return targetEntry;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        JarRewriter that = (JarRewriter) other;
+        return dynamicTypes.equals(that.dynamicTypes)
+                && transformation.equals(that.transformation)
+                && dispatcher.equals(that.dispatcher);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = dynamicTypes.hashCode();
+        result = 31 * result + transformation.hashCode();
+        result = 31 * result + dispatcher.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "JarRewriter{" +
+                "dynamicTypes=" + dynamicTypes +
+                ", transformation=" + transformation +
+                ", dispatcher=" + dispatcher +
+                '}';
+    }
+
+    /**
+     * A transformation of a class file.
+     */
+    public interface Transformation {
+
+        /**
+         * Transforms a class file.
+         *
+         * @param typeName             The binary name of the type that is represented by the class file.
+         * @param binaryRepresentation The class file to transform.
+         * @return The transformed class file or the provided class file if the class file is not transformed.
+         * @throws IOException If an I/O exception occurs.
+         */
+        byte[] transform(String typeName, byte[] binaryRepresentation) throws IOException;
+
+        /**
+         * A transformation that retains any class file.
+         */
+        enum NoOp implements Transformation {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            @Override
+            public byte[] transform(String typeName, byte[] binaryRepresentation) {
+                return binaryRepresentation;
+            }
+
+            @Override
+            public String toString() {
+                return "JarRewriter.Transformation.NoOp." + name();
+            }
+        }
+    }
+
+    /**
+     * A dispatcher is responsible for applying the transformation of class files.
+     */
+    public interface Dispatcher {
+
+        /**
+         * Dispatches the transformation of a class file.
+         *
+         * @param transformation A callable that applies the transformation of a class file.
+         * @param <T>            The type of the transformation's result.
+         * @return A future representing the result of the transformation.
+         */
+        <T> Future<T> dispatch(Callable<T> transformation);
+
+        /**
+         * A dispatcher that applies any transformation on the calling thread.
+         */
+        enum Synchronous implements Dispatcher {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            @Override
+            public <T> Future<T> dispatch(Callable<T> transformation) {
+                FutureTask<T> futureTask = new FutureTask<T>(transformation);
+                futureTask.run();
+                return futureTask;
+            }
+
+            @Override
+            public String toString() {
+                return "JarRewriter.Dispatcher.Synchronous." + name();
+            }
+        }
+
+        /**
+         * A dispatcher that applies any transformation by submitting it to an executor service.
+         */
+        class ForExecutorService implements Dispatcher {
+
+            /**
+             * The executor service to submit transformations to.
+             */
+            private final ExecutorService executorService;
+
+            /**
+             * Creates a new dispatcher for an executor service.
+             *
+             * @param executorService The executor service to submit transformations to.
+             */
+            public ForExecutorService(ExecutorService executorService) {
+                this.executorService = executorService;
+            }
+
+            @Override
+            public <T> Future<T> dispatch(Callable<T> transformation) {
+                return executorService.submit(transformation);
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && executorService.equals(((ForExecutorService) other).executorService);
+            }
+
+            @Override
+            public int hashCode() {
+                return executorService.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return "JarRewriter.Dispatcher.ForExecutorService{" +
+                        "executorService=" + executorService +
+                        '}';
+            }
+        }
+    }
+
+    /**
+     * A task that applies a transformation to a class file.
+     */
+    protected static class TransformationTask implements Callable<byte[]> {
+
+        /**
+         * The transformation to apply.
+         */
+        private final Transformation transformation;
+
+        /**
+         * The binary name of the type that is represented by the class file.
+         */
+        private final String typeName;
+
+        /**
+         * The class file to transform.
+         */
+        private final byte[] binaryRepresentation;
+
+        /**
+         * Creates a new transformation task.
+         *
+         * @param transformation       The transformation to apply.
+         * @param typeName             The binary name of the type that is represented by the class file.
+         * @param binaryRepresentation The class file to transform.
+         */
+        protected TransformationTask(Transformation transformation, String typeName, byte[] binaryRepresentation) {
+            this.transformation = transformation;
+            this.typeName = typeName;
+            this.binaryRepresentation = binaryRepresentation;
+        }
+
+        @Override
+        public byte[] call() throws IOException {
+            return transformation.transform(typeName, binaryRepresentation);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            TransformationTask that = (TransformationTask) other;
+            return transformation.equals(that.transformation)
+                    && typeName.equals(that.typeName)
+                    && Arrays.equals(binaryRepresentation, that.binaryRepresentation);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = transformation.hashCode();
+            result = 31 * result + typeName.hashCode();
+            result = 31 * result + Arrays.hashCode(binaryRepresentation);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "JarRewriter.TransformationTask{" +
+                    "transformation=" + transformation +
+                    ", typeName='" + typeName + '\'' +
+                    ", binaryRepresentation=<" + binaryRepresentation.length + " bytes>" +
+                    '}';
+        }
+    }
+
+    /**
+     * A future of an entry that is known without dispatching a transformation.
+     */
+    protected static class Resolved implements Future<byte[]> {
+
+        /**
+         * The binary representation of the entry.
+         */
+        private final byte[] binaryRepresentation;
+
+        /**
+         * Creates a new resolved future.
+         *
+         * @param binaryRepresentation The binary representation of the entry.
+         */
+        protected Resolved(byte[] binaryRepresentation) {
+            this.binaryRepresentation = binaryRepresentation;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public byte[] get() {
+            return binaryRepresentation;
+        }
+
+        @Override
+        public byte[] get(long timeout, TimeUnit unit) {
+            return binaryRepresentation;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || !(other == null || getClass() != other.getClass())
+                    && Arrays.equals(binaryRepresentation, ((Resolved) other).binaryRepresentation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(binaryRepresentation);
+        }
+
+        @Override
+        public String toString() {
+            return "JarRewriter.Resolved{" +
+                    "binaryRepresentation=<" + binaryRepresentation.length + " bytes>" +
+                    '}';
+        }
+    }
+
+    /**
+     * An entry of the source jar that is not yet written to the target jar.
+     */
+    protected static class PendingEntry {
+
+        /**
+         * The entry of the source jar.
+         */
+        private final JarEntry jarEntry;
+
+        /**
+         * A future representing the binary representation to write for this entry.
+         */
+        private final Future<byte[]> binaryRepresentation;
+
+        /**
+         * Creates a new pending entry.
+         *
+         * @param jarEntry             The entry of the source jar.
+         * @param binaryRepresentation A future representing the binary representation to write for this entry.
+         */
+        protected PendingEntry(JarEntry jarEntry, Future<byte[]> binaryRepresentation) {
+            this.jarEntry = jarEntry;
+            this.binaryRepresentation = binaryRepresentation;
+        }
+
+        /**
+         * Writes this entry to the given jar output stream while retaining the source entry's properties.
+         *
+         * @param jarOutputStream The jar output stream to write to.
+         * @throws IOException If an I/O exception occurs or if the transformation of this entry failed.
+         */
+        protected void writeTo(JarOutputStream jarOutputStream) throws IOException {
+            byte[] binaryRepresentation = resolve();
+            JarEntry jarEntry = copyOf(this.jarEntry);
+            if (jarEntry.getMethod() == ZipEntry.STORED) {
+                CRC32 crc32 = new CRC32();
+                crc32.update(binaryRepresentation);
+                jarEntry.setSize(binaryRepresentation.length);
+                jarEntry.setCompressedSize(binaryRepresentation.length);
+                jarEntry.setCrc(crc32.getValue());
+            }
+            jarOutputStream.putNextEntry(jarEntry);
+            jarOutputStream.write(binaryRepresentation);
+            jarOutputStream.closeEntry();
+        }
+
+        /**
+         * Resolves the binary representation of this entry.
+         *
+         * @return The binary representation of this entry.
+         * @throws IOException If an I/O exception occurs or if the transformation of this entry failed.
+         */
+        private byte[] resolve() throws IOException {
+            try {
+                return binaryRepresentation.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while transforming " + jarEntry.getName());
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IllegalStateException("Cannot transform " + jarEntry.getName(), cause);
+                }
+            }
+        }
+
+        /**
+         * Returns {@code true} if the binary representation of this entry is resolved.
+         *
+         * @return {@code true} if the binary representation of this entry is resolved.
+         */
+        protected boolean isDone() {
+            return binaryRepresentation.isDone();
+        }
+
+        /**
+         * Cancels the resolution of this entry if it was not yet resolved.
+         */
+        protected void cancel() {
+            binaryRepresentation.cancel(true);
+        }
+
+        @Override
+        public String toString() {
+            return "JarRewriter.PendingEntry{" +
+                    "jarEntry=" + jarEntry +
+                    ", binaryRepresentation=" + binaryRepresentation +
+                    '}';
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.bytebuddy.dynamic.loading;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import net.bytebuddy.description.type.TypeDescription;
 
 import java.io.ByteArrayInputStream;
@@ -14,12 +15,16 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
  * A {@link java.lang.ClassLoader} that is capable of loading explicitly defined classes. The class loader will free
- * any binary resources once a class that is defined by its binary data is loaded. This class loader is thread safe since
- * the class loading mechanics are only called from synchronized context.
+ * any binary resources once a class that is defined by its binary data is loaded. This class loader is thread safe as its
+ * type definitions are held in a concurrent map and as class loading is synchronized on the class loading lock of the
+ * requested type name. On a VM that supports parallel-capable class loaders, this class loader is registered as parallel
+ * capable such that this lock is specific to each type name and classes of different names can be loaded concurrently.
+ * On any other VM, the class loading lock is the class loader instance itself such that all class loading is serialized.
  * </p>
  * <p>
  * <b>Note</b>: Instances of this class loader return URLs for their represented class loaders with the <i>bytebuddy</i> schema.
@@ -45,7 +50,20 @@ public class ByteArrayClassLoader extends ClassLoader {
     private static final URL NO_URL = null;
 
     /**
-     * A mutable map of type names mapped to their binary representation.
+     * Indicates that a static method is invoked without a receiver to improve code readability.
+     */
+    private static final Object STATIC_MEMBER = null;
+
+    /*
+     * Registers this class loader as parallel capable if this is supported by the executing VM.
+     */
+    static {
+        doRegisterAsParallelCapable();
+    }
+
+    /**
+     * A mutable map of type names mapped to their binary representation. The map is thread-safe as this class loader
+     * might be registered as parallel capable.
      */
     protected final Map<String, byte[]> typeDefinitions;
 
@@ -86,13 +104,30 @@ public class ByteArrayClassLoader extends ClassLoader {
                                 PersistenceHandler persistenceHandler,
                                 PackageDefinitionStrategy packageDefinitionStrategy) {
         super(parent);
-        this.typeDefinitions = new HashMap<String, byte[]>(typeDefinitions);
+        this.typeDefinitions = new ConcurrentHashMap<String, byte[]>(typeDefinitions);
         this.protectionDomain = protectionDomain;
         this.accessControlContext = accessControlContext;
         this.persistenceHandler = persistenceHandler;
         this.packageDefinitionStrategy = packageDefinitionStrategy;
     }
 
+    /**
+     * Registers the invoking class loader as parallel capable if the executing VM supports parallel-capable class loaders.
+     * As the registration considers the class of the method that invokes the registration, this method must only be
+     * invoked from this class's type initializer. For the same reason, a subclass cannot reuse this method but must
+     * declare its own registration which is why {@link ChildFirst} duplicates this method.
+     */
+    @SuppressFBWarnings(value = "DE_MIGHT_IGNORE", justification = "A failed registration is expected on a VM prior to Java 7")
+    private static void doRegisterAsParallelCapable() {
+        try {
+            Method method = ClassLoader.class.getDeclaredMethod("registerAsParallelCapable");
+            method.setAccessible(true);
+            method.invoke(STATIC_MEMBER);
+        } catch (Exception ignored) {
+            /* do nothing */
+        }
+    }
+
     /**
      * Creates a new class loader for a given definition of classes.
      *
@@ -180,14 +215,24 @@ public class ByteArrayClassLoader extends ClassLoader {
                 if (definition.isDefined()) {
                     Package definedPackage = getPackage(packageName);
                     if (definedPackage == null) {
-                        definePackage(packageName,
-                                definition.getSpecificationTitle(),
-                                definition.getSpecificationVersion(),
-                                definition.getSpecificationVendor(),
-                                definition.getImplementationTitle(),
-                                definition.getImplementationVersion(),
-                                definition.getImplementationVendor(),
-                                definition.getSealBase());
+                        try {
+                            definePackage(packageName,
+                                    definition.getSpecificationTitle(),
+                                    definition.getSpecificationVersion(),
+                                    definition.getSpecificationVendor(),
+                                    definition.getImplementationTitle(),
+                                    definition.getImplementationVersion(),
+                                    definition.getImplementationVendor(),
+                                    definition.getSealBase());
+                        } catch (IllegalArgumentException exception) {
+                            // The package was defined concurrently by the loading of another class of the same package.
+                            definedPackage = getPackage(packageName);
+                            if (definedPackage == null) {
+                                throw exception;
+                            } else if (!definition.isCompatibleTo(definedPackage)) {
+                                throw new SecurityException("Sealing violation for package " + packageName);
+                            }
+                        }
                     } else if (!definition.isCompatibleTo(definedPackage)) {
                         throw new SecurityException("Sealing violation for package " + packageName);
                     }
@@ -495,7 +540,8 @@ public class ByteArrayClassLoader extends ClassLoader {
      * </p>
      * <p>
      * <b>Important</b>: Package definitions remain their parent-first semantics as loaded package definitions do not expose their class loaders.
-     * Also, it is not possible to make this class or its subclass parallel-capable as the loading strategy is overridden.
+     * On a VM that supports parallel-capable class loaders, this class loader is registered as parallel capable. Any subclass that
+     * overrides the loading strategy needs to register itself if it should also be parallel capable.
      * </p>
      */
     public static class ChildFirst extends ByteArrayClassLoader {
@@ -511,7 +557,7 @@ public class ByteArrayClassLoader extends ClassLoader {
         private static final SynchronizationStrategy SYNCHRONIZATION_STRATEGY;
 
         /*
-         * Sets up the suitable synchronization engine (Java 8+ or earlier).
+         * Sets up the suitable synchronization engine (Java 8+ or earlier) and registers this class loader as parallel capable if possible.
          */
         static {
             SynchronizationStrategy synchronizationStrategy;
@@ -521,6 +567,7 @@ public class ByteArrayClassLoader extends ClassLoader {
                 synchronizationStrategy = SynchronizationStrategy.ForLegacyVm.INSTANCE;
             }
             SYNCHRONIZATION_STRATEGY = synchronizationStrategy;
+            doRegisterAsParallelCapable();
         }
 
         /**
@@ -542,6 +589,24 @@ public class ByteArrayClassLoader extends ClassLoader {
             super(parent, typeDefinitions, protectionDomain, accessControlContext, persistenceHandler, packageDefinitionStrategy);
         }
 
+        /**
+         * Registers the invoking class loader as parallel capable if the executing VM supports parallel-capable class loaders.
+         * As the registration considers the class of the method that invokes the registration, this method must only be
+         * invoked from this class's type initializer. This method duplicates the registration of the enclosing class
+         * loader as the registration is caller sensitive: invoking the enclosing class's method would register the
+         * {@link ByteArrayClassLoader} a second time rather than this class loader.
+         */
+        @SuppressFBWarnings(value = "DE_MIGHT_IGNORE", justification = "A failed registration is expected on a VM prior to Java 7")
+        private static void doRegisterAsParallelCapable() {
+            try {
+                Method method = ClassLoader.class.getDeclaredMethod("registerAsParallelCapable");
+                method.setAccessible(true);
+                method.invoke(STATIC_MEMBER);
+            } catch (Exception ignored) {
+                /* do nothing */
+            }
+        }
+
         @Override
         protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
             synchronized (SYNCHRONIZATION_STRATEGY.classLoadingLock(name, this)) {
@@ -593,9 +658,9 @@ public class ByteArrayClassLoader extends ClassLoader {
             if (persistenceHandler.isManifest() || !resourceName.endsWith(CLASS_FILE_SUFFIX)) {
                 return false;
             }
+            String typeName = resourceName.replace('/', '.').substring(0, resourceName.length() - CLASS_FILE_SUFFIX.length());
             // This synchronization is required to avoid a racing condition to the actual class loading.
-            synchronized (this) {
-                String typeName = resourceName.replace('/', '.').substring(0, resourceName.length() - CLASS_FILE_SUFFIX.length());
+            synchronized (SYNCHRONIZATION_STRATEGY.classLoadingLock(typeName, this)) {
                 if (typeDefinitions.containsKey(typeName)) {
                     return true;
                 }
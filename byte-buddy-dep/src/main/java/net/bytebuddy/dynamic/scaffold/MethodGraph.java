@@ -3,12 +3,15 @@ package net.bytebuddy.dynamic.scaffold;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.PackageDescription;
 import net.bytebuddy.description.type.TypeDefinition;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.FilterableList;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static net.bytebuddy.matcher.ElementMatchers.isVirtual;
 import static net.bytebuddy.matcher.ElementMatchers.isVisibleTo;
@@ -434,12 +437,12 @@ public interface MethodGraph {
             /**
              * The harmonizer to be used.
              */
-            private final Harmonizer<T> harmonizer;
+            protected final Harmonizer<T> harmonizer;
 
             /**
              * The merger to be used.
              */
-            private final Merger merger;
+            protected final Merger merger;
 
             /**
              * Creates a new default method graph compiler.
@@ -498,7 +501,18 @@ public interface MethodGraph {
 
             @Override
             public MethodGraph.Linked compile(TypeDefinition typeDefinition, TypeDescription viewPoint) {
-                Map<TypeDefinition, Key.Store<T>> snapshots = new HashMap<TypeDefinition, Key.Store<T>>();
+                return compile(typeDefinition, viewPoint, new HashMap<TypeDefinition, Key.Store<T>>());
+            }
+
+            /**
+             * Compiles the given type into a method graph.
+             *
+             * @param typeDefinition The type to be compiled.
+             * @param viewPoint      The view point that determines the method's visibility.
+             * @param snapshots      A map containing snapshots of key stores for previously analyzed types.
+             * @return A linked method graph representing the given type.
+             */
+            protected MethodGraph.Linked compile(TypeDefinition typeDefinition, TypeDescription viewPoint, Map<TypeDefinition, Key.Store<T>> snapshots) {
                 Key.Store<?> rootStore = doAnalyze(typeDefinition, snapshots, isVirtual().and(isVisibleTo(viewPoint)));
                 TypeDescription.Generic superClass = typeDefinition.getSuperClass();
                 List<TypeDescription.Generic> interfaceTypes = typeDefinition.getInterfaces();
@@ -1671,6 +1685,119 @@ public interface MethodGraph {
                 }
             }
         }
+
+        /**
+         * <p>
+         * A compiler that memoizes the analysis of super classes and interfaces such that compiling several types of a common
+         * type hierarchy only analyzes each shared super type once. The analysis of a super type depends on the package of the
+         * view point only if the compiled type is its own view point. Any other compilation is delegated to the default
+         * compiler without memoization. The compiled type itself is never memoized as it typically represents an instrumented
+         * type that changes between compilations.
+         * </p>
+         * <p>
+         * <b>Important</b>: Memoized analyses are identified by the equality of type definitions, i.e. by a type's name and, for
+         * generic types, its type arguments. A memoizing compiler must therefore only be used for types where a name uniquely
+         * identifies a type, for example for types of a single class loader hierarchy. Memoized analyses are held until this
+         * compiler is cleared.
+         * </p>
+         *
+         * @param <T> The type of the harmonizer token to be used for linking methods of different types.
+         */
+        class Memoizing<T> extends Default<T> {
+
+            /**
+             * A mapping of view point packages to the memoized key stores of super types.
+             */
+            private final ConcurrentMap<PackageDescription, ConcurrentMap<TypeDefinition, Key.Store<T>>> snapshots;
+
+            /**
+             * Creates a new memoizing method graph compiler.
+             *
+             * @param harmonizer The harmonizer to be used.
+             * @param merger     The merger to be used.
+             */
+            protected Memoizing(Harmonizer<T> harmonizer, Merger merger) {
+                super(harmonizer, merger);
+                snapshots = new ConcurrentHashMap<PackageDescription, ConcurrentMap<TypeDefinition, Key.Store<T>>>();
+            }
+
+            /**
+             * Creates a memoizing compiler using the given harmonizer and merger.
+             *
+             * @param harmonizer The harmonizer to be used for creating tokens that uniquely identify a method hierarchy.
+             * @param merger     The merger to be used for identifying a method to represent an ambiguous method resolution.
+             * @param <S>        The type of the harmonizer token.
+             * @return A memoizing compiler for the given harmonizer and merger.
+             */
+            public static <S> Memoizing<S> of(Harmonizer<S> harmonizer, Merger merger) {
+                return new Memoizing<S>(harmonizer, merger);
+            }
+
+            /**
+             * Creates a memoizing compiler for a method hierarchy following the rules of the Java programming language.
+             *
+             * @return A memoizing compiler for resolving a method hierarchy following the rules of the Java programming language.
+             * @see Default#forJavaHierarchy()
+             */
+            public static Memoizing<?> forJavaHierarchy() {
+                return of(Harmonizer.ForJavaMethod.INSTANCE, Merger.Directional.LEFT);
+            }
+
+            /**
+             * Creates a memoizing compiler for a method hierarchy following the rules of the Java virtual machine.
+             *
+             * @return A memoizing compiler for resolving a method hierarchy following the rules of the Java virtual machine.
+             * @see Default#forJVMHierarchy()
+             */
+            public static Memoizing<?> forJVMHierarchy() {
+                return of(Harmonizer.ForJVMMethod.INSTANCE, Merger.Directional.LEFT);
+            }
+
+            @Override
+            public MethodGraph.Linked compile(TypeDefinition typeDefinition, TypeDescription viewPoint) {
+                PackageDescription packageDescription = viewPoint.getPackage();
+                if (packageDescription == null || !typeDefinition.asErasure().equals(viewPoint)) {
+                    return super.compile(typeDefinition, viewPoint);
+                }
+                ConcurrentMap<TypeDefinition, Key.Store<T>> snapshots = this.snapshots.get(packageDescription);
+                if (snapshots == null) {
+                    snapshots = new ConcurrentHashMap<TypeDefinition, Key.Store<T>>();
+                    ConcurrentMap<TypeDefinition, Key.Store<T>> previous = this.snapshots.putIfAbsent(packageDescription, snapshots);
+                    if (previous != null) {
+                        snapshots = previous;
+                    }
+                }
+                return compile(typeDefinition, viewPoint, snapshots);
+            }
+
+            /**
+             * Removes all memoized analyses of this compiler.
+             */
+            public void clear() {
+                snapshots.clear();
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                if (!super.equals(other)) return false;
+                Object snapshots = ((Memoizing<?>) other).snapshots;
+                return this.snapshots == snapshots;
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * super.hashCode() + System.identityHashCode(snapshots);
+            }
+
+            @Override
+            public String toString() {
+                return "MethodGraph.Compiler.Memoizing{" +
+                        "harmonizer=" + harmonizer +
+                        ", merger=" + merger +
+                        ", snapshots=" + snapshots.size() +
+                        '}';
+            }
+        }
     }
 
     /**
@@ -1482,6 +1482,7 @@ public interface TypeWriter<T> {
          * @param typeValidation               Determines if a type should be explicitly validated.
          * @param originalType                 The original type that is being redefined or rebased.
          * @param classFileLocator             The class file locator for locating the original type's class file.
+         * @param typePool                     The type pool to use for computing stack map frames if required.
          * @param <U>                          A loaded type that the instrumented type guarantees to subclass.
          * @return A suitable type writer.
          */
@@ -1496,7 +1497,8 @@ public interface TypeWriter<T> {
                                                         Implementation.Context.Factory implementationContextFactory,
                                                         TypeValidation typeValidation,
                                                         TypeDescription originalType,
-                                                        ClassFileLocator classFileLocator) {
+                                                        ClassFileLocator classFileLocator,
+                                                        TypePool typePool) {
             return new ForInlining<U>(methodRegistry.getInstrumentedType(),
                     fieldPool,
                     methodRegistry,
@@ -1514,6 +1516,7 @@ public interface TypeWriter<T> {
                     typeValidation,
                     originalType,
                     classFileLocator,
+                    typePool,
                     MethodRebaseResolver.Disabled.INSTANCE);
         }
 
@@ -1532,6 +1535,7 @@ public interface TypeWriter<T> {
          * @param typeValidation               Determines if a type should be explicitly validated.
          * @param originalType                 The original type that is being redefined or rebased.
          * @param classFileLocator             The class file locator for locating the original type's class file.
+         * @param typePool                     The type pool to use for computing stack map frames if required.
          * @param methodRebaseResolver         The method rebase resolver to use for rebasing names.
          * @param <U>                          A loaded type that the instrumented type guarantees to subclass.
          * @return A suitable type writer.
@@ -1548,6 +1552,7 @@ public interface TypeWriter<T> {
                                                     TypeValidation typeValidation,
                                                     TypeDescription originalType,
                                                     ClassFileLocator classFileLocator,
+                                                    TypePool typePool,
                                                     MethodRebaseResolver methodRebaseResolver) {
             return new ForInlining<U>(methodRegistry.getInstrumentedType(),
                     fieldPool,
@@ -1566,6 +1571,7 @@ public interface TypeWriter<T> {
                     typeValidation,
                     originalType,
                     classFileLocator,
+                    typePool,
                     methodRebaseResolver);
         }
 
@@ -2547,16 +2553,28 @@ public interface TypeWriter<T> {
         }
 
         /**
-         * A class writer that piggy-backs on Byte Buddy's {@link ClassFileLocator} to avoid class loading or look-up errors when redefining a class.
+         * A class writer that piggy-backs on Byte Buddy's {@link TypePool} to avoid class loading or look-up errors when redefining a class.
          * This is not available when creating a new class where automatic frame computation is however not normally a requirement.
+         * As the same pair of types is typically queried repeatedly when computing the frames of a single class, the common super
+         * class of any queried pair of types is memoized by this writer.
          */
         protected static class FrameComputingClassWriter extends ClassWriter {
 
+            /**
+             * A separator for internal names which cannot be contained in an internal name itself.
+             */
+            private static final char SEPARATOR = ';';
+
             /**
              * The type pool to query.
              */
             private final TypePool typePool;
 
+            /**
+             * A mapping of pairs of internal names to the internal name of their common super class.
+             */
+            private final Map<String, String> commonSuperClasses;
+
             /**
              * Creates a new frame computing class writer.
              *
@@ -2567,22 +2585,42 @@ public interface TypeWriter<T> {
             protected FrameComputingClassWriter(ClassReader classReader, int flags, TypePool typePool) {
                 super(classReader, flags);
                 this.typePool = typePool;
+                commonSuperClasses = new HashMap<String, String>();
             }
 
             /**
-             * @param classReader      The class reader from which the original class is read.
-             * @param flags            The flags to be handed to the writer.
-             * @param classFileLocator The class file locator to use.
+             * @param classReader The class reader from which the original class is read.
+             * @param flags       The flags to be handed to the writer.
+             * @param typePool    The type pool to use for computing stack map frames if required.
              * @return An appropriate class writer.
              */
-            protected static ClassWriter of(ClassReader classReader, int flags, ClassFileLocator classFileLocator) {
+            protected static ClassWriter of(ClassReader classReader, int flags, TypePool typePool) {
                 return (flags & ClassWriter.COMPUTE_FRAMES) != 0
-                        ? new FrameComputingClassWriter(classReader, flags, TypePool.Default.of(classFileLocator))
+                        ? new FrameComputingClassWriter(classReader, flags, typePool)
                         : new ClassWriter(classReader, flags);
             }
 
             @Override
             protected String getCommonSuperClass(String leftTypeName, String rightTypeName) {
+                String key = leftTypeName.compareTo(rightTypeName) < 0
+                        ? leftTypeName + SEPARATOR + rightTypeName
+                        : rightTypeName + SEPARATOR + leftTypeName;
+                String commonSuperClass = commonSuperClasses.get(key);
+                if (commonSuperClass == null) {
+                    commonSuperClass = doGetCommonSuperClass(leftTypeName, rightTypeName);
+                    commonSuperClasses.put(key, commonSuperClass);
+                }
+                return commonSuperClass;
+            }
+
+            /**
+             * Resolves the common super class of two types.
+             *
+             * @param leftTypeName  The internal name of the first type.
+             * @param rightTypeName The internal name of the second type.
+             * @return The internal name of the common super class of both types.
+             */
+            private String doGetCommonSuperClass(String leftTypeName, String rightTypeName) {
                 TypeDescription leftType = typePool.describe(leftTypeName.replace('/', '.')).resolve();
                 TypeDescription rightType = typePool.describe(rightTypeName.replace('/', '.')).resolve();
                 if (leftType.isAssignableFrom(rightType)) {
@@ -2603,6 +2641,7 @@ public interface TypeWriter<T> {
             public String toString() {
                 return "TypeWriter.Default.FrameComputingClassWriter{" +
                         "typePool=" + typePool +
+                        ", commonSuperClasses=" + commonSuperClasses +
                         '}';
             }
         }
@@ -2634,6 +2673,11 @@ public interface TypeWriter<T> {
              */
             private final ClassFileLocator classFileLocator;
 
+            /**
+             * The type pool to use for computing stack map frames if required.
+             */
+            private final TypePool typePool;
+
             /**
              * The method rebase resolver to use for rebasing methods.
              */
@@ -2659,6 +2703,7 @@ public interface TypeWriter<T> {
              * @param typeValidation               Determines if a type should be explicitly validated.
              * @param originalType                 The original type that is being redefined or rebased.
              * @param classFileLocator             The class file locator for locating the original type's class file.
+             * @param typePool                     The type pool to use for computing stack map frames if required.
              * @param methodRebaseResolver         The method rebase resolver to use for rebasing methods.
              */
             protected ForInlining(TypeDescription instrumentedType,
@@ -2678,6 +2723,7 @@ public interface TypeWriter<T> {
                                   TypeValidation typeValidation,
                                   TypeDescription originalType,
                                   ClassFileLocator classFileLocator,
+                                  TypePool typePool,
                                   MethodRebaseResolver methodRebaseResolver) {
                 super(instrumentedType,
                         fieldPool,
@@ -2696,6 +2742,7 @@ public interface TypeWriter<T> {
                         typeValidation);
                 this.originalType = originalType;
                 this.classFileLocator = classFileLocator;
+                this.typePool = typePool;
                 this.methodRebaseResolver = methodRebaseResolver;
             }
 
@@ -2721,7 +2768,7 @@ public interface TypeWriter<T> {
              */
             private byte[] doCreate(Implementation.Context.ExtractableView implementationContext, byte[] binaryRepresentation) {
                 ClassReader classReader = new ClassReader(binaryRepresentation);
-                ClassWriter classWriter = FrameComputingClassWriter.of(classReader, asmVisitorWrapper.mergeWriter(ASM_MANUAL_FLAGS), classFileLocator);
+                ClassWriter classWriter = FrameComputingClassWriter.of(classReader, asmVisitorWrapper.mergeWriter(ASM_MANUAL_FLAGS), typePool);
                 classReader.accept(writeTo(asmVisitorWrapper.wrap(instrumentedType, ValidatingClassVisitor.of(classWriter, typeValidation)), implementationContext),
                         asmVisitorWrapper.mergeReader(ASM_MANUAL_FLAGS));
                 return classWriter.toByteArray();
@@ -2748,6 +2795,7 @@ public interface TypeWriter<T> {
                 ForInlining<?> that = (ForInlining<?>) other;
                 return originalType.equals(that.originalType)
                         && classFileLocator.equals(that.classFileLocator)
+                        && typePool.equals(that.typePool)
                         && methodRebaseResolver.equals(that.methodRebaseResolver);
             }
 
@@ -2756,6 +2804,7 @@ public interface TypeWriter<T> {
                 int result = super.hashCode();
                 result = 31 * result + originalType.hashCode();
                 result = 31 * result + classFileLocator.hashCode();
+                result = 31 * result + typePool.hashCode();
                 result = 31 * result + methodRebaseResolver.hashCode();
                 return result;
             }
@@ -2780,6 +2829,7 @@ public interface TypeWriter<T> {
                         ", typeValidation=" + typeValidation +
                         ", originalType=" + originalType +
                         ", classFileLocator=" + classFileLocator +
+                        ", typePool=" + typePool +
                         ", methodRebaseResolver=" + methodRebaseResolver +
                         '}';
             }
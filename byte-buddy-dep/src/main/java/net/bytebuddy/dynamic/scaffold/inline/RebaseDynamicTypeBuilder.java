@@ -15,6 +15,7 @@ import net.bytebuddy.implementation.attribute.TypeAttributeAppender;
 import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.LatentMatcher;
+import net.bytebuddy.pool.TypePool;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -179,6 +180,11 @@ public class RebaseDynamicTypeBuilder<T> extends DynamicType.Builder.AbstractBas
 
     @Override
     public DynamicType.Unloaded<T> make() {
+        return make(TypePool.Default.of(classFileLocator));
+    }
+
+    @Override
+    public DynamicType.Unloaded<T> make(TypePool typePool) {
         MethodRegistry.Prepared preparedMethodRegistry = methodRegistry.prepare(instrumentedType,
                 methodGraphCompiler,
                 typeValidation,
@@ -203,6 +209,7 @@ public class RebaseDynamicTypeBuilder<T> extends DynamicType.Builder.AbstractBas
                 typeValidation,
                 originalType,
                 classFileLocator,
+                typePool,
                 methodRebaseResolver).make();
     }
 
@@ -14,6 +14,7 @@ import net.bytebuddy.implementation.attribute.AnnotationValueFilter;
 import net.bytebuddy.implementation.attribute.TypeAttributeAppender;
 import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
 import net.bytebuddy.matcher.LatentMatcher;
+import net.bytebuddy.pool.TypePool;
 
 /**
  * A type builder that redefines an instrumented type.
@@ -161,6 +162,11 @@ public class RedefinitionDynamicTypeBuilder<T> extends DynamicType.Builder.Abstr
 
     @Override
     public DynamicType.Unloaded<T> make() {
+        return make(TypePool.Default.of(classFileLocator));
+    }
+
+    @Override
+    public DynamicType.Unloaded<T> make(TypePool typePool) {
         MethodRegistry.Compiled compiledMethodRegistry = methodRegistry.prepare(instrumentedType,
                 methodGraphCompiler,
                 typeValidation,
@@ -176,7 +182,8 @@ public class RedefinitionDynamicTypeBuilder<T> extends DynamicType.Builder.Abstr
                 implementationContextFactory,
                 typeValidation,
                 originalType,
-                classFileLocator).make();
+                classFileLocator,
+                typePool).make();
     }
 
     @Override
@@ -13,6 +13,7 @@ import net.bytebuddy.implementation.attribute.TypeAttributeAppender;
 import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.LatentMatcher;
+import net.bytebuddy.pool.TypePool;
 
 import static net.bytebuddy.matcher.ElementMatchers.*;
 
@@ -146,6 +147,11 @@ public class SubclassDynamicTypeBuilder<T> extends DynamicType.Builder.AbstractB
                 constructorStrategy);
     }
 
+    @Override
+    public DynamicType.Unloaded<T> make(TypePool typePool) {
+        return make();
+    }
+
     @Override
     public DynamicType.Unloaded<T> make() {
         MethodRegistry.Compiled compiledMethodRegistry = constructorStrategy
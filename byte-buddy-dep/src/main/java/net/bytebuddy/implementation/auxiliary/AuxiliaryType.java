@@ -174,6 +174,77 @@ public interface AuxiliaryType {
                 return "Instrumentation.Context.Default.AuxiliaryTypeNamingStrategySuffixingRandom{suffix='" + suffix + '\'' + '}';
             }
         }
+
+        /**
+         * A naming strategy for an auxiliary type which returns the instrumented type's name with a fixed extension
+         * and a hexadecimal hash value as a suffix. The hash value is derived from the instrumented type's name and modifiers,
+         * its generic super class, its generic interfaces and the signatures of its declared fields and methods such that names
+         * are reproducible. If a name was already issued by the same instance, a counter is appended to the name as described by
+         * {@link net.bytebuddy.NamingStrategy.SuffixingHash.Registry}. All generated names will be in the same package as the
+         * instrumented type.
+         */
+        class SuffixingHash implements NamingStrategy {
+
+            /**
+             * The suffix to append to the instrumented type for creating names for the auxiliary types.
+             */
+            private final String suffix;
+
+            /**
+             * The registry of names issued by this instance.
+             */
+            private final net.bytebuddy.NamingStrategy.SuffixingHash.Registry registry;
+
+            /**
+             * Creates a new suffixing hash naming strategy.
+             *
+             * @param suffix The suffix to extend to the instrumented type.
+             */
+            public SuffixingHash(String suffix) {
+                this.suffix = suffix;
+                registry = new net.bytebuddy.NamingStrategy.SuffixingHash.Registry();
+            }
+
+            @Override
+            public String name(TypeDescription instrumentedType) {
+                StringBuilder identity = new StringBuilder(instrumentedType.getName())
+                        .append('$').append(suffix)
+                        .append('$').append(instrumentedType.getModifiers());
+                TypeDescription.Generic superClass = instrumentedType.getSuperClass();
+                if (superClass != null) {
+                    identity.append('$').append(superClass.getTypeName());
+                }
+                for (TypeDescription.Generic interfaceType : instrumentedType.getInterfaces()) {
+                    identity.append('$').append(interfaceType.getTypeName());
+                }
+                for (FieldDescription.InDefinedShape fieldDescription : instrumentedType.getDeclaredFields()) {
+                    identity.append('$').append(fieldDescription.getName()).append(fieldDescription.getDescriptor());
+                }
+                for (MethodDescription.InDefinedShape methodDescription : instrumentedType.getDeclaredMethods()) {
+                    identity.append('$').append(methodDescription.getInternalName()).append(methodDescription.getDescriptor());
+                }
+                return registry.register(String.format("%s$%s$%08x", instrumentedType.getName(), suffix, identity.toString().hashCode()));
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && suffix.equals(((SuffixingHash) other).suffix);
+            }
+
+            @Override
+            public int hashCode() {
+                return suffix.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return "AuxiliaryType.NamingStrategy.SuffixingHash{" +
+                        "suffix='" + suffix + '\'' +
+                        ", registry=" + registry +
+                        '}';
+            }
+        }
     }
 
     /**
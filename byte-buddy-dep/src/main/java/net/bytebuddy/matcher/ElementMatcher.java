@@ -74,7 +74,7 @@ public interface ElementMatcher<T> {
          *
          * @param <W> The type of the object that is being matched.
          */
-        class Conjunction<W> extends AbstractBase<W> {
+        class Conjunction<W> extends AbstractBase<W> implements NameIndex.Indexable {
 
             /**
              * The element matchers that constitute this conjunction.
@@ -98,6 +98,11 @@ public interface ElementMatcher<T> {
                 return left.matches(target) && right.matches(target);
             }
 
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.ofConjunction(left, right);
+            }
+
             @Override
             public boolean equals(Object other) {
                 return this == other || !(other == null || getClass() != other.getClass())
@@ -121,7 +126,7 @@ public interface ElementMatcher<T> {
          *
          * @param <W> The type of the object that is being matched.
          */
-        class Disjunction<W> extends AbstractBase<W> {
+        class Disjunction<W> extends AbstractBase<W> implements NameIndex.Indexable {
 
             /**
              * The element matchers that constitute this disjunction.
@@ -145,6 +150,11 @@ public interface ElementMatcher<T> {
                 return left.matches(target) || right.matches(target);
             }
 
+            @Override
+            public NameIndex.Condition getNameCondition() {
+                return NameIndex.Condition.ofDisjunction(left, right);
+            }
+
             @Override
             public boolean equals(Object other) {
                 return this == other || !(other == null || getClass() != other.getClass())
@@ -0,0 +1,401 @@
+package net.bytebuddy.matcher;
+
+import java.util.*;
+
+/**
+ * <p>
+ * An index over values that are associated with matchers of a name. For each value, a {@link Condition} is derived if the value is
+ * {@link Indexable}. A condition names the names, name prefixes and name suffixes of which a name must match at least one for the
+ * value's matcher to possibly match the name. Looking up a name returns all values of which the condition is satisfied and all values
+ * without a condition in their original order. This way, the cost of finding candidate values for a name does not grow with the number
+ * of values that are constrained by a condition.
+ * </p>
+ * <p>
+ * <b>Important</b>: An index only preselects values. Any value that is returned by a lookup still needs to apply its matcher.
+ * </p>
+ *
+ * @param <T> The type of the indexed values.
+ */
+public class NameIndex<T> {
+
+    /**
+     * The indexed values in their original order.
+     */
+    private final List<T> values;
+
+    /**
+     * The indices of all values without a condition.
+     */
+    private final BitSet unconditional;
+
+    /**
+     * A mapping of names to the indices of the values that require a name to be equal to this name.
+     */
+    private final Map<String, BitSet> names;
+
+    /**
+     * A trie of the names' prefixes that are required by the indexed values.
+     */
+    private final Node prefixes;
+
+    /**
+     * A trie of the names' suffixes that are required by the indexed values where the suffixes are stored in reverse order.
+     */
+    private final Node suffixes;
+
+    /**
+     * Creates a new name index.
+     *
+     * @param values The values to index in their original order.
+     */
+    public NameIndex(List<? extends T> values) {
+        this.values = new ArrayList<T>(values);
+        unconditional = new BitSet(values.size());
+        names = new HashMap<String, BitSet>();
+        prefixes = new Node();
+        suffixes = new Node();
+        int index = 0;
+        for (T value : values) {
+            Condition condition = Condition.of(value);
+            if (condition == null) {
+                unconditional.set(index);
+            } else {
+                for (String name : condition.names) {
+                    BitSet indices = names.get(name);
+                    if (indices == null) {
+                        indices = new BitSet();
+                        names.put(name, indices);
+                    }
+                    indices.set(index);
+                }
+                for (String prefix : condition.prefixes) {
+                    prefixes.add(prefix, Node.Direction.FORWARD, index);
+                }
+                for (String suffix : condition.suffixes) {
+                    suffixes.add(suffix, Node.Direction.BACKWARD, index);
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Looks up all values which might match the given name.
+     *
+     * @param name The name to look up.
+     * @return All values that might match the given name in their original order.
+     */
+    public List<T> lookup(String name) {
+        BitSet candidates = (BitSet) unconditional.clone();
+        BitSet indices = names.get(name);
+        if (indices != null) {
+            candidates.or(indices);
+        }
+        prefixes.mark(name, Node.Direction.FORWARD, candidates);
+        suffixes.mark(name, Node.Direction.BACKWARD, candidates);
+        List<T> values = new ArrayList<T>(candidates.cardinality());
+        for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+            values.add(this.values.get(index));
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || !(other == null || getClass() != other.getClass())
+                && values.equals(((NameIndex<?>) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "NameIndex{" +
+                "values=" + values +
+                ", unconditional=" + unconditional +
+                ", names=" + names +
+                ", prefixes=" + prefixes +
+                ", suffixes=" + suffixes +
+                '}';
+    }
+
+    /**
+     * A value that can describe a condition on any name that it might match.
+     */
+    public interface Indexable {
+
+        /**
+         * Indicates that no condition can be described.
+         */
+        Condition UNDEFINED = null;
+
+        /**
+         * Returns a condition on any name that this value might match.
+         *
+         * @return A condition on any name that this value might match or {@code null} if no such condition can be described.
+         */
+        Condition getNameCondition();
+    }
+
+    /**
+     * A condition that is satisfied by any name that is equal to one of its names, that starts with one of its prefixes or that
+     * ends with one of its suffixes.
+     */
+    public static class Condition {
+
+        /**
+         * The names that satisfy this condition.
+         */
+        private final Set<String> names;
+
+        /**
+         * The prefixes of names that satisfy this condition.
+         */
+        private final Set<String> prefixes;
+
+        /**
+         * The suffixes of names that satisfy this condition.
+         */
+        private final Set<String> suffixes;
+
+        /**
+         * Creates a new condition.
+         *
+         * @param names    The names that satisfy this condition.
+         * @param prefixes The prefixes of names that satisfy this condition.
+         * @param suffixes The suffixes of names that satisfy this condition.
+         */
+        protected Condition(Set<String> names, Set<String> prefixes, Set<String> suffixes) {
+            this.names = names;
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+        }
+
+        /**
+         * Creates a condition that is only satisfied by the given name.
+         *
+         * @param name The name that satisfies the condition.
+         * @return A condition that is only satisfied by the given name.
+         */
+        public static Condition ofName(String name) {
+            return new Condition(Collections.singleton(name), Collections.<String>emptySet(), Collections.<String>emptySet());
+        }
+
+        /**
+         * Creates a condition that is satisfied by any name that starts with the given prefix.
+         *
+         * @param prefix The prefix of any name that satisfies the condition.
+         * @return A condition that is satisfied by any name that starts with the given prefix.
+         */
+        public static Condition ofPrefix(String prefix) {
+            return new Condition(Collections.<String>emptySet(), Collections.singleton(prefix), Collections.<String>emptySet());
+        }
+
+        /**
+         * Creates a condition that is satisfied by any name that ends with the given suffix.
+         *
+         * @param suffix The suffix of any name that satisfies the condition.
+         * @return A condition that is satisfied by any name that ends with the given suffix.
+         */
+        public static Condition ofSuffix(String suffix) {
+            return new Condition(Collections.<String>emptySet(), Collections.<String>emptySet(), Collections.singleton(suffix));
+        }
+
+        /**
+         * Resolves the condition of a value.
+         *
+         * @param value The value for which to resolve a condition.
+         * @return The value's condition or {@code null} if the value does not describe a condition.
+         */
+        public static Condition of(Object value) {
+            return value instanceof Indexable
+                    ? ((Indexable) value).getNameCondition()
+                    : Indexable.UNDEFINED;
+        }
+
+        /**
+         * Resolves the condition of a conjunction of two values which is the condition of any of the two values.
+         *
+         * @param left  The left value of the conjunction.
+         * @param right The right value of the conjunction.
+         * @return A condition of the conjunction or {@code null} if neither value describes a condition.
+         */
+        public static Condition ofConjunction(Object left, Object right) {
+            Condition condition = of(left);
+            return condition == null
+                    ? of(right)
+                    : condition;
+        }
+
+        /**
+         * Resolves the condition of a disjunction of two values which is the union of both values' conditions.
+         *
+         * @param left  The left value of the disjunction.
+         * @param right The right value of the disjunction.
+         * @return A condition of the disjunction or {@code null} if any value does not describe a condition.
+         */
+        public static Condition ofDisjunction(Object left, Object right) {
+            Condition leftCondition = of(left);
+            if (leftCondition == null) {
+                return Indexable.UNDEFINED;
+            }
+            Condition rightCondition = of(right);
+            return rightCondition == null
+                    ? Indexable.UNDEFINED
+                    : new Condition(union(leftCondition.names, rightCondition.names),
+                    union(leftCondition.prefixes, rightCondition.prefixes),
+                    union(leftCondition.suffixes, rightCondition.suffixes));
+        }
+
+        /**
+         * Creates the union of two sets.
+         *
+         * @param left  The left set.
+         * @param right The right set.
+         * @return A set containing the elements of both sets.
+         */
+        private static Set<String> union(Set<String> left, Set<String> right) {
+            Set<String> union = new LinkedHashSet<String>(left);
+            union.addAll(right);
+            return union;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            Condition condition = (Condition) other;
+            return names.equals(condition.names)
+                    && prefixes.equals(condition.prefixes)
+                    && suffixes.equals(condition.suffixes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = names.hashCode();
+            result = 31 * result + prefixes.hashCode();
+            result = 31 * result + suffixes.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "NameIndex.Condition{" +
+                    "names=" + names +
+                    ", prefixes=" + prefixes +
+                    ", suffixes=" + suffixes +
+                    '}';
+        }
+    }
+
+    /**
+     * A node of a trie that stores the indices of all values that require a name to start or to end with the node's path.
+     */
+    protected static class Node {
+
+        /**
+         * The children of this node by the character that leads to them.
+         */
+        private final Map<Character, Node> children;
+
+        /**
+         * The indices of the values that require a name to start or to end with this node's path.
+         */
+        private final BitSet indices;
+
+        /**
+         * Creates a new node without any children or indices.
+         */
+        protected Node() {
+            children = new HashMap<Character, Node>();
+            indices = new BitSet();
+        }
+
+        /**
+         * Adds an index for a given key.
+         *
+         * @param key       The key to add.
+         * @param direction The direction in which the key's characters are traversed.
+         * @param index     The index of the value that requires the key.
+         */
+        protected void add(String key, Direction direction, int index) {
+            Node node = this;
+            for (int position = 0; position < key.length(); position++) {
+                Character character = key.charAt(direction.resolve(key, position));
+                Node child = node.children.get(character);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(character, child);
+                }
+                node = child;
+            }
+            node.indices.set(index);
+        }
+
+        /**
+         * Marks the indices of all values of which the key is a prefix or suffix of the given name.
+         *
+         * @param name       The name to look up.
+         * @param direction  The direction in which the name's characters are traversed.
+         * @param candidates The bit set in which the indices are marked.
+         */
+        protected void mark(String name, Direction direction, BitSet candidates) {
+            Node node = this;
+            int position = 0;
+            do {
+                candidates.or(node.indices);
+            } while (position < name.length() && (node = node.children.get(name.charAt(direction.resolve(name, position++)))) != null);
+        }
+
+        @Override
+        public String toString() {
+            return "NameIndex.Node{" +
+                    "children=" + children +
+                    ", indices=" + indices +
+                    '}';
+        }
+
+        /**
+         * A direction in which a key is traversed.
+         */
+        protected enum Direction {
+
+            /**
+             * Traverses a key from its first to its last character.
+             */
+            FORWARD {
+                @Override
+                protected int resolve(String key, int position) {
+                    return position;
+                }
+            },
+
+            /**
+             * Traverses a key from its last to its first character.
+             */
+            BACKWARD {
+                @Override
+                protected int resolve(String key, int position) {
+                    return key.length() - position - 1;
+                }
+            };
+
+            /**
+             * Resolves the index of the character at a given position of the traversal.
+             *
+             * @param key      The traversed key.
+             * @param position The position of the traversal.
+             * @return The index of the character to read.
+             */
+            protected abstract int resolve(String key, int position);
+
+            @Override
+            public String toString() {
+                return "NameIndex.Node.Direction." + name();
+            }
+        }
+    }
+}
@@ -14,7 +14,7 @@ import net.bytebuddy.description.NamedElement;
  *
  * @param <T> The type of the matched entity.
  */
-public class NameMatcher<T extends NamedElement> extends ElementMatcher.Junction.AbstractBase<T> {
+public class NameMatcher<T extends NamedElement> extends ElementMatcher.Junction.AbstractBase<T> implements NameIndex.Indexable {
 
     /**
      * The matcher that is applied to a byte code element's source code name.
@@ -35,6 +35,11 @@ public class NameMatcher<T extends NamedElement> extends ElementMatcher.Junction
         return nameMatcher.matches(target.getSourceCodeName());
     }
 
+    @Override
+    public NameIndex.Condition getNameCondition() {
+        return NameIndex.Condition.of(nameMatcher);
+    }
+
     @Override
     public boolean equals(Object other) {
         return this == other || !(other == null || getClass() != other.getClass())
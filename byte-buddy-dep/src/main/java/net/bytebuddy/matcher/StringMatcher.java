@@ -1,12 +1,12 @@
 package net.bytebuddy.matcher;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.regex.Pattern;
 
 /**
  * An element matcher that compares two strings by a given pattern which is characterized by a
  * {@link net.bytebuddy.matcher.StringMatcher.Mode}.
  */
-public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String> {
+public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String> implements NameIndex.Indexable {
 
     /**
      * The text value to match against.
@@ -18,6 +18,11 @@ public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String>
      */
     private final Mode mode;
 
+    /**
+     * The compiled regular expression if this matcher's mode is {@link Mode#MATCHES} or {@code null} for any other mode.
+     */
+    private final Pattern pattern;
+
     /**
      * Creates a new string matcher.
      *
@@ -27,11 +32,30 @@ public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String>
     public StringMatcher(String value, Mode mode) {
         this.value = value;
         this.mode = mode;
+        pattern = mode == Mode.MATCHES
+                ? Pattern.compile(value)
+                : null;
     }
 
     @Override
     public boolean matches(String target) {
-        return mode.matches(value, target);
+        return pattern == null
+                ? mode.matches(value, target)
+                : pattern.matcher(target).matches();
+    }
+
+    @Override
+    public NameIndex.Condition getNameCondition() {
+        switch (mode) {
+            case EQUALS_FULLY:
+                return NameIndex.Condition.ofName(value);
+            case STARTS_WITH:
+                return NameIndex.Condition.ofPrefix(value);
+            case ENDS_WITH:
+                return NameIndex.Condition.ofSuffix(value);
+            default:
+                return NameIndex.Indexable.UNDEFINED;
+        }
     }
 
     @Override
@@ -91,9 +115,8 @@ public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String>
          */
         STARTS_WITH_IGNORE_CASE("startsWithIgnoreCase") {
             @Override
-            @SuppressFBWarnings(value = "DM_CONVERT_CASE", justification = "Both strings are transformed by the default locale")
             protected boolean matches(String expected, String actual) {
-                return actual.toLowerCase().startsWith(expected.toLowerCase());
+                return actual.regionMatches(true, 0, expected, 0, expected.length());
             }
         },
 
@@ -112,9 +135,8 @@ public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String>
          */
         ENDS_WITH_IGNORE_CASE("endsWithIgnoreCase") {
             @Override
-            @SuppressFBWarnings(value = "DM_CONVERT_CASE", justification = "Both strings are transformed by the default locale")
             protected boolean matches(String expected, String actual) {
-                return actual.toLowerCase().endsWith(expected.toLowerCase());
+                return actual.regionMatches(true, actual.length() - expected.length(), expected, 0, expected.length());
             }
         },
 
@@ -133,9 +155,13 @@ public class StringMatcher extends ElementMatcher.Junction.AbstractBase<String>
          */
         CONTAINS_IGNORE_CASE("containsIgnoreCase") {
             @Override
-            @SuppressFBWarnings(value = "DM_CONVERT_CASE", justification = "Both strings are transformed by the default locale")
             protected boolean matches(String expected, String actual) {
-                return actual.toLowerCase().contains(expected.toLowerCase());
+                for (int offset = 0; offset <= actual.length() - expected.length(); offset++) {
+                    if (actual.regionMatches(true, offset, expected, 0, expected.length())) {
+                        return true;
+                    }
+                }
+                return false;
             }
         },
 
@@ -17,18 +17,28 @@ import net.bytebuddy.description.type.TypeList;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.implementation.bytecode.StackSize;
 import net.bytebuddy.utility.PropertyDispatcher;
+import net.bytebuddy.utility.StreamDrainer;
 import org.objectweb.asm.*;
 import org.objectweb.asm.signature.SignatureReader;
 import org.objectweb.asm.signature.SignatureVisitor;
 
-import java.io.IOException;
+import java.io.*;
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.GenericSignatureFormatError;
 import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
 
 import static net.bytebuddy.matcher.ElementMatchers.*;
 
@@ -274,6 +284,590 @@ public interface TypePool {
                 return "TypePool.CacheProvider.Simple{cache=" + cache + '}';
             }
         }
+
+        /**
+         * An abstract base implementation of a cache provider that records the number of cache hits, cache misses
+         * and evictions of cached resolutions.
+         */
+        abstract class AbstractMonitoring implements CacheProvider {
+
+            /**
+             * The number of lookups that could be answered from the cache.
+             */
+            private final AtomicLong hitCount;
+
+            /**
+             * The number of lookups that could not be answered from the cache.
+             */
+            private final AtomicLong missCount;
+
+            /**
+             * The number of resolutions that were discarded from the cache without an explicit clearance.
+             */
+            private final AtomicLong evictionCount;
+
+            /**
+             * Creates a new monitoring cache provider.
+             */
+            protected AbstractMonitoring() {
+                hitCount = new AtomicLong();
+                missCount = new AtomicLong();
+                evictionCount = new AtomicLong();
+            }
+
+            @Override
+            public Resolution find(String name) {
+                Resolution resolution = doFind(name);
+                if (resolution == UNRESOLVED) {
+                    missCount.incrementAndGet();
+                } else {
+                    hitCount.incrementAndGet();
+                }
+                return resolution;
+            }
+
+            /**
+             * Attempts to find a resolution in this cache without recording the lookup.
+             *
+             * @param name The name of the type to describe.
+             * @return A resolution of the type or {@code null} if no such resolution can be found in the cache.
+             */
+            protected abstract Resolution doFind(String name);
+
+            /**
+             * Records that a resolution was evicted from this cache.
+             */
+            protected void onEviction() {
+                evictionCount.incrementAndGet();
+            }
+
+            /**
+             * Returns the number of lookups that were answered from this cache.
+             *
+             * @return The number of lookups that were answered from this cache.
+             */
+            public long getHitCount() {
+                return hitCount.get();
+            }
+
+            /**
+             * Returns the number of lookups that could not be answered from this cache.
+             *
+             * @return The number of lookups that could not be answered from this cache.
+             */
+            public long getMissCount() {
+                return missCount.get();
+            }
+
+            /**
+             * Returns the number of resolutions that were evicted from this cache.
+             *
+             * @return The number of resolutions that were evicted from this cache.
+             */
+            public long getEvictionCount() {
+                return evictionCount.get();
+            }
+        }
+
+        /**
+         * A thread-safe cache provider that is bounded by a maximum weight of its cached resolutions. If registering a resolution
+         * exceeds this maximum, the least recently used resolutions are evicted until the cache's weight is within its bound again.
+         * A resolution that exceeds the maximum weight by itself is never cached.
+         */
+        class Bounded extends AbstractMonitoring {
+
+            /**
+             * Indicates that a {@link LinkedHashMap} should order its entries by their access.
+             */
+            private static final boolean ACCESS_ORDER = true;
+
+            /**
+             * The default load factor of a {@link LinkedHashMap}.
+             */
+            private static final float LOAD_FACTOR = 0.75f;
+
+            /**
+             * The initial capacity of the underlying map.
+             */
+            private static final int INITIAL_CAPACITY = 16;
+
+            /**
+             * The maximum weight of all cached resolutions.
+             */
+            private final long maximumWeight;
+
+            /**
+             * The weigher to determine the weight of a resolution.
+             */
+            private final Weigher weigher;
+
+            /**
+             * A map of all cached resolutions by their names in the order of their last access.
+             */
+            private final LinkedHashMap<String, Entry> cache;
+
+            /**
+             * The current weight of all cached resolutions.
+             */
+            private long weight;
+
+            /**
+             * Creates a new bounded cache provider that caches a maximum number of resolutions.
+             *
+             * @param maximumSize The maximum number of resolutions to cache.
+             */
+            public Bounded(long maximumSize) {
+                this(maximumSize, Weigher.ForEntryCount.INSTANCE);
+            }
+
+            /**
+             * Creates a new bounded cache provider.
+             *
+             * @param maximumWeight The maximum weight of all cached resolutions.
+             * @param weigher       The weigher to determine the weight of a resolution.
+             */
+            public Bounded(long maximumWeight, Weigher weigher) {
+                if (maximumWeight < 1) {
+                    throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+                }
+                this.maximumWeight = maximumWeight;
+                this.weigher = weigher;
+                cache = new LinkedHashMap<String, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, ACCESS_ORDER);
+            }
+
+            @Override
+            protected synchronized Resolution doFind(String name) {
+                Entry entry = cache.get(name);
+                return entry == null
+                        ? UNRESOLVED
+                        : entry.getResolution();
+            }
+
+            @Override
+            public synchronized Resolution register(String name, Resolution resolution) {
+                Entry cached = cache.get(name);
+                if (cached != null) {
+                    return cached.getResolution();
+                }
+                int weight = weigher.weigh(name, resolution);
+                if (weight > maximumWeight) {
+                    return resolution;
+                }
+                cache.put(name, new Entry(resolution, weight));
+                this.weight += weight;
+                Iterator<Entry> iterator = cache.values().iterator();
+                while (this.weight > maximumWeight) {
+                    Entry eldest = iterator.next();
+                    iterator.remove();
+                    this.weight -= eldest.getWeight();
+                    onEviction();
+                }
+                return resolution;
+            }
+
+            /**
+             * Returns the current weight of all resolutions that are cached by this cache provider.
+             *
+             * @return The current weight of all cached resolutions.
+             */
+            public synchronized long getWeight() {
+                return weight;
+            }
+
+            @Override
+            public synchronized void clear() {
+                cache.clear();
+                weight = 0L;
+            }
+
+            @Override
+            public synchronized String toString() {
+                return "TypePool.CacheProvider.Bounded{" +
+                        "maximumWeight=" + maximumWeight +
+                        ", weigher=" + weigher +
+                        ", cache=" + cache +
+                        ", weight=" + weight +
+                        ", hitCount=" + getHitCount() +
+                        ", missCount=" + getMissCount() +
+                        ", evictionCount=" + getEvictionCount() +
+                        '}';
+            }
+
+            /**
+             * A weigher determines the weight of a resolution that is cached by a {@link Bounded} cache provider.
+             */
+            public interface Weigher {
+
+                /**
+                 * Determines the weight of a resolution. The weight must not be negative.
+                 *
+                 * @param name       The name of the type that is represented by the resolution.
+                 * @param resolution The resolution to weigh.
+                 * @return The weight of the resolution.
+                 */
+                int weigh(String name, Resolution resolution);
+
+                /**
+                 * A weigher that assigns a weight of one to any resolution such that a cache's maximum weight represents its
+                 * maximum number of entries.
+                 */
+                enum ForEntryCount implements Weigher {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    @Override
+                    public int weigh(String name, Resolution resolution) {
+                        return 1;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "TypePool.CacheProvider.Bounded.Weigher.ForEntryCount." + name();
+                    }
+                }
+
+                /**
+                 * A weigher that estimates the number of bytes that a resolution occupies on the heap. The estimate is based on the
+                 * type's name and the number of its declared fields and methods and is therefore only a rough approximation. Weighing
+                 * a resolution resolves its type description which should only be done for type descriptions that are cheap to query
+                 * for their members, such as the descriptions that are parsed by a {@link TypePool.Default}.
+                 */
+                enum ForEstimatedSize implements Weigher {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    /**
+                     * The estimated base size of a resolution without its name.
+                     */
+                    private static final int BASE_SIZE = 64;
+
+                    /**
+                     * The estimated base size of a type description.
+                     */
+                    private static final int TYPE_SIZE = 256;
+
+                    /**
+                     * The estimated size of a declared field.
+                     */
+                    private static final int FIELD_SIZE = 96;
+
+                    /**
+                     * The estimated size of a declared method.
+                     */
+                    private static final int METHOD_SIZE = 192;
+
+                    @Override
+                    public int weigh(String name, Resolution resolution) {
+                        int weight = BASE_SIZE + 2 * name.length();
+                        if (resolution.isResolved()) {
+                            TypeDescription typeDescription = resolution.resolve();
+                            weight += TYPE_SIZE
+                                    + FIELD_SIZE * typeDescription.getDeclaredFields().size()
+                                    + METHOD_SIZE * typeDescription.getDeclaredMethods().size();
+                        }
+                        return weight;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "TypePool.CacheProvider.Bounded.Weigher.ForEstimatedSize." + name();
+                    }
+                }
+            }
+
+            /**
+             * An entry of a bounded cache provider.
+             */
+            protected static class Entry {
+
+                /**
+                 * The cached resolution.
+                 */
+                private final Resolution resolution;
+
+                /**
+                 * The weight of the cached resolution.
+                 */
+                private final int weight;
+
+                /**
+                 * Creates a new entry.
+                 *
+                 * @param resolution The cached resolution.
+                 * @param weight     The weight of the cached resolution.
+                 */
+                protected Entry(Resolution resolution, int weight) {
+                    this.resolution = resolution;
+                    this.weight = weight;
+                }
+
+                /**
+                 * Returns the cached resolution.
+                 *
+                 * @return The cached resolution.
+                 */
+                protected Resolution getResolution() {
+                    return resolution;
+                }
+
+                /**
+                 * Returns the weight of the cached resolution.
+                 *
+                 * @return The weight of the cached resolution.
+                 */
+                protected int getWeight() {
+                    return weight;
+                }
+
+                @Override
+                public String toString() {
+                    return "TypePool.CacheProvider.Bounded.Entry{" +
+                            "resolution=" + resolution +
+                            ", weight=" + weight +
+                            '}';
+                }
+            }
+        }
+
+        /**
+         * A thread-safe cache provider that only references its cached resolutions softly or weakly such that the garbage collector
+         * can reclaim cached resolutions when the heap runs short or when a resolution is no longer strongly referenced. Note that a
+         * type pool does not normally retain its resolutions such that a weakly referencing cache might only retain resolutions
+         * until the next garbage collection.
+         */
+        class Referencing extends AbstractMonitoring {
+
+            /**
+             * The strength of the references to the cached resolutions.
+             */
+            private final Strength strength;
+
+            /**
+             * A map of references to the cached resolutions by their names.
+             */
+            private final ConcurrentMap<String, Reference<Resolution>> cache;
+
+            /**
+             * The reference queue that is notified about collected resolutions.
+             */
+            private final ReferenceQueue<Resolution> referenceQueue;
+
+            /**
+             * Creates a new referencing cache provider.
+             *
+             * @param strength The strength of the references to the cached resolutions.
+             */
+            public Referencing(Strength strength) {
+                this.strength = strength;
+                cache = new ConcurrentHashMap<String, Reference<Resolution>>();
+                referenceQueue = new ReferenceQueue<Resolution>();
+            }
+
+            /**
+             * Creates a cache provider that references its resolutions softly.
+             *
+             * @return A cache provider that references its resolutions softly.
+             */
+            public static CacheProvider soft() {
+                return new Referencing(Strength.SOFT);
+            }
+
+            /**
+             * Creates a cache provider that references its resolutions weakly.
+             *
+             * @return A cache provider that references its resolutions weakly.
+             */
+            public static CacheProvider weak() {
+                return new Referencing(Strength.WEAK);
+            }
+
+            @Override
+            protected Resolution doFind(String name) {
+                expungeStaleEntries();
+                Reference<Resolution> reference = cache.get(name);
+                return reference == null
+                        ? UNRESOLVED
+                        : reference.get();
+            }
+
+            @Override
+            public Resolution register(String name, Resolution resolution) {
+                expungeStaleEntries();
+                Reference<Resolution> reference = strength.makeReference(name, resolution, referenceQueue);
+                Reference<Resolution> previous;
+                while ((previous = cache.putIfAbsent(name, reference)) != null) {
+                    Resolution cached = previous.get();
+                    if (cached != null) {
+                        return cached;
+                    } else if (cache.replace(name, previous, reference)) {
+                        break;
+                    }
+                }
+                return resolution;
+            }
+
+            /**
+             * Removes all entries of resolutions that were collected by the garbage collector.
+             */
+            private void expungeStaleEntries() {
+                Reference<?> reference;
+                while ((reference = referenceQueue.poll()) != null) {
+                    if (cache.remove(((NamedReference) reference).getName(), reference)) {
+                        onEviction();
+                    }
+                }
+            }
+
+            @Override
+            public void clear() {
+                cache.clear();
+                while (referenceQueue.poll() != null) {
+                    /* do nothing */
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.CacheProvider.Referencing{" +
+                        "strength=" + strength +
+                        ", cache=" + cache +
+                        ", referenceQueue=" + referenceQueue +
+                        ", hitCount=" + getHitCount() +
+                        ", missCount=" + getMissCount() +
+                        ", evictionCount=" + getEvictionCount() +
+                        '}';
+            }
+
+            /**
+             * A reference to a cached resolution that is aware of the name of the represented type.
+             */
+            protected interface NamedReference {
+
+                /**
+                 * Returns the name of the type of the referenced resolution.
+                 *
+                 * @return The name of the type of the referenced resolution.
+                 */
+                String getName();
+            }
+
+            /**
+             * Describes the strength of the references that a {@link Referencing} cache provider holds onto its resolutions.
+             */
+            public enum Strength {
+
+                /**
+                 * Resolutions are referenced softly and are only collected if the heap runs short.
+                 */
+                SOFT {
+                    @Override
+                    protected Reference<Resolution> makeReference(String name, Resolution resolution, ReferenceQueue<Resolution> referenceQueue) {
+                        return new SoftNamedReference(name, resolution, referenceQueue);
+                    }
+                },
+
+                /**
+                 * Resolutions are referenced weakly and are collected as soon as they are no longer strongly reachable.
+                 */
+                WEAK {
+                    @Override
+                    protected Reference<Resolution> makeReference(String name, Resolution resolution, ReferenceQueue<Resolution> referenceQueue) {
+                        return new WeakNamedReference(name, resolution, referenceQueue);
+                    }
+                };
+
+                /**
+                 * Creates a reference to a resolution.
+                 *
+                 * @param name           The name of the type of the referenced resolution.
+                 * @param resolution     The resolution to reference.
+                 * @param referenceQueue The reference queue to register the reference with.
+                 * @return A reference of this strength to the given resolution.
+                 */
+                protected abstract Reference<Resolution> makeReference(String name, Resolution resolution, ReferenceQueue<Resolution> referenceQueue);
+
+                @Override
+                public String toString() {
+                    return "TypePool.CacheProvider.Referencing.Strength." + name();
+                }
+            }
+
+            /**
+             * A soft reference to a cached resolution.
+             */
+            protected static class SoftNamedReference extends SoftReference<Resolution> implements NamedReference {
+
+                /**
+                 * The name of the type of the referenced resolution.
+                 */
+                private final String name;
+
+                /**
+                 * Creates a new soft reference to a resolution.
+                 *
+                 * @param name           The name of the type of the referenced resolution.
+                 * @param resolution     The referenced resolution.
+                 * @param referenceQueue The reference queue to register this reference with.
+                 */
+                protected SoftNamedReference(String name, Resolution resolution, ReferenceQueue<Resolution> referenceQueue) {
+                    super(resolution, referenceQueue);
+                    this.name = name;
+                }
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public String toString() {
+                    return "TypePool.CacheProvider.Referencing.SoftNamedReference{" +
+                            "name='" + name + '\'' +
+                            '}';
+                }
+            }
+
+            /**
+             * A weak reference to a cached resolution.
+             */
+            protected static class WeakNamedReference extends WeakReference<Resolution> implements NamedReference {
+
+                /**
+                 * The name of the type of the referenced resolution.
+                 */
+                private final String name;
+
+                /**
+                 * Creates a new weak reference to a resolution.
+                 *
+                 * @param name           The name of the type of the referenced resolution.
+                 * @param resolution     The referenced resolution.
+                 * @param referenceQueue The reference queue to register this reference with.
+                 */
+                protected WeakNamedReference(String name, Resolution resolution, ReferenceQueue<Resolution> referenceQueue) {
+                    super(resolution, referenceQueue);
+                    this.name = name;
+                }
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public String toString() {
+                    return "TypePool.CacheProvider.Referencing.WeakNamedReference{" +
+                            "name='" + name + '\'' +
+                            '}';
+                }
+            }
+        }
     }
 
     /**
@@ -350,6 +944,11 @@ public interface TypePool {
          */
         protected final CacheProvider cacheProvider;
 
+        /**
+         * A mapping of type names to descriptions that are currently in progress.
+         */
+        private final ConcurrentMap<String, InFlight> inFlight;
+
         /**
          * Creates a new instance.
          *
@@ -357,6 +956,7 @@ public interface TypePool {
          */
         protected AbstractBase(CacheProvider cacheProvider) {
             this.cacheProvider = cacheProvider;
+            inFlight = new ConcurrentHashMap<String, InFlight>();
         }
 
         @Override
@@ -380,11 +980,54 @@ public interface TypePool {
                     ? cacheProvider.find(name)
                     : new Resolution.Simple(typeDescription);
             if (resolution == null) {
-                resolution = cacheProvider.register(name, doDescribe(name));
+                resolution = describeOnce(name);
             }
             return ArrayTypeResolution.of(resolution, arity);
         }
 
+        /**
+         * Describes a type that was not found in the cache. If several threads describe the same type concurrently,
+         * only the first thread describes and registers the type while any other thread awaits its resolution. This way,
+         * a class file is only located and parsed once if several threads load classes that share a super type. A type
+         * that is described recursively by the thread that is describing it is described again, as is a type that is awaited
+         * by a thread that is interrupted.
+         *
+         * @param name The name of the type to describe.
+         * @return A resolution of the described type.
+         */
+        private Resolution describeOnce(String name) {
+            InFlight inFlight = new InFlight(new Registration(name));
+            InFlight previous = this.inFlight.putIfAbsent(name, inFlight);
+            if (previous == null) {
+                try {
+                    inFlight.run();
+                } finally {
+                    this.inFlight.remove(name, inFlight);
+                }
+            } else if (previous.isOwnedByCurrentThread()) {
+                return register(name, doDescribe(name));
+            } else {
+                inFlight = previous;
+            }
+            try {
+                return inFlight.resolve();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return register(name, doDescribe(name));
+            }
+        }
+
+        /**
+         * Registers a resolution of a type that was described by this type pool with the cache.
+         *
+         * @param name       The name of the described type.
+         * @param resolution The resolution of the described type.
+         * @return The resolution that is registered with the cache for the given name.
+         */
+        protected Resolution register(String name, Resolution resolution) {
+            return cacheProvider.register(name, resolution);
+        }
+
         @Override
         public void clear() {
             cacheProvider.clear();
@@ -466,6 +1109,119 @@ public interface TypePool {
             }
         }
 
+        /**
+         * A description of a type that is currently in progress.
+         */
+        protected static class InFlight extends FutureTask<Resolution> {
+
+            /**
+             * The thread that created this description.
+             */
+            private final Thread owner;
+
+            /**
+             * Creates a new description in progress that is owned by the current thread.
+             *
+             * @param callable The callable that describes the type.
+             */
+            protected InFlight(Callable<Resolution> callable) {
+                super(callable);
+                owner = Thread.currentThread();
+            }
+
+            /**
+             * Checks if this description is owned by the current thread.
+             *
+             * @return {@code true} if this description is owned by the current thread.
+             */
+            protected boolean isOwnedByCurrentThread() {
+                return owner == Thread.currentThread();
+            }
+
+            /**
+             * Awaits the resolution of this description.
+             *
+             * @return The resolution of the described type.
+             * @throws InterruptedException If the current thread is interrupted while waiting for the resolution.
+             */
+            protected Resolution resolve() throws InterruptedException {
+                try {
+                    return get();
+                } catch (ExecutionException exception) {
+                    Throwable cause = exception.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new IllegalStateException("Could not describe type", cause);
+                    }
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.AbstractBase.InFlight{" +
+                        "owner=" + owner +
+                        ", done=" + isDone() +
+                        '}';
+            }
+        }
+
+        /**
+         * A callable that describes a type and registers it in the type pool's cache.
+         */
+        protected class Registration implements Callable<Resolution> {
+
+            /**
+             * The name of the type to describe.
+             */
+            private final String name;
+
+            /**
+             * Creates a new registration.
+             *
+             * @param name The name of the type to describe.
+             */
+            protected Registration(String name) {
+                this.name = name;
+            }
+
+            @Override
+            public Resolution call() {
+                return register(name, doDescribe(name));
+            }
+
+            /**
+             * Returns the outer instance.
+             *
+             * @return The outer instance.
+             */
+            private AbstractBase getTypePool() {
+                return AbstractBase.this;
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && name.equals(((Registration) other).name)
+                        && AbstractBase.this.equals(((Registration) other).getTypePool());
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * AbstractBase.this.hashCode() + name.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.AbstractBase.Registration{" +
+                        "typePool=" + AbstractBase.this +
+                        ", name='" + name + '\'' +
+                        '}';
+            }
+        }
+
         /**
          * A resolution for a type that, if resolved, represents an array type.
          */
@@ -1009,6 +1765,16 @@ public interface TypePool {
          */
         private static final MethodVisitor IGNORE_METHOD = null;
 
+        /**
+         * Indicates that a visited field should be ignored.
+         */
+        private static final FieldVisitor IGNORE_FIELD = null;
+
+        /**
+         * Indicates that a visited annotation should be ignored.
+         */
+        private static final AnnotationVisitor IGNORE_ANNOTATION = null;
+
         /**
          * The locator to query for finding binary data of a type.
          */
@@ -1019,6 +1785,11 @@ public interface TypePool {
          */
         protected final ReaderMode readerMode;
 
+        /**
+         * The names and descriptors that were interned by this type pool, each weakly referencing its interned instance.
+         */
+        private final Map<String, WeakReference<String>> internedValues;
+
         /**
          * Creates a new default type pool without a parent pool.
          *
@@ -1042,6 +1813,7 @@ public interface TypePool {
             super(cacheProvider, parentPool);
             this.classFileLocator = classFileLocator;
             this.readerMode = readerMode;
+            internedValues = new WeakHashMap<String, WeakReference<String>>();
         }
 
         /**
@@ -1080,7 +1852,7 @@ public interface TypePool {
             try {
                 ClassFileLocator.Resolution resolution = classFileLocator.locate(name);
                 return resolution.isResolved()
-                        ? new Resolution.Simple(parse(resolution.resolve()))
+                        ? new Resolution.Simple(readerMode.isLazy() ? parseHeader(resolution.resolve()) : parse(resolution.resolve()))
                         : new Resolution.Illegal(name);
             } catch (IOException exception) {
                 throw new IllegalStateException("Error while reading class file", exception);
@@ -1100,6 +1872,131 @@ public interface TypePool {
             return typeExtractor.toTypeDescription();
         }
 
+        /**
+         * Parses the header of a binary representation and transforms it into a type description that parses the
+         * remainder of the binary representation on demand.
+         *
+         * @param binaryRepresentation The binary data to be parsed.
+         * @return A type description of the binary data.
+         */
+        private TypeDescription parseHeader(byte[] binaryRepresentation) {
+            ClassReader classReader = new ClassReader(binaryRepresentation);
+            HeaderExtractor headerExtractor = new HeaderExtractor();
+            classReader.accept(headerExtractor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            return headerExtractor.toTypeDescription(binaryRepresentation);
+        }
+
+        /**
+         * Compacts a map of tokens that is retained by a parsed type description. Most of these maps are empty or contain a
+         * single entry such that they are replaced by shared or singleton maps that require less memory than a hash map.
+         *
+         * @param map The map to compact.
+         * @param <K> The type of the map's keys.
+         * @param <V> The type of the map's values.
+         * @return A map that is equal to the supplied map.
+         */
+        protected static <K, V> Map<K, V> compact(Map<K, V> map) {
+            switch (map.size()) {
+                case 0:
+                    return Collections.emptyMap();
+                case 1:
+                    Map.Entry<K, V> entry = map.entrySet().iterator().next();
+                    return Collections.singletonMap(entry.getKey(), entry.getValue());
+                default:
+                    return map;
+            }
+        }
+
+        /**
+         * Compacts a list of tokens that is retained by a parsed type description. Empty lists and lists of a single element are
+         * replaced by shared or singleton lists while array lists are trimmed to their size.
+         *
+         * @param list The list to compact.
+         * @param <T>  The type of the list's elements.
+         * @return A list that is equal to the supplied list.
+         */
+        protected static <T> List<T> compact(List<T> list) {
+            switch (list.size()) {
+                case 0:
+                    return Collections.emptyList();
+                case 1:
+                    return Collections.singletonList(list.get(0));
+                default:
+                    if (list instanceof ArrayList) {
+                        ((ArrayList<T>) list).trimToSize();
+                    }
+                    return list;
+            }
+        }
+
+        /**
+         * Interns a name or descriptor that is retained by a parsed type description. Names and descriptors of commonly
+         * used types and members are repeated in many class files such that a parsed type pool retains a single instance.
+         * Other than {@link String#intern()}, interned values are only known to this type pool. Interned values are
+         * referenced weakly such that a value is released once no type description that is retained by this type pool's
+         * cache references it.
+         *
+         * @param value The value to intern or {@code null}.
+         * @return An interned representation of the supplied value or {@code null} if the supplied value is {@code null}.
+         */
+        protected String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            synchronized (internedValues) {
+                WeakReference<String> reference = internedValues.get(value);
+                String interned = reference == null
+                        ? null
+                        : reference.get();
+                if (interned == null) {
+                    internedValues.put(value, new WeakReference<String>(value));
+                    return value;
+                } else {
+                    return interned;
+                }
+            }
+        }
+
+        /**
+         * Resolves the interned descriptor of a type's internal name.
+         *
+         * @param internalName The internal name of a type or {@code null} if no type is represented.
+         * @return The interned descriptor of the type or {@code null} if no type is represented.
+         */
+        private String toDescriptor(String internalName) {
+            return internalName == null
+                    ? null
+                    : intern(Type.getObjectType(internalName).getDescriptor());
+        }
+
+        /**
+         * Resolves the interned descriptors of several types' internal names.
+         *
+         * @param internalName The internal names of the types or {@code null} if no types are represented.
+         * @return A list of the interned descriptors of the types.
+         */
+        private List<String> toDescriptors(String[] internalName) {
+            if (internalName == null || internalName.length == 0) {
+                return Collections.emptyList();
+            }
+            List<String> descriptors = new ArrayList<String>(internalName.length);
+            for (String anInternalName : internalName) {
+                descriptors.add(toDescriptor(anInternalName));
+            }
+            return compact(descriptors);
+        }
+
+        @Override
+        public void clear() {
+            try {
+                super.clear();
+            } finally {
+                synchronized (internedValues) {
+                    internedValues.clear();
+                }
+            }
+        }
+
         @Override
         public boolean equals(Object other) {
             return this == other || !(other == null || getClass() != other.getClass())
@@ -2809,8 +3706,8 @@ public interface TypePool {
              * @param typePool                           The type pool to be used for looking up linked types.
              * @param modifiers                          The modifiers of this type.
              * @param name                               The binary name of this type.
-             * @param superClassInternalName             The internal name of this type's super type or {@code null} if no such super type is defined.
-             * @param interfaceInternalName              An array of this type's interfaces or {@code null} if this type does not define any interfaces.
+             * @param superClassDescriptor               The descriptor of this type's super type or {@code null} if no such super type is defined.
+             * @param interfaceTypeDescriptors           A list of descriptors of this type's interfaces.
              * @param signatureResolution                The resolution of this type's generic types.
              * @param declarationContext                 The declaration context of this type.
              * @param declaredTypes                      A list of descriptors representing the types that are declared by this type.
@@ -2826,8 +3723,8 @@ public interface TypePool {
             protected LazyTypeDescription(TypePool typePool,
                                           int modifiers,
                                           String name,
-                                          String superClassInternalName,
-                                          String[] interfaceInternalName,
+                                          String superClassDescriptor,
+                                          List<String> interfaceTypeDescriptors,
                                           GenericTypeToken.Resolution.ForType signatureResolution,
                                           DeclarationContext declarationContext,
                                           List<String> declaredTypes,
@@ -2841,18 +3738,9 @@ public interface TypePool {
                 this.typePool = typePool;
                 this.modifiers = modifiers & ~(Opcodes.ACC_SUPER | Opcodes.ACC_DEPRECATED);
                 this.name = Type.getObjectType(name).getClassName();
-                this.superClassDescriptor = superClassInternalName == null
-                        ? NO_SUPER_CLASS
-                        : Type.getObjectType(superClassInternalName).getDescriptor();
+                this.superClassDescriptor = superClassDescriptor;
+                this.interfaceTypeDescriptors = interfaceTypeDescriptors;
                 this.signatureResolution = signatureResolution;
-                if (interfaceInternalName == null) {
-                    interfaceTypeDescriptors = Collections.emptyList();
-                } else {
-                    interfaceTypeDescriptors = new ArrayList<String>(interfaceInternalName.length);
-                    for (String internalName : interfaceInternalName) {
-                        interfaceTypeDescriptors.add(Type.getObjectType(internalName).getDescriptor());
-                    }
-                }
                 this.declarationContext = declarationContext;
                 this.declaredTypes = declaredTypes;
                 this.anonymousType = anonymousType;
@@ -7438,18 +8326,18 @@ public interface TypePool {
                 return new LazyTypeDescription(Default.this,
                         modifiers,
                         internalName,
-                        superClassName,
-                        interfaceName,
+                        toDescriptor(superClassName),
+                        toDescriptors(interfaceName),
                         GenericTypeExtractor.ForSignature.OfType.extract(genericSignature),
                         declarationContext,
-                        declaredTypes,
+                        compact(declaredTypes),
                         anonymousType,
-                        superTypeAnnotationTokens,
-                        typeVariableAnnotationTokens,
-                        typeVariableBoundsAnnotationTokens,
-                        annotationTokens,
-                        fieldTokens,
-                        methodTokens);
+                        compact(superTypeAnnotationTokens),
+                        compact(typeVariableAnnotationTokens),
+                        compact(typeVariableBoundsAnnotationTokens),
+                        compact(annotationTokens),
+                        compact(fieldTokens),
+                        compact(methodTokens));
             }
 
             @Override
@@ -7744,12 +8632,12 @@ public interface TypePool {
 
                 @Override
                 public void visitEnd() {
-                    fieldTokens.add(new LazyTypeDescription.FieldToken(internalName,
+                    fieldTokens.add(new LazyTypeDescription.FieldToken(intern(internalName),
                             modifiers,
-                            descriptor,
+                            intern(descriptor),
                             GenericTypeExtractor.ForSignature.OfField.extract(genericSignature),
-                            typeAnnotationTokens,
-                            annotationTokens));
+                            compact(typeAnnotationTokens),
+                            compact(annotationTokens)));
                 }
 
                 @Override
@@ -7894,140 +8782,435 @@ public interface TypePool {
                     legacyParameterBag = new ParameterBag(Type.getMethodType(descriptor).getArgumentTypes());
                 }
 
-                @Override
-                public AnnotationVisitor visitTypeAnnotation(int rawTypeReference, TypePath typePath, String descriptor, boolean visible) {
-                    AnnotationRegistrant annotationRegistrant;
-                    TypeReference typeReference = new TypeReference(rawTypeReference);
-                    switch (typeReference.getSort()) {
-                        case TypeReference.METHOD_TYPE_PARAMETER:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
-                                    typePath,
-                                    typeReference.getTypeParameterIndex(),
-                                    typeVariableAnnotationTokens);
-                            break;
-                        case TypeReference.METHOD_TYPE_PARAMETER_BOUND:
-                            annotationRegistrant = new ForTypeVariable.WithIndex.DoubleIndexed(descriptor,
-                                    typePath,
-                                    typeReference.getTypeParameterBoundIndex(),
-                                    typeReference.getTypeParameterIndex(),
-                                    typeVariableBoundAnnotationTokens);
-                            break;
-                        case TypeReference.METHOD_RETURN:
-                            annotationRegistrant = new ForTypeVariable(descriptor,
-                                    typePath,
-                                    returnTypeAnnotationTokens);
-                            break;
-                        case TypeReference.METHOD_FORMAL_PARAMETER:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
-                                    typePath,
-                                    typeReference.getFormalParameterIndex(),
-                                    parameterTypeAnnotationTokens);
-                            break;
-                        case TypeReference.THROWS:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
-                                    typePath,
-                                    typeReference.getExceptionIndex(),
-                                    exceptionTypeAnnotationTokens);
-                            break;
-                        case TypeReference.METHOD_RECEIVER:
-                            annotationRegistrant = new ForTypeVariable(descriptor,
-                                    typePath,
-                                    receiverTypeAnnotationTokens);
-                            break;
-                        default:
-                            throw new IllegalStateException("Unexpected type reference on method: " + typeReference.getSort());
+                @Override
+                public AnnotationVisitor visitTypeAnnotation(int rawTypeReference, TypePath typePath, String descriptor, boolean visible) {
+                    AnnotationRegistrant annotationRegistrant;
+                    TypeReference typeReference = new TypeReference(rawTypeReference);
+                    switch (typeReference.getSort()) {
+                        case TypeReference.METHOD_TYPE_PARAMETER:
+                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                                    typePath,
+                                    typeReference.getTypeParameterIndex(),
+                                    typeVariableAnnotationTokens);
+                            break;
+                        case TypeReference.METHOD_TYPE_PARAMETER_BOUND:
+                            annotationRegistrant = new ForTypeVariable.WithIndex.DoubleIndexed(descriptor,
+                                    typePath,
+                                    typeReference.getTypeParameterBoundIndex(),
+                                    typeReference.getTypeParameterIndex(),
+                                    typeVariableBoundAnnotationTokens);
+                            break;
+                        case TypeReference.METHOD_RETURN:
+                            annotationRegistrant = new ForTypeVariable(descriptor,
+                                    typePath,
+                                    returnTypeAnnotationTokens);
+                            break;
+                        case TypeReference.METHOD_FORMAL_PARAMETER:
+                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                                    typePath,
+                                    typeReference.getFormalParameterIndex(),
+                                    parameterTypeAnnotationTokens);
+                            break;
+                        case TypeReference.THROWS:
+                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                                    typePath,
+                                    typeReference.getExceptionIndex(),
+                                    exceptionTypeAnnotationTokens);
+                            break;
+                        case TypeReference.METHOD_RECEIVER:
+                            annotationRegistrant = new ForTypeVariable(descriptor,
+                                    typePath,
+                                    receiverTypeAnnotationTokens);
+                            break;
+                        default:
+                            throw new IllegalStateException("Unexpected type reference on method: " + typeReference.getSort());
+                    }
+                    return new AnnotationExtractor(annotationRegistrant, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                    return new AnnotationExtractor(descriptor, annotationTokens, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int index, String descriptor, boolean visible) {
+                    return new AnnotationExtractor(descriptor, index, parameterAnnotationTokens, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
+                }
+
+                @Override
+                public void visitLabel(Label label) {
+                    if (readerMode.isExtended() && firstLabel == null) {
+                        firstLabel = label;
+                    }
+                }
+
+                @Override
+                public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+                    if (readerMode.isExtended() && start == firstLabel) {
+                        legacyParameterBag.register(index, name);
+                    }
+                }
+
+                @Override
+                public void visitParameter(String name, int modifiers) {
+                    parameterTokens.add(new LazyTypeDescription.MethodToken.ParameterToken(name, modifiers));
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    return new AnnotationExtractor(this, new ComponentTypeLocator.ForArrayType(descriptor));
+                }
+
+                @Override
+                public void register(String ignored, AnnotationDescription.AnnotationValue<?, ?> annotationValue) {
+                    defaultValue = annotationValue;
+                }
+
+                @Override
+                public void onComplete() {
+                    /* do nothing, as the register method is called at most once for default values */
+                }
+
+                @Override
+                public void visitEnd() {
+                    methodTokens.add(new LazyTypeDescription.MethodToken(intern(internalName),
+                            modifiers,
+                            intern(descriptor),
+                            GenericTypeExtractor.ForSignature.OfMethod.extract(genericSignature),
+                            exceptionName,
+                            compact(typeVariableAnnotationTokens),
+                            compact(typeVariableBoundAnnotationTokens),
+                            compact(returnTypeAnnotationTokens),
+                            compact(parameterTypeAnnotationTokens),
+                            compact(exceptionTypeAnnotationTokens),
+                            compact(receiverTypeAnnotationTokens),
+                            compact(annotationTokens),
+                            compact(parameterAnnotationTokens),
+                            compact(parameterTokens.isEmpty()
+                                    ? legacyParameterBag.resolve((modifiers & Opcodes.ACC_STATIC) != 0)
+                                    : parameterTokens),
+                            defaultValue));
+                }
+
+                @Override
+                public String toString() {
+                    return "TypePool.Default.TypeExtractor.MethodExtractor{" +
+                            "typeExtractor=" + TypeExtractor.this +
+                            ", modifiers=" + modifiers +
+                            ", internalName='" + internalName + '\'' +
+                            ", descriptor='" + descriptor + '\'' +
+                            ", genericSignature='" + genericSignature + '\'' +
+                            ", exceptionName=" + Arrays.toString(exceptionName) +
+                            ", typeVariableAnnotationTokens=" + typeVariableAnnotationTokens +
+                            ", typeVariableBoundAnnotationTokens=" + typeVariableBoundAnnotationTokens +
+                            ", returnTypeAnnotationTokens=" + returnTypeAnnotationTokens +
+                            ", parameterTypeAnnotationTokens=" + parameterTypeAnnotationTokens +
+                            ", exceptionTypeAnnotationTokens=" + exceptionTypeAnnotationTokens +
+                            ", receiverTypeAnnotationTokens=" + receiverTypeAnnotationTokens +
+                            ", annotationTokens=" + annotationTokens +
+                            ", parameterAnnotationTokens=" + parameterAnnotationTokens +
+                            ", parameterTokens=" + parameterTokens +
+                            ", legacyParameterBag=" + legacyParameterBag +
+                            ", firstLabel=" + firstLabel +
+                            ", defaultValue=" + defaultValue +
+                            '}';
+                }
+            }
+        }
+
+        /**
+         * A class visitor that only extracts the header of a class file, i.e. a type's name, modifiers, super class and
+         * interfaces. Any member, annotation and type annotation is skipped.
+         */
+        protected class HeaderExtractor extends ClassVisitor {
+
+            /**
+             * The modifiers found for this type.
+             */
+            private int modifiers;
+
+            /**
+             * The internal name found for this type.
+             */
+            private String internalName;
+
+            /**
+             * The internal name of the super type found for this type or {@code null} if no such type exists.
+             */
+            private String superClassName;
+
+            /**
+             * A list of internal names of interfaces implemented by this type or {@code null} if no interfaces
+             * are implemented.
+             */
+            private String[] interfaceName;
+
+            /**
+             * {@code true} if the type's super class and interfaces can be resolved as raw types, i.e. if the type does
+             * not declare a generic signature and does not annotate any of its super types.
+             */
+            private boolean raw;
+
+            /**
+             * Creates a new header extractor.
+             */
+            protected HeaderExtractor() {
+                super(Opcodes.ASM5);
+                raw = true;
+            }
+
+            @Override
+            @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The received value is never modified")
+            public void visit(int classFileVersion,
+                              int modifiers,
+                              String internalName,
+                              String genericSignature,
+                              String superClassName,
+                              String[] interfaceName) {
+                this.modifiers = modifiers;
+                this.internalName = internalName;
+                this.superClassName = superClassName;
+                this.interfaceName = interfaceName;
+                raw = genericSignature == null;
+            }
+
+            @Override
+            public void visitInnerClass(String internalName, String outerName, String innerName, int modifiers) {
+                if (internalName.equals(this.internalName)) {
+                    this.modifiers = modifiers;
+                }
+            }
+
+            @Override
+            public AnnotationVisitor visitTypeAnnotation(int rawTypeReference, TypePath typePath, String descriptor, boolean visible) {
+                raw = false;
+                return IGNORE_ANNOTATION;
+            }
+
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                return IGNORE_ANNOTATION;
+            }
+
+            @Override
+            public FieldVisitor visitField(int modifiers, String internalName, String descriptor, String genericSignature, Object defaultValue) {
+                return IGNORE_FIELD;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int modifiers, String internalName, String descriptor, String genericSignature, String[] exceptionName) {
+                return IGNORE_METHOD;
+            }
+
+            /**
+             * Creates a type description from the extracted header that parses the remainder of the class file on demand.
+             *
+             * @param binaryRepresentation The binary representation of the parsed class file.
+             * @return A type description reflecting the extracted header.
+             */
+            protected TypeDescription toTypeDescription(byte[] binaryRepresentation) {
+                return new LazyHeaderTypeDescription(binaryRepresentation,
+                        modifiers,
+                        internalName,
+                        superClassName,
+                        interfaceName,
+                        raw);
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.Default.HeaderExtractor{" +
+                        "typePool=" + Default.this +
+                        ", modifiers=" + modifiers +
+                        ", internalName='" + internalName + '\'' +
+                        ", superClassName='" + superClassName + '\'' +
+                        ", interfaceName=" + Arrays.toString(interfaceName) +
+                        ", raw=" + raw +
+                        '}';
+            }
+        }
+
+        /**
+         * A type description that represents a type's name, modifiers, super class and interfaces as found in the class file's
+         * header. Any other property is resolved by parsing the entire class file when it is first requested. If a type declares
+         * a generic signature or annotates any of its super types, its super class and interfaces are also resolved by parsing
+         * the entire class file.
+         */
+        protected class LazyHeaderTypeDescription extends TypeDescription.AbstractBase.OfSimpleType {
+
+            /**
+             * The binary representation of the class file or {@code null} if the class file was already parsed.
+             */
+            private byte[] binaryRepresentation;
+
+            /**
+             * The modifiers of this type.
+             */
+            private final int modifiers;
+
+            /**
+             * The binary name of this type.
+             */
+            private final String name;
+
+            /**
+             * The type's super type's descriptor or {@code null} if this type does not define a super type.
+             */
+            private final String superClassDescriptor;
+
+            /**
+             * The descriptor of this type's interfaces.
+             */
+            private final List<String> interfaceTypeDescriptors;
+
+            /**
+             * {@code true} if the type's super class and interfaces can be resolved as raw types.
+             */
+            private final boolean raw;
+
+            /**
+             * The fully parsed type description or {@code null} if the class file was not yet parsed.
+             */
+            private volatile TypeDescription delegate;
+
+            /**
+             * Creates a new lazy header type description.
+             *
+             * @param binaryRepresentation   The binary representation of the class file.
+             * @param modifiers              The modifiers of this type.
+             * @param internalName           The internal name of this type.
+             * @param superClassInternalName The internal name of this type's super type or {@code null} if no such super type is defined.
+             * @param interfaceInternalName  An array of this type's interfaces or {@code null} if this type does not define any interfaces.
+             * @param raw                    {@code true} if the type's super class and interfaces can be resolved as raw types.
+             */
+            protected LazyHeaderTypeDescription(byte[] binaryRepresentation,
+                                                int modifiers,
+                                                String internalName,
+                                                String superClassInternalName,
+                                                String[] interfaceInternalName,
+                                                boolean raw) {
+                this.binaryRepresentation = binaryRepresentation;
+                this.modifiers = modifiers & ~(Opcodes.ACC_SUPER | Opcodes.ACC_DEPRECATED);
+                name = Type.getObjectType(internalName).getClassName();
+                superClassDescriptor = toDescriptor(superClassInternalName);
+                interfaceTypeDescriptors = toDescriptors(interfaceInternalName);
+                this.raw = raw;
+            }
+
+            /**
+             * Resolves the fully parsed type description. The class file is parsed at most once.
+             *
+             * @return The fully parsed type description.
+             */
+            private TypeDescription resolve() {
+                TypeDescription delegate = this.delegate;
+                if (delegate == null) {
+                    synchronized (this) {
+                        delegate = this.delegate;
+                        if (delegate == null) {
+                            delegate = parse(binaryRepresentation);
+                            this.delegate = delegate;
+                            binaryRepresentation = null;
+                        }
                     }
-                    return new AnnotationExtractor(annotationRegistrant, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
                 }
+                return delegate;
+            }
 
-                @Override
-                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
-                    return new AnnotationExtractor(descriptor, annotationTokens, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
+            @Override
+            public Generic getSuperClass() {
+                if (!raw) {
+                    return resolve().getSuperClass();
                 }
+                return superClassDescriptor == null || isInterface()
+                        ? Generic.UNDEFINED
+                        : LazyTypeDescription.GenericTypeToken.Resolution.Raw.INSTANCE.resolveSuperClass(superClassDescriptor,
+                        Default.this,
+                        Collections.<String, List<LazyTypeDescription.AnnotationToken>>emptyMap(),
+                        this);
+            }
 
-                @Override
-                public AnnotationVisitor visitParameterAnnotation(int index, String descriptor, boolean visible) {
-                    return new AnnotationExtractor(descriptor, index, parameterAnnotationTokens, new ComponentTypeLocator.ForAnnotationProperty(Default.this, descriptor));
-                }
+            @Override
+            public TypeList.Generic getInterfaces() {
+                return raw
+                        ? LazyTypeDescription.GenericTypeToken.Resolution.Raw.INSTANCE.resolveInterfaceTypes(interfaceTypeDescriptors,
+                        Default.this,
+                        Collections.<Integer, Map<String, List<LazyTypeDescription.AnnotationToken>>>emptyMap(),
+                        this)
+                        : resolve().getInterfaces();
+            }
 
-                @Override
-                public void visitLabel(Label label) {
-                    if (readerMode.isExtended() && firstLabel == null) {
-                        firstLabel = label;
-                    }
-                }
+            @Override
+            public FieldList<FieldDescription.InDefinedShape> getDeclaredFields() {
+                return resolve().getDeclaredFields();
+            }
 
-                @Override
-                public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
-                    if (readerMode.isExtended() && start == firstLabel) {
-                        legacyParameterBag.register(index, name);
-                    }
-                }
+            @Override
+            public MethodList<MethodDescription.InDefinedShape> getDeclaredMethods() {
+                return resolve().getDeclaredMethods();
+            }
 
-                @Override
-                public void visitParameter(String name, int modifiers) {
-                    parameterTokens.add(new LazyTypeDescription.MethodToken.ParameterToken(name, modifiers));
-                }
+            @Override
+            public TypeDescription getDeclaringType() {
+                return resolve().getDeclaringType();
+            }
 
-                @Override
-                public AnnotationVisitor visitAnnotationDefault() {
-                    return new AnnotationExtractor(this, new ComponentTypeLocator.ForArrayType(descriptor));
-                }
+            @Override
+            public MethodDescription getEnclosingMethod() {
+                return resolve().getEnclosingMethod();
+            }
 
-                @Override
-                public void register(String ignored, AnnotationDescription.AnnotationValue<?, ?> annotationValue) {
-                    defaultValue = annotationValue;
-                }
+            @Override
+            public TypeDescription getEnclosingType() {
+                return resolve().getEnclosingType();
+            }
 
-                @Override
-                public void onComplete() {
-                    /* do nothing, as the register method is called at most once for default values */
-                }
+            @Override
+            public TypeList getDeclaredTypes() {
+                return resolve().getDeclaredTypes();
+            }
 
-                @Override
-                public void visitEnd() {
-                    methodTokens.add(new LazyTypeDescription.MethodToken(internalName,
-                            modifiers,
-                            descriptor,
-                            GenericTypeExtractor.ForSignature.OfMethod.extract(genericSignature),
-                            exceptionName,
-                            typeVariableAnnotationTokens,
-                            typeVariableBoundAnnotationTokens,
-                            returnTypeAnnotationTokens,
-                            parameterTypeAnnotationTokens,
-                            exceptionTypeAnnotationTokens,
-                            receiverTypeAnnotationTokens,
-                            annotationTokens,
-                            parameterAnnotationTokens,
-                            parameterTokens.isEmpty()
-                                    ? legacyParameterBag.resolve((modifiers & Opcodes.ACC_STATIC) != 0)
-                                    : parameterTokens,
-                            defaultValue));
-                }
+            @Override
+            public boolean isAnonymousClass() {
+                return resolve().isAnonymousClass();
+            }
 
-                @Override
-                public String toString() {
-                    return "TypePool.Default.TypeExtractor.MethodExtractor{" +
-                            "typeExtractor=" + TypeExtractor.this +
-                            ", modifiers=" + modifiers +
-                            ", internalName='" + internalName + '\'' +
-                            ", descriptor='" + descriptor + '\'' +
-                            ", genericSignature='" + genericSignature + '\'' +
-                            ", exceptionName=" + Arrays.toString(exceptionName) +
-                            ", typeVariableAnnotationTokens=" + typeVariableAnnotationTokens +
-                            ", typeVariableBoundAnnotationTokens=" + typeVariableBoundAnnotationTokens +
-                            ", returnTypeAnnotationTokens=" + returnTypeAnnotationTokens +
-                            ", parameterTypeAnnotationTokens=" + parameterTypeAnnotationTokens +
-                            ", exceptionTypeAnnotationTokens=" + exceptionTypeAnnotationTokens +
-                            ", receiverTypeAnnotationTokens=" + receiverTypeAnnotationTokens +
-                            ", annotationTokens=" + annotationTokens +
-                            ", parameterAnnotationTokens=" + parameterAnnotationTokens +
-                            ", parameterTokens=" + parameterTokens +
-                            ", legacyParameterBag=" + legacyParameterBag +
-                            ", firstLabel=" + firstLabel +
-                            ", defaultValue=" + defaultValue +
-                            '}';
-                }
+            @Override
+            public boolean isLocalClass() {
+                return resolve().isLocalClass();
+            }
+
+            @Override
+            public boolean isMemberClass() {
+                return resolve().isMemberClass();
+            }
+
+            @Override
+            public PackageDescription getPackage() {
+                return resolve().getPackage();
+            }
+
+            @Override
+            public AnnotationList getDeclaredAnnotations() {
+                return resolve().getDeclaredAnnotations();
+            }
+
+            @Override
+            public TypeList.Generic getTypeVariables() {
+                return raw
+                        ? new TypeList.Generic.Empty()
+                        : resolve().getTypeVariables();
+            }
+
+            @Override
+            public int getModifiers() {
+                return modifiers;
+            }
+
+            @Override
+            public String getName() {
+                return name;
             }
         }
 
@@ -8047,7 +9230,16 @@ public interface TypePool {
              * only contained within the debugging information. This mode still detects explicitly included method
              * parameter names.
              */
-            FAST(ClassReader.SKIP_CODE);
+            FAST(ClassReader.SKIP_CODE),
+
+            /**
+             * The lazy reader mode only parses a class file's header, i.e. a type's name, modifiers, super class and interfaces
+             * when a type is described. Any other property is resolved by parsing the class file in the fast reader mode when it
+             * is first requested. This mode is meant for type pools that mainly answer questions about a type's hierarchy, for
+             * example for matching types by their super types where most types are rejected. As the class file is retained until
+             * it is fully parsed, a cache of such a type pool retains more memory per type.
+             */
+            LAZY(ClassReader.SKIP_CODE);
 
             /**
              * The flags to provide to a {@link ClassReader} for parsing a file.
@@ -8081,6 +9273,15 @@ public interface TypePool {
                 return this == EXTENDED;
             }
 
+            /**
+             * Determines if this reader mode only parses a class file's header when a type is described.
+             *
+             * @return {@code true} if this reader mode only parses a class file's header when a type is described.
+             */
+            public boolean isLazy() {
+                return this == LAZY;
+            }
+
             @Override
             public String toString() {
                 return "TypePool.Default.ReaderMode." + name();
@@ -8156,87 +9357,267 @@ public interface TypePool {
             @Override
             public int hashCode() {
                 int result = super.hashCode();
-                result = 31 * result + (classLoader != null ? classLoader.hashCode() : 0);
+                result = 31 * result + (classLoader != null ? classLoader.hashCode() : 0);
+                return result;
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.Default.ClassLoading{" +
+                        "classFileLocator=" + classFileLocator +
+                        ", cacheProvider=" + cacheProvider +
+                        ", readerMode=" + readerMode +
+                        ", classLoader=" + classLoader +
+                        '}';
+            }
+        }
+
+        /**
+         * A class file locator that maintains a map of precomputed classes which are returned as a resolution in case that a type name is known.
+         */
+        public static class Precomputed extends Default {
+
+            /**
+             * The precomputed type descriptions.
+             */
+            private final Map<String, TypeDescription> precomputed;
+
+            /**
+             * Creates a new precomputed type pool.
+             *
+             * @param cacheProvider    The cache provider to be used.
+             * @param classFileLocator The class file locator to be used.
+             * @param readerMode       The reader mode to apply by this default type pool.
+             * @param precomputed      The precomputed type descriptions.
+             */
+            public Precomputed(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode, Map<String, TypeDescription> precomputed) {
+                super(cacheProvider, classFileLocator, readerMode);
+                this.precomputed = precomputed;
+            }
+
+            /**
+             * Creates a new precomputed type pool with the {@link Object} type being precomputed.
+             *
+             * @param cacheProvider    The cache provider to be used.
+             * @param classFileLocator The class file locator to be used.
+             * @param readerMode       The reader mode to apply by this default type pool.
+             * @return A type pool with the {@link Object} type being precomputed.
+             */
+            public static TypePool withObjectType(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode) {
+                return new Precomputed(cacheProvider, classFileLocator, readerMode, Collections.singletonMap(Object.class.getName(), TypeDescription.OBJECT));
+            }
+
+            @Override
+            protected Resolution doDescribe(String name) {
+                TypeDescription typeDescription = precomputed.get(name);
+                return typeDescription == null
+                        ? super.doDescribe(name)
+                        : new Resolution.Simple(typeDescription);
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && super.equals(other)
+                        && precomputed.equals(((Precomputed) other).precomputed);
+            }
+
+            @Override
+            public int hashCode() {
+                int result = super.hashCode();
+                result = 31 * result + precomputed.hashCode();
                 return result;
             }
 
             @Override
             public String toString() {
-                return "TypePool.Default.ClassLoading{" +
+                return "TypePool.Default.Precomputed{" +
                         "classFileLocator=" + classFileLocator +
                         ", cacheProvider=" + cacheProvider +
                         ", readerMode=" + readerMode +
-                        ", classLoader=" + classLoader +
+                        ", precomputed=" + precomputed +
                         '}';
             }
         }
 
         /**
-         * A class file locator that maintains a map of precomputed classes which are returned as a resolution in case that a type name is known.
+         * <p>
+         * A type pool that prefetches the super class and the interfaces of any type it describes by submitting a
+         * {@link Prefetch} to an executor. Since the prefetched types are described by this type pool, their super types
+         * are prefetched as well such that the entire type hierarchy of a described type is cached asynchronously. This way,
+         * walking the type hierarchy of a described type, for example by matching a super type or by computing a common
+         * super class when computing stack map frames, mostly hits the cache instead of locating class files one by one.
+         * </p>
+         * <p>
+         * <b>Important</b>: A type is only prefetched after it was registered with the cache such that prefetching a type
+         * hierarchy terminates even if annotation types are prefetched which commonly annotate each other. Consequently,
+         * no types are prefetched if this type pool does not use a cache. A prefetch is a best effort and any error that
+         * occurs during a prefetch or the rejection of a prefetch by the executor is ignored.
+         * </p>
          */
-        public static class Precomputed extends Default {
+        public static class Prefetching extends Default {
 
             /**
-             * The precomputed type descriptions.
+             * The executor to use for prefetching types.
              */
-            private final Map<String, TypeDescription> precomputed;
+            private final Executor executor;
 
             /**
-             * Creates a new precomputed type pool.
+             * {@code true} if the annotation types of a described type should also be prefetched.
+             */
+            private final boolean annotations;
+
+            /**
+             * Creates a new prefetching type pool without a parent pool that does not prefetch annotation types.
              *
              * @param cacheProvider    The cache provider to be used.
              * @param classFileLocator The class file locator to be used.
              * @param readerMode       The reader mode to apply by this default type pool.
-             * @param precomputed      The precomputed type descriptions.
+             * @param executor         The executor to use for prefetching types.
              */
-            public Precomputed(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode, Map<String, TypeDescription> precomputed) {
-                super(cacheProvider, classFileLocator, readerMode);
-                this.precomputed = precomputed;
+            public Prefetching(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode, Executor executor) {
+                this(cacheProvider, classFileLocator, readerMode, Empty.INSTANCE, executor, false);
             }
 
             /**
-             * Creates a new precomputed type pool with the {@link Object} type being precomputed.
+             * Creates a new prefetching type pool.
              *
              * @param cacheProvider    The cache provider to be used.
              * @param classFileLocator The class file locator to be used.
              * @param readerMode       The reader mode to apply by this default type pool.
-             * @return A type pool with the {@link Object} type being precomputed.
+             * @param parentPool       The parent type pool.
+             * @param executor         The executor to use for prefetching types.
+             * @param annotations      {@code true} if the annotation types of a described type should also be prefetched.
              */
-            public static TypePool withObjectType(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode) {
-                return new Precomputed(cacheProvider, classFileLocator, readerMode, Collections.singletonMap(Object.class.getName(), TypeDescription.OBJECT));
+            public Prefetching(CacheProvider cacheProvider,
+                               ClassFileLocator classFileLocator,
+                               ReaderMode readerMode,
+                               TypePool parentPool,
+                               Executor executor,
+                               boolean annotations) {
+                super(cacheProvider, classFileLocator, readerMode, parentPool);
+                this.executor = executor;
+                this.annotations = annotations;
+            }
+
+            /**
+             * Returns a prefetching type pool that uses a simple cache and a fast reading mode.
+             *
+             * @param classFileLocator The class file locator to be used.
+             * @param executor         The executor to use for prefetching types.
+             * @return An appropriate type pool.
+             */
+            public static TypePool of(ClassFileLocator classFileLocator, Executor executor) {
+                return new Prefetching(new CacheProvider.Simple(), classFileLocator, ReaderMode.FAST, executor);
             }
 
             @Override
-            protected Resolution doDescribe(String name) {
-                TypeDescription typeDescription = precomputed.get(name);
-                return typeDescription == null
-                        ? super.doDescribe(name)
-                        : new Resolution.Simple(typeDescription);
+            protected Resolution register(String name, Resolution resolution) {
+                Resolution registered = super.register(name, resolution);
+                if (registered.isResolved() && cacheProvider.find(name) == registered) {
+                    try {
+                        executor.execute(new Prefetch(registered.resolve(), annotations));
+                    } catch (RejectedExecutionException ignored) {
+                        /* do nothing */
+                    }
+                }
+                return registered;
             }
 
             @Override
             public boolean equals(Object other) {
                 return this == other || !(other == null || getClass() != other.getClass())
                         && super.equals(other)
-                        && precomputed.equals(((Precomputed) other).precomputed);
+                        && annotations == ((Prefetching) other).annotations
+                        && executor.equals(((Prefetching) other).executor);
             }
 
             @Override
             public int hashCode() {
                 int result = super.hashCode();
-                result = 31 * result + precomputed.hashCode();
+                result = 31 * result + executor.hashCode();
+                result = 31 * result + (annotations ? 1 : 0);
                 return result;
             }
 
             @Override
             public String toString() {
-                return "TypePool.Default.Precomputed{" +
+                return "TypePool.Default.Prefetching{" +
                         "classFileLocator=" + classFileLocator +
                         ", cacheProvider=" + cacheProvider +
                         ", readerMode=" + readerMode +
-                        ", precomputed=" + precomputed +
+                        ", executor=" + executor +
+                        ", annotations=" + annotations +
                         '}';
             }
+
+            /**
+             * A task that resolves the super class, the interfaces and optionally the annotation types of a type description.
+             * Resolving a type's erasure describes the type by the type pool that created the type description.
+             */
+            protected static class Prefetch implements Runnable {
+
+                /**
+                 * The type description of which the super types are prefetched.
+                 */
+                private final TypeDescription typeDescription;
+
+                /**
+                 * {@code true} if the annotation types of the type description should also be prefetched.
+                 */
+                private final boolean annotations;
+
+                /**
+                 * Creates a new prefetch.
+                 *
+                 * @param typeDescription The type description of which the super types are prefetched.
+                 * @param annotations     {@code true} if the annotation types of the type description should also be prefetched.
+                 */
+                protected Prefetch(TypeDescription typeDescription, boolean annotations) {
+                    this.typeDescription = typeDescription;
+                    this.annotations = annotations;
+                }
+
+                @Override
+                public void run() {
+                    try {
+                        TypeDescription.Generic superClass = typeDescription.getSuperClass();
+                        if (superClass != null) {
+                            superClass.asErasure();
+                        }
+                        for (TypeDescription.Generic interfaceType : typeDescription.getInterfaces()) {
+                            interfaceType.asErasure();
+                        }
+                        if (annotations) {
+                            for (AnnotationDescription annotationDescription : typeDescription.getDeclaredAnnotations()) {
+                                annotationDescription.getAnnotationType();
+                            }
+                        }
+                    } catch (RuntimeException ignored) {
+                        /* do nothing */
+                    }
+                }
+
+                @Override
+                public boolean equals(Object other) {
+                    return this == other || !(other == null || getClass() != other.getClass())
+                            && annotations == ((Prefetch) other).annotations
+                            && typeDescription.equals(((Prefetch) other).typeDescription);
+                }
+
+                @Override
+                public int hashCode() {
+                    return 31 * typeDescription.hashCode() + (annotations ? 1 : 0);
+                }
+
+                @Override
+                public String toString() {
+                    return "TypePool.Default.Prefetching.Prefetch{" +
+                            "typeDescription=" + typeDescription +
+                            ", annotations=" + annotations +
+                            '}';
+                }
+            }
         }
     }
 
@@ -8464,4 +9845,447 @@ public interface TypePool {
             }
         }
     }
+
+    /**
+     * <p>
+     * A snapshot of the class files of a class path that is stored in a single file and that is memory-mapped for answering
+     * lookups of a {@link TypePool.Default}. The snapshot stores each class file stripped of any code and debugging information,
+     * i.e. only the information that is parsed by a type pool in its {@link Default.ReaderMode#FAST} mode is retained. Doing so,
+     * a type pool that is backed by a snapshot neither needs to read or inflate jar file entries nor to skip code when parsing a
+     * class file. Any type that is not contained in the snapshot is located by a fallback class file locator.
+     * </p>
+     * <p>
+     * A snapshot records the path, the size and a checksum of every jar file it represents. A snapshot is only used if all
+     * jar files are unchanged and if it was written in the current format. Otherwise, the snapshot is rewritten.
+     * </p>
+     * <p>
+     * Entries within a jar file's {@code META-INF/} folder, such as the versioned class files of a multi-release jar, are not
+     * represented by a snapshot. Neither are class files that cannot be parsed, for example because they are of a class file
+     * version that is not supported. Such types are located by the fallback class file locator.
+     * </p>
+     * <p>
+     * <b>Important</b>: The class files of a snapshot do not contain any code. They must only be parsed by a type pool but
+     * must never be used for defining or redefining a class.
+     * </p>
+     */
+    class Snapshot {
+
+        /**
+         * The magic number of a snapshot file.
+         */
+        private static final int MAGIC = 0x42425350;
+
+        /**
+         * The version of the snapshot format.
+         */
+        private static final int FORMAT = 2;
+
+        /**
+         * The size of a snapshot's file header that precedes the index, i.e. the magic number, the format and the index's length.
+         */
+        private static final int HEADER_SIZE = 12;
+
+        /**
+         * The size of the buffer that is used for computing checksums and for copying files.
+         */
+        private static final int BUFFER_SIZE = 1024 * 8;
+
+        /**
+         * The flags to provide to a {@link ClassReader} for stripping a class file.
+         */
+        private static final int STRIP = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG;
+
+        /**
+         * A suffix for temporary files.
+         */
+        private static final String TEMP_SUFFIX = "tmp";
+
+        /**
+         * The folder of a jar file that contains meta data and versioned class files that are not represented by a snapshot.
+         */
+        private static final String META_INF = "META-INF/";
+
+        /**
+         * This class is not supposed to be constructed.
+         */
+        private Snapshot() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Creates a type pool for the given jar files that is backed by a snapshot. If the snapshot does not exist, if
+         * it does not represent the current state of the jar files or if it is of a different format, the snapshot is
+         * (re-)written. Types that are not contained in the snapshot are located by the supplied fallback.
+         *
+         * @param snapshot The snapshot file.
+         * @param jarFiles The jar files that are represented by the snapshot in class path order.
+         * @param fallback The class file locator to query for types that are not contained in the snapshot.
+         * @return A type pool that is backed by the supplied snapshot.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public static TypePool of(File snapshot, List<File> jarFiles, ClassFileLocator fallback) throws IOException {
+            List<Checksum> checksums = Checksum.of(jarFiles);
+            ClassFileLocator classFileLocator = snapshot.isFile()
+                    ? ForMappedFile.of(snapshot, checksums)
+                    : null;
+            if (classFileLocator == null) {
+                write(snapshot, jarFiles, checksums);
+                classFileLocator = ForMappedFile.of(snapshot, checksums);
+                if (classFileLocator == null) {
+                    throw new IOException("Cannot read snapshot after writing it: " + snapshot);
+                }
+            }
+            return new Default(new CacheProvider.Simple(), new ClassFileLocator.Compound(classFileLocator, fallback), Default.ReaderMode.FAST);
+        }
+
+        /**
+         * Writes a snapshot of the given jar files. If a type is contained in several jar files, the first occurrence
+         * is stored. A type whose first occurrence cannot be parsed is not stored.
+         *
+         * @param snapshot The snapshot file to write.
+         * @param jarFiles The jar files to represent by the snapshot in class path order.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public static void write(File snapshot, List<File> jarFiles) throws IOException {
+            write(snapshot, jarFiles, Checksum.of(jarFiles));
+        }
+
+        /**
+         * Writes a snapshot of the given jar files. The snapshot is first written to a temporary file that replaces the
+         * snapshot once it is complete such that a partial snapshot is never observed.
+         *
+         * @param snapshot  The snapshot file to write.
+         * @param jarFiles  The jar files to represent by the snapshot in class path order.
+         * @param checksums The checksums of the jar files.
+         * @throws IOException If an I/O exception occurs.
+         */
+        private static void write(File snapshot, List<File> jarFiles, List<Checksum> checksums) throws IOException {
+            File data = File.createTempFile(snapshot.getName(), TEMP_SUFFIX, snapshot.getAbsoluteFile().getParentFile());
+            File temporary = null;
+            try {
+                Map<String, int[]> index = new LinkedHashMap<String, int[]>();
+                Set<String> typeNames = new HashSet<String>();
+                OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(data));
+                try {
+                    int offset = 0;
+                    for (File jarFile : jarFiles) {
+                        JarFile file = new JarFile(jarFile);
+                        try {
+                            Enumeration<JarEntry> enumeration = file.entries();
+                            while (enumeration.hasMoreElements()) {
+                                JarEntry jarEntry = enumeration.nextElement();
+                                String name = jarEntry.getName();
+                                if (!name.endsWith(ClassFileLocator.CLASS_FILE_EXTENSION) || name.startsWith(META_INF)) {
+                                    continue;
+                                }
+                                String typeName = name.substring(0, name.length() - ClassFileLocator.CLASS_FILE_EXTENSION.length()).replace('/', '.');
+                                if (!typeNames.add(typeName)) {
+                                    continue;
+                                }
+                                InputStream inputStream = file.getInputStream(jarEntry);
+                                byte[] binaryRepresentation;
+                                try {
+                                    binaryRepresentation = strip(StreamDrainer.DEFAULT.drain(inputStream));
+                                } catch (RuntimeException ignored) {
+                                    continue; // The class file is of an unsupported version or malformed and is served by the fallback.
+                                } finally {
+                                    inputStream.close();
+                                }
+                                outputStream.write(binaryRepresentation);
+                                index.put(typeName, new int[]{offset, binaryRepresentation.length});
+                                offset += binaryRepresentation.length;
+                                if (offset < 0) {
+                                    throw new IOException("Snapshot exceeds maximum size: " + snapshot);
+                                }
+                            }
+                        } finally {
+                            file.close();
+                        }
+                    }
+                } finally {
+                    outputStream.close();
+                }
+                ByteArrayOutputStream header = new ByteArrayOutputStream();
+                DataOutputStream dataOutputStream = new DataOutputStream(header);
+                dataOutputStream.writeInt(checksums.size());
+                for (Checksum checksum : checksums) {
+                    checksum.write(dataOutputStream);
+                }
+                dataOutputStream.writeInt(index.size());
+                for (Map.Entry<String, int[]> entry : index.entrySet()) {
+                    dataOutputStream.writeUTF(entry.getKey());
+                    dataOutputStream.writeInt(entry.getValue()[0]);
+                    dataOutputStream.writeInt(entry.getValue()[1]);
+                }
+                dataOutputStream.flush();
+                temporary = File.createTempFile(snapshot.getName(), TEMP_SUFFIX, snapshot.getAbsoluteFile().getParentFile());
+                DataOutputStream target = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+                try {
+                    target.writeInt(MAGIC);
+                    target.writeInt(FORMAT);
+                    target.writeInt(header.size());
+                    header.writeTo(target);
+                    InputStream inputStream = new FileInputStream(data);
+                    try {
+                        byte[] buffer = new byte[BUFFER_SIZE];
+                        int length;
+                        while ((length = inputStream.read(buffer)) != -1) {
+                            target.write(buffer, 0, length);
+                        }
+                    } finally {
+                        inputStream.close();
+                    }
+                } finally {
+                    target.close();
+                }
+                if (!temporary.renameTo(snapshot) && (!snapshot.delete() || !temporary.renameTo(snapshot))) {
+                    throw new IOException("Cannot replace " + snapshot + " by " + temporary);
+                }
+                temporary = null;
+            } finally {
+                if (!data.delete()) {
+                    data.deleteOnExit();
+                }
+                if (temporary != null && !temporary.delete()) {
+                    temporary.deleteOnExit();
+                }
+            }
+        }
+
+        /**
+         * Strips a class file of any information that is not read by a type pool in its fast reader mode.
+         *
+         * @param binaryRepresentation The binary representation of the class file to strip.
+         * @return The binary representation of the stripped class file.
+         */
+        private static byte[] strip(byte[] binaryRepresentation) {
+            ClassWriter classWriter = new ClassWriter(0);
+            new ClassReader(binaryRepresentation).accept(classWriter, STRIP);
+            return classWriter.toByteArray();
+        }
+
+        /**
+         * A checksum of a jar file that is represented by a snapshot.
+         */
+        protected static class Checksum {
+
+            /**
+             * The absolute path of the jar file.
+             */
+            private final String path;
+
+            /**
+             * The size of the jar file.
+             */
+            private final long size;
+
+            /**
+             * The CRC-32 checksum of the jar file's content.
+             */
+            private final long value;
+
+            /**
+             * Creates a new checksum.
+             *
+             * @param path  The absolute path of the jar file.
+             * @param size  The size of the jar file.
+             * @param value The CRC-32 checksum of the jar file's content.
+             */
+            protected Checksum(String path, long size, long value) {
+                this.path = path;
+                this.size = size;
+                this.value = value;
+            }
+
+            /**
+             * Computes the checksums of the given jar files.
+             *
+             * @param jarFiles The jar files for which to compute a checksum.
+             * @return A list of checksums in the order of the supplied jar files.
+             * @throws IOException If an I/O exception occurs.
+             */
+            protected static List<Checksum> of(List<File> jarFiles) throws IOException {
+                List<Checksum> checksums = new ArrayList<Checksum>(jarFiles.size());
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (File jarFile : jarFiles) {
+                    CRC32 crc32 = new CRC32();
+                    InputStream inputStream = new FileInputStream(jarFile);
+                    try {
+                        int length;
+                        while ((length = inputStream.read(buffer)) != -1) {
+                            crc32.update(buffer, 0, length);
+                        }
+                    } finally {
+                        inputStream.close();
+                    }
+                    checksums.add(new Checksum(jarFile.getAbsolutePath(), jarFile.length(), crc32.getValue()));
+                }
+                return checksums;
+            }
+
+            /**
+             * Reads a checksum.
+             *
+             * @param dataInputStream The data input stream to read from.
+             * @return The checksum that was read.
+             * @throws IOException If an I/O exception occurs.
+             */
+            protected static Checksum read(DataInputStream dataInputStream) throws IOException {
+                return new Checksum(dataInputStream.readUTF(), dataInputStream.readLong(), dataInputStream.readLong());
+            }
+
+            /**
+             * Writes this checksum.
+             *
+             * @param dataOutputStream The data output stream to write to.
+             * @throws IOException If an I/O exception occurs.
+             */
+            protected void write(DataOutputStream dataOutputStream) throws IOException {
+                dataOutputStream.writeUTF(path);
+                dataOutputStream.writeLong(size);
+                dataOutputStream.writeLong(value);
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                if (this == other) return true;
+                if (other == null || getClass() != other.getClass()) return false;
+                Checksum checksum = (Checksum) other;
+                return size == checksum.size && value == checksum.value && path.equals(checksum.path);
+            }
+
+            @Override
+            public int hashCode() {
+                int result = path.hashCode();
+                result = 31 * result + (int) (size ^ (size >>> 32));
+                result = 31 * result + (int) (value ^ (value >>> 32));
+                return result;
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.Snapshot.Checksum{" +
+                        "path='" + path + '\'' +
+                        ", size=" + size +
+                        ", value=" + value +
+                        '}';
+            }
+        }
+
+        /**
+         * A class file locator that reads stripped class files from a memory-mapped snapshot. Lookups work on duplicates
+         * of the mapped buffer and do not require any synchronization.
+         */
+        protected static class ForMappedFile implements ClassFileLocator {
+
+            /**
+             * The snapshot file.
+             */
+            private final File file;
+
+            /**
+             * The mapped class files of the snapshot.
+             */
+            private final ByteBuffer byteBuffer;
+
+            /**
+             * The offsets and lengths of all class files within the mapped buffer by their type name.
+             */
+            private final Map<String, int[]> index;
+
+            /**
+             * Creates a new class file locator for a mapped snapshot.
+             *
+             * @param file       The snapshot file.
+             * @param byteBuffer The mapped class files of the snapshot.
+             * @param index      The offsets and lengths of all class files within the mapped buffer by their type name.
+             */
+            protected ForMappedFile(File file, ByteBuffer byteBuffer, Map<String, int[]> index) {
+                this.file = file;
+                this.byteBuffer = byteBuffer;
+                this.index = index;
+            }
+
+            /**
+             * Maps a snapshot file if it represents the given checksums.
+             *
+             * @param file      The snapshot file.
+             * @param checksums The checksums of the jar files that the snapshot must represent.
+             * @return A class file locator for the snapshot or {@code null} if the snapshot is stale or of another format.
+             * @throws IOException If an I/O exception occurs.
+             */
+            protected static ClassFileLocator of(File file, List<Checksum> checksums) throws IOException {
+                int headerSize;
+                Map<String, int[]> index;
+                DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                try {
+                    if (dataInputStream.readInt() != MAGIC || dataInputStream.readInt() != FORMAT) {
+                        return null;
+                    }
+                    headerSize = dataInputStream.readInt();
+                    if (dataInputStream.readInt() != checksums.size()) {
+                        return null;
+                    }
+                    for (Checksum checksum : checksums) {
+                        if (!checksum.equals(Checksum.read(dataInputStream))) {
+                            return null;
+                        }
+                    }
+                    int entries = dataInputStream.readInt();
+                    index = new HashMap<String, int[]>(Math.max(16, entries * 4 / 3 + 1));
+                    for (int entry = 0; entry < entries; entry++) {
+                        index.put(dataInputStream.readUTF(), new int[]{dataInputStream.readInt(), dataInputStream.readInt()});
+                    }
+                } catch (EOFException ignored) {
+                    return null;
+                } finally {
+                    dataInputStream.close();
+                }
+                RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                try {
+                    FileChannel fileChannel = randomAccessFile.getChannel();
+                    long offset = HEADER_SIZE + (long) headerSize;
+                    if (offset > fileChannel.size() || fileChannel.size() - offset > Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    return new ForMappedFile(file, fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, fileChannel.size() - offset), index);
+                } finally {
+                    randomAccessFile.close();
+                }
+            }
+
+            @Override
+            public Resolution locate(String typeName) {
+                int[] entry = index.get(typeName);
+                if (entry == null) {
+                    return Resolution.Illegal.INSTANCE;
+                }
+                byte[] binaryRepresentation = new byte[entry[1]];
+                ByteBuffer byteBuffer = this.byteBuffer.duplicate();
+                byteBuffer.position(entry[0]);
+                byteBuffer.get(binaryRepresentation);
+                return new Resolution.Explicit(binaryRepresentation);
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return this == other || !(other == null || getClass() != other.getClass())
+                        && file.equals(((ForMappedFile) other).file);
+            }
+
+            @Override
+            public int hashCode() {
+                return file.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return "TypePool.Snapshot.ForMappedFile{" +
+                        "file=" + file +
+                        ", byteBuffer=<" + byteBuffer.limit() + " bytes>" +
+                        ", index=<" + index.size() + " entries>" +
+                        '}';
+            }
+        }
+    }
 }
@@ -9,6 +9,12 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.Mock;
 
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.StringStartsWith.startsWith;
@@ -16,7 +22,9 @@ import static org.mockito.Mockito.*;
 
 public class NamingStrategyTest {
 
-    private static final String FOO = "foo", BAR = "bar", JAVA_QUX = "java.qux";
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux", JAVA_QUX = "java.qux";
+
+    private static final int THREADS = 8;
 
     @Rule
     public TestRule mockitoRule = new MockitoRule(this);
@@ -104,6 +112,113 @@ public class NamingStrategyTest {
         ObjectPropertyAssertion.of(NamingStrategy.SuffixingRandom.BaseNameResolver.ForFixedValue.class).apply();
     }
 
+    @Test
+    public void testSuffixingHashSubclassIsReproducible() throws Exception {
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getTypeName()).thenReturn(FOO);
+        String first = new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX).subclass(typeDescription);
+        assertThat(first, startsWith(FOO + "$" + BAR + "$"));
+        assertThat(new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX).subclass(typeDescription), is(first));
+    }
+
+    @Test
+    public void testSuffixingHashSubclassDependsOnGenericSuperType() throws Exception {
+        TypeDescription.Generic otherTypeDescription = mock(TypeDescription.Generic.class);
+        when(otherTypeDescription.asErasure()).thenReturn(rawTypeDescription);
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getTypeName()).thenReturn(FOO);
+        when(otherTypeDescription.getTypeName()).thenReturn(FOO + "<" + BAR + ">");
+        NamingStrategy namingStrategy = new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX);
+        String first = namingStrategy.subclass(typeDescription), second = namingStrategy.subclass(otherTypeDescription);
+        assertThat(second, startsWith(FOO + "$" + BAR + "$"));
+        assertThat(second.equals(first), is(false));
+        assertThat(second.startsWith(first), is(false));
+    }
+
+    @Test
+    public void testSuffixingHashSubclassIsUnique() throws Exception {
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getTypeName()).thenReturn(FOO);
+        NamingStrategy namingStrategy = new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX);
+        String first = namingStrategy.subclass(typeDescription);
+        assertThat(namingStrategy.subclass(typeDescription), is(first + "$1"));
+        assertThat(namingStrategy.subclass(typeDescription), is(first + "$2"));
+    }
+
+    @Test
+    public void testSuffixingHashSubclassIsUniquePerInstance() throws Exception {
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getTypeName()).thenReturn(FOO);
+        NamingStrategy namingStrategy = new NamingStrategy.SuffixingHash(BAR);
+        String first = namingStrategy.subclass(typeDescription);
+        assertThat(namingStrategy.subclass(typeDescription), is(first + "$1"));
+        assertThat(new NamingStrategy.SuffixingHash(BAR).subclass(typeDescription), is(first));
+    }
+
+    @Test
+    public void testSuffixingHashSubclassConcurrent() throws Exception {
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getTypeName()).thenReturn(FOO);
+        final NamingStrategy namingStrategy = new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX);
+        NamingStrategy otherNamingStrategy = new NamingStrategy.SuffixingHash(BAR,
+                NamingStrategy.SuffixingRandom.BaseNameResolver.ForUnnamedType.INSTANCE,
+                QUX);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        Set<String> names = new HashSet<String>(), expected = new HashSet<String>();
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>(THREADS);
+            for (int index = 0; index < THREADS; index++) {
+                futures.add(executorService.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return namingStrategy.subclass(typeDescription);
+                    }
+                }));
+            }
+            for (Future<String> future : futures) {
+                names.add(future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        for (int index = 0; index < THREADS; index++) {
+            expected.add(otherNamingStrategy.subclass(typeDescription));
+        }
+        assertThat(names, is(expected));
+    }
+
+    @Test
+    public void testSuffixingHashSubclassConflictingPackage() throws Exception {
+        when(baseNameResolver.resolve(rawTypeDescription)).thenReturn(JAVA_QUX);
+        NamingStrategy namingStrategy = new NamingStrategy.SuffixingHash(FOO, baseNameResolver, BAR);
+        assertThat(namingStrategy.subclass(typeDescription), startsWith(BAR + "." + JAVA_QUX + "$" + FOO + "$"));
+        verifyZeroInteractions(rawTypeDescription);
+        verify(baseNameResolver).resolve(rawTypeDescription);
+        verifyNoMoreInteractions(baseNameResolver);
+    }
+
+    @Test
+    public void testSuffixingHashRebase() throws Exception {
+        when(rawTypeDescription.getName()).thenReturn(FOO);
+        assertThat(new NamingStrategy.SuffixingHash(BAR).rebase(rawTypeDescription), is(FOO));
+    }
+
+    @Test
+    public void testSuffixingHashObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(NamingStrategy.SuffixingHash.class).apply();
+        ObjectPropertyAssertion.of(NamingStrategy.SuffixingHash.Registry.class).applyBasic();
+    }
+
     @Test
     public void testPrefixingRandom() throws Exception {
         when(rawTypeDescription.getName()).thenReturn(BAR);
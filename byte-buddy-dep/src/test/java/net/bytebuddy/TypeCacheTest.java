@@ -0,0 +1,97 @@
+package net.bytebuddy;
+
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypeCacheTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    @Test
+    public void testFindAndInsert() throws Exception {
+        TypeCache<String> typeCache = new TypeCache<String>(TypeCache.Sort.SOFT);
+        ClassLoader classLoader = new ClassLoaderStub();
+        assertThat(typeCache.find(classLoader, FOO), nullValue(Class.class));
+        assertThat(typeCache.insert(classLoader, FOO, Object.class), is((Object) Object.class));
+        assertThat(typeCache.find(classLoader, FOO), is((Object) Object.class));
+        assertThat(typeCache.insert(classLoader, FOO, Void.class), is((Object) Object.class));
+        assertThat(typeCache.find(classLoader, BAR), nullValue(Class.class));
+        assertThat(typeCache.find(new ClassLoaderStub(), FOO), nullValue(Class.class));
+        typeCache.clear();
+        assertThat(typeCache.find(classLoader, FOO), nullValue(Class.class));
+    }
+
+    @Test
+    public void testBootstrapClassLoader() throws Exception {
+        TypeCache<String> typeCache = new TypeCache<String>(TypeCache.Sort.SOFT);
+        assertThat(typeCache.insert(null, FOO, Object.class), is((Object) Object.class));
+        assertThat(typeCache.insert(null, BAR, Void.class), is((Object) Void.class));
+        assertThat(typeCache.find(null, FOO), is((Object) Object.class));
+        assertThat(typeCache.find(null, BAR), is((Object) Void.class));
+    }
+
+    @Test
+    public void testFindOrInsertCreatesTypeOnce() throws Exception {
+        final TypeCache<String> typeCache = new TypeCache.WithInlineExpunction<String>(TypeCache.Sort.SOFT);
+        final ClassLoader classLoader = new ClassLoaderStub();
+        final AtomicInteger invocations = new AtomicInteger();
+        final Callable<Class<?>> lazy = new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+                invocations.incrementAndGet();
+                Thread.sleep(10L);
+                return Object.class;
+            }
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Callable<Class<?>> task = new Callable<Class<?>>() {
+                @Override
+                public Class<?> call() throws Exception {
+                    return typeCache.findOrInsert(classLoader, FOO, lazy);
+                }
+            };
+            for (Future<Class<?>> future : executorService.invokeAll(Collections.nCopies(8, task))) {
+                assertThat(future.get(), is((Object) Object.class));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindOrInsertCheckedException() throws Exception {
+        new TypeCache<String>(TypeCache.Sort.WEAK).findOrInsert(null, FOO, new Callable<Class<?>>() {
+            @Override
+            public Class<?> call() throws Exception {
+                throw new Exception();
+            }
+        });
+    }
+
+    @Test
+    public void testSimpleKey() throws Exception {
+        assertThat(new TypeCache.SimpleKey(Object.class, Serializable.class, Runnable.class),
+                is(new TypeCache.SimpleKey(Object.class, Runnable.class, Serializable.class)));
+        assertThat(new TypeCache.SimpleKey(Object.class).equals(new TypeCache.SimpleKey(Object.class, Serializable.class)), is(false));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(TypeCache.Sort.class).apply();
+    }
+
+    private static class ClassLoaderStub extends ClassLoader {
+        /* empty */
+    }
+}
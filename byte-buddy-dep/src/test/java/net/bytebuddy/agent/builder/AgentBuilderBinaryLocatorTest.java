@@ -1,7 +1,9 @@
 package net.bytebuddy.agent.builder;
 
+import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.test.utility.ClassFileExtraction;
 import net.bytebuddy.test.utility.MockitoRule;
 import net.bytebuddy.test.utility.ObjectPropertyAssertion;
 import org.junit.Rule;
@@ -9,12 +11,14 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.Mock;
 
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
 
 public class AgentBuilderBinaryLocatorTest {
 
+    private static final String FOO = "foo", BAR = "bar";
+
     @Rule
     public TestRule mockitoRule = new MockitoRule(this);
 
@@ -57,9 +61,77 @@ public class AgentBuilderBinaryLocatorTest {
         assertThat(AgentBuilder.BinaryLocator.ClassLoading.INSTANCE.typePool(classFileLocator, classLoader), notNullValue(TypePool.class));
     }
 
+    @Test
+    public void testWithTypePoolCacheClassFileLocator() throws Exception {
+        assertThat(new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST).classFileLocator(classLoader),
+                is(ClassFileLocator.ForClassLoader.of(classLoader)));
+    }
+
+    @Test
+    public void testWithTypePoolCacheIsSharedPerClassLoader() throws Exception {
+        AgentBuilder.BinaryLocator.WithTypePoolCache.Simple binaryLocator = new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST);
+        assertThat(binaryLocator.locate(classLoader), sameInstance(binaryLocator.locate(classLoader)));
+        assertThat(binaryLocator.locate(classLoader), not(sameInstance(binaryLocator.locate(mock(ClassLoader.class)))));
+        assertThat(binaryLocator.locate(null), sameInstance(binaryLocator.locate(null)));
+        TypePool.CacheProvider cacheProvider = binaryLocator.locate(classLoader);
+        binaryLocator.clear(classLoader);
+        assertThat(binaryLocator.locate(classLoader), not(sameInstance(cacheProvider)));
+        cacheProvider = binaryLocator.locate(classLoader);
+        binaryLocator.clear();
+        assertThat(binaryLocator.locate(classLoader), not(sameInstance(cacheProvider)));
+    }
+
+    @Test
+    public void testWithTypePoolCacheReusesDescriptions() throws Exception {
+        when(classFileLocator.locate(Foo.class.getName())).thenReturn(new ClassFileLocator.Resolution.Explicit(ClassFileExtraction.extract(Foo.class)));
+        AgentBuilder.BinaryLocator binaryLocator = new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST);
+        TypeDescription typeDescription = binaryLocator.typePool(classFileLocator, classLoader).describe(Foo.class.getName()).resolve();
+        assertThat(typeDescription.getModifiers(), is(Foo.class.getModifiers()));
+        assertThat(binaryLocator.typePool(classFileLocator, classLoader).describe(Foo.class.getName()).resolve().getModifiers(), is(Foo.class.getModifiers()));
+        verify(classFileLocator, times(1)).locate(Foo.class.getName());
+    }
+
+    @Test
+    public void testWithTypePoolCacheDescribesInstrumentedTypeFromSuppliedLocator() throws Exception {
+        when(classFileLocator.locate(Foo.class.getName())).thenReturn(new ClassFileLocator.Resolution.Explicit(ClassFileExtraction.extract(Foo.class)));
+        ClassLoader classLoader = Foo.class.getClassLoader();
+        AgentBuilder.BinaryLocator.WithTypePoolCache.Simple binaryLocator = new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST);
+        assertThat(binaryLocator.typePool(classFileLocator, classLoader, BAR).describe(Foo.class.getName()).resolve().getModifiers(), is(Foo.class.getModifiers()));
+        assertThat(binaryLocator.locate(classLoader).find(Foo.class.getName()), notNullValue(TypePool.Resolution.class));
+        verifyZeroInteractions(classFileLocator);
+        assertThat(binaryLocator.typePool(classFileLocator, classLoader, Foo.class.getName()).describe(Foo.class.getName()).resolve().getModifiers(), is(Foo.class.getModifiers()));
+        verify(classFileLocator).locate(Foo.class.getName());
+    }
+
+    @Test
+    public void testWithTypePoolCacheDoesNotRegisterInstrumentedType() throws Exception {
+        when(classFileLocator.locate(Foo.class.getName())).thenReturn(new ClassFileLocator.Resolution.Explicit(ClassFileExtraction.extract(Foo.class)));
+        AgentBuilder.BinaryLocator.WithTypePoolCache.Simple binaryLocator = new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST);
+        TypeDescription typeDescription = binaryLocator.typePool(classFileLocator, classLoader, Foo.class.getName()).describe(Foo.class.getName()).resolve();
+        assertThat(typeDescription.getModifiers(), is(Foo.class.getModifiers()));
+        assertThat(typeDescription.getSuperClass().asErasure(), is(TypeDescription.OBJECT));
+        assertThat(binaryLocator.locate(classLoader).find(Foo.class.getName()), nullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testWithTypePoolCacheDoesNotRegisterUnresolvedType() throws Exception {
+        when(classFileLocator.locate(BAR)).thenReturn(ClassFileLocator.Resolution.Illegal.INSTANCE);
+        AgentBuilder.BinaryLocator.WithTypePoolCache.Simple binaryLocator = new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST);
+        assertThat(binaryLocator.typePool(classFileLocator, classLoader).describe(BAR).isResolved(), is(false));
+        assertThat(binaryLocator.typePool(mock(ClassFileLocator.class), classLoader, FOO).describe(BAR).isResolved(), is(false));
+        assertThat(binaryLocator.locate(classLoader).find(BAR), nullValue(TypePool.Resolution.class));
+    }
+
     @Test
     public void testObjectProperties() throws Exception {
         ObjectPropertyAssertion.of(AgentBuilder.BinaryLocator.Default.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.BinaryLocator.ClassLoading.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.BinaryLocator.WithTypePoolCache.Simple.class).applyBasic();
+        ObjectPropertyAssertion.of(AgentBuilder.BinaryLocator.WithTypePoolCache.Shared.class).applyBasic();
+        ObjectPropertyAssertion.of(AgentBuilder.BinaryLocator.WithTypePoolCache.Instrumented.class).applyBasic();
+    }
+
+    private static class Foo {
+        /* empty */
     }
 }
@@ -12,6 +12,7 @@ import net.bytebuddy.implementation.SuperMethodCall;
 import net.bytebuddy.implementation.bind.annotation.Super;
 import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.test.packaging.SimpleType;
 import net.bytebuddy.test.utility.AgentAttachmentRule;
 import net.bytebuddy.test.utility.ClassFileExtraction;
@@ -58,6 +59,7 @@ public class AgentBuilderDefaultApplicationTest {
         return Arrays.asList(new Object[][]{
                 {AgentBuilder.BinaryLocator.Default.EXTENDED},
                 {AgentBuilder.BinaryLocator.Default.FAST},
+                {new AgentBuilder.BinaryLocator.WithTypePoolCache.Simple(TypePool.Default.ReaderMode.FAST)},
                 {AgentBuilder.BinaryLocator.ClassLoading.INSTANCE}
         });
     }
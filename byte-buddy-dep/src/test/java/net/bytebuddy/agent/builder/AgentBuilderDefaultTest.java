@@ -22,12 +22,16 @@ import java.io.File;
 import java.lang.instrument.ClassDefinition;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.ProtectionDomain;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static net.bytebuddy.matcher.ElementMatchers.none;
 import static org.hamcrest.CoreMatchers.*;
@@ -94,7 +98,7 @@ public class AgentBuilderDefaultTest {
     @Before
     @SuppressWarnings("unchecked")
     public void setUp() throws Exception {
-        when(builder.make()).thenReturn((DynamicType.Unloaded) dynamicType);
+        when(builder.make(typePool)).thenReturn((DynamicType.Unloaded) dynamicType);
         when(dynamicType.getTypeDescription()).thenReturn(new TypeDescription.ForLoadedType(REDEFINED));
         when(typeStrategy.builder(any(TypeDescription.class),
                 eq(byteBuddy),
@@ -106,7 +110,7 @@ public class AgentBuilderDefaultTest {
         when(dynamicType.getBytes()).thenReturn(BAZ);
         when(transformer.transform(builder, new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader())).thenReturn((DynamicType.Builder) builder);
         when(binaryLocator.classFileLocator(REDEFINED.getClassLoader())).thenReturn(classFileLocator);
-        when(binaryLocator.typePool(any(ClassFileLocator.class), any(ClassLoader.class))).thenReturn(typePool);
+        when(binaryLocator.typePool(any(ClassFileLocator.class), any(ClassLoader.class), any(String.class))).thenReturn(typePool);
         when(typePool.describe(REDEFINED.getName())).thenReturn(resolution);
         when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{REDEFINED});
         when(initializationStrategy.dispatcher()).thenReturn(dispatcher);
@@ -400,6 +404,70 @@ public class AgentBuilderDefaultTest {
         verifyZeroInteractions(initializationStrategy);
     }
 
+    @Test
+    public void testSuccessfulWithRetransformationMatchedInParallel() throws Exception {
+        when(rawMatcher.matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED, REDEFINED.getProtectionDomain())).thenReturn(true);
+        when(instrumentation.isModifiableClass(REDEFINED)).thenReturn(true);
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        ClassFileTransformer classFileTransformer;
+        try {
+            classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                    .with(initializationStrategy)
+                    .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                    .with(new AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel(executorService))
+                    .with(binaryLocator)
+                    .with(typeStrategy)
+                    .with(listener)
+                    .disableNativeMethodPrefix()
+                    .with(accessControlContext)
+                    .type(rawMatcher).transform(transformer)
+                    .installOn(instrumentation);
+        } finally {
+            executorService.shutdown();
+        }
+        verifyZeroInteractions(listener);
+        verify(instrumentation).addTransformer(classFileTransformer, true);
+        verify(instrumentation).getAllLoadedClasses();
+        verify(instrumentation).isModifiableClass(REDEFINED);
+        verify(instrumentation).retransformClasses(REDEFINED);
+        verify(instrumentation).isRetransformClassesSupported();
+        verifyNoMoreInteractions(instrumentation);
+        verify(rawMatcher).matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED, REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(rawMatcher);
+        verifyZeroInteractions(initializationStrategy);
+    }
+
+    @Test
+    public void testRetransformationMatchedInBatchesReportsError() throws Exception {
+        when(rawMatcher.matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED, REDEFINED.getProtectionDomain())).thenReturn(true);
+        when(instrumentation.isModifiableClass(REDEFINED)).thenReturn(true);
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        UnmodifiableClassException exception = new UnmodifiableClassException();
+        doThrow(exception).when(instrumentation).retransformClasses(REDEFINED);
+        ClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .with(new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(1))
+                .with(binaryLocator)
+                .with(typeStrategy)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .with(accessControlContext)
+                .type(rawMatcher).transform(transformer)
+                .installOn(instrumentation);
+        verify(listener).onError(REDEFINED.getName(), exception);
+        verify(listener).onComplete(REDEFINED.getName());
+        verifyNoMoreInteractions(listener);
+        verify(instrumentation).addTransformer(classFileTransformer, true);
+        verify(instrumentation).getAllLoadedClasses();
+        verify(instrumentation).isModifiableClass(REDEFINED);
+        verify(instrumentation).retransformClasses(REDEFINED);
+        verify(instrumentation).isRetransformClassesSupported();
+        verifyNoMoreInteractions(instrumentation);
+        verifyZeroInteractions(initializationStrategy);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testRetransformationNotSupported() throws Exception {
         new AgentBuilder.Default(byteBuddy)
@@ -714,6 +782,42 @@ public class AgentBuilderDefaultTest {
         verifyNoMoreInteractions(resolution);
     }
 
+    @Test
+    public void testRedefinitionUnresolvedExtractsClassFiles() throws Exception {
+        when(rawMatcher.matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        ClassFileLocator.Resolution resolution = mock(ClassFileLocator.Resolution.class);
+        RuntimeException exception = new RuntimeException();
+        when(resolution.resolve()).thenThrow(exception);
+        when(classFileLocator.locate(REDEFINED.getName())).thenReturn(resolution);
+        when(instrumentation.isModifiableClass(REDEFINED)).thenReturn(true);
+        when(instrumentation.isRedefineClassesSupported()).thenReturn(true);
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        ClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(AgentBuilder.RedefinitionStrategy.REDEFINITION)
+                .with(binaryLocator)
+                .with(typeStrategy)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .with(accessControlContext)
+                .type(rawMatcher).transform(transformer)
+                .installOn(instrumentation);
+        verify(listener).onError(REDEFINED.getName(), exception);
+        verify(listener).onComplete(REDEFINED.getName());
+        verifyNoMoreInteractions(listener);
+        verify(instrumentation).addTransformer(classFileTransformer, false);
+        verify(instrumentation).getAllLoadedClasses();
+        verify(instrumentation).isModifiableClass(REDEFINED);
+        verify(instrumentation).isRedefineClassesSupported();
+        verify(instrumentation).isRetransformClassesSupported();
+        verify(instrumentation).addTransformer(any(ClassFileTransformer.class), eq(true));
+        verify(instrumentation).retransformClasses(REDEFINED);
+        verify(instrumentation).removeTransformer(any(ClassFileTransformer.class));
+        verifyNoMoreInteractions(instrumentation);
+        verifyZeroInteractions(dispatcher);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testRedefinitionNotSupported() throws Exception {
         new AgentBuilder.Default(byteBuddy)
@@ -979,6 +1083,37 @@ public class AgentBuilderDefaultTest {
                         new byte[0]), nullValue(byte[].class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIndexedTransformationSkipsTransformationsOfOtherNames() throws Exception {
+        ElementMatcher<ClassLoader> classLoaderMatcher = mock(ElementMatcher.class);
+        when(classLoaderMatcher.matches(REDEFINED.getClassLoader())).thenReturn(true);
+        when(rawMatcher.matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.RawMatcher ignoredTypeMatcher = mock(AgentBuilder.RawMatcher.class);
+        AgentBuilder.Default.Transformation transformation = AgentBuilder.Default.Transformation.Indexed.of(new AgentBuilder.Default.Transformation.Compound(
+                new AgentBuilder.Default.Transformation.Simple(new AgentBuilder.RawMatcher.ForElementMatcherPair(ElementMatchers.named(Bar.class.getName()),
+                        classLoaderMatcher), transformer),
+                new AgentBuilder.Default.Transformation.Compound(AgentBuilder.Default.Transformation.Ignored.INSTANCE,
+                        new AgentBuilder.Default.Transformation.Simple(rawMatcher, transformer))));
+        assertThat(transformation.resolve(new TypeDescription.ForLoadedType(REDEFINED),
+                REDEFINED.getClassLoader(),
+                null,
+                REDEFINED.getProtectionDomain(),
+                ignoredTypeMatcher).isResolved(), is(true));
+        verifyZeroInteractions(classLoaderMatcher);
+        verify(rawMatcher).matches(new TypeDescription.ForLoadedType(REDEFINED), REDEFINED.getClassLoader(), null, REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(rawMatcher);
+        assertThat(transformation.resolve(new TypeDescription.ForLoadedType(AUXILIARY),
+                REDEFINED.getClassLoader(),
+                null,
+                REDEFINED.getProtectionDomain(),
+                ignoredTypeMatcher).isResolved(), is(true));
+        verify(classLoaderMatcher).matches(REDEFINED.getClassLoader());
+        verifyNoMoreInteractions(classLoaderMatcher);
+        verifyNoMoreInteractions(rawMatcher);
+    }
+
     @Test
     public void testObjectProperties() throws Exception {
         ObjectPropertyAssertion.of(AgentBuilder.Default.class).create(new ObjectPropertyAssertion.Creator<AccessControlContext>() {
@@ -993,8 +1128,15 @@ public class AgentBuilderDefaultTest {
         ObjectPropertyAssertion.of(AgentBuilder.Default.Transformation.Simple.Resolution.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.Transformation.Ignored.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.Transformation.Compound.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.Default.Transformation.Indexed.class).create(new ObjectPropertyAssertion.Creator<List<?>>() {
+            @Override
+            public List<?> create() {
+                return Collections.singletonList(mock(AgentBuilder.Default.Transformation.class));
+            }
+        }).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.Transformation.Resolution.Unresolved.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.BootstrapInjectionStrategy.Enabled.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.Default.LoadedTypeHandler.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.BootstrapInjectionStrategy.Disabled.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.Default.ExecutingTransformer.class).create(new ObjectPropertyAssertion.Creator<AccessControlContext>() {
             @Override
@@ -0,0 +1,174 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.matcher.NameIndex;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.lang.ref.ReferenceQueue;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class AgentBuilderRawMatcherMemoizingTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    private static final int THREADS = 8;
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private AgentBuilder.RawMatcher matcher;
+
+    @Mock
+    private TypeDescription typeDescription, otherTypeDescription;
+
+    @Mock
+    private ClassLoader classLoader;
+
+    @Mock
+    private ProtectionDomain protectionDomain;
+
+    @Before
+    public void setUp() throws Exception {
+        when(typeDescription.getName()).thenReturn(FOO);
+        when(otherTypeDescription.getName()).thenReturn(BAR);
+        when(matcher.matches(typeDescription, classLoader, null, protectionDomain)).thenReturn(true);
+        when(matcher.matches(typeDescription, classLoader, Foo.class, protectionDomain)).thenReturn(true);
+    }
+
+    @Test
+    public void testMatchesIsMemoized() throws Exception {
+        AgentBuilder.RawMatcher rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(typeDescription, classLoader, Foo.class, protectionDomain), is(true));
+        verify(matcher).matches(typeDescription, classLoader, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testNotMatchesIsMemoized() throws Exception {
+        AgentBuilder.RawMatcher rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(otherTypeDescription, classLoader, null, protectionDomain), is(false));
+        assertThat(rawMatcher.matches(otherTypeDescription, classLoader, null, protectionDomain), is(false));
+        verify(matcher).matches(otherTypeDescription, classLoader, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testMatchesIsMemoizedPerClassLoader() throws Exception {
+        AgentBuilder.RawMatcher rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(typeDescription, null, null, protectionDomain), is(false));
+        assertThat(rawMatcher.matches(typeDescription, null, null, protectionDomain), is(false));
+        verify(matcher).matches(typeDescription, classLoader, null, protectionDomain);
+        verify(matcher).matches(typeDescription, null, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testClearType() throws Exception {
+        AgentBuilder.RawMatcher.Memoizing rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(otherTypeDescription, classLoader, null, protectionDomain), is(false));
+        rawMatcher.clear(classLoader, FOO);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(otherTypeDescription, classLoader, null, protectionDomain), is(false));
+        verify(matcher, times(2)).matches(typeDescription, classLoader, null, protectionDomain);
+        verify(matcher).matches(otherTypeDescription, classLoader, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testClearClassLoader() throws Exception {
+        AgentBuilder.RawMatcher.Memoizing rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(typeDescription, null, null, protectionDomain), is(false));
+        rawMatcher.clear(classLoader);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        assertThat(rawMatcher.matches(typeDescription, null, null, protectionDomain), is(false));
+        verify(matcher, times(2)).matches(typeDescription, classLoader, null, protectionDomain);
+        verify(matcher).matches(typeDescription, null, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        AgentBuilder.RawMatcher.Memoizing rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        rawMatcher.clear();
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        verify(matcher, times(2)).matches(typeDescription, classLoader, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testConcurrentMatchesAreMemoized() throws Exception {
+        final AgentBuilder.RawMatcher rawMatcher = new AgentBuilder.RawMatcher.Memoizing(matcher);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int index = 0; index < THREADS; index++) {
+                futures.add(executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        latch.await();
+                        return rawMatcher.matches(typeDescription, classLoader, null, protectionDomain);
+                    }
+                }));
+            }
+            latch.countDown();
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(), is(true));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(rawMatcher.matches(typeDescription, classLoader, null, protectionDomain), is(true));
+        verify(matcher, atLeastOnce()).matches(typeDescription, classLoader, null, protectionDomain);
+        verify(matcher, atMost(THREADS)).matches(typeDescription, classLoader, null, protectionDomain);
+        verifyNoMoreInteractions(matcher);
+    }
+
+    @Test
+    public void testKeyEquality() throws Exception {
+        ReferenceQueue<ClassLoader> referenceQueue = new ReferenceQueue<ClassLoader>();
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.LookupKey(classLoader).equals(new AgentBuilder.RawMatcher.Memoizing.StorageKey(classLoader, referenceQueue)), is(true));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.StorageKey(classLoader, referenceQueue).equals(new AgentBuilder.RawMatcher.Memoizing.LookupKey(classLoader)), is(true));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.StorageKey(classLoader, referenceQueue).equals(new AgentBuilder.RawMatcher.Memoizing.StorageKey(classLoader, referenceQueue)), is(true));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.LookupKey(classLoader).hashCode(), is(new AgentBuilder.RawMatcher.Memoizing.StorageKey(classLoader, referenceQueue).hashCode()));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.LookupKey(classLoader).equals(new AgentBuilder.RawMatcher.Memoizing.LookupKey(null)), is(false));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing.StorageKey(null, referenceQueue).equals(new AgentBuilder.RawMatcher.Memoizing.LookupKey(classLoader)), is(false));
+    }
+
+    @Test
+    public void testNameCondition() throws Exception {
+        assertThat(new AgentBuilder.RawMatcher.Memoizing(matcher).getNameCondition(), nullValue(NameIndex.Condition.class));
+        assertThat(new AgentBuilder.RawMatcher.Memoizing(new AgentBuilder.RawMatcher.ForElementMatcherPair(ElementMatchers.named(FOO),
+                ElementMatchers.any())).getNameCondition(), is(NameIndex.Condition.ofName(FOO)));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(AgentBuilder.RawMatcher.Memoizing.class).applyBasic();
+    }
+
+    private static class Foo {
+        /* empty */
+    }
+}
@@ -4,13 +4,20 @@ import net.bytebuddy.test.utility.ObjectPropertyAssertion;
 import org.junit.Test;
 
 import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
 
 public class AgentBuilderRedefinitionStrategyTest {
 
@@ -58,8 +65,205 @@ public class AgentBuilderRedefinitionStrategyTest {
         AgentBuilder.RedefinitionStrategy.REDEFINITION.isRetransforming(mock(Instrumentation.class));
     }
 
+    @Test
+    public void testSequentialMatchingStrategy() throws Exception {
+        AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler handler = mock(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler.class);
+        AgentBuilder.RedefinitionStrategy.MatchingStrategy.Sequential.INSTANCE.apply(new Class<?>[]{Object.class, String.class}, handler);
+        verify(handler).handle(Object.class);
+        verify(handler).handle(String.class);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParallelMatchingStrategy() throws Exception {
+        AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler handler = mock(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler.class);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            new AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel(executorService, 2)
+                    .apply(new Class<?>[]{Object.class, String.class, Integer.class, Long.class, Void.class}, handler);
+        } finally {
+            executorService.shutdown();
+        }
+        verify(handler).handle(Object.class);
+        verify(handler).handle(String.class);
+        verify(handler).handle(Integer.class);
+        verify(handler).handle(Long.class);
+        verify(handler).handle(Void.class);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelMatchingStrategyPropagatesError() throws Exception {
+        AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler handler = mock(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Handler.class);
+        doThrow(new RuntimeException()).when(handler).handle(Object.class);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            new AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel(executorService).apply(new Class<?>[]{Object.class}, handler);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMatchingStrategyIllegalChunkSize() throws Exception {
+        new AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel(mock(ExecutorService.class), 0);
+    }
+
+    @Test
+    public void testUnbatchedBatchStrategy() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Unbatched.INSTANCE.apply(instrumentation, Arrays.<Class<?>>asList(Object.class, String.class), listener);
+        verify(instrumentation).retransformClasses(Object.class, String.class);
+        verifyNoMoreInteractions(instrumentation);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testUnbatchedBatchStrategyEmpty() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Unbatched.INSTANCE.apply(instrumentation,
+                Collections.<Class<?>>emptyList(),
+                mock(AgentBuilder.Listener.class));
+        verifyZeroInteractions(instrumentation);
+    }
+
+    @Test(expected = UnmodifiableClassException.class)
+    public void testUnbatchedBatchStrategyPropagatesError() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        doThrow(new UnmodifiableClassException()).when(instrumentation).retransformClasses(Object.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Unbatched.INSTANCE.apply(instrumentation,
+                Collections.<Class<?>>singletonList(Object.class),
+                mock(AgentBuilder.Listener.class));
+    }
+
+    @Test
+    public void testBatchedBatchStrategy() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener batchListener = mock(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.class);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class, Integer.class);
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(2, 1, TimeUnit.MILLISECONDS, batchListener).apply(instrumentation, types, listener);
+        verify(instrumentation).retransformClasses(Object.class, String.class);
+        verify(instrumentation).retransformClasses(Integer.class);
+        verifyNoMoreInteractions(instrumentation);
+        verify(batchListener).onBatch(0, Arrays.<Class<?>>asList(Object.class, String.class), types);
+        verify(batchListener).onBatch(1, Collections.<Class<?>>singletonList(Integer.class), types);
+        verifyNoMoreInteractions(batchListener);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testBatchedBatchStrategyBisectsFailedBatch() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener batchListener = mock(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.class);
+        UnmodifiableClassException exception = new UnmodifiableClassException();
+        doThrow(exception).when(instrumentation).retransformClasses(Object.class, String.class, Integer.class);
+        doThrow(exception).when(instrumentation).retransformClasses(String.class, Integer.class);
+        doThrow(exception).when(instrumentation).retransformClasses(String.class);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class, Integer.class);
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(3, 0, TimeUnit.MILLISECONDS, batchListener).apply(instrumentation, types, listener);
+        verify(instrumentation).retransformClasses(Object.class, String.class, Integer.class);
+        verify(instrumentation).retransformClasses(Object.class);
+        verify(instrumentation).retransformClasses(String.class, Integer.class);
+        verify(instrumentation).retransformClasses(String.class);
+        verify(instrumentation).retransformClasses(Integer.class);
+        verifyNoMoreInteractions(instrumentation);
+        verify(batchListener).onBatch(0, types, types);
+        verify(batchListener).onError(0, types, exception);
+        verify(batchListener).onError(0, Arrays.<Class<?>>asList(String.class, Integer.class), exception);
+        verify(batchListener).onError(0, Collections.<Class<?>>singletonList(String.class), exception);
+        verifyNoMoreInteractions(batchListener);
+        verify(listener).onError(String.class.getName(), exception);
+        verify(listener).onComplete(String.class.getName());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testBatchedBatchStrategyBisectsLinkageError() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener batchListener = mock(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.class);
+        VerifyError error = new VerifyError();
+        doThrow(error).when(instrumentation).retransformClasses(Object.class, String.class);
+        doThrow(error).when(instrumentation).retransformClasses(Object.class);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class);
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(2, 0, TimeUnit.MILLISECONDS, batchListener).apply(instrumentation, types, listener);
+        verify(instrumentation).retransformClasses(Object.class, String.class);
+        verify(instrumentation).retransformClasses(Object.class);
+        verify(instrumentation).retransformClasses(String.class);
+        verifyNoMoreInteractions(instrumentation);
+        verify(listener).onError(Object.class.getName(), error);
+        verify(listener).onComplete(Object.class.getName());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testBatchedBatchStrategyPropagatesUnexpectedError() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener batchListener = mock(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.class);
+        OutOfMemoryError error = new OutOfMemoryError();
+        doThrow(error).when(instrumentation).retransformClasses(Object.class, String.class);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class, Integer.class);
+        try {
+            new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(2, 0, TimeUnit.MILLISECONDS, batchListener).apply(instrumentation, types, listener);
+            fail();
+        } catch (OutOfMemoryError exception) {
+            assertThat(exception, sameInstance(error));
+        }
+        verify(instrumentation).retransformClasses(Object.class, String.class);
+        verifyNoMoreInteractions(instrumentation);
+        verify(batchListener).onBatch(0, Arrays.<Class<?>>asList(Object.class, String.class), types);
+        verifyNoMoreInteractions(batchListener);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testBatchedBatchStrategyIgnoresListenerExceptions() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        AgentBuilder.Listener listener = mock(AgentBuilder.Listener.class);
+        AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener batchListener = mock(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.class);
+        UnmodifiableClassException exception = new UnmodifiableClassException();
+        doThrow(exception).when(instrumentation).retransformClasses(Object.class);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class);
+        doThrow(new RuntimeException()).when(batchListener).onBatch(0, Collections.<Class<?>>singletonList(Object.class), types);
+        doThrow(new RuntimeException()).when(batchListener).onError(0, Collections.<Class<?>>singletonList(Object.class), exception);
+        doThrow(new RuntimeException()).when(listener).onError(Object.class.getName(), exception);
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(1, 0, TimeUnit.MILLISECONDS, batchListener).apply(instrumentation, types, listener);
+        verify(instrumentation).retransformClasses(Object.class);
+        verify(instrumentation).retransformClasses(String.class);
+        verifyNoMoreInteractions(instrumentation);
+        verify(listener).onError(Object.class.getName(), exception);
+        verify(listener).onComplete(Object.class.getName());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchedBatchStrategyIllegalBatchSize() throws Exception {
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchedBatchStrategyIllegalPause() throws Exception {
+        new AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched(1, -1, TimeUnit.MILLISECONDS, AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.NoOp.INSTANCE);
+    }
+
     @Test
     public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.BatchStrategy.Unbatched.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.BatchStrategy.Batched.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.BatchStrategy.Listener.NoOp.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Sequential.class).apply();
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel.class).apply();
+        final Iterator<Class<?>> types = Arrays.<Class<?>>asList(Object.class, String.class).iterator();
+        ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.MatchingStrategy.Parallel.Chunk.class).create(new ObjectPropertyAssertion.Creator<Class<?>>() {
+            @Override
+            public Class<?> create() {
+                return types.next();
+            }
+        }).apply();
         ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.class).apply();
         ObjectPropertyAssertion.of(AgentBuilder.RedefinitionStrategy.Collector.ForRedefinition.class).applyBasic();
         final Iterator<Class<?>> iterator = Arrays.<Class<?>>asList(Object.class, String.class).iterator();
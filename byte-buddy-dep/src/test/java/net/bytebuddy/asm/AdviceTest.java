@@ -9,8 +9,10 @@ import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import net.bytebuddy.implementation.bytecode.StackSize;
+import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.test.utility.ObjectPropertyAssertion;
 import org.junit.Test;
+import org.objectweb.asm.*;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
@@ -20,6 +22,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import static junit.framework.TestCase.fail;
+import static net.bytebuddy.matcher.ElementMatchers.isConstructor;
 import static net.bytebuddy.matcher.ElementMatchers.named;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -32,6 +35,8 @@ public class AdviceTest {
 
     private static final String ENTER = "enter", EXIT = "exit", INSIDE = "inside", THROWABLE = "throwable";
 
+    private static final String RETURNED = "returned", SLOT_SAMPLE = "net/bytebuddy/test/SlotSample";
+
     private static final int VALUE = 42;
 
     @Test
@@ -649,10 +654,151 @@ public class AdviceTest {
         }
     }
 
+    @Test
+    public void testFrameTranslation() throws Exception {
+        Class<?> type = new ByteBuddy()
+                .redefine(FrameSample.class)
+                .visit(Advice.to(FrameAdvice.class).on(named(FOO).or(named(BAR))))
+                .make()
+                .load(null, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO, long.class, String.class).invoke(type.newInstance(), 3L, FOO), is((Object) (FOO + FOO + FOO)));
+        assertThat(type.getDeclaredMethod(FOO, long.class, String.class).invoke(type.newInstance(), 0L, null), is((Object) BAR));
+        assertThat(type.getDeclaredMethod(BAR, double.class).invoke(null, 2d), is((Object) 4d));
+        assertThat(type.getDeclaredField(ENTER).get(null), is((Object) 3));
+        assertThat(type.getDeclaredField(EXIT).get(null), is((Object) 3));
+    }
+
+    @Test
+    public void testFrameTranslationVerified() throws Exception {
+        Class<?> type = new ByteBuddy()
+                .redefine(FrameSample.class)
+                .visit(new Java7ClassFileVersion())
+                .visit(Advice.to(FrameAdvice.class).on(named(FOO).or(named(BAR))))
+                .make()
+                .load(null, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO, long.class, String.class).invoke(type.newInstance(), 3L, FOO), is((Object) (FOO + FOO + FOO)));
+        assertThat(type.getDeclaredMethod(BAR, double.class).invoke(null, 2d), is((Object) 4d));
+    }
+
+    @Test
+    public void testConstructorAdvice() throws Exception {
+        Class<?> type = new ByteBuddy()
+                .redefine(ConstructorSample.class)
+                .visit(new Java7ClassFileVersion())
+                .visit(Advice.to(ConstructorAdvice.class).on(isConstructor()))
+                .make()
+                .load(null, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor(String.class).newInstance(FOO)), is((Object) FOO));
+        assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor(long.class).newInstance(42L)), is((Object) "42"));
+        assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor(boolean.class).newInstance(false)), is((Object) FOO));
+        assertThat(type.getDeclaredField(THROWABLE).get(null), nullValue(Object.class));
+        try {
+            type.getDeclaredConstructor(boolean.class).newInstance(true);
+            fail();
+        } catch (InvocationTargetException exception) {
+            assertThat(exception.getCause(), instanceOf(IllegalStateException.class));
+        }
+        assertThat(type.getDeclaredField(ENTER).get(null), is((Object) 7));
+        assertThat(type.getDeclaredField(EXIT).get(null), is((Object) 7));
+        assertThat(type.getDeclaredField(THROWABLE).get(null), instanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    public void testWideValuesWithExceptionHandler() throws Exception {
+        Class<?> type = new ByteBuddy()
+                .redefine(WideSample.class)
+                .visit(new Java7ClassFileVersion())
+                .visit(Advice.to(WideLongAdvice.class).on(named(FOO).or(named(QUX))))
+                .visit(Advice.to(WideDoubleAdvice.class).on(named(BAR)))
+                .make()
+                .load(null, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO, long.class).invoke(type.newInstance(), 21L), is((Object) 42L));
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 42d));
+        try {
+            type.getDeclaredMethod(FOO, long.class).invoke(type.newInstance(), -1L);
+            fail();
+        } catch (InvocationTargetException exception) {
+            assertThat(exception.getCause(), instanceOf(IllegalArgumentException.class));
+        }
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 0d));
+        assertThat(type.getDeclaredField(THROWABLE).get(null), instanceOf(IllegalArgumentException.class));
+        assertThat(type.getDeclaredMethod(BAR, double.class, long.class).invoke(null, 1d, 2L), is((Object) 3d));
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 3d));
+        assertThat(type.getDeclaredMethod(QUX, long.class).invoke(null, 0L), is((Object) 42L));
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 42d));
+        assertThat(type.getDeclaredField(ENTER).get(null), is((Object) 4));
+        assertThat(type.getDeclaredField(EXIT).get(null), is((Object) 4));
+    }
+
+    @Test
+    public void testSuppressedWideValues() throws Exception {
+        Class<?> type = new ByteBuddy()
+                .redefine(WideSample.class)
+                .visit(new Java7ClassFileVersion())
+                .visit(Advice.to(WideSuppressingAdvice.class).on(named(FOO).or(named(QUX))))
+                .make()
+                .load(null, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO, long.class).invoke(type.newInstance(), 21L), is((Object) 42L));
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 0d));
+        assertThat(type.getDeclaredMethod(QUX, long.class).invoke(null, 0L), is((Object) 42L));
+        assertThat(type.getDeclaredField(RETURNED).get(null), is((Object) 0d));
+        assertThat(type.getDeclaredField(ENTER).get(null), is((Object) 2));
+        assertThat(type.getDeclaredField(EXIT).get(null), is((Object) 2));
+    }
+
+    @Test
+    public void testReusedParameterSlot() throws Exception {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_7, Opcodes.ACC_PUBLIC, SLOT_SAMPLE, null, Type.getInternalName(Object.class), null);
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, FOO, "(Ljava/lang/Object;)I", null, null);
+        methodVisitor.visitCode();
+        Label label = new Label();
+        methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+        methodVisitor.visitJumpInsn(Opcodes.IFNONNULL, label);
+        methodVisitor.visitTypeInsn(Opcodes.NEW, Type.getInternalName(IllegalArgumentException.class));
+        methodVisitor.visitInsn(Opcodes.DUP);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(IllegalArgumentException.class), MethodDescription.CONSTRUCTOR_INTERNAL_NAME, "()V", false);
+        methodVisitor.visitInsn(Opcodes.ATHROW);
+        methodVisitor.visitLabel(label);
+        methodVisitor.visitInsn(Opcodes.ICONST_1);
+        methodVisitor.visitVarInsn(Opcodes.ISTORE, 0);
+        methodVisitor.visitVarInsn(Opcodes.ILOAD, 0);
+        methodVisitor.visitInsn(Opcodes.IRETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound(ClassFileLocator.Simple.of(SLOT_SAMPLE.replace('/', '.'), classWriter.toByteArray()),
+                ClassFileLocator.ForClassLoader.ofClassPath());
+        Class<?> type = new ByteBuddy()
+                .redefine(TypePool.Default.of(classFileLocator).describe(SLOT_SAMPLE.replace('/', '.')).resolve(), classFileLocator)
+                .visit(Advice.to(TrivialAdvice.class).on(named(FOO)))
+                .make()
+                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        assertThat(type.getDeclaredMethod(FOO, Object.class).invoke(null, FOO), is((Object) 1));
+        try {
+            type.getDeclaredMethod(FOO, Object.class).invoke(null, (Object) null);
+            fail();
+        } catch (InvocationTargetException exception) {
+            assertThat(exception.getCause(), instanceOf(IllegalArgumentException.class));
+        }
+    }
+
+    @Test
+    public void testFrameTranslationRequiresMaximumsOnly() throws Exception {
+        assertThat(Advice.to(TrivialAdvice.class).on(named(FOO)).mergeWriter(0), is(ClassWriter.COMPUTE_MAXS));
+    }
+
     @Test
     public void testObjectProperties() throws Exception {
         ObjectPropertyAssertion.of(Advice.class).apply();
         ObjectPropertyAssertion.of(Advice.AdviceVisitor.CodeCopier.class).applyBasic();
+        ObjectPropertyAssertion.of(Advice.AdviceVisitor.FrameDeferringVisitor.class).applyBasic();
         ObjectPropertyAssertion.of(Advice.Dispatcher.Inactive.class).apply();
         ObjectPropertyAssertion.of(Advice.Dispatcher.Active.Resolved.OffsetMapping.Target.ForReadOnlyParameter.class).apply();
         ObjectPropertyAssertion.of(Advice.Dispatcher.Active.Resolved.OffsetMapping.Target.ForParameter.class).apply();
@@ -754,6 +900,211 @@ public class AdviceTest {
         }
     }
 
+    @SuppressWarnings("unused")
+    public static class FrameSample {
+
+        public static int enter, exit;
+
+        public String foo(long value, String argument) {
+            StringBuilder stringBuilder = new StringBuilder();
+            do {
+                if (argument == null) {
+                    return BAR;
+                }
+                stringBuilder.append(argument);
+            } while (--value > 0);
+            return stringBuilder.toString();
+        }
+
+        public static double bar(double value) {
+            for (int index = 0; index < 2; index++) {
+                if (index > 0) {
+                    value = value * 2;
+                }
+            }
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class FrameAdvice {
+
+        @Advice.OnMethodEnter(suppress = RuntimeException.class)
+        private static long enter() {
+            long value = 0;
+            for (int index = 0; index < VALUE; index++) {
+                if (index % 2 == 0) {
+                    value += index;
+                }
+            }
+            FrameSample.enter++;
+            return value;
+        }
+
+        @Advice.OnMethodExit(suppress = RuntimeException.class)
+        private static void exit(@Advice.Enter long enter, @Advice.Thrown Throwable throwable) {
+            String value = enter > 0 ? FOO : null;
+            if (value == null || throwable != null) {
+                throw new AssertionError();
+            }
+            FrameSample.exit++;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class ConstructorSample {
+
+        public static int enter, exit;
+
+        public static Throwable throwable;
+
+        private final String value;
+
+        public ConstructorSample(String value) {
+            super();
+            this.value = value;
+        }
+
+        public ConstructorSample(long value) {
+            this(new StringBuilder().append(value).toString());
+        }
+
+        public ConstructorSample(boolean fail) {
+            this(fail ? BAR : FOO);
+            if (fail) {
+                throw new IllegalStateException();
+            }
+        }
+
+        public String foo() {
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class ConstructorAdvice {
+
+        @Advice.OnMethodEnter
+        private static void enter() {
+            ConstructorSample.enter++;
+        }
+
+        @Advice.OnMethodExit
+        private static void exit(@Advice.This ConstructorSample self, @Advice.Thrown Throwable throwable) {
+            if (throwable == null && self.foo() == null) {
+                throw new AssertionError();
+            }
+            ConstructorSample.throwable = throwable;
+            ConstructorSample.exit++;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class WideSample {
+
+        public static int enter, exit;
+
+        public static double returned;
+
+        public static Throwable throwable;
+
+        public long foo(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException();
+            }
+            return value * 2;
+        }
+
+        public static double bar(double value, long other) {
+            return value + other;
+        }
+
+        public static long qux(long value) {
+            while (value < VALUE) {
+                value += 3;
+            }
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class WideLongAdvice {
+
+        @Advice.OnMethodEnter
+        private static double enter(@Advice.Argument(0) long value) {
+            WideSample.enter++;
+            return value;
+        }
+
+        @Advice.OnMethodExit
+        private static void exit(@Advice.Enter double enter, @Advice.Return long value, @Advice.Thrown Throwable throwable) {
+            WideSample.returned = value;
+            WideSample.throwable = throwable;
+            WideSample.exit++;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class WideDoubleAdvice {
+
+        @Advice.OnMethodEnter
+        private static long enter(@Advice.Argument(1) long value) {
+            WideSample.enter++;
+            return value;
+        }
+
+        @Advice.OnMethodExit
+        private static void exit(@Advice.Enter long enter, @Advice.Return double value, @Advice.Argument(0) double argument) {
+            WideSample.returned = value;
+            WideSample.exit++;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class WideSuppressingAdvice {
+
+        @Advice.OnMethodEnter(suppress = RuntimeException.class)
+        private static double enter(@Advice.Argument(0) long value) {
+            WideSample.enter++;
+            if (value > 0) {
+                throw new RuntimeException();
+            }
+            return value;
+        }
+
+        @Advice.OnMethodExit(suppress = RuntimeException.class)
+        private static void exit(@Advice.Enter double enter, @Advice.Return long value) {
+            WideSample.returned = enter;
+            WideSample.exit++;
+            if (value > 0) {
+                throw new RuntimeException();
+            }
+        }
+    }
+
+    private static class Java7ClassFileVersion implements AsmVisitorWrapper {
+
+        @Override
+        public int mergeWriter(int flags) {
+            return flags;
+        }
+
+        @Override
+        public int mergeReader(int flags) {
+            return flags;
+        }
+
+        @Override
+        public ClassVisitor wrap(TypeDescription instrumentedType, ClassVisitor classVisitor) {
+            return new ClassVisitor(Opcodes.ASM5, classVisitor) {
+                @Override
+                public void visit(int version, int modifiers, String name, String signature, String superName, String[] interfaceName) {
+                    super.visit(Opcodes.V1_7, modifiers, name, signature, superName, interfaceName);
+                }
+            };
+        }
+    }
+
     public abstract static class AbstractMethod {
 
         public abstract void foo();
@@ -0,0 +1,467 @@
+package net.bytebuddy.build;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.test.utility.ClassFileExtraction;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import net.bytebuddy.utility.RandomString;
+import net.bytebuddy.utility.StreamDrainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.*;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class PluginEngineTest {
+
+    private static final String FOO = "foo", BAR = "bar", TEMP = "tmp", CLASS_FILE_EXTENSION = ".class";
+
+    private static final String RESOURCE = "foo/resource.txt";
+
+    private static final String MISSING_SUB_TYPE = "foo/Sub", MISSING_SUPER_TYPE = "foo/Missing", MISSING_INTERFACE = "foo/MissingInterface";
+
+    private static final byte[] BINARY_RESOURCE = new byte[]{1, 2, 3};
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private AgentBuilder.Listener listener;
+
+    private File source, target;
+
+    private byte[] binaryFoo, binaryBar;
+
+    @Before
+    public void setUp() throws Exception {
+        binaryFoo = ClassFileExtraction.extract(Foo.class);
+        binaryBar = ClassFileExtraction.extract(Bar.class);
+        source = makeTemporaryFolder();
+        target = makeTemporaryFolder();
+        write(new File(source, Foo.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION), binaryFoo);
+        write(new File(source, Bar.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION), binaryBar);
+        write(new File(source, RESOURCE.replace('/', File.separatorChar)), BINARY_RESOURCE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(source);
+        delete(target);
+    }
+
+    @Test
+    public void testFolder() throws Exception {
+        Plugin.Engine.Summary summary = new Plugin.Engine().with(new FieldPlugin()).with(listener).apply(source, target);
+        assertThat(summary.getTransformed().size(), is(1));
+        assertThat(summary.getTransformed().get(0).getName(), is(Foo.class.getName()));
+        assertThat(summary.getIgnored().size(), is(1));
+        assertThat(summary.getIgnored().get(0).getName(), is(Bar.class.getName()));
+        assertThat(summary.getFailed().size(), is(0));
+        assertThat(summary.getDuration(TimeUnit.NANOSECONDS) > 0L, is(true));
+        assertThat(summary.getThroughput() > 0d, is(true));
+        assertTransformed(new ClassFileLocator.ForFolder(target));
+        assertThat(Arrays.equals(read(new File(target, Bar.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION)), binaryBar), is(true));
+        assertThat(Arrays.equals(read(new File(target, RESOURCE.replace('/', File.separatorChar))), BINARY_RESOURCE), is(true));
+        verify(listener).onTransformation(any(TypeDescription.class), any(DynamicType.class));
+        verify(listener).onIgnored(any(TypeDescription.class));
+        verify(listener).onComplete(Foo.class.getName());
+        verify(listener).onComplete(Bar.class.getName());
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testFolderInPlace() throws Exception {
+        Plugin.Engine.Summary summary = new Plugin.Engine().with(new FieldPlugin()).apply(source, source);
+        assertThat(summary.getTransformed().size(), is(1));
+        assertTransformed(new ClassFileLocator.ForFolder(source));
+    }
+
+    @Test
+    public void testJarFileConcurrent() throws Exception {
+        File sourceJar = File.createTempFile(FOO, TEMP), targetJar = File.createTempFile(BAR, TEMP);
+        try {
+            Manifest manifest = makeJarFile(sourceJar);
+            ExecutorService executorService = Executors.newFixedThreadPool(2);
+            Plugin.Engine.Summary summary;
+            try {
+                summary = new Plugin.Engine().with(new FieldPlugin()).with(executorService).apply(sourceJar, targetJar);
+            } finally {
+                executorService.shutdown();
+            }
+            assertThat(summary.getTransformed().size(), is(1));
+            assertThat(summary.getIgnored().size(), is(1));
+            JarFile jarFile = new JarFile(targetJar);
+            try {
+                assertThat(jarFile.getManifest(), is(manifest));
+                assertTransformed(new ClassFileLocator.ForJarFile(jarFile));
+                InputStream inputStream = jarFile.getInputStream(jarFile.getEntry(RESOURCE));
+                try {
+                    assertThat(Arrays.equals(StreamDrainer.DEFAULT.drain(inputStream), BINARY_RESOURCE), is(true));
+                } finally {
+                    inputStream.close();
+                }
+            } finally {
+                jarFile.close();
+            }
+        } finally {
+            assertThat(sourceJar.delete(), is(true));
+            assertThat(targetJar.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalRetainsUnchangedTypes() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            Plugin.Engine engine = new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index));
+            Plugin.Engine.Summary summary = engine.apply(source, target);
+            assertThat(summary.getTransformed().size(), is(1));
+            assertThat(summary.getIgnored().size(), is(1));
+            assertThat(summary.getRetained().size(), is(0));
+            summary = engine.with(listener).apply(source, target);
+            assertThat(summary.getTransformed().size(), is(0));
+            assertThat(summary.getIgnored().size(), is(0));
+            assertThat(summary.getRetained(), is(Arrays.asList(Bar.class.getName(), Foo.class.getName())));
+            assertTransformed(new ClassFileLocator.ForFolder(target));
+            verifyZeroInteractions(listener);
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalInPlace() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            Plugin.Engine engine = new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index));
+            assertThat(engine.apply(source, source).getTransformed().size(), is(1));
+            Plugin.Engine.Summary summary = engine.apply(source, source);
+            assertThat(summary.getTransformed().size(), is(0));
+            assertThat(summary.getRetained().size(), is(2));
+            assertTransformed(new ClassFileLocator.ForFolder(source));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalTransformsChangedTypesAndDependents() throws Exception {
+        write(new File(source, Qux.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION), ClassFileExtraction.extract(Qux.class));
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            Plugin.Engine engine = new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index));
+            assertThat(engine.apply(source, target).getIgnored().size(), is(2));
+            write(new File(source, Bar.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION), new ByteBuddy()
+                    .redefine(Bar.class)
+                    .defineField(BAR, Object.class, Visibility.PUBLIC)
+                    .make()
+                    .getBytes());
+            Plugin.Engine.Summary summary = engine.apply(source, target);
+            assertThat(summary.getRetained(), is(Collections.singletonList(Foo.class.getName())));
+            assertThat(summary.getIgnored().size(), is(2));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalConsidersVersion() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            assertThat(new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index)).apply(source, target).getTransformed().size(), is(1));
+            Plugin.Engine.Summary summary = new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index, BAR)).apply(source, target);
+            assertThat(summary.getTransformed().size(), is(1));
+            assertThat(summary.getRetained().size(), is(0));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalFingerprintIsStable() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            assertThat(new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index)).apply(source, target).getTransformed().size(), is(1));
+            for (int count = 0; count < 100; count++) {
+                System.identityHashCode(new Object());
+            }
+            Plugin.Engine.Summary summary = new Plugin.Engine(new ByteBuddy())
+                    .with(new FieldPlugin())
+                    .with(new Plugin.Engine.Index.ForFile(index))
+                    .apply(source, target);
+            assertThat(summary.getTransformed().size(), is(0));
+            assertThat(summary.getRetained().size(), is(2));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalConsidersTypeStrategy() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            assertThat(new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index)).apply(source, target).getTransformed().size(), is(1));
+            Plugin.Engine.Summary summary = new Plugin.Engine()
+                    .with(new FieldPlugin())
+                    .with(AgentBuilder.TypeStrategy.Default.REDEFINE)
+                    .with(new Plugin.Engine.Index.ForFile(index))
+                    .apply(source, target);
+            assertThat(summary.getTransformed().size(), is(1));
+            assertThat(summary.getRetained().size(), is(0));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalConsidersClassFileLocator() throws Exception {
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            assertThat(new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index)).apply(source, target).getTransformed().size(), is(1));
+            Plugin.Engine.Summary summary = new Plugin.Engine()
+                    .with(new FieldPlugin())
+                    .with(new ClassFileLocator.Compound(ClassFileLocator.ForClassLoader.ofClassPath()))
+                    .with(new Plugin.Engine.Index.ForFile(index))
+                    .apply(source, target);
+            assertThat(summary.getTransformed().size(), is(1));
+            assertThat(summary.getRetained().size(), is(0));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testUnresolvableSuperTypeIsIgnored() throws Exception {
+        write(new File(source, MISSING_SUB_TYPE + CLASS_FILE_EXTENSION), makeMissingSubType());
+        Plugin.Engine.Summary summary = new Plugin.Engine()
+                .with(new FieldPlugin())
+                .apply(source, target);
+        assertThat(summary.getFailed().size(), is(0));
+        assertThat(summary.getIgnored().size(), is(2));
+        assertThat(summary.getIgnored().contains(new TypeDescription.ForLoadedType(Bar.class)), is(true));
+    }
+
+    @Test
+    public void testIncrementalUnresolvableSuperTypeIsIgnored() throws Exception {
+        write(new File(source, MISSING_SUB_TYPE + CLASS_FILE_EXTENSION), makeMissingSubType());
+        File index = File.createTempFile(FOO, TEMP);
+        try {
+            Plugin.Engine.Summary summary = new Plugin.Engine()
+                    .with(new FieldPlugin())
+                    .with(new Plugin.Engine.Index.ForFile(index))
+                    .apply(source, target);
+            assertThat(summary.getFailed().size(), is(0));
+            assertThat(summary.getIgnored().size(), is(2));
+            assertThat(summary.getIgnored().contains(new TypeDescription.ForLoadedType(Bar.class)), is(true));
+        } finally {
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testIncrementalJarFile() throws Exception {
+        File sourceJar = File.createTempFile(FOO, TEMP), targetJar = File.createTempFile(BAR, TEMP), index = File.createTempFile(FOO, TEMP);
+        try {
+            makeJarFile(sourceJar);
+            Plugin.Engine engine = new Plugin.Engine().with(new FieldPlugin()).with(new Plugin.Engine.Index.ForFile(index));
+            assertThat(engine.apply(sourceJar, targetJar).getTransformed().size(), is(1));
+            Plugin.Engine.Summary summary = engine.apply(sourceJar, targetJar);
+            assertThat(summary.getTransformed().size(), is(0));
+            assertThat(summary.getRetained().size(), is(2));
+            JarFile jarFile = new JarFile(targetJar);
+            try {
+                assertTransformed(new ClassFileLocator.ForJarFile(jarFile));
+            } finally {
+                jarFile.close();
+            }
+        } finally {
+            assertThat(sourceJar.delete(), is(true));
+            assertThat(targetJar.delete(), is(true));
+            assertThat(index.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testErrorRetainsClassFile() throws Exception {
+        RuntimeException exception = new RuntimeException();
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.matches(any(TypeDescription.class))).thenReturn(true);
+        when(plugin.apply(any(DynamicType.Builder.class), any(TypeDescription.class))).thenThrow(exception);
+        Plugin.Engine.Summary summary = new Plugin.Engine().with(plugin).with(listener).apply(source, target);
+        assertThat(summary.getTransformed().size(), is(0));
+        assertThat(summary.getIgnored().size(), is(0));
+        assertThat(summary.getFailed().size(), is(2));
+        assertThat(summary.getFailed().get(Foo.class.getName()), is((Throwable) exception));
+        assertThat(Arrays.equals(read(new File(target, Foo.class.getName().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION)), binaryFoo), is(true));
+        verify(listener).onError(Foo.class.getName(), exception);
+        verify(listener).onError(Bar.class.getName(), exception);
+    }
+
+    @Test
+    public void testFailedJarFileRetainsTarget() throws Exception {
+        File targetJar = File.createTempFile(BAR, TEMP);
+        try {
+            File folder = targetJar.getAbsoluteFile().getParentFile();
+            int files = folder.list().length;
+            Plugin.Engine.Source source = mock(Plugin.Engine.Source.class);
+            Plugin.Engine.Source.Origin origin = mock(Plugin.Engine.Source.Origin.class);
+            when(source.read()).thenReturn(origin);
+            when(origin.getClassFileLocator()).thenReturn(ClassFileLocator.NoOp.INSTANCE);
+            when(origin.next()).thenThrow(new IOException());
+            try {
+                new Plugin.Engine().apply(source, new Plugin.Engine.Target.ForJarFile(targetJar));
+            } catch (IOException ignored) {
+                assertThat(targetJar.length(), is(0L));
+                assertThat(folder.list().length, is(files));
+                verify(origin).close();
+                return;
+            }
+            throw new AssertionError();
+        } finally {
+            assertThat(targetJar.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testEngineRegistersPlugins() throws Exception {
+        Plugin first = mock(Plugin.class), second = mock(Plugin.class);
+        assertThat(new Plugin.Engine().with(first).with(second), is(new Plugin.Engine().with(first, second)));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(Plugin.Engine.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Summary.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Source.Element.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Source.ForFolder.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Source.ForJarFile.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Target.ForFolder.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Target.ForFolder.Storage.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Target.ForJarFile.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Index.Disabled.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Index.ForFile.class).apply();
+        ObjectPropertyAssertion.of(Plugin.Engine.Index.Entry.class).apply();
+    }
+
+    private static void assertTransformed(ClassFileLocator classFileLocator) {
+        TypeDescription typeDescription = new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                classFileLocator,
+                TypePool.Default.ReaderMode.FAST).describe(Foo.class.getName()).resolve();
+        assertThat(typeDescription.getDeclaredFields().filter(named(FOO)).size(), is(1));
+    }
+
+    private Manifest makeJarFile(File file) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, BAR);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file), manifest);
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(Foo.class.getName().replace('.', '/') + CLASS_FILE_EXTENSION));
+            jarOutputStream.write(binaryFoo);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(Bar.class.getName().replace('.', '/') + CLASS_FILE_EXTENSION));
+            jarOutputStream.write(binaryBar);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(RESOURCE));
+            jarOutputStream.write(BINARY_RESOURCE);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        return manifest;
+    }
+
+    private static byte[] makeMissingSubType() {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, MISSING_SUB_TYPE, null, MISSING_SUPER_TYPE, new String[]{MISSING_INTERFACE, Type.getInternalName(Serializable.class)});
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    private static File makeTemporaryFolder() throws IOException {
+        File file = File.createTempFile(TEMP, TEMP);
+        try {
+            File folder = new File(file.getParentFile(), TEMP + RandomString.make());
+            assertThat(folder.mkdir(), is(true));
+            return folder;
+        } finally {
+            assertThat(file.delete(), is(true));
+        }
+    }
+
+    private static void write(File file, byte[] binaryRepresentation) throws IOException {
+        assertThat(file.getParentFile().isDirectory() || file.getParentFile().mkdirs(), is(true));
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(binaryRepresentation);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static byte[] read(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            return StreamDrainer.DEFAULT.drain(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        assertThat(file.delete(), is(true));
+    }
+
+    private static class FieldPlugin implements Plugin {
+
+        @Override
+        public boolean matches(TypeDescription target) {
+            return target.getName().equals(Foo.class.getName());
+        }
+
+        @Override
+        public DynamicType.Builder<?> apply(DynamicType.Builder<?> builder, TypeDescription typeDescription) {
+            return builder.defineField(FOO, Object.class, Visibility.PUBLIC);
+        }
+    }
+
+    public static class Foo {
+        /* empty */
+    }
+
+    public static class Bar {
+        /* empty */
+    }
+
+    public static class Qux extends Bar {
+        /* empty */
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.MethodRule;
 
+import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -19,11 +20,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 public class ClassFileLocatorAgentBasedTest {
 
@@ -71,6 +74,51 @@ public class ClassFileLocatorAgentBasedTest {
         assertThat(resolution.resolve(), notNullValue(byte[].class));
     }
 
+    @Test
+    @AgentAttachmentRule.Enforce(retransformsClasses = true)
+    public void testBulkExtraction() throws Exception {
+        assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
+        Map<Class<?>, ClassFileLocator.Resolution> resolutions = ClassFileLocator.AgentBased.extract(ByteBuddyAgent.getInstrumentation(),
+                Arrays.<Class<?>>asList(Foo.class, Bar.class));
+        assertThat(resolutions.size(), is(2));
+        assertThat(resolutions.get(Foo.class).isResolved(), is(true));
+        assertThat(resolutions.get(Foo.class).resolve(), notNullValue(byte[].class));
+        assertThat(resolutions.get(Bar.class).isResolved(), is(true));
+        assertThat(resolutions.get(Bar.class).resolve(), notNullValue(byte[].class));
+    }
+
+    @Test
+    public void testBulkExtractionEmpty() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        assertThat(ClassFileLocator.AgentBased.extract(instrumentation, Collections.<Class<?>>emptyList()).isEmpty(), is(true));
+        verifyZeroInteractions(instrumentation);
+    }
+
+    @Test
+    public void testBulkExtractionNotExtracted() throws Exception {
+        Instrumentation instrumentation = mock(Instrumentation.class);
+        Map<Class<?>, ClassFileLocator.Resolution> resolutions = ClassFileLocator.AgentBased.extract(instrumentation,
+                Collections.<Class<?>>singletonList(Foo.class));
+        assertThat(resolutions.get(Foo.class).isResolved(), is(false));
+        verify(instrumentation).addTransformer(any(ClassFileTransformer.class), eq(true));
+        verify(instrumentation).retransformClasses(Foo.class);
+        verify(instrumentation).removeTransformer(any(ClassFileTransformer.class));
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testBulkExtractingTransformer() throws Exception {
+        ClassFileTransformer classFileTransformer = new ClassFileLocator.AgentBased.BulkExtractionClassFileTransformer(Collections.<Class<?>>singletonList(Foo.class));
+        byte[] binaryRepresentation = new byte[0];
+        assertThat(classFileTransformer.transform(null, null, null, null, new byte[0]), nullValue(byte[].class));
+        assertThat(classFileTransformer.transform(null, null, Bar.class, null, new byte[0]), nullValue(byte[].class));
+        assertThat(classFileTransformer.transform(null, null, Foo.class, null, binaryRepresentation), nullValue(byte[].class));
+        assertThat(((ClassFileLocator.AgentBased.BulkExtractionClassFileTransformer) classFileTransformer).getBinaryRepresentation(Foo.class),
+                is(binaryRepresentation));
+        assertThat(((ClassFileLocator.AgentBased.BulkExtractionClassFileTransformer) classFileTransformer).getBinaryRepresentation(Bar.class),
+                nullValue(byte[].class));
+    }
+
     @Test
     public void testExplicitLookupBootstrapClassLoader() throws Exception {
         ClassFileLocator.AgentBased.ClassLoadingDelegate classLoadingDelegate = ClassFileLocator.AgentBased.ClassLoadingDelegate.Explicit.of(Object.class);
@@ -130,6 +178,12 @@ public class ClassFileLocatorAgentBasedTest {
             }
         }).apply();
         ObjectPropertyAssertion.of(ClassFileLocator.AgentBased.ExtractionClassFileTransformer.class).applyBasic();
+        ObjectPropertyAssertion.of(ClassFileLocator.AgentBased.BulkExtractionClassFileTransformer.class).create(new ObjectPropertyAssertion.Creator<Collection<Class<?>>>() {
+            @Override
+            public Collection<Class<?>> create() {
+                return Collections.<Class<?>>singletonList(Foo.class);
+            }
+        }).applyBasic();
     }
 
 
@@ -145,4 +199,8 @@ public class ClassFileLocatorAgentBasedTest {
         void bar() {
         }
     }
+
+    private static class Bar {
+        /* empty */
+    }
 }
@@ -0,0 +1,126 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ClassFileLocatorCachingTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    private static final byte[] BINARY_REPRESENTATION = new byte[]{1, 2, 3};
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private ClassFileLocator classFileLocator;
+
+    @Test
+    public void testLegalResolutionIsCached() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        for (ClassFileLocator.Caching.Storage storage : ClassFileLocator.Caching.Storage.values()) {
+            ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator, ClassFileLocator.Caching.DEFAULT_BUDGET, storage, true);
+            assertThat(caching.locate(FOO).resolve(), is(BINARY_REPRESENTATION));
+            assertThat(caching.locate(FOO).resolve(), is(BINARY_REPRESENTATION));
+            assertThat(caching.getSize(), is((long) BINARY_REPRESENTATION.length + ClassFileLocator.Caching.ENTRY_OVERHEAD));
+        }
+        verify(classFileLocator, times(ClassFileLocator.Caching.Storage.values().length)).locate(FOO);
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testIllegalResolutionIsCached() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(ClassFileLocator.Resolution.Illegal.INSTANCE);
+        ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator);
+        assertThat(caching.locate(FOO).isResolved(), is(false));
+        assertThat(caching.locate(FOO).isResolved(), is(false));
+        verify(classFileLocator).locate(FOO);
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testIllegalResolutionIsNotCached() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(ClassFileLocator.Resolution.Illegal.INSTANCE);
+        ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator,
+                ClassFileLocator.Caching.DEFAULT_BUDGET,
+                ClassFileLocator.Caching.Storage.ON_HEAP,
+                false);
+        assertThat(caching.locate(FOO).isResolved(), is(false));
+        assertThat(caching.locate(FOO).isResolved(), is(false));
+        verify(classFileLocator, times(2)).locate(FOO);
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testBudgetEvictsLeastRecentlyUsed() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        when(classFileLocator.locate(BAR)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        when(classFileLocator.locate(QUX)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator,
+                2 * (BINARY_REPRESENTATION.length + ClassFileLocator.Caching.ENTRY_OVERHEAD),
+                ClassFileLocator.Caching.Storage.ON_HEAP,
+                true);
+        caching.locate(FOO);
+        caching.locate(BAR);
+        caching.locate(FOO);
+        caching.locate(QUX);
+        caching.locate(FOO);
+        caching.locate(QUX);
+        caching.locate(BAR);
+        verify(classFileLocator).locate(FOO);
+        verify(classFileLocator, times(2)).locate(BAR);
+        verify(classFileLocator).locate(QUX);
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testExceedingResolutionIsNotCached() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator, 1L, ClassFileLocator.Caching.Storage.ON_HEAP, true);
+        assertThat(caching.locate(FOO).resolve(), is(BINARY_REPRESENTATION));
+        assertThat(caching.locate(FOO).resolve(), is(BINARY_REPRESENTATION));
+        assertThat(caching.getSize(), is(0L));
+        verify(classFileLocator, times(2)).locate(FOO);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Explicit(BINARY_REPRESENTATION));
+        ClassFileLocator.Caching caching = new ClassFileLocator.Caching(classFileLocator);
+        caching.locate(FOO);
+        caching.clear();
+        assertThat(caching.getSize(), is(0L));
+        caching.locate(FOO);
+        verify(classFileLocator, times(2)).locate(FOO);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveBudget() throws Exception {
+        new ClassFileLocator.Caching(classFileLocator, 0L, ClassFileLocator.Caching.Storage.ON_HEAP, true);
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(ClassFileLocator.Caching.class).apply();
+        ObjectPropertyAssertion.of(ClassFileLocator.Caching.Storage.class).apply();
+        ObjectPropertyAssertion.of(ClassFileLocator.Caching.Storage.Entry.Illegal.class).apply();
+        ObjectPropertyAssertion.of(ClassFileLocator.Caching.Storage.Entry.OnHeap.class).apply();
+        ObjectPropertyAssertion.of(ClassFileLocator.Caching.Storage.Entry.OffHeap.class).create(new ObjectPropertyAssertion.Creator<ByteBuffer>() {
+            @Override
+            public ByteBuffer create() {
+                return (ByteBuffer) ByteBuffer.allocate(4).putInt(new Random().nextInt()).flip();
+            }
+        }).apply();
+    }
+}
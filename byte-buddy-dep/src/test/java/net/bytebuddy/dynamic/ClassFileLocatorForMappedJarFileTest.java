@@ -0,0 +1,146 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClassFileLocatorForMappedJarFileTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    private static final int VALUE = 42;
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertThat(file.delete(), is(true));
+    }
+
+    @Test
+    public void testSuccessfulLocationDeflated() throws Exception {
+        byte[] binaryRepresentation = new byte[1024];
+        for (int index = 0; index < binaryRepresentation.length; index++) {
+            binaryRepresentation[index] = (byte) (index % VALUE);
+        }
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + BAR + ".class"));
+            jarOutputStream.write(binaryRepresentation);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + QUX + ".class"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        ClassFileLocator classFileLocator = ClassFileLocator.ForMappedJarFile.of(file);
+        for (int index = 0; index < 2; index++) {
+            ClassFileLocator.Resolution resolution = classFileLocator.locate(FOO + "." + BAR);
+            assertThat(resolution.isResolved(), is(true));
+            assertThat(resolution.resolve(), is(binaryRepresentation));
+        }
+        assertThat(classFileLocator.locate(FOO + "." + QUX).resolve(), is(new byte[]{VALUE}));
+    }
+
+    @Test
+    public void testSuccessfulLocationStored() throws Exception {
+        byte[] binaryRepresentation = new byte[]{VALUE, VALUE * 2};
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            JarEntry jarEntry = new JarEntry(FOO + "/" + BAR + ".class");
+            jarEntry.setMethod(ZipEntry.STORED);
+            jarEntry.setSize(binaryRepresentation.length);
+            CRC32 crc32 = new CRC32();
+            crc32.update(binaryRepresentation);
+            jarEntry.setCrc(crc32.getValue());
+            jarOutputStream.putNextEntry(jarEntry);
+            jarOutputStream.write(binaryRepresentation);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        ClassFileLocator.Resolution resolution = ClassFileLocator.ForMappedJarFile.of(file).locate(FOO + "." + BAR);
+        assertThat(resolution.isResolved(), is(true));
+        assertThat(resolution.resolve(), is(binaryRepresentation));
+    }
+
+    @Test
+    public void testNonSuccessfulLocation() throws Exception {
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry("noop.class"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + BAR + ".txt"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        ClassFileLocator classFileLocator = ClassFileLocator.ForMappedJarFile.of(file);
+        assertThat(classFileLocator.locate(FOO + "." + BAR).isResolved(), is(false));
+        assertThat(classFileLocator.locate("noop").isResolved(), is(true));
+    }
+
+    @Test
+    public void testInflaterPoolIsBoundedAndReleasedOnClose() throws Exception {
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + BAR + ".class"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        ClassFileLocator.ForMappedJarFile classFileLocator = ClassFileLocator.ForMappedJarFile.of(file, 1);
+        assertThat(classFileLocator.toString(), containsString("<0 pooled>"));
+        for (int index = 0; index < 2; index++) {
+            assertThat(classFileLocator.locate(FOO + "." + BAR).resolve(), is(new byte[]{VALUE}));
+            assertThat(classFileLocator.toString(), containsString("<1 pooled>"));
+        }
+        classFileLocator.close();
+        assertThat(classFileLocator.toString(), containsString("<0 pooled>"));
+        assertThat(classFileLocator.locate(FOO + "." + BAR).resolve(), is(new byte[]{VALUE}));
+        assertThat(classFileLocator.toString(), containsString("<0 pooled>"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPoolSize() throws Exception {
+        ClassFileLocator.ForMappedJarFile.of(file, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testIllegalFile() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(new byte[64]);
+        } finally {
+            outputStream.close();
+        }
+        ClassFileLocator.ForMappedJarFile.of(file);
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(ClassFileLocator.ForMappedJarFile.class).applyBasic();
+    }
+}
@@ -0,0 +1,125 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import net.bytebuddy.utility.RandomString;
+import net.bytebuddy.utility.StreamDrainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+public class FolderWriterTest {
+
+    private static final String FOO = "foo", TEMP = "tmp", CLASS_FILE_EXTENSION = ".class";
+
+    private static final String FIRST = "foo/Bar", SECOND = "foo/Qux", THIRD = "baz/Foo";
+
+    private static final byte[] BINARY_FIRST = new byte[]{1, 2, 3}, BINARY_SECOND = new byte[]{4, 5, 6}, BINARY_THIRD = new byte[]{7, 8, 9};
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private DynamicType dynamicType, otherDynamicType;
+
+    @Mock
+    private TypeDescription typeDescription, auxiliaryTypeDescription, otherTypeDescription;
+
+    private File folder;
+
+    @Before
+    public void setUp() throws Exception {
+        when(typeDescription.getInternalName()).thenReturn(FIRST);
+        when(auxiliaryTypeDescription.getInternalName()).thenReturn(SECOND);
+        when(otherTypeDescription.getInternalName()).thenReturn(THIRD);
+        Map<TypeDescription, byte[]> allTypes = new HashMap<TypeDescription, byte[]>();
+        allTypes.put(typeDescription, BINARY_FIRST);
+        allTypes.put(auxiliaryTypeDescription, BINARY_SECOND);
+        when(dynamicType.getAllTypes()).thenReturn(allTypes);
+        when(otherDynamicType.getAllTypes()).thenReturn(Collections.singletonMap(otherTypeDescription, BINARY_THIRD));
+        File file = File.createTempFile(TEMP, TEMP);
+        try {
+            folder = new File(file.getParentFile(), TEMP + RandomString.make());
+        } finally {
+            assertThat(file.delete(), is(true));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(folder);
+    }
+
+    @Test
+    public void testSave() throws Exception {
+        Map<TypeDescription, File> files = new FolderWriter(folder).save(dynamicType, otherDynamicType);
+        assertThat(files.size(), is(3));
+        assertFile(files.get(typeDescription), FIRST, BINARY_FIRST);
+        assertFile(files.get(auxiliaryTypeDescription), SECOND, BINARY_SECOND);
+        assertFile(files.get(otherTypeDescription), THIRD, BINARY_THIRD);
+        assertThat(new File(folder, FOO).list().length, is(2));
+    }
+
+    @Test
+    public void testSaveConcurrent() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Map<TypeDescription, File> files;
+        try {
+            files = new FolderWriter(folder).with(executorService).save(dynamicType, otherDynamicType);
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(files.size(), is(3));
+        assertFile(files.get(typeDescription), FIRST, BINARY_FIRST);
+        assertFile(files.get(auxiliaryTypeDescription), SECOND, BINARY_SECOND);
+        assertFile(files.get(otherTypeDescription), THIRD, BINARY_THIRD);
+    }
+
+    @Test
+    public void testSaveReplacesExistingFile() throws Exception {
+        new FolderWriter(folder).save(otherDynamicType);
+        when(otherDynamicType.getAllTypes()).thenReturn(Collections.singletonMap(otherTypeDescription, BINARY_FIRST));
+        Map<TypeDescription, File> files = new FolderWriter(folder).save(otherDynamicType);
+        assertFile(files.get(otherTypeDescription), THIRD, BINARY_FIRST);
+        assertThat(files.get(otherTypeDescription).getParentFile().list().length, is(1));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(FolderWriter.class).apply();
+        ObjectPropertyAssertion.of(FolderWriter.WritingTask.class).apply();
+    }
+
+    private void assertFile(File file, String internalName, byte[] binaryRepresentation) throws IOException {
+        assertThat(file, is(new File(folder, internalName.replace('/', File.separatorChar) + CLASS_FILE_EXTENSION)));
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            assertThat(Arrays.equals(StreamDrainer.DEFAULT.drain(inputStream), binaryRepresentation), is(true));
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        assertThat(!file.exists() || file.delete(), is(true));
+    }
+}
@@ -0,0 +1,254 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.*;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JarRewriterTest {
+
+    private static final String FOO = "foo", BAR = "bar", TEMP = "tmp", CLASS_FILE_EXTENSION = ".class";
+
+    private static final String FIRST = "foo/Bar", SECOND = "foo/Qux", THIRD = "foo/Baz", RESOURCE = "foo/resource.txt";
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final byte[] BINARY_FIRST = new byte[]{1, 2, 3}, BINARY_SECOND = new byte[]{4, 5, 6}, BINARY_THIRD = new byte[]{7, 8, 9};
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private DynamicType dynamicType;
+
+    @Mock
+    private TypeDescription typeDescription, auxiliaryTypeDescription;
+
+    private Manifest manifest;
+
+    private File source, target;
+
+    @Before
+    public void setUp() throws Exception {
+        when(typeDescription.getInternalName()).thenReturn(FIRST);
+        when(auxiliaryTypeDescription.getInternalName()).thenReturn(THIRD);
+        when(dynamicType.getTypeDescription()).thenReturn(typeDescription);
+        when(dynamicType.getBytes()).thenReturn(BINARY_THIRD);
+        when(dynamicType.getAuxiliaryTypes()).thenReturn(Collections.singletonMap(auxiliaryTypeDescription, BINARY_FIRST));
+        manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, BAR);
+        source = File.createTempFile(FOO, TEMP);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(source), manifest);
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(FIRST + CLASS_FILE_EXTENSION));
+            jarOutputStream.write(BINARY_FIRST);
+            jarOutputStream.closeEntry();
+            JarEntry storedEntry = new JarEntry(SECOND + CLASS_FILE_EXTENSION);
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(BINARY_SECOND.length);
+            storedEntry.setCompressedSize(BINARY_SECOND.length);
+            CRC32 crc32 = new CRC32();
+            crc32.update(BINARY_SECOND);
+            storedEntry.setCrc(crc32.getValue());
+            jarOutputStream.putNextEntry(storedEntry);
+            jarOutputStream.write(BINARY_SECOND);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(RESOURCE));
+            jarOutputStream.write(BINARY_THIRD);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        target = File.createTempFile(BAR, TEMP);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertThat(source.delete(), is(true));
+        assertThat(!target.exists() || target.delete(), is(true));
+    }
+
+    @Test
+    public void testReplacement() throws Exception {
+        assertThat(JarRewriter.of(dynamicType).rewrite(source, target), is(target));
+        List<JarEntry> entries = assertJarFile(target, FIRST + CLASS_FILE_EXTENSION, BINARY_THIRD,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_SECOND,
+                RESOURCE, BINARY_THIRD,
+                THIRD + CLASS_FILE_EXTENSION, BINARY_FIRST);
+        assertThat(entries.get(1).getMethod(), is(ZipEntry.STORED));
+        assertThat(entries.get(0).getMethod(), is(ZipEntry.DEFLATED));
+    }
+
+    @Test
+    public void testTransformation() throws Exception {
+        JarRewriter.Transformation transformation = mock(JarRewriter.Transformation.class);
+        when(transformation.transform(FIRST.replace('/', '.'), BINARY_FIRST)).thenReturn(BINARY_SECOND);
+        when(transformation.transform(SECOND.replace('/', '.'), BINARY_SECOND)).thenReturn(BINARY_FIRST);
+        assertThat(new JarRewriter(transformation).rewrite(source, target), is(target));
+        List<JarEntry> entries = assertJarFile(target, FIRST + CLASS_FILE_EXTENSION, BINARY_SECOND,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_FIRST,
+                RESOURCE, BINARY_THIRD);
+        assertThat(entries.get(1).getMethod(), is(ZipEntry.STORED));
+        verify(transformation).transform(FIRST.replace('/', '.'), BINARY_FIRST);
+        verify(transformation).transform(SECOND.replace('/', '.'), BINARY_SECOND);
+        verifyNoMoreInteractions(transformation);
+    }
+
+    @Test
+    public void testTransformationConcurrent() throws Exception {
+        JarRewriter.Transformation transformation = mock(JarRewriter.Transformation.class);
+        when(transformation.transform(SECOND.replace('/', '.'), BINARY_SECOND)).thenReturn(BINARY_FIRST);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertThat(JarRewriter.of(dynamicType).with(transformation).with(executorService).rewrite(source, target), is(target));
+        } finally {
+            executorService.shutdown();
+        }
+        assertJarFile(target, FIRST + CLASS_FILE_EXTENSION, BINARY_THIRD,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_FIRST,
+                RESOURCE, BINARY_THIRD,
+                THIRD + CLASS_FILE_EXTENSION, BINARY_FIRST);
+        verify(transformation).transform(SECOND.replace('/', '.'), BINARY_SECOND);
+        verifyNoMoreInteractions(transformation);
+    }
+
+    @Test
+    public void testRewriteInPlace() throws Exception {
+        assertThat(JarRewriter.of(dynamicType).rewrite(source), is(source));
+        assertJarFile(source, FIRST + CLASS_FILE_EXTENSION, BINARY_THIRD,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_SECOND,
+                RESOURCE, BINARY_THIRD,
+                THIRD + CLASS_FILE_EXTENSION, BINARY_FIRST);
+    }
+
+    @Test
+    public void testRewriteRetainsTargetFile() throws Exception {
+        assertThat(target.setExecutable(true), is(true));
+        File folder = target.getAbsoluteFile().getParentFile();
+        int files = folder.list().length;
+        assertThat(JarRewriter.of(dynamicType).rewrite(source, target), is(target));
+        assertThat(target.canExecute(), is(true));
+        assertThat(folder.list().length, is(files));
+        assertJarFile(target, FIRST + CLASS_FILE_EXTENSION, BINARY_THIRD,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_SECOND,
+                RESOURCE, BINARY_THIRD,
+                THIRD + CLASS_FILE_EXTENSION, BINARY_FIRST);
+    }
+
+    @Test
+    public void testRewriteToAbsentTarget() throws Exception {
+        assertThat(target.delete(), is(true));
+        assertThat(JarRewriter.of(dynamicType).rewrite(source, target), is(target));
+        assertJarFile(target, FIRST + CLASS_FILE_EXTENSION, BINARY_THIRD,
+                SECOND + CLASS_FILE_EXTENSION, BINARY_SECOND,
+                RESOURCE, BINARY_THIRD,
+                THIRD + CLASS_FILE_EXTENSION, BINARY_FIRST);
+    }
+
+    @Test
+    public void testStoredResourceIsStreamed() throws Exception {
+        byte[] binaryRepresentation = new byte[BUFFER_SIZE * 3 + 1];
+        new Random(0).nextBytes(binaryRepresentation);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(source), manifest);
+        try {
+            JarEntry storedEntry = new JarEntry(RESOURCE);
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(binaryRepresentation.length);
+            storedEntry.setCompressedSize(binaryRepresentation.length);
+            CRC32 crc32 = new CRC32();
+            crc32.update(binaryRepresentation);
+            storedEntry.setCrc(crc32.getValue());
+            jarOutputStream.putNextEntry(storedEntry);
+            jarOutputStream.write(binaryRepresentation);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(SECOND + CLASS_FILE_EXTENSION));
+            jarOutputStream.write(BINARY_SECOND);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        JarRewriter.Transformation transformation = mock(JarRewriter.Transformation.class);
+        when(transformation.transform(SECOND.replace('/', '.'), BINARY_SECOND)).thenReturn(BINARY_FIRST);
+        assertThat(new JarRewriter(transformation).rewrite(source, target), is(target));
+        List<JarEntry> entries = assertJarFile(target, RESOURCE, binaryRepresentation, SECOND + CLASS_FILE_EXTENSION, BINARY_FIRST);
+        assertThat(entries.get(0).getMethod(), is(ZipEntry.STORED));
+        assertThat(entries.get(1).getMethod(), is(ZipEntry.DEFLATED));
+    }
+
+    @Test
+    public void testFailedTransformationRetainsTarget() throws Exception {
+        JarRewriter.Transformation transformation = mock(JarRewriter.Transformation.class);
+        when(transformation.transform(FIRST.replace('/', '.'), BINARY_FIRST)).thenThrow(new IOException());
+        File folder = target.getAbsoluteFile().getParentFile();
+        int files = folder.list().length;
+        try {
+            new JarRewriter(transformation).rewrite(source, target);
+        } catch (IOException ignored) {
+            assertThat(target.length(), is(0L));
+            assertThat(folder.list().length, is(files));
+            return;
+        }
+        throw new AssertionError();
+    }
+
+    @Test
+    public void testReplace() throws Exception {
+        DynamicType other = mock(DynamicType.class);
+        assertThat(JarRewriter.of(dynamicType).replace(other), is(JarRewriter.of(dynamicType, other)));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(JarRewriter.class).apply();
+        ObjectPropertyAssertion.of(JarRewriter.Transformation.NoOp.class).apply();
+        ObjectPropertyAssertion.of(JarRewriter.Dispatcher.Synchronous.class).apply();
+        ObjectPropertyAssertion.of(JarRewriter.Dispatcher.ForExecutorService.class).apply();
+        ObjectPropertyAssertion.of(JarRewriter.TransformationTask.class).apply();
+        ObjectPropertyAssertion.of(JarRewriter.Resolved.class).apply();
+    }
+
+    private List<JarEntry> assertJarFile(File file, Object... expectedEntries) throws IOException {
+        JarInputStream jarInputStream = new JarInputStream(new FileInputStream(file));
+        try {
+            assertThat(jarInputStream.getManifest(), is(manifest));
+            List<JarEntry> entries = new ArrayList<JarEntry>();
+            for (int index = 0; index < expectedEntries.length; index += 2) {
+                JarEntry jarEntry = jarInputStream.getNextJarEntry();
+                assertThat(jarEntry.getName(), is(expectedEntries[index]));
+                byte[] binary = (byte[]) expectedEntries[index + 1];
+                byte[] buffer = new byte[binary.length];
+                int length = 0, read;
+                while (length < buffer.length && (read = jarInputStream.read(buffer, length, buffer.length - length)) != -1) {
+                    length += read;
+                }
+                assertThat(length, is(buffer.length));
+                assertThat(Arrays.equals(buffer, binary), is(true));
+                assertThat(jarInputStream.read(buffer), is(-1));
+                jarInputStream.closeEntry();
+                entries.add(jarEntry);
+            }
+            assertThat(jarInputStream.getNextJarEntry(), nullValue(JarEntry.class));
+            return entries;
+        } finally {
+            jarInputStream.close();
+        }
+    }
+}
@@ -3,11 +3,13 @@ package net.bytebuddy.dynamic.loading;
 import net.bytebuddy.asm.AsmVisitorWrapper;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.test.utility.ClassFileExtraction;
+import net.bytebuddy.test.utility.JavaVersionRule;
 import net.bytebuddy.test.utility.MockitoRule;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.MethodRule;
 import org.junit.rules.TestRule;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -17,6 +19,7 @@ import org.objectweb.asm.commons.RemappingClassAdapter;
 import org.objectweb.asm.commons.SimpleRemapper;
 
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.ProtectionDomain;
@@ -40,6 +43,9 @@ public class ByteArrayClassLoaderChildFirstTest {
     @Rule
     public TestRule mockitoRule = new MockitoRule(this);
 
+    @Rule
+    public MethodRule javaVersionRule = new JavaVersionRule();
+
     private ClassLoader classLoader;
 
     @Mock
@@ -71,6 +77,14 @@ public class ByteArrayClassLoaderChildFirstTest {
                 PackageDefinitionStrategy.NoOp.INSTANCE);
     }
 
+    @Test
+    @JavaVersionRule.Enforce(7)
+    public void testParallelCapable() throws Exception {
+        Method method = ClassLoader.class.getDeclaredMethod("getClassLoadingLock", String.class);
+        method.setAccessible(true);
+        assertThat(method.invoke(classLoader, Foo.class.getName()), not((Object) classLoader));
+    }
+
     @Test
     public void testLoading() throws Exception {
         Class<?> type = classLoader.loadClass(Foo.class.getName());
@@ -2,6 +2,7 @@ package net.bytebuddy.dynamic.loading;
 
 import net.bytebuddy.test.utility.ClassFileExtraction;
 import net.bytebuddy.test.utility.IntegrationRule;
+import net.bytebuddy.test.utility.JavaVersionRule;
 import net.bytebuddy.test.utility.MockitoRule;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
@@ -14,6 +15,7 @@ import org.junit.runners.Parameterized;
 import org.mockito.Mock;
 
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.ProtectionDomain;
@@ -45,6 +47,9 @@ public class ByteArrayClassLoaderTest {
     @Rule
     public MethodRule integrationRule = new IntegrationRule();
 
+    @Rule
+    public MethodRule javaVersionRule = new JavaVersionRule();
+
     private ClassLoader classLoader;
 
     private URL sealBase;
@@ -78,6 +83,14 @@ public class ByteArrayClassLoaderTest {
                 .thenReturn(new PackageDefinitionStrategy.Definition.Simple(FOO, BAR, QUX, QUX, FOO, BAR, sealBase));
     }
 
+    @Test
+    @JavaVersionRule.Enforce(7)
+    public void testParallelCapable() throws Exception {
+        Method method = ClassLoader.class.getDeclaredMethod("getClassLoadingLock", String.class);
+        method.setAccessible(true);
+        assertThat(method.invoke(classLoader, Foo.class.getName()), not((Object) classLoader));
+    }
+
     @Test
     public void testLoading() throws Exception {
         Class<?> type = classLoader.loadClass(Foo.class.getName());
@@ -0,0 +1,109 @@
+package net.bytebuddy.dynamic.scaffold;
+
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeVariableToken;
+import net.bytebuddy.implementation.LoadedTypeInitializer;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MethodGraphCompilerMemoizingTest {
+
+    private static final String FOO = "foo", QUX = "qux.Qux";
+
+    @Test
+    public void testMemoizedGraphEqualsDefaultGraph() throws Exception {
+        MethodGraph.Compiler compiler = MethodGraph.Compiler.Memoizing.forJavaHierarchy();
+        for (int index = 0; index < 2; index++) {
+            for (Class<?> type : Arrays.<Class<?>>asList(ArrayList.class, LinkedList.class, HashMap.class, StringList.class, IntegerList.class)) {
+                TypeDescription typeDescription = new TypeDescription.ForLoadedType(type);
+                MethodGraph.Linked expected = MethodGraph.Compiler.Default.forJavaHierarchy().compile(typeDescription);
+                MethodGraph.Linked actual = compiler.compile(typeDescription);
+                assertThat(actual.listNodes(), is(expected.listNodes()));
+                assertThat(actual.getSuperClassGraph().listNodes(), is(expected.getSuperClassGraph().listNodes()));
+                for (TypeDescription interfaceType : typeDescription.getInterfaces().asErasures()) {
+                    assertThat(actual.getInterfaceGraph(interfaceType).listNodes(), is(expected.getInterfaceGraph(interfaceType).listNodes()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMemoizedGraphConsidersPackageOfViewPoint() throws Exception {
+        MethodGraph.Compiler compiler = MethodGraph.Compiler.Memoizing.forJavaHierarchy();
+        MethodDescription.SignatureToken token = new MethodDescription.SignatureToken(FOO,
+                TypeDescription.VOID,
+                Collections.<TypeDescription>emptyList());
+        TypeDescription samePackage = subclassOf(PackagePrivateBase.class, PackagePrivateBase.class.getPackage().getName() + ".Qux");
+        TypeDescription otherPackage = subclassOf(PackagePrivateBase.class, QUX);
+        assertThat(compiler.compile(samePackage).locate(token).getSort(), is(MethodGraph.Node.Sort.RESOLVED));
+        assertThat(compiler.compile(otherPackage).locate(token).getSort(), is(MethodGraph.Node.Sort.UNRESOLVED));
+        assertThat(compiler.compile(samePackage).locate(token).getSort(), is(MethodGraph.Node.Sort.RESOLVED));
+    }
+
+    @Test
+    public void testMemoizedGraphForDifferentViewPoint() throws Exception {
+        MethodGraph.Compiler compiler = MethodGraph.Compiler.Memoizing.forJavaHierarchy();
+        TypeDescription typeDescription = new TypeDescription.ForLoadedType(PackagePrivateBase.class);
+        TypeDescription viewPoint = subclassOf(Object.class, QUX);
+        assertThat(compiler.compile(typeDescription, viewPoint).listNodes(),
+                is(MethodGraph.Compiler.Default.forJavaHierarchy().compile(typeDescription, viewPoint).listNodes()));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        MethodGraph.Compiler.Memoizing<?> compiler = MethodGraph.Compiler.Memoizing.forJVMHierarchy();
+        TypeDescription typeDescription = new TypeDescription.ForLoadedType(StringList.class);
+        MethodGraph.Linked methodGraph = compiler.compile(typeDescription);
+        compiler.clear();
+        assertThat(compiler.compile(typeDescription).listNodes(), is(methodGraph.listNodes()));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(MethodGraph.Compiler.Memoizing.class).applyBasic();
+    }
+
+    private static TypeDescription subclassOf(Class<?> superClass, String name) {
+        return new InstrumentedType.Default(name,
+                Opcodes.ACC_PUBLIC,
+                new TypeDescription.Generic.OfNonGenericType.ForLoadedType(superClass),
+                Collections.<TypeVariableToken>emptyList(),
+                Collections.<TypeDescription.Generic>emptyList(),
+                Collections.<FieldDescription.Token>emptyList(),
+                Collections.<MethodDescription.Token>emptyList(),
+                Collections.<AnnotationDescription>emptyList(),
+                TypeInitializer.None.INSTANCE,
+                LoadedTypeInitializer.NoOp.INSTANCE,
+                TypeDescription.UNDEFINED,
+                MethodDescription.UNDEFINED,
+                TypeDescription.UNDEFINED,
+                Collections.<TypeDescription>emptyList(),
+                false,
+                false,
+                false);
+    }
+
+    public static class PackagePrivateBase {
+
+        void foo() {
+            /* empty */
+        }
+    }
+
+    public static class StringList extends ArrayList<String> {
+        /* empty */
+    }
+
+    public static class IntegerList extends ArrayList<Integer> {
+        /* empty */
+    }
+}
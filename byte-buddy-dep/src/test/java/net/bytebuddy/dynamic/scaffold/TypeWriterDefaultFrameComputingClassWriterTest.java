@@ -1,7 +1,6 @@
 package net.bytebuddy.dynamic.scaffold;
 
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.test.utility.MockitoRule;
 import net.bytebuddy.test.utility.ObjectPropertyAssertion;
@@ -15,8 +14,7 @@ import org.objectweb.asm.ClassWriter;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class TypeWriterDefaultFrameComputingClassWriterTest {
 
@@ -50,9 +48,9 @@ public class TypeWriterDefaultFrameComputingClassWriterTest {
 
     @Test
     public void testFactory() throws Exception {
-        assertThat(TypeWriter.Default.FrameComputingClassWriter.of(mock(ClassReader.class), 0, mock(ClassFileLocator.class)),
+        assertThat(TypeWriter.Default.FrameComputingClassWriter.of(mock(ClassReader.class), 0, typePool),
                 not(instanceOf(TypeWriter.Default.FrameComputingClassWriter.class)));
-        assertThat(TypeWriter.Default.FrameComputingClassWriter.of(mock(ClassReader.class), ClassWriter.COMPUTE_FRAMES, mock(ClassFileLocator.class)),
+        assertThat(TypeWriter.Default.FrameComputingClassWriter.of(mock(ClassReader.class), ClassWriter.COMPUTE_FRAMES, typePool),
                 instanceOf(TypeWriter.Default.FrameComputingClassWriter.class));
     }
 
@@ -86,6 +84,17 @@ public class TypeWriterDefaultFrameComputingClassWriterTest {
         assertThat(frameComputingClassWriter.getCommonSuperClass(FOO, BAR), is(FOOBAR));
     }
 
+    @Test
+    public void testCommonSuperClassIsMemoized() throws Exception {
+        when(leftType.isAssignableFrom(rightType)).thenReturn(true);
+        assertThat(frameComputingClassWriter.getCommonSuperClass(FOO, BAR), is(QUX));
+        assertThat(frameComputingClassWriter.getCommonSuperClass(FOO, BAR), is(QUX));
+        assertThat(frameComputingClassWriter.getCommonSuperClass(BAR, FOO), is(QUX));
+        verify(typePool).describe(FOO.replace('/', '.'));
+        verify(typePool).describe(BAR.replace('/', '.'));
+        verifyNoMoreInteractions(typePool);
+    }
+
     @Test
     public void testObjectProperties() throws Exception {
         ObjectPropertyAssertion.of(TypeWriter.Default.FrameComputingClassWriter.class).applyBasic();
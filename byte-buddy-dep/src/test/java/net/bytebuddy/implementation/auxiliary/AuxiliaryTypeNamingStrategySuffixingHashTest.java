@@ -0,0 +1,100 @@
+package net.bytebuddy.implementation.auxiliary;
+
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeList;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.mockito.Mockito.when;
+
+public class AuxiliaryTypeNamingStrategySuffixingHashTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private TypeDescription instrumentedType;
+
+    @Mock
+    private TypeDescription.Generic superClass, interfaceType;
+
+    @Mock
+    private FieldDescription.InDefinedShape fieldDescription;
+
+    @Mock
+    private MethodDescription.InDefinedShape methodDescription;
+
+    @Before
+    public void setUp() throws Exception {
+        when(instrumentedType.getName()).thenReturn(FOO);
+        when(instrumentedType.getSuperClass()).thenReturn(superClass);
+        when(instrumentedType.getInterfaces()).thenReturn(new TypeList.Generic.Explicit(interfaceType));
+        when(superClass.getTypeName()).thenReturn(BAR);
+        when(interfaceType.getTypeName()).thenReturn(QUX);
+        when(interfaceType.asGenericType()).thenReturn(interfaceType);
+        when(instrumentedType.getDeclaredFields()).thenReturn(new FieldList.Empty<FieldDescription.InDefinedShape>());
+        when(instrumentedType.getDeclaredMethods()).thenReturn(new MethodList.Empty<MethodDescription.InDefinedShape>());
+        when(fieldDescription.getName()).thenReturn(FOO);
+        when(fieldDescription.getDescriptor()).thenReturn(BAR);
+        when(methodDescription.getInternalName()).thenReturn(FOO);
+        when(methodDescription.getDescriptor()).thenReturn(QUX);
+    }
+
+    @Test
+    public void testNameIsReproducible() throws Exception {
+        String name = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType);
+        assertThat(name, startsWith(FOO + "$" + BAR + "$"));
+        assertThat(new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType), is(name));
+    }
+
+    @Test
+    public void testNameDependsOnSuperTypes() throws Exception {
+        String name = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType);
+        when(interfaceType.getTypeName()).thenReturn(FOO);
+        assertThat(new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType).equals(name), is(false));
+    }
+
+    @Test
+    public void testNameIsUnique() throws Exception {
+        AuxiliaryType.NamingStrategy namingStrategy = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR);
+        String name = namingStrategy.name(instrumentedType);
+        assertThat(namingStrategy.name(instrumentedType), is(name + "$1"));
+    }
+
+    @Test
+    public void testNameDependsOnDeclaredMembers() throws Exception {
+        String name = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType);
+        when(instrumentedType.getDeclaredMethods()).thenReturn(new MethodList.Explicit<MethodDescription.InDefinedShape>(methodDescription));
+        String other = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType);
+        assertThat(other.equals(name), is(false));
+        when(instrumentedType.getDeclaredFields()).thenReturn(new FieldList.Explicit<FieldDescription.InDefinedShape>(fieldDescription));
+        assertThat(new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType).equals(other), is(false));
+    }
+
+    @Test
+    public void testNameIsUniquePerInstance() throws Exception {
+        AuxiliaryType.NamingStrategy namingStrategy = new AuxiliaryType.NamingStrategy.SuffixingHash(BAR);
+        String name = namingStrategy.name(instrumentedType);
+        assertThat(namingStrategy.name(instrumentedType), is(name + "$1"));
+        assertThat(new AuxiliaryType.NamingStrategy.SuffixingHash(BAR).name(instrumentedType), is(name));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(AuxiliaryType.NamingStrategy.SuffixingHash.class).apply();
+    }
+}
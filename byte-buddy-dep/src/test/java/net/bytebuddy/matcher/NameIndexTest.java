@@ -0,0 +1,89 @@
+package net.bytebuddy.matcher;
+
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static net.bytebuddy.matcher.ElementMatchers.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NameIndexTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    @Test
+    public void testExactName() throws Exception {
+        NameIndex<Object> nameIndex = new NameIndex<Object>(Collections.singletonList(named(FOO)));
+        assertThat(nameIndex.lookup(FOO).size(), is(1));
+        assertThat(nameIndex.lookup(FOO + BAR).size(), is(0));
+        assertThat(nameIndex.lookup(BAR).size(), is(0));
+    }
+
+    @Test
+    public void testPrefix() throws Exception {
+        NameIndex<Object> nameIndex = new NameIndex<Object>(Collections.singletonList(nameStartsWith(FOO)));
+        assertThat(nameIndex.lookup(FOO).size(), is(1));
+        assertThat(nameIndex.lookup(FOO + BAR).size(), is(1));
+        assertThat(nameIndex.lookup(BAR + FOO).size(), is(0));
+        assertThat(nameIndex.lookup(FOO.substring(1)).size(), is(0));
+    }
+
+    @Test
+    public void testSuffix() throws Exception {
+        NameIndex<Object> nameIndex = new NameIndex<Object>(Collections.singletonList(nameEndsWith(FOO)));
+        assertThat(nameIndex.lookup(FOO).size(), is(1));
+        assertThat(nameIndex.lookup(BAR + FOO).size(), is(1));
+        assertThat(nameIndex.lookup(FOO + BAR).size(), is(0));
+        assertThat(nameIndex.lookup(FOO.substring(1)).size(), is(0));
+    }
+
+    @Test
+    public void testLookupRetainsOrder() throws Exception {
+        Object first = nameStartsWith(FOO), second = any(), third = named(FOO + BAR), fourth = nameEndsWith(BAR);
+        NameIndex<Object> nameIndex = new NameIndex<Object>(Arrays.asList(first, second, third, fourth));
+        assertThat(nameIndex.lookup(FOO + BAR), is(Arrays.asList(first, second, third, fourth)));
+        assertThat(nameIndex.lookup(FOO), is(Arrays.asList(first, second)));
+        assertThat(nameIndex.lookup(QUX + BAR), is(Arrays.asList(second, fourth)));
+        assertThat(nameIndex.lookup(QUX), is(Collections.singletonList(second)));
+    }
+
+    @Test
+    public void testCaseInsensitiveMatcherIsUnconditional() throws Exception {
+        assertThat(new NameIndex<Object>(Collections.singletonList(namedIgnoreCase(FOO))).lookup(QUX).size(), is(1));
+    }
+
+    @Test
+    public void testConjunction() throws Exception {
+        assertThat(NameIndex.Condition.of(any().and(named(FOO))), is(NameIndex.Condition.ofName(FOO)));
+        assertThat(NameIndex.Condition.of(named(FOO).and(any())), is(NameIndex.Condition.ofName(FOO)));
+        assertThat(NameIndex.Condition.of(any().and(any())), nullValue(NameIndex.Condition.class));
+    }
+
+    @Test
+    public void testDisjunction() throws Exception {
+        NameIndex<Object> nameIndex = new NameIndex<Object>(Collections.singletonList(named(FOO).or(nameStartsWith(BAR))));
+        assertThat(nameIndex.lookup(FOO).size(), is(1));
+        assertThat(nameIndex.lookup(BAR + QUX).size(), is(1));
+        assertThat(nameIndex.lookup(QUX).size(), is(0));
+        assertThat(NameIndex.Condition.of(named(FOO).or(any())), nullValue(NameIndex.Condition.class));
+        assertThat(NameIndex.Condition.of(any().or(named(FOO))), nullValue(NameIndex.Condition.class));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(NameIndex.class).create(new ObjectPropertyAssertion.Creator<List<?>>() {
+            @Override
+            public List<?> create() {
+                return Collections.singletonList(new Object());
+            }
+        }).apply();
+        ObjectPropertyAssertion.of(NameIndex.Condition.class).applyBasic();
+        ObjectPropertyAssertion.of(NameIndex.Node.class).applyBasic();
+        ObjectPropertyAssertion.of(NameIndex.Node.Direction.class).apply();
+    }
+}
@@ -9,6 +9,8 @@ import org.mockito.Mock;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.PatternSyntaxException;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.startsWith;
@@ -23,28 +25,31 @@ public class StringMatcherTest extends AbstractElementMatcherTest<StringMatcher>
 
     private final String matching, nonMatching;
 
+    private final boolean ignoreCase;
+
     @Mock
     private MethodDescription methodDescription;
 
-    public StringMatcherTest(StringMatcher.Mode mode, String matching, String nonMatching) {
+    public StringMatcherTest(StringMatcher.Mode mode, String matching, String nonMatching, boolean ignoreCase) {
         super(StringMatcher.class, mode.getDescription());
         this.mode = mode;
         this.matching = matching;
         this.nonMatching = nonMatching;
+        this.ignoreCase = ignoreCase;
     }
 
     @Parameterized.Parameters
     public static Collection<Object[]> data() {
         return Arrays.asList(new Object[][]{
-                {StringMatcher.Mode.CONTAINS, "fo", "fooo"},
-                {StringMatcher.Mode.CONTAINS_IGNORE_CASE, "FO", "fooo"},
-                {StringMatcher.Mode.ENDS_WITH, "oo", "f"},
-                {StringMatcher.Mode.ENDS_WITH_IGNORE_CASE, "OO", "f"},
-                {StringMatcher.Mode.EQUALS_FULLY, "foo", "bar"},
-                {StringMatcher.Mode.EQUALS_FULLY_IGNORE_CASE, "FOO", "bar"},
-                {StringMatcher.Mode.MATCHES, "[a-z]{3}", "bar"},
-                {StringMatcher.Mode.STARTS_WITH, "fo", "fooo"},
-                {StringMatcher.Mode.STARTS_WITH_IGNORE_CASE, "FO", "fooo"},
+                {StringMatcher.Mode.CONTAINS, "fo", "fooo", false},
+                {StringMatcher.Mode.CONTAINS_IGNORE_CASE, "FO", "fooo", true},
+                {StringMatcher.Mode.ENDS_WITH, "oo", "f", false},
+                {StringMatcher.Mode.ENDS_WITH_IGNORE_CASE, "OO", "f", true},
+                {StringMatcher.Mode.EQUALS_FULLY, "foo", "bar", false},
+                {StringMatcher.Mode.EQUALS_FULLY_IGNORE_CASE, "FOO", "bar", true},
+                {StringMatcher.Mode.MATCHES, "[a-z]{3}", "bar", false},
+                {StringMatcher.Mode.STARTS_WITH, "fo", "fooo", false},
+                {StringMatcher.Mode.STARTS_WITH_IGNORE_CASE, "FO", "fooo", true},
         });
     }
 
@@ -58,6 +63,33 @@ public class StringMatcherTest extends AbstractElementMatcherTest<StringMatcher>
         assertThat(new StringMatcher(nonMatching, mode).matches(FOO), is(false));
     }
 
+    @Test
+    public void testNoMatchExpectedLongerThanActual() throws Exception {
+        assertThat(new StringMatcher(FOO + FOO, mode).matches(FOO), is(false));
+        assertThat(new StringMatcher(FOO, mode).matches(""), is(false));
+    }
+
+    @Test
+    public void testNonAsciiMatch() throws Exception {
+        assertThat(new StringMatcher("\u00c4\u00d6\u00dc", mode).matches("\u00e4\u00f6\u00fc"), is(ignoreCase));
+    }
+
+    @Test
+    public void testMatchIsLocaleIndependent() throws Exception {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr"));
+        try {
+            assertThat(new StringMatcher("FII", mode).matches("fii"), is(ignoreCase));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testIllegalPatternIsCompiledEagerly() throws Exception {
+        new StringMatcher("[", StringMatcher.Mode.MATCHES);
+    }
+
     @Override
     protected <S> ObjectPropertyAssertion<S> modify(ObjectPropertyAssertion<S> propertyAssertion) {
         return propertyAssertion.skipToString();
@@ -0,0 +1,103 @@
+package net.bytebuddy.pool;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolAbstractBaseTest {
+
+    private static final String FOO = "foo";
+
+    private static final int THREADS = 8;
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private TypeDescription typeDescription;
+
+    @Test
+    public void testConcurrentDescriptionIsDeduplicated() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger invocations = new AtomicInteger();
+        final TypePool typePool = new TypePool.AbstractBase(new TypePool.CacheProvider.Simple()) {
+            @Override
+            protected Resolution doDescribe(String name) {
+                invocations.incrementAndGet();
+                try {
+                    latch.await();
+                } catch (InterruptedException exception) {
+                    throw new AssertionError(exception);
+                }
+                return new Resolution.Simple(typeDescription);
+            }
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<TypeDescription>> futures = new ArrayList<Future<TypeDescription>>(THREADS);
+            for (int index = 0; index < THREADS; index++) {
+                futures.add(executorService.submit(new Callable<TypeDescription>() {
+                    @Override
+                    public TypeDescription call() throws Exception {
+                        return typePool.describe(FOO).resolve();
+                    }
+                }));
+            }
+            while (invocations.get() == 0) {
+                Thread.sleep(10L);
+            }
+            Thread.sleep(100L);
+            latch.countDown();
+            for (Future<TypeDescription> future : futures) {
+                assertThat(future.get(), is(typeDescription));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    public void testRecursiveDescription() throws Exception {
+        final AtomicInteger invocations = new AtomicInteger();
+        TypePool typePool = new TypePool.AbstractBase(TypePool.CacheProvider.NoOp.INSTANCE) {
+            @Override
+            protected Resolution doDescribe(String name) {
+                if (invocations.incrementAndGet() == 1) {
+                    assertThat(describe(name).resolve(), is(typeDescription));
+                }
+                return new Resolution.Simple(typeDescription);
+            }
+        };
+        assertThat(typePool.describe(FOO).resolve(), is(typeDescription));
+        assertThat(invocations.get(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDescriptionExceptionIsPropagated() throws Exception {
+        new TypePool.AbstractBase(TypePool.CacheProvider.NoOp.INSTANCE) {
+            @Override
+            protected Resolution doDescribe(String name) {
+                throw new IllegalArgumentException();
+            }
+        }.describe(FOO);
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(TypePool.AbstractBase.InFlight.class).skipToString().applyBasic();
+        ObjectPropertyAssertion.of(TypePool.AbstractBase.Registration.class).apply();
+    }
+}
@@ -1,5 +1,6 @@
 package net.bytebuddy.pool;
 
+import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.test.utility.MockitoRule;
 import net.bytebuddy.test.utility.ObjectPropertyAssertion;
 import org.junit.Rule;
@@ -7,14 +8,16 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.Mock;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class TypePoolCacheProviderTest {
 
-    private static final String FOO = "foo";
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
 
     @Rule
     public TestRule mockitoRule = new MockitoRule(this);
@@ -45,9 +48,108 @@ public class TypePoolCacheProviderTest {
         assertThat(simple.find(FOO), sameInstance(resolution));
     }
 
+    @Test
+    public void testBounded() throws Exception {
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(2L);
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.register(FOO, resolution), sameInstance(resolution));
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        TypePool.Resolution resolution = mock(TypePool.Resolution.class);
+        assertThat(bounded.register(FOO, resolution), sameInstance(this.resolution));
+        assertThat(bounded.getWeight(), is(1L));
+        assertThat(bounded.getHitCount(), is(1L));
+        assertThat(bounded.getMissCount(), is(1L));
+        assertThat(bounded.getEvictionCount(), is(0L));
+        bounded.clear();
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.getWeight(), is(0L));
+    }
+
+    @Test
+    public void testBoundedEvictsLeastRecentlyUsed() throws Exception {
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(2L);
+        TypePool.Resolution bar = mock(TypePool.Resolution.class), qux = mock(TypePool.Resolution.class);
+        bounded.register(FOO, resolution);
+        bounded.register(BAR, bar);
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        bounded.register(QUX, qux);
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        assertThat(bounded.find(BAR), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.find(QUX), sameInstance(qux));
+        assertThat(bounded.getWeight(), is(2L));
+        assertThat(bounded.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void testBoundedWeigher() throws Exception {
+        TypePool.CacheProvider.Bounded.Weigher weigher = mock(TypePool.CacheProvider.Bounded.Weigher.class);
+        TypePool.Resolution bar = mock(TypePool.Resolution.class), qux = mock(TypePool.Resolution.class);
+        when(weigher.weigh(FOO, resolution)).thenReturn(2);
+        when(weigher.weigh(BAR, bar)).thenReturn(5);
+        when(weigher.weigh(QUX, qux)).thenReturn(3);
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(4L, weigher);
+        assertThat(bounded.register(FOO, resolution), sameInstance(resolution));
+        assertThat(bounded.register(BAR, bar), sameInstance(bar));
+        assertThat(bounded.find(BAR), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        assertThat(bounded.register(QUX, qux), sameInstance(qux));
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.find(QUX), sameInstance(qux));
+        assertThat(bounded.getWeight(), is(3L));
+        assertThat(bounded.getEvictionCount(), is(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundedNonPositiveWeight() throws Exception {
+        new TypePool.CacheProvider.Bounded(0L);
+    }
+
+    @Test
+    public void testWeigherForEntryCount() throws Exception {
+        assertThat(TypePool.CacheProvider.Bounded.Weigher.ForEntryCount.INSTANCE.weigh(FOO, resolution), is(1));
+    }
+
+    @Test
+    public void testWeigherForEstimatedSize() throws Exception {
+        int unresolved = TypePool.CacheProvider.Bounded.Weigher.ForEstimatedSize.INSTANCE.weigh(FOO, resolution);
+        TypePool.Resolution resolution = new TypePool.Resolution.Simple(TypeDescription.OBJECT);
+        int resolved = TypePool.CacheProvider.Bounded.Weigher.ForEstimatedSize.INSTANCE.weigh(FOO, resolution);
+        assertThat(resolved > unresolved, is(true));
+    }
+
+    @Test
+    public void testReferencing() throws Exception {
+        for (TypePool.CacheProvider.Referencing.Strength strength : TypePool.CacheProvider.Referencing.Strength.values()) {
+            TypePool.CacheProvider.Referencing referencing = new TypePool.CacheProvider.Referencing(strength);
+            assertThat(referencing.find(FOO), nullValue(TypePool.Resolution.class));
+            assertThat(referencing.register(FOO, resolution), sameInstance(resolution));
+            assertThat(referencing.find(FOO), sameInstance(resolution));
+            TypePool.Resolution resolution = mock(TypePool.Resolution.class);
+            assertThat(referencing.register(FOO, resolution), sameInstance(this.resolution));
+            assertThat(referencing.find(FOO), sameInstance(this.resolution));
+            assertThat(referencing.getHitCount(), is(2L));
+            assertThat(referencing.getMissCount(), is(1L));
+            referencing.clear();
+            assertThat(referencing.find(FOO), nullValue(TypePool.Resolution.class));
+            assertThat(referencing.register(FOO, resolution), sameInstance(resolution));
+            assertThat(referencing.find(FOO), sameInstance(resolution));
+        }
+    }
+
+    @Test
+    public void testReferencingFactories() throws Exception {
+        assertThat(TypePool.CacheProvider.Referencing.soft().toString().contains(TypePool.CacheProvider.Referencing.Strength.SOFT.toString()), is(true));
+        assertThat(TypePool.CacheProvider.Referencing.weak().toString().contains(TypePool.CacheProvider.Referencing.Strength.WEAK.toString()), is(true));
+    }
+
     @Test
     public void testSimpleObjectProperties() throws Exception {
         ObjectPropertyAssertion.of(TypePool.CacheProvider.NoOp.class).apply();
         ObjectPropertyAssertion.of(TypePool.CacheProvider.Simple.class).applyBasic();
+        ObjectPropertyAssertion.of(TypePool.CacheProvider.Bounded.class).applyBasic();
+        ObjectPropertyAssertion.of(TypePool.CacheProvider.Bounded.Weigher.ForEntryCount.class).apply();
+        ObjectPropertyAssertion.of(TypePool.CacheProvider.Bounded.Weigher.ForEstimatedSize.class).apply();
+        ObjectPropertyAssertion.of(TypePool.CacheProvider.Referencing.class).applyBasic();
+        ObjectPropertyAssertion.of(TypePool.CacheProvider.Referencing.Strength.class).apply();
     }
 }
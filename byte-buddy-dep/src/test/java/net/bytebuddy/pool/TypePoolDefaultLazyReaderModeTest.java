@@ -0,0 +1,86 @@
+package net.bytebuddy.pool;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolDefaultLazyReaderModeTest {
+
+    private TypePool typePool, fastTypePool;
+
+    @Before
+    public void setUp() throws Exception {
+        typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                ClassFileLocator.ForClassLoader.ofClassPath(),
+                TypePool.Default.ReaderMode.LAZY);
+        fastTypePool = new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                ClassFileLocator.ForClassLoader.ofClassPath(),
+                TypePool.Default.ReaderMode.FAST);
+    }
+
+    @Test
+    public void testHeaderOfRawType() throws Exception {
+        TypeDescription typeDescription = typePool.describe(Foo.class.getName()).resolve();
+        assertThat(typeDescription, instanceOf(TypePool.Default.LazyHeaderTypeDescription.class));
+        assertThat(typeDescription.getName(), is(Foo.class.getName()));
+        assertThat(typeDescription.getModifiers(), is(Foo.class.getModifiers()));
+        assertThat(typeDescription.getSuperClass().asErasure().represents(Object.class), is(true));
+        assertThat(typeDescription.getInterfaces().size(), is(1));
+        assertThat(typeDescription.getInterfaces().getOnly().asErasure().represents(Serializable.class), is(true));
+        assertThat(typeDescription.getTypeVariables().size(), is(0));
+        assertThat(typeDescription.isAssignableTo(Serializable.class), is(true));
+    }
+
+    @Test
+    public void testHeaderOfInterface() throws Exception {
+        TypeDescription typeDescription = typePool.describe(Serializable.class.getName()).resolve();
+        assertThat(typeDescription.isInterface(), is(true));
+        assertThat(typeDescription.getSuperClass(), is(TypeDescription.Generic.UNDEFINED));
+    }
+
+    @Test
+    public void testGenericTypeIsParsed() throws Exception {
+        TypeDescription typeDescription = typePool.describe(ArrayList.class.getName()).resolve();
+        TypeDescription fastTypeDescription = fastTypePool.describe(ArrayList.class.getName()).resolve();
+        assertThat(typeDescription.getSuperClass(), is(fastTypeDescription.getSuperClass()));
+        assertThat(typeDescription.getSuperClass().asErasure().represents(AbstractList.class), is(true));
+        assertThat(typeDescription.getInterfaces(), is(fastTypeDescription.getInterfaces()));
+        assertThat(typeDescription.getTypeVariables(), is(fastTypeDescription.getTypeVariables()));
+    }
+
+    @Test
+    public void testMembersAreParsedOnDemand() throws Exception {
+        for (Class<?> type : new Class<?>[]{Foo.class, ArrayList.class, Map.Entry.class, List.class}) {
+            TypeDescription typeDescription = typePool.describe(type.getName()).resolve();
+            TypeDescription fastTypeDescription = fastTypePool.describe(type.getName()).resolve();
+            assertThat(typeDescription.getDeclaredMethods(), is(fastTypeDescription.getDeclaredMethods()));
+            assertThat(typeDescription.getDeclaredFields(), is(fastTypeDescription.getDeclaredFields()));
+            assertThat(typeDescription.getDeclaredAnnotations(), is(fastTypeDescription.getDeclaredAnnotations()));
+            assertThat(typeDescription.getModifiers(), is(fastTypeDescription.getModifiers()));
+            assertThat(typeDescription.isMemberClass(), is(fastTypeDescription.isMemberClass()));
+            assertThat(typeDescription.getDeclaringType(), is(fastTypeDescription.getDeclaringType()));
+            assertThat(typeDescription.getPackage(), is(fastTypeDescription.getPackage()));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    protected static class Foo implements Serializable {
+
+        private String bar;
+
+        public void qux() {
+            /* empty */
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package net.bytebuddy.pool;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.test.utility.ClassFileExtraction;
+import net.bytebuddy.test.utility.MockitoRule;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.mockito.Mock;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Matchers.any;
+
+public class TypePoolDefaultPrefetchingTest {
+
+    @Rule
+    public TestRule mockitoRule = new MockitoRule(this);
+
+    @Mock
+    private Executor executor;
+
+    private TypePool.CacheProvider cacheProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheProvider = new TypePool.CacheProvider.Simple();
+    }
+
+    @Test
+    public void testSuperTypesArePrefetched() throws Exception {
+        TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                TypePool.Default.ReaderMode.FAST,
+                Synchronous.INSTANCE);
+        assertThat(typePool.describe(ArrayList.class.getName()).isResolved(), is(true));
+        assertThat(cacheProvider.find(AbstractList.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(AbstractCollection.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(Object.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(List.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(Iterable.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(RandomAccess.class.getName()), notNullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testSuperTypesArePrefetchedConcurrently() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                    ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                    TypePool.Default.ReaderMode.FAST,
+                    executorService);
+            assertThat(typePool.describe(ArrayList.class.getName()).isResolved(), is(true));
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(executorService.awaitTermination(10L, TimeUnit.SECONDS), is(true));
+        assertThat(cacheProvider.find(AbstractList.class.getName()), notNullValue(TypePool.Resolution.class));
+        assertThat(cacheProvider.find(List.class.getName()), notNullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testAnnotationTypesArePrefetched() throws Exception {
+        TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                TypePool.Default.ReaderMode.FAST,
+                TypePool.Empty.INSTANCE,
+                Synchronous.INSTANCE,
+                true);
+        assertThat(typePool.describe(Foo.class.getName()).isResolved(), is(true));
+        assertThat(cacheProvider.find(Bar.class.getName()), notNullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testAnnotationTypesAreNotPrefetchedByDefault() throws Exception {
+        TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                TypePool.Default.ReaderMode.FAST,
+                Synchronous.INSTANCE);
+        assertThat(typePool.describe(Foo.class.getName()).isResolved(), is(true));
+        assertThat(cacheProvider.find(Bar.class.getName()), nullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testRejectedPrefetchIsIgnored() throws Exception {
+        doThrow(new RejectedExecutionException()).when(executor).execute(any(Runnable.class));
+        TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                TypePool.Default.ReaderMode.FAST,
+                executor);
+        assertThat(typePool.describe(ArrayList.class.getName()).isResolved(), is(true));
+        assertThat(cacheProvider.find(AbstractList.class.getName()), nullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testNoPrefetchWithoutCache() throws Exception {
+        TypePool typePool = new TypePool.Default.Prefetching(TypePool.CacheProvider.NoOp.INSTANCE,
+                ClassFileLocator.ForClassLoader.of(getClass().getClassLoader()),
+                TypePool.Default.ReaderMode.FAST,
+                executor);
+        assertThat(typePool.describe(ArrayList.class.getName()).isResolved(), is(true));
+        verifyZeroInteractions(executor);
+    }
+
+    @Test
+    public void testUnresolvableSuperTypeIsIgnored() throws Exception {
+        TypePool typePool = new TypePool.Default.Prefetching(cacheProvider,
+                new ClassFileLocator.Simple(Collections.singletonMap(Foo.class.getName(), ClassFileExtraction.extract(Foo.class))),
+                TypePool.Default.ReaderMode.FAST,
+                Synchronous.INSTANCE);
+        assertThat(typePool.describe(Foo.class.getName()).isResolved(), is(true));
+        assertThat(cacheProvider.find(Object.class.getName()).isResolved(), is(false));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(TypePool.Default.Prefetching.class).apply();
+        ObjectPropertyAssertion.of(TypePool.Default.Prefetching.Prefetch.class).apply();
+    }
+
+    private enum Synchronous implements Executor {
+
+        INSTANCE;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface Bar {
+        /* empty */
+    }
+
+    @Bar
+    private static class Foo {
+        /* empty */
+    }
+}
@@ -13,12 +13,17 @@ public class TypePoolDefaultReaderModeTest {
     public void testDefinition() throws Exception {
         assertThat(TypePool.Default.ReaderMode.EXTENDED.isExtended(), is(true));
         assertThat(TypePool.Default.ReaderMode.FAST.isExtended(), is(false));
+        assertThat(TypePool.Default.ReaderMode.LAZY.isExtended(), is(false));
+        assertThat(TypePool.Default.ReaderMode.EXTENDED.isLazy(), is(false));
+        assertThat(TypePool.Default.ReaderMode.FAST.isLazy(), is(false));
+        assertThat(TypePool.Default.ReaderMode.LAZY.isLazy(), is(true));
     }
 
     @Test
     public void testFlags() throws Exception {
         assertThat(TypePool.Default.ReaderMode.EXTENDED.getFlags(), is(ClassReader.SKIP_FRAMES));
         assertThat(TypePool.Default.ReaderMode.FAST.getFlags(), is(ClassReader.SKIP_CODE));
+        assertThat(TypePool.Default.ReaderMode.LAZY.getFlags(), is(ClassReader.SKIP_CODE));
     }
 
     @Test
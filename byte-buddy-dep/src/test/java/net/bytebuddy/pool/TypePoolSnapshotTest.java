@@ -0,0 +1,172 @@
+package net.bytebuddy.pool;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.test.utility.ObjectPropertyAssertion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolSnapshotTest {
+
+    private static final String TEMP = "tmp", FOO = "foo", META_INF = "META-INF/versions/9/";
+
+    private static final int MAJOR_VERSION_OFFSET = 7;
+
+    private static final byte UNSUPPORTED_VERSION = 53;
+
+    private File jarFile, snapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        jarFile = File.createTempFile(TEMP, TEMP);
+        snapshot = File.createTempFile(TEMP, TEMP);
+        assertThat(snapshot.delete(), is(true));
+        writeJar(Foo.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertThat(jarFile.delete(), is(true));
+        assertThat(!snapshot.exists() || snapshot.delete(), is(true));
+    }
+
+    @Test
+    public void testSnapshotIsWrittenAndRead() throws Exception {
+        TypePool typePool = TypePool.Snapshot.of(snapshot, Collections.singletonList(jarFile), ClassFileLocator.NoOp.INSTANCE);
+        assertThat(snapshot.isFile(), is(true));
+        TypeDescription typeDescription = typePool.describe(Foo.class.getName()).resolve();
+        assertThat(typeDescription.getName(), is(Foo.class.getName()));
+        assertThat(typeDescription.getDeclaredMethods().filter(named(FOO)).getOnly().getInternalName(), is(FOO));
+        assertThat(typePool.describe(Bar.class.getName()).isResolved(), is(false));
+        long lastModified = snapshot.lastModified();
+        TypePool.Snapshot.of(snapshot, Collections.singletonList(jarFile), ClassFileLocator.NoOp.INSTANCE);
+        assertThat(snapshot.lastModified(), is(lastModified));
+    }
+
+    @Test
+    public void testSnapshotStripsCode() throws Exception {
+        List<TypePool.Snapshot.Checksum> checksums = TypePool.Snapshot.Checksum.of(Collections.singletonList(jarFile));
+        TypePool.Snapshot.write(snapshot, Collections.singletonList(jarFile));
+        ClassFileLocator classFileLocator = TypePool.Snapshot.ForMappedFile.of(snapshot, checksums);
+        final boolean[] code = new boolean[1];
+        new ClassReader(classFileLocator.locate(Foo.class.getName()).resolve()).accept(new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                return new MethodVisitor(Opcodes.ASM5) {
+                    @Override
+                    public void visitCode() {
+                        code[0] = true;
+                    }
+                };
+            }
+        }, 0);
+        assertThat(code[0], is(false));
+    }
+
+    @Test
+    public void testSnapshotFallback() throws Exception {
+        TypePool typePool = TypePool.Snapshot.of(snapshot, Collections.singletonList(jarFile), ClassFileLocator.ForClassLoader.of(Bar.class.getClassLoader()));
+        assertThat(typePool.describe(Bar.class.getName()).resolve().getDeclaredMethods().filter(named(FOO)).getOnly().getName(), is(FOO));
+    }
+
+    @Test
+    public void testStaleSnapshotIsRewritten() throws Exception {
+        TypePool.Snapshot.write(snapshot, Collections.singletonList(jarFile));
+        writeJar(Bar.class);
+        List<TypePool.Snapshot.Checksum> checksums = TypePool.Snapshot.Checksum.of(Collections.singletonList(jarFile));
+        assertThat(TypePool.Snapshot.ForMappedFile.of(snapshot, checksums) == null, is(true));
+        TypePool typePool = TypePool.Snapshot.of(snapshot, Collections.singletonList(jarFile), ClassFileLocator.NoOp.INSTANCE);
+        assertThat(typePool.describe(Bar.class.getName()).isResolved(), is(true));
+        assertThat(typePool.describe(Foo.class.getName()).isResolved(), is(false));
+    }
+
+    @Test
+    public void testSnapshotOfOtherFormatIsUnavailable() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(snapshot);
+        try {
+            outputStream.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        } finally {
+            outputStream.close();
+        }
+        assertThat(TypePool.Snapshot.ForMappedFile.of(snapshot, TypePool.Snapshot.Checksum.of(Collections.singletonList(jarFile)))
+                == null, is(true));
+    }
+
+    @Test
+    public void testSnapshotSkipsMetaInfEntries() throws Exception {
+        writeJar(Foo.class, META_INF + Bar.class.getName().replace('.', '/') + ClassFileLocator.CLASS_FILE_EXTENSION,
+                ClassFileLocator.ForClassLoader.read(Bar.class).resolve());
+        List<TypePool.Snapshot.Checksum> checksums = TypePool.Snapshot.Checksum.of(Collections.singletonList(jarFile));
+        TypePool.Snapshot.write(snapshot, Collections.singletonList(jarFile));
+        ClassFileLocator classFileLocator = TypePool.Snapshot.ForMappedFile.of(snapshot, checksums);
+        assertThat(classFileLocator.locate(Foo.class.getName()).isResolved(), is(true));
+        assertThat(classFileLocator.locate(META_INF.replace('/', '.') + Bar.class.getName()).isResolved(), is(false));
+    }
+
+    @Test
+    public void testSnapshotSkipsUnparsableClassFiles() throws Exception {
+        byte[] binaryRepresentation = ClassFileLocator.ForClassLoader.read(Bar.class).resolve();
+        binaryRepresentation[MAJOR_VERSION_OFFSET] = UNSUPPORTED_VERSION;
+        writeJar(Foo.class, Bar.class.getName().replace('.', '/') + ClassFileLocator.CLASS_FILE_EXTENSION, binaryRepresentation);
+        TypePool typePool = TypePool.Snapshot.of(snapshot, Collections.singletonList(jarFile), ClassFileLocator.ForClassLoader.of(Bar.class.getClassLoader()));
+        assertThat(typePool.describe(Foo.class.getName()).isResolved(), is(true));
+        assertThat(typePool.describe(Bar.class.getName()).resolve().getDeclaredMethods().filter(named(FOO)).getOnly().getName(), is(FOO));
+    }
+
+    @Test
+    public void testObjectProperties() throws Exception {
+        ObjectPropertyAssertion.of(TypePool.Snapshot.Checksum.class).apply();
+        ObjectPropertyAssertion.of(TypePool.Snapshot.ForMappedFile.class).applyBasic();
+    }
+
+    private void writeJar(Class<?> type) throws IOException {
+        writeJar(type, null, null);
+    }
+
+    private void writeJar(Class<?> type, String name, byte[] binaryRepresentation) throws IOException {
+        JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            outputStream.putNextEntry(new JarEntry(type.getName().replace('.', '/') + ClassFileLocator.CLASS_FILE_EXTENSION));
+            outputStream.write(ClassFileLocator.ForClassLoader.read(type).resolve());
+            outputStream.closeEntry();
+            if (name != null) {
+                outputStream.putNextEntry(new JarEntry(name));
+                outputStream.write(binaryRepresentation);
+                outputStream.closeEntry();
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static class Foo {
+
+        String foo() {
+            return FOO;
+        }
+    }
+
+    private static class Bar {
+
+        void foo() {
+            /* empty */
+        }
+    }
+}